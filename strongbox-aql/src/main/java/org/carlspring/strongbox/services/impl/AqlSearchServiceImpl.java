@@ -11,6 +11,7 @@ import javax.transaction.Transactional;
 
 import org.carlspring.strongbox.data.criteria.DetachQueryTemplate;
 import org.carlspring.strongbox.data.criteria.OQueryTemplate;
+import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.data.criteria.QueryTemplate;
 import org.carlspring.strongbox.data.criteria.Selector;
 import org.carlspring.strongbox.dependency.snippet.CodeSnippet;
@@ -46,7 +47,8 @@ public class AqlSearchServiceImpl implements AqlSearchService
 
         QueryTemplate<List<ArtifactEntry>, ArtifactEntry> queryTemplate = new DetachQueryTemplate<>(
                 new OQueryTemplate<>(entityManager));
-        for (ArtifactEntry artifactEntry : queryTemplate.select(selector))
+        List<ArtifactEntry> artifactEntries = queryTemplate.select(selector);
+        for (ArtifactEntry artifactEntry : artifactEntries)
         {
             SearchResult r = new SearchResult();
             result.getResults().add(r);
@@ -69,6 +71,12 @@ public class AqlSearchServiceImpl implements AqlSearchService
             r.setSnippets(snippets);
         }
 
+        Paginator paginator = selector.getPaginator();
+        if (paginator.isKeyset())
+        {
+            result.setNextCursor(paginator.nextCursor(artifactEntries));
+        }
+
         return result;
     }
 
@@ -0,0 +1,57 @@
+package org.carlspring.strongbox.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Base class of the benchmarks which need a running Strongbox. Every fork starts its own {@link StrongboxBenchmarkContext}
+ * for the trial, then {@link #setUp()} prepares the repositories and artifacts of the benchmark.
+ * <p>
+ * The defaults are meant to compare two builds on the same machine, they can be overridden on the JMH command line.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public abstract class AbstractStrongboxBenchmark
+{
+
+    protected StrongboxBenchmarkContext context;
+
+    @Setup(Level.Trial)
+    public void startStrongbox()
+            throws Exception
+    {
+        context = StrongboxBenchmarkContext.start();
+
+        setUp();
+    }
+
+    protected abstract void setUp()
+            throws Exception;
+
+    @TearDown(Level.Trial)
+    public void stopStrongbox()
+            throws IOException
+    {
+        if (context != null)
+        {
+            context.close();
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+package org.carlspring.strongbox.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Generates the Maven artifacts of the benchmarks in memory. The content is derived from a seed, so that the same
+ * artifact always has the same content, and different artifacts are not deduplicated by the blob store.
+ */
+public final class BenchmarkArtifacts
+{
+
+    public static final String GROUP_ID = "org.carlspring.strongbox.benchmarks";
+
+    private BenchmarkArtifacts()
+    {
+    }
+
+    public static String mavenPath(String artifactId,
+                                   String version,
+                                   String extension)
+    {
+        return String.format("%s/%s/%s/%s-%s.%s",
+                             GROUP_ID.replace('.', '/'),
+                             artifactId,
+                             version,
+                             artifactId,
+                             version,
+                             extension);
+    }
+
+    public static byte[] randomBytes(int size,
+                                     long seed)
+    {
+        byte[] result = new byte[size];
+        new Random(seed).nextBytes(result);
+
+        return result;
+    }
+
+    public static byte[] jar(int size,
+                             long seed)
+    {
+        ByteArrayOutputStream result = new ByteArrayOutputStream(size + 256);
+        try (ZipOutputStream zos = new ZipOutputStream(result))
+        {
+            // Random content doesn't compress, the jar ends up with about the requested size.
+            zos.putNextEntry(new ZipEntry("content.bin"));
+            zos.write(randomBytes(size, seed));
+            zos.closeEntry();
+        }
+        catch (IOException e)
+        {
+            throw new IllegalStateException(e);
+        }
+
+        return result.toByteArray();
+    }
+
+    public static byte[] pom(String artifactId,
+                             String version)
+    {
+        String pom = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                     "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n" +
+                     "    <modelVersion>4.0.0</modelVersion>\n" +
+                     "    <groupId>" + GROUP_ID + "</groupId>\n" +
+                     "    <artifactId>" + artifactId + "</artifactId>\n" +
+                     "    <version>" + version + "</version>\n" +
+                     "    <packaging>jar</packaging>\n" +
+                     "</project>\n";
+
+        return pom.getBytes(StandardCharsets.UTF_8);
+    }
+
+}
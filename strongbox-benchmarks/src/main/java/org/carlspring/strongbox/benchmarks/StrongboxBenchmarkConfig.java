@@ -0,0 +1,71 @@
+package org.carlspring.strongbox.benchmarks;
+
+import org.carlspring.strongbox.cron.domain.CronTaskConfigurationDto;
+import org.carlspring.strongbox.cron.domain.GroovyScriptNamesDto;
+import org.carlspring.strongbox.cron.services.CronJobSchedulerService;
+import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
+import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryAlivenessService;
+
+import java.util.UUID;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Keeps the background work out of the measurements: the cron jobs are not scheduled, and the remote repositories are
+ * always considered alive, as in the integration tests.
+ */
+@Configuration
+public class StrongboxBenchmarkConfig
+{
+
+    @Bean
+    @Primary
+    CronJobSchedulerService benchmarkCronJobSchedulerService()
+    {
+        return new CronJobSchedulerService()
+        {
+
+            @Override
+            public void scheduleJob(CronTaskConfigurationDto cronTaskConfiguration)
+            {
+            }
+
+            @Override
+            public void deleteJob(UUID cronTaskConfigurationUuid)
+            {
+            }
+
+            @Override
+            public GroovyScriptNamesDto getGroovyScriptsName()
+            {
+                return new GroovyScriptNamesDto();
+            }
+
+        };
+    }
+
+    @Bean
+    @Primary
+    RemoteRepositoryAlivenessService benchmarkRemoteRepositoryAlivenessService()
+    {
+        return new RemoteRepositoryAlivenessService()
+        {
+
+            @Override
+            public boolean isAlive(RemoteRepository remoteRepository)
+            {
+                return true;
+            }
+
+            @Override
+            public void put(RemoteRepository remoteRepository,
+                            boolean aliveness)
+            {
+            }
+
+        };
+    }
+
+}
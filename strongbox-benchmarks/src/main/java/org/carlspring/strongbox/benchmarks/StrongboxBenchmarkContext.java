@@ -0,0 +1,179 @@
+package org.carlspring.strongbox.benchmarks;
+
+import org.carlspring.strongbox.app.StrongboxSpringBootApplication;
+import org.carlspring.strongbox.booters.PropertiesBooter;
+import org.carlspring.strongbox.config.orientdb.OrientDbProfile;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.providers.storage.FileSystemStorageProvider;
+import org.carlspring.strongbox.repository.RepositoryManagementStrategyException;
+import org.carlspring.strongbox.services.ArtifactManagementService;
+import org.carlspring.strongbox.services.ConfigurationManagementService;
+import org.carlspring.strongbox.services.RepositoryManagementService;
+import org.carlspring.strongbox.services.StorageManagementService;
+import org.carlspring.strongbox.storage.StorageDto;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryDto;
+import org.carlspring.strongbox.storage.repository.RepositoryPolicyEnum;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.support.ServletContextApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.support.GenericWebApplicationContext;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+
+/**
+ * A Strongbox instance for the benchmarks: the whole application, with an embedded OrientDB and the storages in a
+ * temporary directory, which is removed on {@link #close()}.
+ * <p>
+ * The web application context is backed by a mock servlet context, the same way as in the integration tests, so the
+ * requests go through the Spring MVC stack without a servlet container, see {@link #newMockMvc()}.
+ * <p>
+ * The settings are passed as system properties, so that they override the {@code application.yaml} ones. Any of them
+ * can be overridden on the command line, for example {@code -Dstrongbox.orientdb.profile=orientdb_MEMORY}.
+ */
+public class StrongboxBenchmarkContext
+        implements Closeable
+{
+
+    public static final String STORAGE_ID = "storage-benchmarks";
+
+    private static final Logger logger = LoggerFactory.getLogger(StrongboxBenchmarkContext.class);
+
+    private final Path basedir;
+
+    private final ConfigurableApplicationContext applicationContext;
+
+    private StrongboxBenchmarkContext(Path basedir,
+                                      ConfigurableApplicationContext applicationContext)
+    {
+        this.basedir = basedir;
+        this.applicationContext = applicationContext;
+    }
+
+    public static StrongboxBenchmarkContext start()
+            throws IOException
+    {
+        Path basedir = Files.createTempDirectory("strongbox-benchmarks");
+
+        System.setProperty("strongbox.basedir", basedir.toString());
+        setDefaultProperty(OrientDbProfile.PROPERTY_PROFILE, OrientDbProfile.PROFILE_EMBEDDED);
+        setDefaultProperty("strongbox.download.indexes", "false");
+        setDefaultProperty("strongbox.npm.remote.changes.enabled", "false");
+        setDefaultProperty("strongbox.nuget.download.feed", "false");
+        setDefaultProperty("logging.file.enabled", "false");
+        setDefaultProperty("logging.level.org.carlspring.strongbox", "WARN");
+
+        logger.info("Starting Strongbox in [{}].", basedir);
+
+        SpringApplication application = new SpringApplicationBuilder(StrongboxSpringBootApplication.class,
+                                                                     StrongboxBenchmarkConfig.class).build();
+        application.setWebApplicationType(WebApplicationType.SERVLET);
+        application.setApplicationContextClass(GenericWebApplicationContext.class);
+        application.addInitializers(new ServletContextApplicationContextInitializer(new MockServletContext(), true));
+
+        return new StrongboxBenchmarkContext(basedir, application.run());
+    }
+
+    private static void setDefaultProperty(String name,
+                                           String value)
+    {
+        if (System.getProperty(name) == null)
+        {
+            System.setProperty(name, value);
+        }
+    }
+
+    public <T> T getBean(Class<T> type)
+    {
+        return applicationContext.getBean(type);
+    }
+
+    public MockMvc newMockMvc()
+    {
+        return MockMvcBuilders.webAppContextSetup((WebApplicationContext) applicationContext)
+                              .apply(springSecurity())
+                              .build();
+    }
+
+    /**
+     * Creates a repository of the {@link #STORAGE_ID} storage, a hosted release repository unless the {@code setup}
+     * says otherwise.
+     */
+    public Repository createRepository(String repositoryId,
+                                       String layout,
+                                       Consumer<RepositoryDto> setup)
+            throws IOException, RepositoryManagementStrategyException
+    {
+        ConfigurationManagementService configurationManagementService = getBean(ConfigurationManagementService.class);
+
+        String storageBasedir = String.format("%s/%s",
+                                              getBean(PropertiesBooter.class).getStorageBooterBasedir(),
+                                              STORAGE_ID);
+        if (configurationManagementService.getConfiguration().getStorage(STORAGE_ID) == null)
+        {
+            StorageDto storage = new StorageDto(STORAGE_ID);
+            storage.setBasedir(storageBasedir);
+
+            configurationManagementService.addStorageIfNotExists(storage);
+            getBean(StorageManagementService.class).saveStorage(storage);
+        }
+
+        RepositoryDto repository = new RepositoryDto(repositoryId);
+        repository.setLayout(layout);
+        repository.setPolicy(RepositoryPolicyEnum.RELEASE.getPolicy());
+        repository.setStorageProvider(FileSystemStorageProvider.ALIAS);
+        repository.setBasedir(String.format("%s/%s", storageBasedir, repositoryId));
+        setup.accept(repository);
+
+        configurationManagementService.saveRepository(STORAGE_ID, repository);
+        getBean(RepositoryManagementService.class).createRepository(STORAGE_ID, repositoryId);
+
+        return configurationManagementService.getConfiguration().getRepository(STORAGE_ID, repositoryId);
+    }
+
+    /**
+     * Stores an artifact the same way as a deployment does, with its {@code ArtifactEntry} and checksums.
+     */
+    public RepositoryPath store(Repository repository,
+                                String path,
+                                byte[] content)
+            throws Exception
+    {
+        RepositoryPath repositoryPath = getBean(RepositoryPathResolver.class).resolve(repository, path);
+        getBean(ArtifactManagementService.class).validateAndStore(repositoryPath, new ByteArrayInputStream(content));
+
+        return repositoryPath;
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        try
+        {
+            applicationContext.close();
+        }
+        finally
+        {
+            FileSystemUtils.deleteRecursively(basedir);
+        }
+    }
+
+}
@@ -0,0 +1,102 @@
+package org.carlspring.strongbox.benchmarks.load;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records the latencies of the requests of a load scenario, from any number of threads.
+ */
+class LatencyRecorder
+{
+
+    static final String HEADER = String.format("%-32s %9s %7s %12s %9s %9s %9s %9s %9s",
+                                               "scenario",
+                                               "requests",
+                                               "errors",
+                                               "requests/s",
+                                               "mean ms",
+                                               "p50 ms",
+                                               "p90 ms",
+                                               "p99 ms",
+                                               "max ms");
+
+    private final String scenario;
+
+    private final long[] latencies;
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    private final AtomicInteger errors = new AtomicInteger();
+
+    private long elapsedNanos;
+
+    LatencyRecorder(String scenario,
+                    int requests)
+    {
+        this.scenario = scenario;
+        this.latencies = new long[requests];
+    }
+
+    void record(long latencyNanos,
+                boolean success)
+    {
+        latencies[count.getAndIncrement()] = latencyNanos;
+        if (!success)
+        {
+            errors.incrementAndGet();
+        }
+    }
+
+    void setElapsedNanos(long elapsedNanos)
+    {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    int getErrors()
+    {
+        return errors.get();
+    }
+
+    /**
+     * @return a line of the report, in the columns of the {@link #HEADER}
+     */
+    String summary()
+    {
+        int size = count.get();
+        long[] sorted = Arrays.copyOf(latencies, size);
+        Arrays.sort(sorted);
+
+        double throughput = elapsedNanos == 0 ? 0 : size / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1));
+
+        return String.format("%-32s %9d %7d %12.1f %9.2f %9.2f %9.2f %9.2f %9.2f",
+                             scenario,
+                             size,
+                             errors.get(),
+                             throughput,
+                             toMillis(size == 0 ? 0 : Arrays.stream(sorted).sum() / (double) size),
+                             toMillis(percentile(sorted, 0.5)),
+                             toMillis(percentile(sorted, 0.9)),
+                             toMillis(percentile(sorted, 0.99)),
+                             toMillis(size == 0 ? 0 : sorted[size - 1]));
+    }
+
+    private static long percentile(long[] sorted,
+                                   double percentile)
+    {
+        if (sorted.length == 0)
+        {
+            return 0;
+        }
+
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+
+        return sorted[Math.min(Math.max(index, 0), sorted.length - 1)];
+    }
+
+    private static double toMillis(double nanos)
+    {
+        return nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+}
@@ -0,0 +1,275 @@
+package org.carlspring.strongbox.benchmarks.load;
+
+import org.carlspring.strongbox.artifact.coordinates.NpmArtifactCoordinates;
+import org.carlspring.strongbox.artifact.generator.NpmArtifactGenerator;
+import org.carlspring.strongbox.benchmarks.BenchmarkArtifacts;
+import org.carlspring.strongbox.benchmarks.StrongboxBenchmarkContext;
+import org.carlspring.strongbox.providers.layout.Maven2LayoutProvider;
+import org.carlspring.strongbox.providers.layout.NpmLayoutProvider;
+import org.carlspring.strongbox.storage.repository.RepositoryTypeEnum;
+import org.carlspring.strongbox.storage.repository.remote.RemoteRepositoryDto;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.util.FileSystemUtils;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * In-process load scenario: parallel Maven and npm deployments and downloads through the Spring MVC stack of a
+ * {@link StrongboxBenchmarkContext}, with a Maven proxy repository in front of a {@link StubUpstream}.
+ * <p>
+ * The scenarios run one after another, each of them with {@code requests} requests over {@code threads} threads:
+ * <ul>
+ * <li>Maven deployments to a hosted repository, and downloads of the deployed artifacts</li>
+ * <li>Maven downloads through the proxy repository, first from the upstream, then from the proxy cache</li>
+ * <li>npm publications to a hosted repository, and downloads of the published packages</li>
+ * </ul>
+ * All of them are run once with {@code warmup} requests beforehand, which are left out of the report. The report, with
+ * the throughput and latency percentiles of every scenario, is printed and written to the file given as the first
+ * argument, if any.
+ * <p>
+ * The settings are the {@code strongbox.benchmarks.load.*} system properties: {@code threads} (8), {@code requests}
+ * (1000), {@code warmup} (200), {@code size} (the artifact size, 16384 bytes) and {@code upstreamLatencyMillis} (0).
+ */
+public class LoadScenario
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadScenario.class);
+
+    private static final String PROPERTY_PREFIX = "strongbox.benchmarks.load.";
+
+    private static final String MAVEN_RELEASES = "load-maven-releases";
+
+    private static final String MAVEN_PROXY = "load-maven-proxy";
+
+    private static final String NPM_RELEASES = "load-npm-releases";
+
+    private static final String NPM_VERSION = "1.0.0";
+
+    private final int threads = Integer.getInteger(PROPERTY_PREFIX + "threads", 8);
+
+    private final int requests = Integer.getInteger(PROPERTY_PREFIX + "requests", 1000);
+
+    private final int warmup = Integer.getInteger(PROPERTY_PREFIX + "warmup", 200);
+
+    private final int size = Integer.getInteger(PROPERTY_PREFIX + "size", 16384);
+
+    private final long upstreamLatencyMillis = Long.getLong(PROPERTY_PREFIX + "upstreamLatencyMillis", 0);
+
+    private MockMvc mockMvc;
+
+    private UserDetails userDetails;
+
+    private ExecutorService executor;
+
+    public static void main(String[] args)
+            throws Exception
+    {
+        List<String> report = new LoadScenario().run();
+
+        report.forEach(System.out::println);
+        if (args.length > 0)
+        {
+            Path reportPath = Paths.get(args[0]);
+            Files.createDirectories(reportPath.toAbsolutePath().getParent());
+            Files.write(reportPath, report, StandardCharsets.UTF_8);
+
+            logger.info("Load scenario report written to [{}].", reportPath);
+        }
+
+        // The application context leaves non-daemon threads behind.
+        System.exit(0);
+    }
+
+    private List<String> run()
+            throws Exception
+    {
+        executor = Executors.newFixedThreadPool(threads);
+        try (StrongboxBenchmarkContext context = StrongboxBenchmarkContext.start();
+             StubUpstream upstream = new StubUpstream(threads, size, upstreamLatencyMillis))
+        {
+            context.createRepository(MAVEN_RELEASES, Maven2LayoutProvider.ALIAS, r -> {});
+            context.createRepository(MAVEN_PROXY, Maven2LayoutProvider.ALIAS, r -> {
+                RemoteRepositoryDto remoteRepository = new RemoteRepositoryDto();
+                remoteRepository.setUrl(upstream.getUrl());
+
+                r.setType(RepositoryTypeEnum.PROXY.getType());
+                r.setRemoteRepository(remoteRepository);
+            });
+            context.createRepository(NPM_RELEASES, NpmLayoutProvider.ALIAS, r -> {});
+
+            mockMvc = context.newMockMvc();
+            userDetails = context.getBean(UserDetailsService.class).loadUserByUsername("admin");
+
+            logger.info("Warming up with [{}] requests per scenario.", warmup);
+
+            runScenarios(0, warmup);
+
+            logger.info("Running [{}] requests per scenario over [{}] threads.", requests, threads);
+
+            List<String> report = new ArrayList<>();
+            report.add(String.format("Strongbox load scenario: threads=%s, requests=%s, warmup=%s, size=%s bytes, " +
+                                     "upstream latency=%s ms",
+                                     threads, requests, warmup, size, upstreamLatencyMillis));
+            report.add("");
+            report.add(LatencyRecorder.HEADER);
+
+            long upstreamRequests = upstream.getRequests();
+            runScenarios(warmup, warmup + requests).forEach(r -> report.add(r.summary()));
+
+            report.add("");
+            report.add(String.format("Upstream requests: %s", upstream.getRequests() - upstreamRequests));
+
+            return report;
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<LatencyRecorder> runScenarios(int from,
+                                               int to)
+            throws Exception
+    {
+        List<LatencyRecorder> result = new ArrayList<>();
+
+        byte[][] jars = new byte[to][];
+        for (int i = from; i < to; i++)
+        {
+            jars[i] = BenchmarkArtifacts.jar(size, i);
+        }
+        result.add(runScenario("maven-deploy", from, to, i -> put(mavenUrl(MAVEN_RELEASES, i))
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content(jars[i])));
+        result.add(runScenario("maven-download", from, to, i -> get(mavenUrl(MAVEN_RELEASES, i))));
+
+        result.add(runScenario("maven-proxy-download-upstream", from, to, i -> get(mavenUrl(MAVEN_PROXY, i))));
+        result.add(runScenario("maven-proxy-download-cached", from, to, i -> get(mavenUrl(MAVEN_PROXY, i))));
+
+        byte[][] packages = npmPublications(from, to);
+        result.add(runScenario("npm-publish", from, to, i -> put(npmUrl(i))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(packages[i])));
+        result.add(runScenario("npm-download", from, to,
+                               i -> get(npmUrl(i) + "/-/" + npmPackageName(i) + "-" + NPM_VERSION + ".tgz")));
+
+        return result;
+    }
+
+    private LatencyRecorder runScenario(String scenario,
+                                        int from,
+                                        int to,
+                                        Request request)
+            throws Exception
+    {
+        LatencyRecorder recorder = new LatencyRecorder(scenario, to - from);
+
+        List<Future<?>> futures = new ArrayList<>(to - from);
+        long start = System.nanoTime();
+        for (int i = from; i < to; i++)
+        {
+            RequestBuilder requestBuilder = request.build(i).with(user(userDetails));
+            futures.add(executor.submit(() -> {
+                long requestStart = System.nanoTime();
+                boolean success;
+                try
+                {
+                    int status = mockMvc.perform(requestBuilder).andReturn().getResponse().getStatus();
+                    success = status >= 200 && status < 300;
+                }
+                catch (Exception e)
+                {
+                    logger.debug("Request of scenario [{}] failed.", scenario, e);
+                    success = false;
+                }
+                recorder.record(System.nanoTime() - requestStart, success);
+            }));
+        }
+        for (Future<?> future : futures)
+        {
+            future.get();
+        }
+        recorder.setElapsedNanos(System.nanoTime() - start);
+
+        if (recorder.getErrors() > 0)
+        {
+            logger.warn("Scenario [{}] had [{}] failed requests.", scenario, recorder.getErrors());
+        }
+
+        return recorder;
+    }
+
+    private byte[][] npmPublications(int from,
+                                     int to)
+            throws IOException
+    {
+        byte[][] result = new byte[to][];
+
+        Path basedir = Files.createTempDirectory("strongbox-benchmarks-npm");
+        try
+        {
+            for (int i = from; i < to; i++)
+            {
+                NpmArtifactCoordinates coordinates = NpmArtifactCoordinates.of(npmPackageName(i), NPM_VERSION);
+                Path publishJson = new NpmArtifactGenerator(basedir).of(coordinates).buildPublishJson(size);
+
+                result[i] = Files.readAllBytes(publishJson);
+            }
+        }
+        finally
+        {
+            FileSystemUtils.deleteRecursively(basedir);
+        }
+
+        return result;
+    }
+
+    private String mavenUrl(String repositoryId,
+                            int index)
+    {
+        return String.format("/storages/%s/%s/%s",
+                             StrongboxBenchmarkContext.STORAGE_ID,
+                             repositoryId,
+                             BenchmarkArtifacts.mavenPath("load-" + index, "1.0", "jar"));
+    }
+
+    private String npmUrl(int index)
+    {
+        return String.format("/storages/%s/%s/%s", StrongboxBenchmarkContext.STORAGE_ID, NPM_RELEASES,
+                             npmPackageName(index));
+    }
+
+    private String npmPackageName(int index)
+    {
+        return "load-package-" + index;
+    }
+
+    @FunctionalInterface
+    private interface Request
+    {
+
+        MockHttpServletRequestBuilder build(int index);
+
+    }
+
+}
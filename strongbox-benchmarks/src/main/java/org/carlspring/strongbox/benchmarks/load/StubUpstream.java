@@ -0,0 +1,154 @@
+package org.carlspring.strongbox.benchmarks.load;
+
+import org.carlspring.strongbox.benchmarks.BenchmarkArtifacts;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.codec.digest.DigestUtils;
+
+/**
+ * A local Maven repository standing in for the remote repository of the proxy repositories. Every artifact under
+ * {@code /maven2/} exists: the jars have {@code size} bytes of content derived from their path, the poms are generated
+ * from their coordinates, and the {@code .sha1} and {@code .md5} checksums match them.
+ * <p>
+ * The responses can be delayed by {@code latencyMillis}, to simulate the network round trip to a real remote.
+ */
+class StubUpstream
+        implements Closeable
+{
+
+    private static final String CONTEXT_PATH = "/maven2/";
+
+    private final HttpServer server;
+
+    private final ExecutorService executor;
+
+    private final int size;
+
+    private final long latencyMillis;
+
+    private final AtomicLong requests = new AtomicLong();
+
+    StubUpstream(int threads,
+                 int size,
+                 long latencyMillis)
+            throws IOException
+    {
+        this.size = size;
+        this.latencyMillis = latencyMillis;
+
+        executor = Executors.newFixedThreadPool(threads);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext(CONTEXT_PATH, this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    String getUrl()
+    {
+        return String.format("http://%s:%s%s",
+                             server.getAddress().getHostString(),
+                             server.getAddress().getPort(),
+                             CONTEXT_PATH);
+    }
+
+    long getRequests()
+    {
+        return requests.get();
+    }
+
+    private void handle(HttpExchange exchange)
+            throws IOException
+    {
+        requests.incrementAndGet();
+        try
+        {
+            if (latencyMillis > 0)
+            {
+                TimeUnit.MILLISECONDS.sleep(latencyMillis);
+            }
+
+            String path = exchange.getRequestURI().getPath().substring(CONTEXT_PATH.length());
+            byte[] content = getContent(path);
+            if (content == null)
+            {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+
+            boolean head = "HEAD".equals(exchange.getRequestMethod());
+            exchange.getResponseHeaders().set("Content-Type", "application/octet-stream");
+            exchange.sendResponseHeaders(200, head ? -1 : content.length);
+            if (!head)
+            {
+                try (OutputStream os = exchange.getResponseBody())
+                {
+                    os.write(content);
+                }
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            exchange.sendResponseHeaders(503, -1);
+        }
+        finally
+        {
+            exchange.close();
+        }
+    }
+
+    private byte[] getContent(String path)
+    {
+        if (path.endsWith(".sha1"))
+        {
+            byte[] content = getContent(path.substring(0, path.length() - ".sha1".length()));
+            return content == null ? null : DigestUtils.sha1Hex(content).getBytes(StandardCharsets.UTF_8);
+        }
+        if (path.endsWith(".md5"))
+        {
+            byte[] content = getContent(path.substring(0, path.length() - ".md5".length()));
+            return content == null ? null : DigestUtils.md5Hex(content).getBytes(StandardCharsets.UTF_8);
+        }
+
+        // .../{artifactId}/{version}/{artifactId}-{version}.{extension}
+        String[] segments = path.split("/");
+        if (segments.length < 3)
+        {
+            return null;
+        }
+
+        String artifactId = segments[segments.length - 3];
+        String version = segments[segments.length - 2];
+        String fileName = segments[segments.length - 1];
+        if (fileName.equals(artifactId + "-" + version + ".jar"))
+        {
+            return BenchmarkArtifacts.jar(size, path.hashCode());
+        }
+        if (fileName.equals(artifactId + "-" + version + ".pom"))
+        {
+            return BenchmarkArtifacts.pom(artifactId, version);
+        }
+
+        return null;
+    }
+
+    @Override
+    public void close()
+    {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+}
@@ -0,0 +1,81 @@
+package org.carlspring.strongbox.providers.io;
+
+import org.carlspring.strongbox.benchmarks.AbstractStrongboxBenchmark;
+import org.carlspring.strongbox.benchmarks.BenchmarkArtifacts;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.providers.layout.Maven2LayoutProvider;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * The path resolution done for every artifact request, with and without the {@link ArtifactEntry} lookup.
+ */
+public class RepositoryPathResolverBenchmark
+        extends AbstractStrongboxBenchmark
+{
+
+    private static final String REPOSITORY_ID = "resolver-releases";
+
+    @Param({ "100", "1000" })
+    public int artifacts;
+
+    private RepositoryPathResolver repositoryPathResolver;
+
+    private Repository repository;
+
+    private String[] paths;
+
+    @Override
+    protected void setUp()
+            throws Exception
+    {
+        repositoryPathResolver = context.getBean(RepositoryPathResolver.class);
+        repository = context.createRepository(REPOSITORY_ID, Maven2LayoutProvider.ALIAS, r -> {});
+
+        paths = new String[artifacts];
+        for (int i = 0; i < artifacts; i++)
+        {
+            paths[i] = BenchmarkArtifacts.mavenPath("resolver-" + i, "1.0", "jar");
+            context.store(repository, paths[i], BenchmarkArtifacts.jar(1024, i));
+        }
+    }
+
+    @Benchmark
+    public RepositoryPath resolve()
+    {
+        return repositoryPathResolver.resolve(repository, nextPath());
+    }
+
+    @Benchmark
+    public RepositoryPath resolveByRepositoryId()
+    {
+        return repositoryPathResolver.resolve(repository.getStorage().getId(), REPOSITORY_ID, nextPath());
+    }
+
+    @Benchmark
+    public ArtifactEntry resolveArtifactEntry()
+            throws IOException
+    {
+        return repositoryPathResolver.resolve(repository, nextPath()).getArtifactEntry();
+    }
+
+    @Benchmark
+    public ArtifactEntry resolveMissingArtifactEntry()
+            throws IOException
+    {
+        String path = BenchmarkArtifacts.mavenPath("resolver-missing", "1.0", "jar");
+
+        return repositoryPathResolver.resolve(repository, path).getArtifactEntry();
+    }
+
+    private String nextPath()
+    {
+        return paths[ThreadLocalRandom.current().nextInt(paths.length)];
+    }
+
+}
@@ -0,0 +1,92 @@
+package org.carlspring.strongbox.providers.layout;
+
+import org.carlspring.strongbox.benchmarks.AbstractStrongboxBenchmark;
+import org.carlspring.strongbox.benchmarks.BenchmarkArtifacts;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Writing and reading an artifact through the {@link LayoutFileSystemProvider} streams, which compute the checksums
+ * of the content on the fly.
+ */
+public class LayoutFileSystemProviderBenchmark
+        extends AbstractStrongboxBenchmark
+{
+
+    private static final int BUFFER_SIZE = 8192;
+
+    @Param({ "4096", "1048576", "16777216" })
+    public int size;
+
+    private byte[] content;
+
+    private byte[] buffer;
+
+    private RepositoryPath readPath;
+
+    private RepositoryPath writePath;
+
+    @Override
+    protected void setUp()
+            throws Exception
+    {
+        Repository repository = context.createRepository("layout-releases", Maven2LayoutProvider.ALIAS, r -> {});
+        RepositoryPathResolver repositoryPathResolver = context.getBean(RepositoryPathResolver.class);
+
+        content = BenchmarkArtifacts.randomBytes(size, size);
+        buffer = new byte[BUFFER_SIZE];
+
+        readPath = repositoryPathResolver.resolve(repository, BenchmarkArtifacts.mavenPath("layout-read", "1.0", "jar"));
+        writePath = repositoryPathResolver.resolve(repository,
+                                                   BenchmarkArtifacts.mavenPath("layout-write", "1.0", "jar"));
+
+        write(readPath);
+    }
+
+    @Benchmark
+    public long newInputStream()
+            throws IOException
+    {
+        long result = 0;
+        try (InputStream is = Files.newInputStream(readPath))
+        {
+            for (int n = is.read(buffer); n != -1; n = is.read(buffer))
+            {
+                result += n;
+            }
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    public RepositoryPath newOutputStream()
+            throws IOException
+    {
+        return write(writePath);
+    }
+
+    private RepositoryPath write(RepositoryPath path)
+            throws IOException
+    {
+        try (OutputStream os = Files.newOutputStream(path))
+        {
+            for (int offset = 0; offset < content.length; offset += BUFFER_SIZE)
+            {
+                os.write(content, offset, Math.min(BUFFER_SIZE, content.length - offset));
+            }
+        }
+
+        return path;
+    }
+
+}
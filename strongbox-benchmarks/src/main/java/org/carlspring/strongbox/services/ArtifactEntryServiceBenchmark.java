@@ -0,0 +1,87 @@
+package org.carlspring.strongbox.services;
+
+import org.carlspring.strongbox.benchmarks.AbstractStrongboxBenchmark;
+import org.carlspring.strongbox.benchmarks.BenchmarkArtifacts;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.providers.layout.Maven2LayoutProvider;
+import org.carlspring.strongbox.services.support.ArtifactEntryLookupCache;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * The {@link ArtifactEntry} lookups of the artifact requests, through the {@link ArtifactEntryLookupCache} and straight
+ * from the database.
+ */
+public class ArtifactEntryServiceBenchmark
+        extends AbstractStrongboxBenchmark
+{
+
+    private static final String REPOSITORY_ID = "entries-releases";
+
+    @Param({ "1000" })
+    public int artifacts;
+
+    private ArtifactEntryService artifactEntryService;
+
+    private ArtifactEntryLookupCache artifactEntryLookupCache;
+
+    private String storageId;
+
+    private String[] paths;
+
+    @Override
+    protected void setUp()
+            throws Exception
+    {
+        artifactEntryService = context.getBean(ArtifactEntryService.class);
+        artifactEntryLookupCache = context.getBean(ArtifactEntryLookupCache.class);
+
+        Repository repository = context.createRepository(REPOSITORY_ID, Maven2LayoutProvider.ALIAS, r -> {});
+        storageId = repository.getStorage().getId();
+
+        paths = new String[artifacts];
+        for (int i = 0; i < artifacts; i++)
+        {
+            paths[i] = BenchmarkArtifacts.mavenPath("entries-" + i, "1.0", "jar");
+            context.store(repository, paths[i], BenchmarkArtifacts.jar(1024, i));
+        }
+    }
+
+    @Benchmark
+    public ArtifactEntry findOneArtifact()
+    {
+        return artifactEntryService.findOneArtifact(storageId, REPOSITORY_ID, nextPath());
+    }
+
+    @Benchmark
+    public ArtifactEntry findOneArtifactUncached()
+    {
+        artifactEntryLookupCache.invalidateAll();
+
+        return artifactEntryService.findOneArtifact(storageId, REPOSITORY_ID, nextPath());
+    }
+
+    @Benchmark
+    public ArtifactEntry findOneMissingArtifact()
+    {
+        return artifactEntryService.findOneArtifact(storageId,
+                                                    REPOSITORY_ID,
+                                                    BenchmarkArtifacts.mavenPath("entries-missing", "1.0", "jar"));
+    }
+
+    @Benchmark
+    public boolean artifactExists()
+    {
+        return artifactEntryService.artifactExists(storageId, REPOSITORY_ID, nextPath());
+    }
+
+    private String nextPath()
+    {
+        return paths[ThreadLocalRandom.current().nextInt(paths.length)];
+    }
+
+}
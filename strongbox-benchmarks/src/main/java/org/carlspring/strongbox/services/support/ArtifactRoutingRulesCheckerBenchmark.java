@@ -0,0 +1,108 @@
+package org.carlspring.strongbox.services.support;
+
+import org.carlspring.strongbox.benchmarks.AbstractStrongboxBenchmark;
+import org.carlspring.strongbox.benchmarks.BenchmarkArtifacts;
+import org.carlspring.strongbox.benchmarks.StrongboxBenchmarkContext;
+import org.carlspring.strongbox.configuration.MutableConfiguration;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.providers.layout.Maven2LayoutProvider;
+import org.carlspring.strongbox.services.ConfigurationManagementService;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryTypeEnum;
+import org.carlspring.strongbox.storage.routing.MutableRoutingRule;
+import org.carlspring.strongbox.storage.routing.MutableRoutingRuleRepository;
+import org.carlspring.strongbox.storage.routing.RoutingRuleTypeEnum;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * The routing rules check done for every member of a group repository, against a group with {@code rules} deny and
+ * accept rules spread over its {@code members}.
+ */
+public class ArtifactRoutingRulesCheckerBenchmark
+        extends AbstractStrongboxBenchmark
+{
+
+    private static final String GROUP_REPOSITORY_ID = "routing-group";
+
+    @Param({ "4" })
+    public int members;
+
+    @Param({ "10", "100", "1000" })
+    public int rules;
+
+    private ArtifactRoutingRulesChecker artifactRoutingRulesChecker;
+
+    private Repository groupRepository;
+
+    private RepositoryPath[] paths;
+
+    @Override
+    protected void setUp()
+            throws Exception
+    {
+        artifactRoutingRulesChecker = context.getBean(ArtifactRoutingRulesChecker.class);
+        ConfigurationManagementService configurationManagementService = context.getBean(
+                ConfigurationManagementService.class);
+        RepositoryPathResolver repositoryPathResolver = context.getBean(RepositoryPathResolver.class);
+
+        List<Repository> memberRepositories = new ArrayList<>();
+        for (int i = 0; i < members; i++)
+        {
+            memberRepositories.add(context.createRepository("routing-member-" + i,
+                                                            Maven2LayoutProvider.ALIAS,
+                                                            r -> {}));
+        }
+
+        groupRepository = context.createRepository(GROUP_REPOSITORY_ID, Maven2LayoutProvider.ALIAS, r -> {
+            r.setType(RepositoryTypeEnum.GROUP.getType());
+            memberRepositories.forEach(m -> r.addRepositoryToGroup(m.getId()));
+        });
+
+        // The rules are saved at once, every addRoutingRule() would store the configuration.
+        MutableConfiguration configuration = configurationManagementService.getMutableConfigurationClone();
+        for (int i = 0; i < rules; i++)
+        {
+            Repository member = memberRepositories.get(i % members);
+            List<MutableRoutingRuleRepository> repositories = Collections.singletonList(
+                    new MutableRoutingRuleRepository(StrongboxBenchmarkContext.STORAGE_ID, member.getId()));
+            String pattern = String.format(".*(com|org)/carlspring/strongbox/benchmarks/routing-%s/.*", i);
+
+            configuration.getRoutingRules()
+                         .getRules()
+                         .add(MutableRoutingRule.create(StrongboxBenchmarkContext.STORAGE_ID,
+                                                        GROUP_REPOSITORY_ID,
+                                                        repositories,
+                                                        pattern,
+                                                        i % 2 == 0 ? RoutingRuleTypeEnum.DENY :
+                                                        RoutingRuleTypeEnum.ACCEPT));
+        }
+        configurationManagementService.setConfiguration(configuration);
+
+        // Half of the paths match a rule, the other half none.
+        paths = new RepositoryPath[rules * 2];
+        for (int i = 0; i < paths.length; i++)
+        {
+            Repository member = memberRepositories.get(i % members);
+            paths[i] = repositoryPathResolver.resolve(member,
+                                                      BenchmarkArtifacts.mavenPath("routing-" + i, "1.0", "jar"));
+        }
+    }
+
+    @Benchmark
+    public boolean isDenied()
+            throws IOException
+    {
+        return artifactRoutingRulesChecker.isDenied(groupRepository,
+                                                    paths[ThreadLocalRandom.current().nextInt(paths.length)]);
+    }
+
+}
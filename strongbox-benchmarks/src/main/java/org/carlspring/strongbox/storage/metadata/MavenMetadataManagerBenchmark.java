@@ -0,0 +1,100 @@
+package org.carlspring.strongbox.storage.metadata;
+
+import org.carlspring.strongbox.benchmarks.AbstractStrongboxBenchmark;
+import org.carlspring.strongbox.benchmarks.BenchmarkArtifacts;
+import org.carlspring.strongbox.providers.ProviderImplementationException;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.providers.layout.Maven2LayoutProvider;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.UnknownRepositoryTypeException;
+
+import java.io.IOException;
+
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.artifact.repository.metadata.Versioning;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Generating, reading and merging the {@code maven-metadata.xml} of an artifact with {@code versions} versions.
+ */
+public class MavenMetadataManagerBenchmark
+        extends AbstractStrongboxBenchmark
+{
+
+    private static final String ARTIFACT_ID = "metadata";
+
+    @Param({ "10", "100" })
+    public int versions;
+
+    private MavenMetadataManager mavenMetadataManager;
+
+    private RepositoryPath artifactBasePath;
+
+    private Metadata mergeMetadata;
+
+    @Override
+    protected void setUp()
+            throws Exception
+    {
+        mavenMetadataManager = context.getBean(MavenMetadataManager.class);
+
+        Repository repository = context.createRepository("metadata-releases", Maven2LayoutProvider.ALIAS, r -> {});
+        for (int i = 0; i < versions; i++)
+        {
+            String version = "1." + i;
+
+            context.store(repository,
+                          BenchmarkArtifacts.mavenPath(ARTIFACT_ID, version, "pom"),
+                          BenchmarkArtifacts.pom(ARTIFACT_ID, version));
+            context.store(repository,
+                          BenchmarkArtifacts.mavenPath(ARTIFACT_ID, version, "jar"),
+                          BenchmarkArtifacts.jar(1024, i));
+        }
+
+        String pomPath = BenchmarkArtifacts.mavenPath(ARTIFACT_ID, "1.0", "pom");
+        artifactBasePath = context.getBean(RepositoryPathResolver.class)
+                                  .resolve(repository, pomPath)
+                                  .getParent()
+                                  .getParent();
+
+        generateMetadata();
+
+        Versioning versioning = new Versioning();
+        versioning.addVersion("1.0");
+
+        mergeMetadata = new Metadata();
+        mergeMetadata.setGroupId(BenchmarkArtifacts.GROUP_ID);
+        mergeMetadata.setArtifactId(ARTIFACT_ID);
+        mergeMetadata.setVersioning(versioning);
+    }
+
+    @Benchmark
+    public RepositoryPath generateMetadata()
+            throws IOException, ProviderImplementationException, UnknownRepositoryTypeException
+    {
+        VersionCollectionRequest request = new VersionCollector().collectVersions(artifactBasePath);
+        mavenMetadataManager.generateMetadata(artifactBasePath, request);
+
+        return artifactBasePath;
+    }
+
+    @Benchmark
+    public Metadata readMetadata()
+            throws IOException, XmlPullParserException
+    {
+        return mavenMetadataManager.readMetadata(artifactBasePath);
+    }
+
+    @Benchmark
+    public RepositoryPath mergeAndStore()
+            throws IOException
+    {
+        mavenMetadataManager.mergeAndStore(artifactBasePath, mergeMetadata);
+
+        return artifactBasePath;
+    }
+
+}
@@ -0,0 +1,568 @@
+package org.carlspring.strongbox.client;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import javax.net.ssl.SSLException;
+
+import org.carlspring.strongbox.service.ProxyRepositoryAsyncClientService;
+
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.client.api.Response;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.http.HttpMethod;
+import org.eclipse.jetty.http.HttpStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The non-blocking counterpart of the {@link RestArtifactResolver}: the response content is written into the target
+ * file by the HTTP client as it arrives, so no client thread or pooled connection is held while waiting for the remote.
+ * <p>
+ * The result is a future, whether the caller waits for it is up to the caller.
+ */
+public class AsyncArtifactResolver
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncArtifactResolver.class);
+
+    private final ProxyRepositoryAsyncClientService clientService;
+    private final String repositoryBaseUrl;
+    private final RemoteRepositoryEndpoint endpoint;
+    private final RemoteRepositoryRetryArtifactDownloadConfiguration configuration;
+    private final BooleanSupplier aliveness;
+    private String authorization;
+
+    /**
+     * @param aliveness tells whether the remote is alive, the failed downloads are only resumed while it is
+     */
+    public AsyncArtifactResolver(ProxyRepositoryAsyncClientService clientService,
+                                 String repositoryBaseUrl,
+                                 RemoteRepositoryRetryArtifactDownloadConfiguration configuration,
+                                 BooleanSupplier aliveness)
+    {
+        this.clientService = clientService;
+        this.repositoryBaseUrl = normalize(repositoryBaseUrl);
+        this.endpoint = clientService.getEndpoint(this.repositoryBaseUrl);
+        this.configuration = configuration;
+        this.aliveness = aliveness;
+    }
+
+    public AsyncArtifactResolver(ProxyRepositoryAsyncClientService clientService,
+                                 String repositoryBaseUrl,
+                                 RemoteRepositoryRetryArtifactDownloadConfiguration configuration,
+                                 BooleanSupplier aliveness,
+                                 String username,
+                                 String password)
+    {
+        this(clientService, repositoryBaseUrl, configuration, aliveness);
+        if (username != null && password != null)
+        {
+            String credentials = username + ":" + password;
+            this.authorization = "Basic " + Base64.getEncoder()
+                                                  .encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    public RemoteRepositoryRetryArtifactDownloadConfiguration getConfiguration()
+    {
+        return configuration;
+    }
+
+    public RemoteRepositoryEndpoint getEndpoint()
+    {
+        return endpoint;
+    }
+
+    public boolean isAlive()
+    {
+        return aliveness.getAsBoolean();
+    }
+
+    /**
+     * Downloads the resource into the target file. The failed downloads are resumed with range requests, as
+     * configured by the {@link RemoteRepositoryRetryArtifactDownloadConfiguration}, or started over if the remote
+     * ignores them.
+     *
+     * @return the future size of the resource, failed with a {@link ResponseException} if the remote responded with
+     *         an unexpected status
+     */
+    public CompletableFuture<Long> download(String path,
+                                            Path target)
+    {
+        return download(path, target, () -> {});
+    }
+
+    /**
+     * Same as {@link #download(String, Path)}.
+     *
+     * @param onResponse called once, when the headers of the first successful response have been received
+     */
+    public CompletableFuture<Long> download(String path,
+                                            Path target,
+                                            Runnable onResponse)
+    {
+        FileChannel channel;
+        try
+        {
+            channel = FileChannel.open(target,
+                                       StandardOpenOption.CREATE,
+                                       StandardOpenOption.WRITE,
+                                       StandardOpenOption.TRUNCATE_EXISTING);
+        }
+        catch (IOException e)
+        {
+            CompletableFuture<Long> result = new CompletableFuture<>();
+            result.completeExceptionally(e);
+
+            return result;
+        }
+
+        Download download = new Download(escapeUrl(path), channel, onResponse);
+        download.attempt();
+
+        return download.result;
+    }
+
+    private CompletableFuture<Long> get(String url,
+                                        long offset,
+                                        WritableByteChannel target,
+                                        Runnable onResponse)
+    {
+        RemoteRequestLimiter requestLimiter = endpoint.getRequestLimiter();
+
+        return requestLimiter.acquire()
+                             .thenCompose(v -> send(url, offset, target, onResponse, isHttp2Preferred(url)))
+                             .whenComplete((r, e) -> requestLimiter.release());
+    }
+
+    private CompletableFuture<Long> send(String url,
+                                         long offset,
+                                         WritableByteChannel target,
+                                         Runnable onResponse,
+                                         boolean http2)
+    {
+        logger.debug("Getting {} from offset [{}]...", url, offset);
+
+        CompletableFuture<Long> result = new CompletableFuture<>();
+        AtomicLong transferred = new AtomicLong();
+        AtomicBoolean responded = new AtomicBoolean();
+
+        Request request = newRequest(http2 ? clientService.getHttp2Client() : clientService.getHttpClient(),
+                                     url,
+                                     HttpMethod.GET);
+        if (offset > 0)
+        {
+            request.header(HttpHeader.RANGE, "bytes=" + offset + "-");
+        }
+
+        request.onResponseBegin(response -> {
+                   responded.set(true);
+                   if (http2)
+                   {
+                       endpoint.setHttp2Supported(true);
+                   }
+               })
+               .onResponseHeaders(response -> {
+                   verifyResponse(response, url, offset);
+                   onResponse.run();
+               })
+               .onResponseContentAsync((response, content, callback) -> {
+                   try
+                   {
+                       while (content.hasRemaining())
+                       {
+                           transferred.addAndGet(target.write(content));
+                       }
+                       callback.succeeded();
+                   }
+                   catch (IOException e)
+                   {
+                       callback.failed(e);
+                   }
+               })
+               .send(r -> {
+                   if (!r.isFailed())
+                   {
+                       result.complete(transferred.get());
+                   }
+                   else if (http2 && !responded.get() && endpoint.getHttp2Supported() == null)
+                   {
+                       logger.debug("Falling back to HTTP/1.1 for [{}] because of [{}].",
+                                    endpoint.getUrl(), r.getFailure().toString());
+
+                       // Connection failures (timeouts, DNS, network) don't tell anything about HTTP/2.
+                       if (isProtocolFailure(r.getFailure()))
+                       {
+                           endpoint.setHttp2Supported(false);
+                       }
+                       send(url, offset, target, onResponse, false).whenComplete(
+                               (size, e) -> complete(result, size, e));
+                   }
+                   else
+                   {
+                       result.completeExceptionally(r.getFailure());
+                   }
+               });
+
+        return result;
+    }
+
+    private void verifyResponse(Response response,
+                                String url,
+                                long offset)
+    {
+        int status = response.getStatus();
+        if (status == HttpStatus.PARTIAL_CONTENT_206 && offset > 0)
+        {
+            endpoint.setRangeRequestSupported(true);
+        }
+        else if (status == HttpStatus.OK_200 && offset > 0)
+        {
+            // The remote has ignored the `Range` header.
+            endpoint.setRangeRequestSupported(false);
+            response.abort(new IOException(String.format("Remote resource [%s] does not support range requests.",
+                                                         url)));
+        }
+        else if (status == HttpStatus.OK_200)
+        {
+            String acceptRanges = response.getHeaders().get(HttpHeader.ACCEPT_RANGES);
+            if (acceptRanges != null)
+            {
+                endpoint.setRangeRequestSupported(isRangeRequestSupported(acceptRanges));
+            }
+        }
+        else
+        {
+            response.abort(new ResponseException(String.format("Unreadable response for %s. Response status is %s",
+                                                               url, status),
+                                                 status));
+        }
+    }
+
+    private CompletableFuture<Boolean> isRangeRequestSupported(String url)
+    {
+        Boolean rangeRequestSupported = endpoint.getRangeRequestSupported();
+        if (rangeRequestSupported != null)
+        {
+            return CompletableFuture.completedFuture(rangeRequestSupported);
+        }
+
+        RemoteRequestLimiter requestLimiter = endpoint.getRequestLimiter();
+
+        return requestLimiter.acquire()
+                             .thenCompose(v -> head(url))
+                             .whenComplete((r, e) -> requestLimiter.release());
+    }
+
+    private CompletableFuture<Boolean> head(String url)
+    {
+        logger.debug("Heading {}...", url);
+
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        HttpClient client = Boolean.TRUE.equals(endpoint.getHttp2Supported()) ? clientService.getHttp2Client() :
+                            clientService.getHttpClient();
+
+        newRequest(client, url, HttpMethod.HEAD).send(r -> {
+            if (r.isFailed())
+            {
+                result.completeExceptionally(r.getFailure());
+
+                return;
+            }
+            if (r.getResponse().getStatus() != HttpStatus.OK_200)
+            {
+                result.complete(false);
+
+                return;
+            }
+
+            boolean rangeRequestSupported = isRangeRequestSupported(r.getResponse()
+                                                                     .getHeaders()
+                                                                     .get(HttpHeader.ACCEPT_RANGES));
+            endpoint.setRangeRequestSupported(rangeRequestSupported);
+            result.complete(rangeRequestSupported);
+        });
+
+        return result;
+    }
+
+    private Request newRequest(HttpClient client,
+                               String url,
+                               HttpMethod method)
+    {
+        Request request = client.newRequest(url).method(method);
+        if (authorization != null)
+        {
+            request.header(HttpHeader.AUTHORIZATION, authorization);
+        }
+
+        return request;
+    }
+
+    private boolean isHttp2Preferred(String url)
+    {
+        return clientService.getHttp2Client() != null &&
+               url.startsWith("https:") &&
+               !Boolean.FALSE.equals(endpoint.getHttp2Supported());
+    }
+
+    /**
+     * @return whether the failure is a TLS or ALPN negotiation failure, or an HTTP/2 protocol error, which means that
+     *         the remote does not speak HTTP/2
+     */
+    static boolean isProtocolFailure(Throwable failure)
+    {
+        for (Throwable e = failure; e != null; e = e.getCause() == e ? null : e.getCause())
+        {
+            if (e instanceof SSLException)
+            {
+                return true;
+            }
+
+            String message = e.getMessage() != null ? e.getMessage().toLowerCase() : "";
+            if (message.contains("alpn") || message.contains("protocol") || message.contains("preface"))
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isRangeRequestSupported(String acceptRanges)
+    {
+        return acceptRanges != null && !acceptRanges.trim().isEmpty() && !"none".equals(acceptRanges.trim());
+    }
+
+    private static <T> void complete(CompletableFuture<T> result,
+                                     T value,
+                                     Throwable failure)
+    {
+        if (failure != null)
+        {
+            result.completeExceptionally(failure);
+        }
+        else
+        {
+            result.complete(value);
+        }
+    }
+
+    private static Throwable unwrap(Throwable e)
+    {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    private String escapeUrl(String path)
+    {
+        String p = (path.startsWith("/") ? path.substring(1) : path);
+
+        return repositoryBaseUrl + p;
+    }
+
+    private String normalize(String repositoryBaseUrl)
+    {
+        return repositoryBaseUrl.endsWith("/") ? repositoryBaseUrl : repositoryBaseUrl + "/";
+    }
+
+    /**
+     * The retries are scheduled with the HTTP client scheduler instead of sleeping in between the attempts.
+     */
+    private class Download
+    {
+
+        private final String url;
+
+        private final FileChannel channel;
+
+        private final Runnable onResponse;
+
+        private final AtomicBoolean responded = new AtomicBoolean();
+
+        private final CompletableFuture<Long> result = new CompletableFuture<>();
+
+        private final long startTime = System.currentTimeMillis();
+
+        private int attempts;
+
+        private Download(String url,
+                         FileChannel channel,
+                         Runnable onResponse)
+        {
+            this.url = url;
+            this.channel = channel;
+            this.onResponse = onResponse;
+        }
+
+        private void attempt()
+        {
+            attempts++;
+
+            long offset;
+            try
+            {
+                offset = channel.position();
+            }
+            catch (IOException e)
+            {
+                finish(e);
+
+                return;
+            }
+
+            get(url, offset, channel, this::responded).whenComplete((size, e) -> {
+                if (e == null)
+                {
+                    finish(null);
+                }
+                else
+                {
+                    retryIfPossible(unwrap(e));
+                }
+            });
+        }
+
+        private void retryIfPossible(Throwable lastFailure)
+        {
+            if (lastFailure instanceof ResponseException &&
+                ((ResponseException) lastFailure).getStatusCode() == HttpStatus.NOT_FOUND_404)
+            {
+                finish(lastFailure);
+
+                return;
+            }
+            if (attempts >= configuration.getMaxNumberOfAttempts())
+            {
+                logger.error("Maximum retry attempts [{}] reached for [{}]",
+                             configuration.getMaxNumberOfAttempts(), url);
+                finish(lastFailure);
+
+                return;
+            }
+
+            logger.debug("Retrying remote download because of [{}]... Attempt number = [{}], Duration Time = [{}]",
+                         lastFailure.toString(), attempts + 1, System.currentTimeMillis() - startTime);
+
+            clientService.getHttpClient()
+                         .getScheduler()
+                         .schedule(() -> resume(lastFailure),
+                                   configuration.getMinAttemptsIntervalSeconds(),
+                                   TimeUnit.SECONDS);
+        }
+
+        private void resume(Throwable lastFailure)
+        {
+            long retryTimeoutMillis = configuration.getTimeoutSeconds() * 1000L;
+            if (System.currentTimeMillis() - startTime > retryTimeoutMillis)
+            {
+                logger.error("Timeout of [{}] occurred while reading [{}]", retryTimeoutMillis, url);
+                finish(lastFailure);
+
+                return;
+            }
+            if (!isAlive())
+            {
+                attempts++;
+                retryIfPossible(lastFailure);
+
+                return;
+            }
+
+            long offset;
+            try
+            {
+                offset = channel.position();
+            }
+            catch (IOException e)
+            {
+                finish(e);
+
+                return;
+            }
+            if (offset == 0)
+            {
+                attempt();
+
+                return;
+            }
+
+            isRangeRequestSupported(url).whenComplete((rangeRequestSupported, e) -> {
+                if (e != null)
+                {
+                    attempts++;
+                    retryIfPossible(unwrap(e));
+                }
+                else if (!rangeRequestSupported)
+                {
+                    restart();
+                }
+                else
+                {
+                    attempt();
+                }
+            });
+        }
+
+        /**
+         * The remote can't resume the download, so it starts over from the first byte.
+         */
+        private void restart()
+        {
+            logger.debug("Restarting the download of [{}] as the remote does not support range requests.", url);
+            try
+            {
+                channel.truncate(0);
+                channel.position(0);
+            }
+            catch (IOException e)
+            {
+                finish(e);
+
+                return;
+            }
+
+            attempt();
+        }
+
+        private void responded()
+        {
+            if (responded.compareAndSet(false, true))
+            {
+                onResponse.run();
+            }
+        }
+
+        private void finish(Throwable failure)
+        {
+            long size = -1;
+            try (FileChannel c = channel)
+            {
+                size = c.position();
+            }
+            catch (IOException e)
+            {
+                if (failure == null)
+                {
+                    failure = e;
+                }
+            }
+
+            complete(result, size, failure);
+        }
+
+    }
+
+}
@@ -0,0 +1,105 @@
+package org.carlspring.strongbox.client;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The state shared by all the requests to a remote repository: the concurrent requests limit and the learned
+ * capabilities of the remote, so that they don't have to be discovered again for every download.
+ * <p>
+ * The learned capabilities expire after a while, as a single response (from one of the hosts behind a CDN or a load
+ * balancer, for example) does not tell for sure how the remote behaves.
+ */
+public class RemoteRepositoryEndpoint
+{
+
+    public static final long DEFAULT_CAPABILITY_TTL_MILLIS = TimeUnit.MINUTES.toMillis(15);
+
+    private final String url;
+
+    private final RemoteRequestLimiter requestLimiter;
+
+    private final long capabilityTtlMillis;
+
+    private volatile Capability rangeRequestSupported;
+
+    private volatile Capability http2Supported;
+
+    public RemoteRepositoryEndpoint(String url,
+                                    int maxConcurrentRequests)
+    {
+        this(url, maxConcurrentRequests, DEFAULT_CAPABILITY_TTL_MILLIS);
+    }
+
+    public RemoteRepositoryEndpoint(String url,
+                                    int maxConcurrentRequests,
+                                    long capabilityTtlMillis)
+    {
+        this.url = url;
+        this.requestLimiter = new RemoteRequestLimiter(maxConcurrentRequests);
+        this.capabilityTtlMillis = capabilityTtlMillis;
+    }
+
+    public String getUrl()
+    {
+        return url;
+    }
+
+    public RemoteRequestLimiter getRequestLimiter()
+    {
+        return requestLimiter;
+    }
+
+    /**
+     * @return whether the remote serves the {@code Range} requests, or {@code null} if it's not known (anymore)
+     */
+    public Boolean getRangeRequestSupported()
+    {
+        return getValue(rangeRequestSupported);
+    }
+
+    public void setRangeRequestSupported(Boolean rangeRequestSupported)
+    {
+        this.rangeRequestSupported = newCapability(rangeRequestSupported);
+    }
+
+    /**
+     * @return whether the remote has served a request over HTTP/2, {@code false} if it failed to negotiate it, or
+     *         {@code null} if it's not known (anymore)
+     */
+    public Boolean getHttp2Supported()
+    {
+        return getValue(http2Supported);
+    }
+
+    public void setHttp2Supported(Boolean http2Supported)
+    {
+        this.http2Supported = newCapability(http2Supported);
+    }
+
+    private Capability newCapability(Boolean value)
+    {
+        return value == null ? null : new Capability(value, System.currentTimeMillis() + capabilityTtlMillis);
+    }
+
+    private static Boolean getValue(Capability capability)
+    {
+        return capability == null || capability.expiresAt < System.currentTimeMillis() ? null : capability.value;
+    }
+
+    private static class Capability
+    {
+
+        private final boolean value;
+
+        private final long expiresAt;
+
+        private Capability(boolean value,
+                           long expiresAt)
+        {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+    }
+
+}
@@ -0,0 +1,131 @@
+package org.carlspring.strongbox.client;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Limits the number of concurrent requests to a remote repository without blocking the requesting threads: the
+ * requests over the limit wait in a queue until a permit is released. The limit can be changed at any time, the
+ * requests in progress are not affected.
+ */
+public class RemoteRequestLimiter
+{
+
+    private int maxConcurrentRequests;
+
+    private final Queue<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+
+    private int activeRequests;
+
+    public RemoteRequestLimiter(int maxConcurrentRequests)
+    {
+        checkMaxConcurrentRequests(maxConcurrentRequests);
+
+        this.maxConcurrentRequests = maxConcurrentRequests;
+    }
+
+    private static void checkMaxConcurrentRequests(int maxConcurrentRequests)
+    {
+        if (maxConcurrentRequests <= 0)
+        {
+            throw new IllegalArgumentException("The maximum of concurrent requests should be positive.");
+        }
+    }
+
+    /**
+     * @return a future completed once the permit is acquired, it should be {@link #release() released} after the
+     *         request completes
+     */
+    public synchronized CompletableFuture<Void> acquire()
+    {
+        if (activeRequests < maxConcurrentRequests)
+        {
+            activeRequests++;
+
+            return CompletableFuture.completedFuture(null);
+        }
+
+        CompletableFuture<Void> waiter = new CompletableFuture<>();
+        waiters.add(waiter);
+
+        return waiter;
+    }
+
+    /**
+     * Hands the permit over to the next waiting request, if any and the limit has not been lowered meanwhile.
+     */
+    public void release()
+    {
+        while (true)
+        {
+            CompletableFuture<Void> next;
+            synchronized (this)
+            {
+                next = activeRequests > maxConcurrentRequests ? null : waiters.poll();
+                if (next == null)
+                {
+                    activeRequests--;
+
+                    return;
+                }
+            }
+
+            // Complete outside of the lock as the waiter continues with the request in this thread.
+            if (next.complete(null))
+            {
+                return;
+            }
+        }
+    }
+
+    public synchronized int getMaxConcurrentRequests()
+    {
+        return maxConcurrentRequests;
+    }
+
+    /**
+     * Raising the limit lets the waiting requests through right away, lowering it only holds back the next ones.
+     */
+    public void setMaxConcurrentRequests(int maxConcurrentRequests)
+    {
+        checkMaxConcurrentRequests(maxConcurrentRequests);
+
+        while (true)
+        {
+            CompletableFuture<Void> next;
+            synchronized (this)
+            {
+                this.maxConcurrentRequests = maxConcurrentRequests;
+                if (activeRequests >= maxConcurrentRequests)
+                {
+                    return;
+                }
+
+                next = waiters.poll();
+                if (next == null)
+                {
+                    return;
+                }
+                activeRequests++;
+            }
+
+            // Complete outside of the lock as the waiter continues with the request in this thread.
+            if (!next.complete(null))
+            {
+                release();
+            }
+        }
+    }
+
+    public synchronized int getActiveRequests()
+    {
+        return activeRequests;
+    }
+
+    public synchronized int getQueuedRequests()
+    {
+        return waiters.size();
+    }
+
+}
@@ -54,6 +54,18 @@ public class RestArtifactResolver
         return true;
     }
 
+    /**
+     * @return whether the remote serves the {@code Range} requests, or {@code null} if it's not known yet
+     */
+    public Boolean getRangeRequestSupported()
+    {
+        return null;
+    }
+
+    public void setRangeRequestSupported(boolean rangeRequestSupported)
+    {
+    }
+
     @Override
     public void close()
     {
@@ -0,0 +1,25 @@
+package org.carlspring.strongbox.service;
+
+import org.carlspring.strongbox.client.RemoteRepositoryEndpoint;
+
+import org.eclipse.jetty.client.HttpClient;
+
+/**
+ * Provides the non-blocking HTTP clients used to download from the remote repositories.
+ */
+public interface ProxyRepositoryAsyncClientService
+{
+
+    boolean isEnabled();
+
+    HttpClient getHttpClient();
+
+    /**
+     * @return the HTTP/2 client, or {@code null} if HTTP/2 is disabled
+     */
+    HttpClient getHttp2Client();
+
+    RemoteRepositoryEndpoint getEndpoint(String repositoryUrl);
+
+    void shutdown();
+}
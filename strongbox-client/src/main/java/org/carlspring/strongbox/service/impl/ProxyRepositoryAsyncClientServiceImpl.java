@@ -0,0 +1,179 @@
+package org.carlspring.strongbox.service.impl;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import org.carlspring.strongbox.client.RemoteRepositoryEndpoint;
+import org.carlspring.strongbox.service.ProxyRepositoryAsyncClientService;
+import org.carlspring.strongbox.service.ProxyRepositoryConnectionPoolConfigurationService;
+
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.HttpClientTransport;
+import org.eclipse.jetty.client.http.HttpClientTransportOverHTTP;
+import org.eclipse.jetty.http2.client.HTTP2Client;
+import org.eclipse.jetty.http2.client.http.HttpClientTransportOverHTTP2;
+import org.eclipse.jetty.util.ssl.SslContextFactory;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * The Jetty {@link HttpClient}s are NIO based, so the downloads in progress don't hold any client thread while waiting
+ * for the remote, and the HTTP/2 client multiplexes all the downloads from a remote over a single connection.
+ * <p>
+ * The Jetty 9.4 HTTP/2 transport can't fall back to HTTP/1.1 by itself, so the HTTP/2 client is only tried for the
+ * {@code https} remotes and the {@link RemoteRepositoryEndpoint} remembers, for a while, which of them failed to
+ * negotiate it.
+ * <p>
+ * The requests to a remote are limited to the connections configured for it in the
+ * {@link ProxyRepositoryConnectionPoolConfigurationService pool}, as for the blocking client.
+ * <p>
+ * It is disabled by default ({@code pool.async.enabled}): the client doesn't block, but the proxied downloads still
+ * park the requesting servlet thread until the artifact is stored, so it only saves the client threads for now.
+ */
+@Component
+public class ProxyRepositoryAsyncClientServiceImpl
+        implements ProxyRepositoryAsyncClientService
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ProxyRepositoryAsyncClientServiceImpl.class);
+
+    private final ConcurrentMap<String, RemoteRepositoryEndpoint> endpoints = new ConcurrentHashMap<>();
+
+    private HttpClient httpClient;
+
+    private HttpClient http2Client;
+
+    @Inject
+    private ProxyRepositoryConnectionPoolConfigurationService connectionPoolConfigurationService;
+
+    @Value("${pool.async.enabled:false}")
+    private boolean enabled;
+    @Value("${pool.async.http2:true}")
+    private boolean http2Enabled;
+    @Value("${pool.async.maxConnectionsPerDestination:64}")
+    private int maxConnectionsPerDestination;
+    @Value("${pool.async.connectTimeoutInSeconds:10}")
+    private int connectTimeoutInSeconds;
+    @Value("${pool.async.idleTimeoutInSeconds:60}")
+    private int idleTimeoutInSeconds;
+    @Value("${pool.async.capabilityTtlInMinutes:15}")
+    private int capabilityTtlInMinutes;
+
+    @PostConstruct
+    public void init()
+        throws Exception
+    {
+        if (!enabled)
+        {
+            return;
+        }
+
+        httpClient = createHttpClient(new HttpClientTransportOverHTTP(), "proxy-http");
+        if (http2Enabled)
+        {
+            HttpClientTransportOverHTTP2 transport = new HttpClientTransportOverHTTP2(new HTTP2Client());
+            transport.setUseALPN(true);
+
+            http2Client = createHttpClient(transport, "proxy-http2");
+        }
+    }
+
+    private HttpClient createHttpClient(HttpClientTransport transport,
+                                        String name)
+        throws Exception
+    {
+        QueuedThreadPool executor = new QueuedThreadPool();
+        executor.setName(name);
+        executor.setDaemon(true);
+
+        HttpClient client = new HttpClient(transport, new SslContextFactory.Client());
+        client.setExecutor(executor);
+        client.setMaxConnectionsPerDestination(maxConnectionsPerDestination);
+        client.setConnectTimeout(TimeUnit.SECONDS.toMillis(connectTimeoutInSeconds));
+        client.setIdleTimeout(TimeUnit.SECONDS.toMillis(idleTimeoutInSeconds));
+        client.setFollowRedirects(true);
+        client.start();
+
+        return client;
+    }
+
+    @PreDestroy
+    public void destroy()
+    {
+        shutdown();
+    }
+
+    @Override
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    @Override
+    public HttpClient getHttpClient()
+    {
+        return httpClient;
+    }
+
+    @Override
+    public HttpClient getHttp2Client()
+    {
+        return http2Client;
+    }
+
+    @Override
+    public RemoteRepositoryEndpoint getEndpoint(String repositoryUrl)
+    {
+        String url = repositoryUrl.endsWith("/") ? repositoryUrl : repositoryUrl + "/";
+        int maxRequests = getMaxRequestsPerRepository(url);
+
+        long capabilityTtlMillis = TimeUnit.MINUTES.toMillis(capabilityTtlInMinutes);
+
+        RemoteRepositoryEndpoint endpoint = endpoints.computeIfAbsent(
+                url, u -> new RemoteRepositoryEndpoint(u, maxRequests, capabilityTtlMillis));
+        // The pool of the remote can be reconfigured at runtime, see the HttpConnectionPool of the remote repository.
+        endpoint.getRequestLimiter().setMaxConcurrentRequests(maxRequests);
+
+        return endpoint;
+    }
+
+    private int getMaxRequestsPerRepository(String repositoryUrl)
+    {
+        int max = connectionPoolConfigurationService.getPoolStats(repositoryUrl).getMax();
+
+        return max > 0 ? max : connectionPoolConfigurationService.getDefaultMaxPerRepository();
+    }
+
+    @Override
+    public void shutdown()
+    {
+        stop(http2Client);
+        stop(httpClient);
+    }
+
+    private void stop(HttpClient client)
+    {
+        if (client == null)
+        {
+            return;
+        }
+
+        try
+        {
+            client.stop();
+        }
+        catch (Exception e)
+        {
+            logger.warn("Failed to stop the HTTP client.", e);
+        }
+    }
+
+}
@@ -0,0 +1,317 @@
+package org.carlspring.strongbox.client;
+
+import org.carlspring.strongbox.service.ProxyRepositoryAsyncClientService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.net.ssl.SSLHandshakeException;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.eclipse.jetty.client.HttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AsyncArtifactResolverTest
+{
+
+    private static final String ARTIFACT_PATH = "org/carlspring/strongbox/aart/foo/1.0/foo-1.0.jar";
+
+    private static final int MAX_NUMBER_OF_ATTEMPTS = 3;
+
+    private final byte[] content = newContent(64 * 1024);
+
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+
+    private HttpServer server;
+
+    private HttpClient httpClient;
+
+    private RemoteRepositoryEndpoint endpoint;
+
+    private AsyncArtifactResolver resolver;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    public void setUp()
+        throws Exception
+    {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.start();
+
+        httpClient = new HttpClient();
+        httpClient.start();
+
+        String repositoryUrl = "http://localhost:" + server.getAddress().getPort() + "/storages/remote/";
+        endpoint = new RemoteRepositoryEndpoint(repositoryUrl, 4);
+
+        ProxyRepositoryAsyncClientService clientService = mock(ProxyRepositoryAsyncClientService.class);
+        when(clientService.getHttpClient()).thenReturn(httpClient);
+        when(clientService.getEndpoint(repositoryUrl)).thenReturn(endpoint);
+
+        MutableRemoteRepositoryRetryArtifactDownloadConfiguration configuration = new MutableRemoteRepositoryRetryArtifactDownloadConfiguration();
+        configuration.setTimeoutSeconds(60);
+        configuration.setMaxNumberOfAttempts(MAX_NUMBER_OF_ATTEMPTS);
+        configuration.setMinAttemptsIntervalSeconds(0);
+
+        resolver = new AsyncArtifactResolver(clientService,
+                                             repositoryUrl,
+                                             new RemoteRepositoryRetryArtifactDownloadConfiguration(configuration),
+                                             () -> true);
+    }
+
+    @AfterEach
+    public void tearDown()
+        throws Exception
+    {
+        httpClient.stop();
+        server.stop(0);
+    }
+
+    @Test
+    public void resourceShouldBeDownloaded()
+        throws Exception
+    {
+        serve(exchange -> {
+            exchange.getResponseHeaders().add("Accept-Ranges", "bytes");
+            respond(exchange, 200, content, content.length);
+        });
+
+        Path target = tempDir.resolve("foo-1.0.jar");
+
+        assertThat(download(target)).isEqualTo(content.length);
+        assertThat(Files.readAllBytes(target)).isEqualTo(content);
+        assertThat(requests).containsExactly("GET");
+        assertThat(endpoint.getRangeRequestSupported()).isTrue();
+    }
+
+    @Test
+    public void interruptedDownloadShouldBeResumedWithRangeRequest()
+        throws Exception
+    {
+        int half = content.length / 2;
+        serve(exchange -> {
+            exchange.getResponseHeaders().add("Accept-Ranges", "bytes");
+
+            String range = exchange.getRequestHeaders().getFirst("Range");
+            if (range == null)
+            {
+                respond(exchange, 200, content, half);
+
+                return;
+            }
+
+            int offset = Integer.parseInt(range.substring("bytes=".length(), range.length() - 1));
+            exchange.getResponseHeaders().add("Content-Range",
+                                              String.format("bytes %s-%s/%s",
+                                                            offset, content.length - 1, content.length));
+            respond(exchange, 206, slice(offset), content.length - offset);
+        });
+
+        Path target = tempDir.resolve("foo-1.0.jar");
+
+        assertThat(download(target)).isEqualTo(content.length);
+        assertThat(Files.readAllBytes(target)).isEqualTo(content);
+        assertThat(requests).containsExactly("GET", "GET bytes=" + half + "-");
+    }
+
+    @Test
+    public void firstResponseShouldBeReportedOnceWhenTheDownloadIsResumed()
+        throws Exception
+    {
+        int half = content.length / 2;
+        serve(exchange -> {
+            exchange.getResponseHeaders().add("Accept-Ranges", "bytes");
+
+            String range = exchange.getRequestHeaders().getFirst("Range");
+            if (range == null)
+            {
+                respond(exchange, 200, content, half);
+
+                return;
+            }
+
+            exchange.getResponseHeaders().add("Content-Range",
+                                              String.format("bytes %s-%s/%s",
+                                                            half, content.length - 1, content.length));
+            respond(exchange, 206, slice(half), content.length - half);
+        });
+
+        AtomicInteger responses = new AtomicInteger();
+        CompletableFuture<Long> result = resolver.download(ARTIFACT_PATH,
+                                                           tempDir.resolve("foo-1.0.jar"),
+                                                           responses::incrementAndGet);
+
+        assertThat(result.get(1, TimeUnit.MINUTES)).isEqualTo(content.length);
+        assertThat(requests).hasSize(2);
+        assertThat(responses.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void downloadShouldStartOverWhenRangeIsIgnored()
+        throws Exception
+    {
+        int half = content.length / 2;
+        serve(exchange -> {
+            if ("HEAD".equals(exchange.getRequestMethod()))
+            {
+                // The remote claims the range requests support, but ignores the `Range` header.
+                exchange.getResponseHeaders().add("Accept-Ranges", "bytes");
+                exchange.sendResponseHeaders(200, -1);
+                exchange.close();
+            }
+            else if (requests.size() == 1)
+            {
+                respond(exchange, 200, content, half);
+            }
+            else
+            {
+                respond(exchange, 200, content, content.length);
+            }
+        });
+
+        Path target = tempDir.resolve("foo-1.0.jar");
+
+        assertThat(download(target)).isEqualTo(content.length);
+        assertThat(Files.readAllBytes(target)).isEqualTo(content);
+        assertThat(requests).containsExactly("GET", "HEAD", "GET bytes=" + half + "-", "GET");
+        assertThat(endpoint.getRangeRequestSupported()).isFalse();
+    }
+
+    @Test
+    public void missingResourceShouldNotBeRetried()
+    {
+        serve(exchange -> respond(exchange, 404, new byte[0], 0));
+
+        Throwable failure = catchThrowable(() -> download(tempDir.resolve("foo-1.0.jar")));
+
+        assertThat(failure).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(ResponseException.class);
+        assertThat(((ResponseException) failure.getCause()).getStatusCode()).isEqualTo(404);
+        assertThat(requests).containsExactly("GET");
+    }
+
+    @Test
+    public void failedResponseShouldBeRetriedUpToTheMaxNumberOfAttempts()
+    {
+        serve(exchange -> respond(exchange, 503, new byte[0], 0));
+
+        Throwable failure = catchThrowable(() -> download(tempDir.resolve("foo-1.0.jar")));
+
+        assertThat(failure).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(ResponseException.class);
+        assertThat(((ResponseException) failure.getCause()).getStatusCode()).isEqualTo(503);
+        assertThat(requests).hasSize(MAX_NUMBER_OF_ATTEMPTS).containsOnly("GET");
+    }
+
+    @Test
+    public void ignoredRangeShouldOnlyDisableRangeRequestsForAWhile()
+        throws Exception
+    {
+        RemoteRepositoryEndpoint shortLivedEndpoint = new RemoteRepositoryEndpoint(endpoint.getUrl(), 4, 50);
+
+        shortLivedEndpoint.setRangeRequestSupported(false);
+        assertThat(shortLivedEndpoint.getRangeRequestSupported()).isFalse();
+
+        Thread.sleep(100);
+
+        assertThat(shortLivedEndpoint.getRangeRequestSupported()).isNull();
+    }
+
+    @Test
+    public void onlyProtocolFailuresShouldDisableHttp2()
+    {
+        assertThat(AsyncArtifactResolver.isProtocolFailure(new SSLHandshakeException("no_application_protocol")))
+                .isTrue();
+        assertThat(AsyncArtifactResolver.isProtocolFailure(new IOException("ALPN negotiation failed")))
+                .isTrue();
+
+        assertThat(AsyncArtifactResolver.isProtocolFailure(new SocketTimeoutException("Connect Timeout"))).isFalse();
+        assertThat(AsyncArtifactResolver.isProtocolFailure(new UnknownHostException("repo.example.org"))).isFalse();
+        assertThat(AsyncArtifactResolver.isProtocolFailure(new ConnectException("Connection refused"))).isFalse();
+    }
+
+    private long download(Path target)
+        throws Exception
+    {
+        CompletableFuture<Long> result = resolver.download(ARTIFACT_PATH, target);
+
+        return result.get(1, TimeUnit.MINUTES);
+    }
+
+    private void serve(HttpHandler handler)
+    {
+        server.createContext("/storages/remote/" + ARTIFACT_PATH, exchange -> {
+            String range = exchange.getRequestHeaders().getFirst("Range");
+            requests.add(exchange.getRequestMethod() + (range != null ? " " + range : ""));
+
+            handler.handle(exchange);
+        });
+    }
+
+    /**
+     * Responds with the declared length of content, the connection is dropped if less than that is written.
+     */
+    private static void respond(HttpExchange exchange,
+                                int status,
+                                byte[] body,
+                                int length)
+        throws IOException
+    {
+        exchange.sendResponseHeaders(status, body.length > 0 ? body.length : -1);
+        try (OutputStream os = exchange.getResponseBody())
+        {
+            os.write(body, 0, length);
+            os.flush();
+        }
+        catch (IOException e)
+        {
+            // the connection is dropped
+        }
+        finally
+        {
+            exchange.close();
+        }
+    }
+
+    private byte[] slice(int offset)
+    {
+        byte[] result = new byte[content.length - offset];
+        System.arraycopy(content, offset, result, 0, result.length);
+
+        return result;
+    }
+
+    private static byte[] newContent(int size)
+    {
+        StringBuilder sb = new StringBuilder(size);
+        for (int i = 0; sb.length() < size; i++)
+        {
+            sb.append(i).append('\n');
+        }
+
+        return sb.substring(0, size).getBytes(StandardCharsets.US_ASCII);
+    }
+
+}
@@ -0,0 +1,80 @@
+package org.carlspring.strongbox.client;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RemoteRequestLimiterTest
+{
+
+    @Test
+    public void requestsOverTheLimitShouldWaitForRelease()
+    {
+        RemoteRequestLimiter limiter = new RemoteRequestLimiter(2);
+
+        CompletableFuture<Void> first = limiter.acquire();
+        CompletableFuture<Void> second = limiter.acquire();
+        CompletableFuture<Void> third = limiter.acquire();
+
+        assertThat(first).isDone();
+        assertThat(second).isDone();
+        assertThat(third).isNotDone();
+        assertThat(limiter.getQueuedRequests()).isEqualTo(1);
+
+        limiter.release();
+
+        assertThat(third).isDone();
+        assertThat(limiter.getActiveRequests()).isEqualTo(2);
+        assertThat(limiter.getQueuedRequests()).isZero();
+
+        limiter.release();
+        limiter.release();
+
+        assertThat(limiter.getActiveRequests()).isZero();
+    }
+
+    @Test
+    public void cancelledWaitersShouldNotHoldThePermit()
+    {
+        RemoteRequestLimiter limiter = new RemoteRequestLimiter(1);
+
+        limiter.acquire();
+        CompletableFuture<Void> cancelled = limiter.acquire();
+        CompletableFuture<Void> waiting = limiter.acquire();
+
+        cancelled.cancel(false);
+        limiter.release();
+
+        assertThat(waiting).isDone();
+        assertThat(limiter.getActiveRequests()).isEqualTo(1);
+    }
+
+    @Test
+    public void changedLimitShouldApplyToTheWaitingRequests()
+    {
+        RemoteRequestLimiter limiter = new RemoteRequestLimiter(1);
+
+        limiter.acquire();
+        CompletableFuture<Void> second = limiter.acquire();
+        CompletableFuture<Void> third = limiter.acquire();
+
+        limiter.setMaxConcurrentRequests(2);
+
+        assertThat(second).isDone();
+        assertThat(third).isNotDone();
+        assertThat(limiter.getActiveRequests()).isEqualTo(2);
+
+        limiter.setMaxConcurrentRequests(1);
+        limiter.release();
+
+        assertThat(third).isNotDone();
+        assertThat(limiter.getActiveRequests()).isEqualTo(1);
+
+        limiter.release();
+
+        assertThat(third).isDone();
+        assertThat(limiter.getActiveRequests()).isEqualTo(1);
+    }
+
+}
@@ -0,0 +1,28 @@
+package org.carlspring.strongbox.cron.jobs.fields;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * For the values which may exceed the {@link CronJobIntegerTypeField} range, like sizes in bytes.
+ */
+@Immutable
+public class CronJobLongTypeField
+        extends CronJobTypeField
+{
+
+    public CronJobLongTypeField()
+    {
+        this(null);
+    }
+
+    public CronJobLongTypeField(CronJobField field)
+    {
+        super(field);
+    }
+
+    @Override
+    public String getValue()
+    {
+        return long.class.getSimpleName();
+    }
+}
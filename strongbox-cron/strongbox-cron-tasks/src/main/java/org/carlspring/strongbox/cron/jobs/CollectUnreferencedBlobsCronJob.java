@@ -0,0 +1,49 @@
+package org.carlspring.strongbox.cron.jobs;
+
+import org.carlspring.strongbox.cron.domain.CronTaskConfigurationDto;
+import org.carlspring.strongbox.cron.jobs.fields.CronJobField;
+import org.carlspring.strongbox.providers.io.ContentAddressableBlobStore;
+
+import javax.inject.Inject;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Deletes the blobs of the {@link ContentAddressableBlobStore} which are not referenced by any repository path anymore,
+ * does nothing unless the blob store is enabled.
+ */
+public class CollectUnreferencedBlobsCronJob
+        extends JavaCronJob
+{
+
+    private static final Set<CronJobField> FIELDS = ImmutableSet.of();
+
+    @Inject
+    private ContentAddressableBlobStore blobStore;
+
+    @Override
+    public void executeTask(CronTaskConfigurationDto config)
+            throws Throwable
+    {
+        if (!blobStore.isEnabled())
+        {
+            return;
+        }
+
+        long deleted = blobStore.collectGarbage();
+        logger.debug("Deleted [{}] unreferenced blobs.", deleted);
+    }
+
+    @Override
+    public CronJobDefinition getCronJobDefinition()
+    {
+        return CronJobDefinition.newBuilder()
+                                .jobClass(CollectUnreferencedBlobsCronJob.class.getName())
+                                .name("Collect Unreferenced Blobs Cron Job")
+                                .description("Collect Unreferenced Blobs Cron Job")
+                                .fields(FIELDS)
+                                .build();
+    }
+
+}
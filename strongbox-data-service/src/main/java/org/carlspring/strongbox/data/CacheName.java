@@ -15,6 +15,10 @@ public final class CacheName
 
         public static final String TAGS = "tags";
 
+        public static final String ARTIFACT_ENTRY_IDS = "artifactEntryIds";
+
+        public static final String NPM_PACKAGE_FEEDS = "npmPackageFeeds";
+
     }
 
     public static final class Repository
@@ -22,6 +26,10 @@ public final class CacheName
 
         public static final String REMOTE_REPOSITORY_ALIVENESS = "remoteRepositoryAliveness";
 
+        public static final String GROUP_NEGATIVE_LOOKUPS = "groupNegativeLookups";
+
+        public static final String MAVEN_GROUP_METADATA = "mavenGroupMetadata";
+
     }
 
 
@@ -0,0 +1,62 @@
+package org.carlspring.strongbox.data.cache;
+
+import javax.inject.Inject;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.cache.CacheBuilder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the node local caches, which hold values that can't (or shouldn't) be shared through the Hazelcast
+ * {@link org.springframework.cache.CacheManager}, like record ids, live objects or serialized documents.
+ * <p>
+ * The caches are concurrent and bounded, they are configured along with the Hazelcast caches, under
+ * {@code cacheManagerConfiguration.caches.<name>}:
+ * <ul>
+ * <li>{@code maxSizeLimit}, the maximum number of entries</li>
+ * <li>{@code timeToLiveSeconds}, how long an entry lives after it was put, a negative value means forever</li>
+ * </ul>
+ *
+ * @see org.carlspring.strongbox.data.CacheName
+ */
+@Component
+public class LocalCacheFactory
+{
+
+    private static final String PROPERTY_PREFIX = "cacheManagerConfiguration.caches.";
+
+    private final Environment environment;
+
+    @Inject
+    public LocalCacheFactory(Environment environment)
+    {
+        this.environment = environment;
+    }
+
+    /**
+     * @return a builder of the {@code name} cache, with its size and time to live, to which listeners can be added
+     */
+    public CacheBuilder<Object, Object> newCacheBuilder(String name,
+                                                        long defaultMaxSizeLimit,
+                                                        long defaultTimeToLiveSeconds)
+    {
+        long maxSizeLimit = environment.getProperty(PROPERTY_PREFIX + name + ".maxSizeLimit",
+                                                    Long.class,
+                                                    defaultMaxSizeLimit);
+        long timeToLiveSeconds = environment.getProperty(PROPERTY_PREFIX + name + ".timeToLiveSeconds",
+                                                         Long.class,
+                                                         defaultTimeToLiveSeconds);
+
+        CacheBuilder<Object, Object> result = CacheBuilder.newBuilder()
+                                                          .concurrencyLevel(Runtime.getRuntime().availableProcessors())
+                                                          .maximumSize(maxSizeLimit);
+        if (timeToLiveSeconds >= 0)
+        {
+            result.expireAfterWrite(timeToLiveSeconds, TimeUnit.SECONDS);
+        }
+
+        return result;
+    }
+
+}
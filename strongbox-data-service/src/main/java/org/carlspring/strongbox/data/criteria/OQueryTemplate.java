@@ -11,6 +11,8 @@ import org.carlspring.strongbox.data.domain.GenericEntity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.orientechnologies.orient.core.command.OCommandContext.TIMEOUT_STRATEGY;
+import com.orientechnologies.orient.core.id.ORecordId;
 import com.orientechnologies.orient.core.record.impl.ODocument;
 import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
 import com.orientechnologies.orient.object.db.OObjectDatabaseTx;
@@ -25,6 +27,8 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
 {
     private static final Logger logger = LoggerFactory.getLogger(OQueryTemplate.class);
 
+    private static final String CURSOR_PARAMETER_NAME = "rid_cursor";
+
     protected EntityManager entityManager;
 
     public OQueryTemplate()
@@ -48,8 +52,19 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
         String sQuery = calculateQueryString(s);
 
         OSQLSynchQuery<T> oQuery = new OSQLSynchQuery<>(sQuery);
+        if (s.getTimeoutMillis() > 0)
+        {
+            oQuery.setTimeout(s.getTimeoutMillis(), TIMEOUT_STRATEGY.EXCEPTION);
+        }
         Map<String, Object> parameterMap = exposeParameterMap(s.getPredicate());
 
+        Paginator paginator = s.getPaginator();
+        ORecordId cursorRecordId = paginator != null && paginator.isKeyset() ? paginator.getCursorRecordId() : null;
+        if (cursorRecordId != null)
+        {
+            parameterMap.put(CURSOR_PARAMETER_NAME, cursorRecordId);
+        }
+
         logger.debug("Executing SQL query:\n" +
                      "\t[{}]\n" +
                      "With parameters:\n" +
@@ -106,6 +121,12 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
         sb.append(" FROM ").append(selector.getTargetClass().getSimpleName());
 
         Predicate p = selector.getPredicate();
+        Paginator paginator = selector.getPaginator();
+        if (paginator != null && paginator.isKeyset())
+        {
+            return calculateKeysetQueryString(sb, p, paginator, selector.isFetch());
+        }
+
         if (p.isEmpty())
         {
             return sb.toString();
@@ -114,7 +135,6 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
         sb.append(" WHERE ");
         sb.append(predicateToken(p, 0));
 
-        Paginator paginator = selector.getPaginator();
         if (paginator != null && paginator.getProperty() != null && !paginator.getProperty().trim().isEmpty())
         {
             sb.append(String.format(" ORDER BY %s %s", paginator.getProperty(), paginator.getOrder()));
@@ -137,6 +157,44 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
         return sb.toString();
     }
 
+    /**
+     * Keyset pages are always ordered by the record id, and start right after the cursor record instead of skipping
+     * the previous pages.
+     */
+    private String calculateKeysetQueryString(StringBuilder sb,
+                                              Predicate p,
+                                              Paginator paginator,
+                                              boolean fetch)
+    {
+        boolean first = paginator.getCursorRecordId() == null;
+        if (!p.isEmpty() || !first)
+        {
+            sb.append(" WHERE ");
+        }
+        if (!p.isEmpty())
+        {
+            sb.append("(").append(predicateToken(p, 0)).append(")");
+        }
+        if (!p.isEmpty() && !first)
+        {
+            sb.append(" AND ");
+        }
+        if (!first)
+        {
+            sb.append(String.format("@rid > :%s", CURSOR_PARAMETER_NAME));
+        }
+
+        sb.append(" ORDER BY @rid ASC");
+        sb.append(String.format(" LIMIT %s", paginator.getLimit()));
+
+        if (fetch)
+        {
+            sb.append(" FETCHPLAN *:-1");
+        }
+
+        return sb.toString();
+    }
+
     protected String predicateToken(Predicate p,
                                     int tokenCount)
     {
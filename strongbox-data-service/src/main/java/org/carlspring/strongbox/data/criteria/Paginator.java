@@ -1,5 +1,19 @@
 package org.carlspring.strongbox.data.criteria;
 
+import org.carlspring.strongbox.data.domain.GenericEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import com.orientechnologies.orient.core.id.ORecordId;
+
+/**
+ * Offset ({@code SKIP n LIMIT m}) or keyset pagination. In the keyset mode, enabled by a non {@code null}
+ * {@link #getCursor()}, the page starts right after the record the cursor points to, in the record id order, so the
+ * database does not have to scan and discard all the previous pages. An empty cursor denotes the first page, and
+ * {@link #nextCursor(List)} provides the cursor of the following one.
+ */
 public class Paginator
 {
 
@@ -11,6 +25,8 @@ public class Paginator
     private String property;
     private Order order = Order.ASC;
 
+    private String cursor;
+
     public Integer getSkip()
     {
         return skip == null ? Integer.valueOf(0) : skip;
@@ -51,6 +67,62 @@ public class Paginator
         this.order = order;
     }
 
+    public String getCursor()
+    {
+        return cursor;
+    }
+
+    public void setCursor(String cursor)
+    {
+        this.cursor = cursor;
+    }
+
+    public boolean isKeyset()
+    {
+        return cursor != null;
+    }
+
+    /**
+     * @return the record id the current keyset page starts after, or {@code null} for the first page
+     */
+    public ORecordId getCursorRecordId()
+    {
+        if (cursor == null || cursor.trim().isEmpty())
+        {
+            return null;
+        }
+
+        try
+        {
+            return new ORecordId(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new QueryParserException(String.format("Invalid cursor [%s].", cursor));
+        }
+    }
+
+    /**
+     * @return the cursor of the page following the given keyset page, or {@code null} if it was the last one
+     */
+    public String nextCursor(List<? extends GenericEntity> page)
+    {
+        if (page.isEmpty() || page.size() < getLimit())
+        {
+            return null;
+        }
+
+        return toCursor(page.get(page.size() - 1).getObjectId());
+    }
+
+    /**
+     * @return the cursor of the keyset page starting after the given record id
+     */
+    public static String toCursor(String objectId)
+    {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(objectId.getBytes(StandardCharsets.UTF_8));
+    }
+
     public static enum Order
     {
         ASC, DESC;
@@ -24,6 +24,8 @@ public class Selector<T extends GenericEntity>
     
     private Paginator paginator = new Paginator();
 
+    private long timeoutMillis;
+
     public Selector(Class<T> targetClass)
     {
         super();
@@ -83,4 +85,19 @@ public class Selector<T extends GenericEntity>
         return this;
     }
 
+    public long getTimeoutMillis()
+    {
+        return timeoutMillis;
+    }
+
+    /**
+     * The query fails with an {@link com.orientechnologies.common.concur.OTimeoutException} if it runs longer than
+     * the timeout, a non positive value means no timeout.
+     */
+    public Selector<T> timeout(long timeoutMillis)
+    {
+        this.timeoutMillis = timeoutMillis;
+        return this;
+    }
+
 }
@@ -329,6 +329,24 @@ public abstract class CommonCrudService<T extends GenericEntity>
         return simpleName;
     }
 
+    /**
+     * Appends the keyset condition of the {@link PagingCriteria#after(String, int)} criteria, should go right after the
+     * query conditions, before {@link #appendPagingCriteria(StringBuilder, PagingCriteria)}.
+     */
+    protected void appendKeysetCondition(StringBuilder queryBuilder,
+                                         PagingCriteria pagingCriteria)
+    {
+        if (pagingCriteria.getAfterObjectId() == null)
+        {
+            return;
+        }
+
+        // ORecordId validates the objectId, so it's safe to inline it
+        ORecordId afterRecordId = new ORecordId(pagingCriteria.getAfterObjectId());
+        queryBuilder.append(queryBuilder.indexOf(" WHERE ") > 0 ? " AND " : " WHERE ")
+                    .append(String.format("@rid > %s", afterRecordId));
+    }
+
     protected void appendPagingCriteria(StringBuilder queryBuilder,
                                         PagingCriteria pagingCriteria)
     {
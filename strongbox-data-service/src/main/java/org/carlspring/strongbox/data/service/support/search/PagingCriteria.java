@@ -1,6 +1,7 @@
 package org.carlspring.strongbox.data.service.support.search;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 import java.util.Objects;
 
@@ -19,6 +20,17 @@ public class PagingCriteria
 
     private final Sort sort;
 
+    private final String afterObjectId;
+
+    private PagingCriteria(final String afterObjectId,
+                           final int limit)
+    {
+        this.skip = 0;
+        this.limit = limit;
+        this.sort = Sort.byRecordId();
+        this.afterObjectId = afterObjectId;
+    }
+
     public PagingCriteria(final int skip,
                           final int limit,
                           @Nonnull final Sort sort)
@@ -28,6 +40,7 @@ public class PagingCriteria
         this.skip = skip;
         this.limit = limit;
         this.sort = sort;
+        this.afterObjectId = null;
     }
 
     public PagingCriteria(final int skip,
@@ -36,6 +49,18 @@ public class PagingCriteria
         this(skip, limit, Sort.byUuid());
     }
 
+    /**
+     * Keyset paging criteria, ordered by the record id, with the page starting right after the entity with the given
+     * {@code objectId}. Unlike {@code SKIP}, the database does not have to scan and discard the previous pages.
+     *
+     * @param afterObjectId the {@code objectId} of the last entity of the previous page, {@code null} for the first page
+     */
+    public static PagingCriteria after(@Nullable final String afterObjectId,
+                                       final int limit)
+    {
+        return new PagingCriteria(afterObjectId, limit);
+    }
+
     public int getSkip()
     {
         return skip;
@@ -51,4 +76,10 @@ public class PagingCriteria
     {
         return sort;
     }
+
+    @Nullable
+    public String getAfterObjectId()
+    {
+        return afterObjectId;
+    }
 }
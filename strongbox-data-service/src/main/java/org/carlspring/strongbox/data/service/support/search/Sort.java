@@ -17,6 +17,8 @@ public class Sort
 
     private static final Sort DEFAULT_BY_UUID = Sort.by(Order.asc("uuid"));
 
+    private static final Sort BY_RECORD_ID = Sort.by(Order.asc("@rid"));
+
     private final List<Order> orders;
 
     private Sort(List<Order> orders)
@@ -29,6 +31,11 @@ public class Sort
         return DEFAULT_BY_UUID;
     }
 
+    public static Sort byRecordId()
+    {
+        return BY_RECORD_ID;
+    }
+
     public static Sort by(List<Order> orders)
     {
         return new Sort(orders);
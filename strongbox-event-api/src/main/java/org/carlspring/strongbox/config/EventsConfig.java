@@ -4,10 +4,12 @@ import javax.servlet.ServletContext;
 
 import org.carlspring.strongbox.event.EventExecutorFactoryBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 @Configuration
 @ComponentScan({ "org.carlspring.strongbox.event" })
@@ -21,4 +23,21 @@ public class EventsConfig
         return new EventExecutorFactoryBean(servletContext);
     }
 
+    /**
+     * Runs the periodic flushes of the services which aggregate their writes in memory. The tasks are expected to be
+     * short, the long running maintenance is done by the cron jobs. The services flush once more on their own
+     * shutdown, before this scheduler is shut down.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler backgroundTaskScheduler(@Value("${strongbox.background.threads:2}") int threads)
+    {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(threads);
+        scheduler.setThreadNamePrefix("strongbox-background-");
+        scheduler.setDaemon(true);
+        scheduler.setRemoveOnCancelPolicy(true);
+
+        return scheduler;
+    }
+
 }
@@ -0,0 +1,138 @@
+package org.carlspring.strongbox.users.domain;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.concurrent.Immutable;
+
+import org.carlspring.strongbox.users.dto.PathPrivileges;
+import org.carlspring.strongbox.users.dto.RepositoryPrivileges;
+import org.carlspring.strongbox.users.dto.StoragePrivileges;
+
+/**
+ * The storage privileges of an access model, compiled into a trie of the URL segments:
+ * {@code storages -> storageId -> repositoryId -> path segments}.
+ * <p>
+ * Repository privileges and wildcard path privileges are granted to their node and all the nodes below it, other path
+ * privileges to their node only. Every node holds the resulting privileges precomputed, so that a lookup is a single
+ * walk down the URL segments without any allocation.
+ */
+@Immutable
+public class PathPrivilegesTrie
+        implements Serializable
+{
+
+    private static final String STORAGES_SEGMENT = "storages";
+
+    private static final Set<Privileges> NO_PRIVILEGES = Collections.unmodifiableSet(EnumSet.noneOf(Privileges.class));
+
+    private final Node root = new Node();
+
+    public PathPrivilegesTrie(Set<? extends StoragePrivileges> storages)
+    {
+        Node storagesNode = root.getOrCreateChild(STORAGES_SEGMENT);
+        for (StoragePrivileges storage : storages)
+        {
+            Node storageNode = storagesNode.getOrCreateChild(storage.getStorageId());
+            for (RepositoryPrivileges repository : storage.getRepositoryPrivileges())
+            {
+                Node repositoryNode = storageNode.getOrCreateChild(repository.getRepositoryId());
+                repositoryNode.wildcardPrivileges.addAll(repository.getRepositoryPrivileges());
+
+                for (PathPrivileges pathPrivilege : repository.getPathPrivileges())
+                {
+                    Node pathNode = repositoryNode;
+                    for (String segment : pathPrivilege.getPath().split("/"))
+                    {
+                        if (!segment.isEmpty())
+                        {
+                            pathNode = pathNode.getOrCreateChild(segment);
+                        }
+                    }
+
+                    (pathPrivilege.isWildcard() ? pathNode.wildcardPrivileges : pathNode.privileges)
+                            .addAll(pathPrivilege.getPrivileges());
+                }
+            }
+        }
+
+        root.compile(NO_PRIVILEGES);
+    }
+
+    /**
+     * @param url the request URL, starting with {@code /storages/storageId/repositoryId}
+     * @return the immutable privileges granted for the URL
+     */
+    public Set<Privileges> getPathAuthorities(String url)
+    {
+        Node node = root;
+        int start = 0;
+        while (start < url.length())
+        {
+            int end = url.indexOf('/', start);
+            if (end < 0)
+            {
+                end = url.length();
+            }
+            if (end > start)
+            {
+                Node child = node.children.get(url.substring(start, end));
+                if (child == null)
+                {
+                    return node.inheritedPrivileges;
+                }
+                node = child;
+            }
+            start = end + 1;
+        }
+
+        return node.resultPrivileges;
+    }
+
+    private static class Node
+            implements Serializable
+    {
+
+        private final Map<String, Node> children = new HashMap<>();
+
+        private Set<Privileges> privileges = EnumSet.noneOf(Privileges.class);
+
+        private Set<Privileges> wildcardPrivileges = EnumSet.noneOf(Privileges.class);
+
+        /**
+         * The wildcard privileges of this node and the nodes above it, granted to the URLs below this node.
+         */
+        private Set<Privileges> inheritedPrivileges;
+
+        /**
+         * The privileges granted to the URL of this node.
+         */
+        private Set<Privileges> resultPrivileges;
+
+        private Node getOrCreateChild(String segment)
+        {
+            return children.computeIfAbsent(segment, k -> new Node());
+        }
+
+        private void compile(Set<Privileges> parentPrivileges)
+        {
+            EnumSet<Privileges> inherited = EnumSet.noneOf(Privileges.class);
+            inherited.addAll(parentPrivileges);
+            inherited.addAll(wildcardPrivileges);
+
+            EnumSet<Privileges> result = EnumSet.copyOf(inherited);
+            result.addAll(privileges);
+
+            inheritedPrivileges = Collections.unmodifiableSet(inherited);
+            resultPrivileges = Collections.unmodifiableSet(result);
+
+            children.values().forEach(child -> child.compile(inheritedPrivileges));
+        }
+
+    }
+
+}
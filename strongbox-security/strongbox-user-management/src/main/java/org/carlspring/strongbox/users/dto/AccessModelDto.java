@@ -5,7 +5,7 @@ import java.util.LinkedHashSet;
 import java.util.Optional;
 import java.util.Set;
 
-import org.carlspring.strongbox.users.domain.AccessModelData;
+import org.carlspring.strongbox.users.domain.PathPrivilegesTrie;
 import org.carlspring.strongbox.users.domain.Privileges;
 
 /**
@@ -37,10 +37,15 @@ public class AccessModelDto
         return storageAuthorities.stream().filter(s -> s.getStorageId().equals(storageId)).findFirst();
     }
 
+    /**
+     * The storage authorities can be changed at any time, so the trie is built on every lookup. The authorization
+     * goes through the {@link org.carlspring.strongbox.users.domain.AccessModelData} converted from the complete DTO
+     * instead, which builds its trie once.
+     */
     @Override
     public Set<Privileges> getPathAuthorities(String url)
     {
-        return AccessModelData.getPathAuthorities(url, storageAuthorities);
+        return new PathPrivilegesTrie(storageAuthorities).getPathAuthorities(url);
     }
     
 }
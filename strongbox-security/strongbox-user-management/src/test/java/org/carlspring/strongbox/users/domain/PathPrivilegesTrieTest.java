@@ -0,0 +1,76 @@
+package org.carlspring.strongbox.users.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+
+import org.carlspring.strongbox.users.dto.PathPrivilegesDto;
+import org.carlspring.strongbox.users.dto.RepositoryPrivilegesDto;
+import org.carlspring.strongbox.users.dto.StoragePrivilegesDto;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class PathPrivilegesTrieTest
+{
+
+    private PathPrivilegesTrie pathPrivilegesTrie;
+
+    @BeforeEach
+    public void setUp()
+    {
+        PathPrivilegesDto wildcardPath = new PathPrivilegesDto("org/carlspring/");
+        wildcardPath.setWildcard(true);
+        wildcardPath.getPrivileges().add(Privileges.ARTIFACTS_DEPLOY);
+
+        PathPrivilegesDto exactPath = new PathPrivilegesDto("org/carlspring/strongbox");
+        exactPath.getPrivileges().add(Privileges.ARTIFACTS_DELETE);
+
+        RepositoryPrivilegesDto repository = new RepositoryPrivilegesDto("releases");
+        repository.getRepositoryPrivileges().add(Privileges.ARTIFACTS_RESOLVE);
+        repository.getPathPrivileges().add(wildcardPath);
+        repository.getPathPrivileges().add(exactPath);
+
+        StoragePrivilegesDto storage = new StoragePrivilegesDto("storage0");
+        storage.getRepositoryPrivileges().add(repository);
+
+        pathPrivilegesTrie = new PathPrivilegesTrie(Collections.singleton(storage));
+    }
+
+    @Test
+    public void repositoryPrivilegesShouldBeGrantedWithinRepository()
+    {
+        assertThat(pathPrivilegesTrie.getPathAuthorities("/storages/storage0/releases"))
+                .containsExactly(Privileges.ARTIFACTS_RESOLVE);
+        assertThat(pathPrivilegesTrie.getPathAuthorities("/storages/storage0/releases/com/foo/1.0/foo-1.0.jar"))
+                .containsExactly(Privileges.ARTIFACTS_RESOLVE);
+    }
+
+    @Test
+    public void wildcardPathPrivilegesShouldBeGrantedBelowPath()
+    {
+        assertThat(pathPrivilegesTrie.getPathAuthorities("/storages/storage0/releases/org/carlspring/commons/"))
+                .containsExactlyInAnyOrder(Privileges.ARTIFACTS_RESOLVE, Privileges.ARTIFACTS_DEPLOY);
+    }
+
+    @Test
+    public void exactPathPrivilegesShouldBeGrantedToPathOnly()
+    {
+        assertThat(pathPrivilegesTrie.getPathAuthorities("/storages/storage0/releases/org/carlspring/strongbox/"))
+                .containsExactlyInAnyOrder(Privileges.ARTIFACTS_RESOLVE,
+                                           Privileges.ARTIFACTS_DEPLOY,
+                                           Privileges.ARTIFACTS_DELETE);
+        assertThat(pathPrivilegesTrie.getPathAuthorities("/storages/storage0/releases/org/carlspring/strongbox/1.0"))
+                .containsExactlyInAnyOrder(Privileges.ARTIFACTS_RESOLVE, Privileges.ARTIFACTS_DEPLOY);
+    }
+
+    @Test
+    public void privilegesShouldBeMatchedBySegments()
+    {
+        assertThat(pathPrivilegesTrie.getPathAuthorities("/storages/storage01/releases")).isEmpty();
+        assertThat(pathPrivilegesTrie.getPathAuthorities("/storages/storage0/releases-old")).isEmpty();
+        assertThat(pathPrivilegesTrie.getPathAuthorities("/storages/storage0/releases/org/carlspring-old"))
+                .containsExactly(Privileges.ARTIFACTS_RESOLVE);
+    }
+
+}
@@ -3,6 +3,7 @@ package org.carlspring.strongbox.artifact.coordinates;
 import java.net.URI;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 
 import org.carlspring.strongbox.data.domain.GenericEntity;
 
@@ -20,6 +21,11 @@ public abstract class AbstractArtifactCoordinates<C extends AbstractArtifactCoor
      * This field is used as unique OrientDB index.
      */
     private String path;
+    /**
+     * Indexed lower case tokens of the coordinate values, see {@link ArtifactCoordinatesSearchTokens}. They are only
+     * computed when the coordinates are persisted, see {@link #prepareSearchTokens()}.
+     */
+    private Set<String> searchTokens;
 
     public AbstractArtifactCoordinates()
     {
@@ -40,6 +46,7 @@ public abstract class AbstractArtifactCoordinates<C extends AbstractArtifactCoor
         }
         
         this.path = null;
+        this.searchTokens = null;
     }
 
     public void dump()
@@ -54,6 +61,7 @@ public abstract class AbstractArtifactCoordinates<C extends AbstractArtifactCoor
     {
         coordinates.put(coordinate, null);
         this.path = toPath();
+        this.searchTokens = null;
     }
 
     protected String getCoordinate(String coordinate)
@@ -66,6 +74,7 @@ public abstract class AbstractArtifactCoordinates<C extends AbstractArtifactCoor
     {
         String result = coordinates.put(coordinate, value);
         this.path = toPath();
+        this.searchTokens = null;
         return result;
     }
 
@@ -78,6 +87,7 @@ public abstract class AbstractArtifactCoordinates<C extends AbstractArtifactCoor
     {
         this.coordinates = coordinates;
         this.path = toPath();
+        this.searchTokens = null;
     }
     
     public String getPath()
@@ -85,6 +95,18 @@ public abstract class AbstractArtifactCoordinates<C extends AbstractArtifactCoor
         return path;
     }
 
+    /**
+     * Computes the search tokens of the current coordinate values, unless they are up to date already. Called right
+     * before the coordinates are persisted, rather than on every change of the coordinates.
+     */
+    public void prepareSearchTokens()
+    {
+        if (searchTokens == null)
+        {
+            searchTokens = ArtifactCoordinatesSearchTokens.of(coordinates);
+        }
+    }
+
     protected void setPath(String path)
     {
         this.path = path;
@@ -0,0 +1,77 @@
+package org.carlspring.strongbox.artifact.coordinates;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Normalized, lower case, search tokens of the {@link ArtifactCoordinates}, which are stored within the indexed
+ * {@link #PROPERTY} of the coordinates. Every coordinate value produces an exact token ({@code name=value}), used by the
+ * strict searches, and the {@link #NGRAM_LENGTH}-grams of the value ({@code name~gram}), used by the {@code LIKE
+ * %value%} searches: any value containing the searched one contains all its n-grams.
+ *
+ * @see org.carlspring.strongbox.services.support.ArtifactCoordinatesSearchIndex
+ */
+public class ArtifactCoordinatesSearchTokens
+{
+
+    public static final String PROPERTY = "searchTokens";
+
+    public static final int NGRAM_LENGTH = 3;
+
+    private ArtifactCoordinatesSearchTokens()
+    {
+    }
+
+    public static Set<String> of(Map<String, String> coordinates)
+    {
+        if (coordinates == null)
+        {
+            return Collections.emptySet();
+        }
+
+        Set<String> result = new LinkedHashSet<>();
+        for (Map.Entry<String, String> coordinate : coordinates.entrySet())
+        {
+            if (coordinate.getValue() == null)
+            {
+                continue;
+            }
+
+            result.add(exact(coordinate.getKey(), coordinate.getValue()));
+            result.addAll(ngrams(coordinate.getKey(), coordinate.getValue()));
+        }
+
+        return result;
+    }
+
+    public static String exact(String name,
+                               String value)
+    {
+        return name + "=" + value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return the n-gram tokens of the value, empty if the value is shorter than {@link #NGRAM_LENGTH}
+     */
+    public static Set<String> ngrams(String name,
+                                     String value)
+    {
+        String normalizedValue = value.toLowerCase(Locale.ROOT);
+        if (normalizedValue.length() < NGRAM_LENGTH)
+        {
+            return Collections.emptySet();
+        }
+
+        Set<String> result = new LinkedHashSet<>();
+        for (int i = 0; i + NGRAM_LENGTH <= normalizedValue.length(); i++)
+        {
+            result.add(name + "~" + normalizedValue.substring(i, i + NGRAM_LENGTH));
+        }
+
+        return result;
+    }
+
+}
@@ -0,0 +1,351 @@
+package org.carlspring.strongbox.providers.io;
+
+import org.carlspring.strongbox.booters.PropertiesBooter;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.CopyOption;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.apache.commons.codec.digest.MessageDigestAlgorithms;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Optional content-addressable storage of the artifact files, enabled with {@code strongbox.storage.blobs.enabled}.
+ * <p>
+ * Every artifact file is stored once as a blob, named by its {@link #getDigestAlgorithm() digest}, and the repository
+ * paths are hard links to the blobs. The link count of a blob is its reference count: moving a path to the trash
+ * keeps the reference, deleting it drops the reference, and a copy of a path is just one more link. The blobs which
+ * are not referenced by any path anymore are deleted by {@link #collectGarbage()}, which the
+ * {@code CollectUnreferencedBlobsCronJob} runs.
+ * <p>
+ * This relies on the repository files never being modified in place: every write goes to the temporary directory
+ * first and then replaces the repository path, see {@link StorageFileSystemProvider#newOutputStream}. The paths of a
+ * file system or a device other than the ones of the blob store, since hard links can't cross devices, and the files
+ * stored before the blob store was enabled, keep being plain files.
+ */
+@Component
+public class ContentAddressableBlobStore
+        implements InitializingBean
+{
+
+    public static final String DEFAULT_DIGEST_ALGORITHM = MessageDigestAlgorithms.SHA_256;
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentAddressableBlobStore.class);
+
+    private static final String LINK_COUNT_ATTRIBUTE = "unix:nlink";
+
+    private static final String DEVICE_ATTRIBUTE = "unix:dev";
+
+    @Value("${strongbox.storage.blobs.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * Any algorithm of the registered security providers, a faster one than SHA-256 can be plugged in this way.
+     */
+    @Value("${strongbox.storage.blobs.digestAlgorithm:" + DEFAULT_DIGEST_ALGORITHM + "}")
+    private String digestAlgorithm;
+
+    @Inject
+    private PropertiesBooter propertiesBooter;
+
+    /**
+     * Linking a path to a blob holds the read lock, so that the garbage collection, holding the write lock, never
+     * deletes a blob which is about to get a new reference.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Path basedir;
+
+    /**
+     * The blobs of other algorithms than the default one are kept apart, so that their names never clash.
+     */
+    private Path digestBasedir;
+
+    /**
+     * The device of the blob store, only the files of the same device can be linked to the blobs.
+     */
+    private Object device;
+
+    @Override
+    public void afterPropertiesSet()
+        throws IOException, NoSuchAlgorithmException
+    {
+        if (!enabled)
+        {
+            return;
+        }
+
+        // fail fast on an algorithm which is not available
+        MessageDigest.getInstance(digestAlgorithm);
+
+        basedir = Paths.get(propertiesBooter.getVaultDirectory(), "blobs").toAbsolutePath().normalize();
+        Files.createDirectories(basedir);
+        digestBasedir = DEFAULT_DIGEST_ALGORITHM.equals(digestAlgorithm) ?
+                        basedir :
+                        basedir.resolve(digestAlgorithm.toLowerCase().replaceAll("[^a-z0-9]", ""));
+
+        if (!basedir.getFileSystem().supportedFileAttributeViews().contains("unix"))
+        {
+            logger.warn("File system of [{}] doesn't support hard link counts, the blob store is disabled.", basedir);
+            enabled = false;
+
+            return;
+        }
+        device = Files.getAttribute(basedir, DEVICE_ATTRIBUTE);
+
+        logger.info("Blob store enabled at [{}].", basedir);
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public String getDigestAlgorithm()
+    {
+        return digestAlgorithm;
+    }
+
+    /**
+     * @return whether the file can be linked to the blobs, which is only the case for files of the blob store file
+     *         system and device (the device of the closest existing directory, if the file doesn't exist yet)
+     */
+    public boolean supports(Path path)
+    {
+        if (!enabled || !path.getFileSystem().equals(basedir.getFileSystem()))
+        {
+            return false;
+        }
+
+        Path existingPath = path.toAbsolutePath();
+        while (existingPath != null && !Files.exists(existingPath))
+        {
+            existingPath = existingPath.getParent();
+        }
+
+        try
+        {
+            return existingPath != null && device.equals(Files.getAttribute(existingPath, DEVICE_ATTRIBUTE));
+        }
+        catch (IOException e)
+        {
+            logger.debug("Failed to read the device of [{}].", existingPath, e);
+
+            return false;
+        }
+    }
+
+    public boolean supports(RepositoryPath path)
+    {
+        return supports(path.getTarget());
+    }
+
+    /**
+     * Moves the file to the target path as a reference to the blob of the given digest. The file becomes the blob
+     * itself, if there is no such blob yet.
+     */
+    public void move(Path file,
+                     String digest,
+                     Path target)
+        throws IOException
+    {
+        Path blob = resolveBlob(digest);
+
+        lock.readLock().lock();
+        try
+        {
+            if (!Files.exists(blob))
+            {
+                Files.createDirectories(blob.getParent());
+                try
+                {
+                    Files.createLink(blob, file);
+                }
+                catch (FileAlreadyExistsException e)
+                {
+                    logger.debug("Blob [{}] stored concurrently.", digest);
+                }
+            }
+
+            Path source = file;
+            if (!Files.isSameFile(blob, file))
+            {
+                if (Files.size(blob) != Files.size(file))
+                {
+                    logger.warn("Blob [{}] doesn't match [{}], storing it as a plain file.", blob, target);
+
+                    Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+
+                    return;
+                }
+
+                source = file.resolveSibling(file.getFileName() + "." + UUID.randomUUID());
+                Files.createLink(source, blob);
+            }
+
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+            Files.deleteIfExists(file);
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Copies the files as links to the same blobs, just like
+     * {@link org.carlspring.strongbox.services.ArtifactManagementService#copy(RepositoryPath, RepositoryPath)} does,
+     * the existing files are only replaced when copying a directory.
+     */
+    public void copy(RepositoryPath srcPath,
+                     RepositoryPath destPath)
+        throws IOException
+    {
+        if (!Files.isDirectory(srcPath))
+        {
+            Files.createDirectories(destPath.getTarget().getParent());
+            link(srcPath.getTarget(), destPath.getTarget());
+
+            return;
+        }
+
+        // walking the repository paths skips the trash and temporary directories
+        try (Stream<Path> paths = Files.walk(srcPath))
+        {
+            for (Path path : (Iterable<Path>) paths::iterator)
+            {
+                Path src = ((RepositoryPath) path).getTarget();
+                Path dest = destPath.getTarget().resolve(srcPath.getTarget().relativize(src).toString());
+                if (Files.isDirectory(src))
+                {
+                    Files.createDirectories(dest);
+                }
+                else
+                {
+                    link(src, dest, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+        catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Copies the source file to the target path as one more link to the same file, which takes constant time
+     * regardless of the file size. The file is copied as a plain file if it can't be linked, like when the target is
+     * on another device or the file has reached the maximum number of links.
+     */
+    public void link(Path source,
+                     Path target,
+                     CopyOption... options)
+        throws IOException
+    {
+        lock.readLock().lock();
+        try
+        {
+            if (Files.exists(target))
+            {
+                if (!Arrays.asList(options).contains(StandardCopyOption.REPLACE_EXISTING))
+                {
+                    throw new FileAlreadyExistsException(target.toString());
+                }
+
+                Files.delete(target);
+            }
+
+            try
+            {
+                Files.createLink(target, source);
+            }
+            catch (FileAlreadyExistsException e)
+            {
+                throw e;
+            }
+            catch (FileSystemException e)
+            {
+                logger.debug("Failed to link [{}] to [{}], copying it.", target, source, e);
+
+                Files.copy(source, target);
+            }
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Deletes the blobs which are not referenced by any repository path anymore.
+     *
+     * @return the number of blobs deleted
+     */
+    public long collectGarbage()
+        throws IOException
+    {
+        if (!enabled)
+        {
+            return 0;
+        }
+
+        long result = 0;
+        try (Stream<Path> paths = Files.walk(basedir))
+        {
+            for (Iterator<Path> iterator = paths.filter(Files::isRegularFile).iterator(); iterator.hasNext(); )
+            {
+                Path blob = iterator.next();
+
+                lock.writeLock().lock();
+                try
+                {
+                    if ((Integer) Files.getAttribute(blob, LINK_COUNT_ATTRIBUTE) == 1)
+                    {
+                        Files.delete(blob);
+                        result++;
+                    }
+                }
+                catch (NoSuchFileException e)
+                {
+                    logger.debug("Blob [{}] already deleted.", blob);
+                }
+                finally
+                {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+        catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+
+        return result;
+    }
+
+    Path resolveBlob(String digest)
+    {
+        return digestBasedir.resolve(digest.substring(0, 2)).resolve(digest.substring(2, 4)).resolve(digest);
+    }
+
+}
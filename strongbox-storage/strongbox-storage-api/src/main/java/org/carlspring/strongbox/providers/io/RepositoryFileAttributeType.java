@@ -1,6 +1,9 @@
 package org.carlspring.strongbox.providers.io;
 
 import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 public enum RepositoryFileAttributeType
 {
@@ -27,6 +30,10 @@ public enum RepositoryFileAttributeType
     
     STORAGE_ID("storageId");
 
+    private static final Map<String, RepositoryFileAttributeType> VALUES_BY_NAME = Arrays.stream(values())
+                                                                                      .collect(Collectors.toMap(RepositoryFileAttributeType::getName,
+                                                                                                                Function.identity()));
+
     private String name;
 
     private RepositoryFileAttributeType(String name)
@@ -41,10 +48,13 @@ public enum RepositoryFileAttributeType
 
     public static RepositoryFileAttributeType of(String s)
     {
-        return Arrays.stream(values())
-                     .filter(e -> e.getName().equals(s))
-                     .findFirst()
-                     .orElseThrow(() -> new IllegalArgumentException(s));
+        RepositoryFileAttributeType result = VALUES_BY_NAME.get(s);
+        if (result == null)
+        {
+            throw new IllegalArgumentException(s);
+        }
+
+        return result;
     }
 
 }
@@ -8,10 +8,12 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.URL;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.attribute.FileTime;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Set;
 import java.util.StringJoiner;
 import java.util.stream.Collectors;
@@ -31,31 +33,31 @@ public abstract class RepositoryFiles
     public static Boolean isChecksum(RepositoryPath path)
         throws IOException
     {
-        return (Boolean) Files.getAttribute(path, formatAttributes(RepositoryFileAttributeType.CHECKSUM));
+        return (Boolean) readAttribute(path, RepositoryFileAttributeType.CHECKSUM);
     }
 
     public static Boolean isMetadata(RepositoryPath path)
         throws IOException
     {
-        return (Boolean) Files.getAttribute(path, formatAttributes(RepositoryFileAttributeType.METADATA));
+        return (Boolean) readAttribute(path, RepositoryFileAttributeType.METADATA);
     }
 
     public static Boolean isTrash(RepositoryPath path)
         throws IOException
     {
-        return (Boolean) Files.getAttribute(path, formatAttributes(RepositoryFileAttributeType.TRASH));
+        return (Boolean) readAttribute(path, RepositoryFileAttributeType.TRASH);
     }
 
     public static Boolean isTemp(RepositoryPath path)
         throws IOException
     {
-        return (Boolean) Files.getAttribute(path, formatAttributes(RepositoryFileAttributeType.TEMP));
+        return (Boolean) readAttribute(path, RepositoryFileAttributeType.TEMP);
     }
     
     public static Boolean isArtifact(RepositoryPath path)
         throws IOException
     {
-        return (Boolean) Files.getAttribute(path, formatAttributes(RepositoryFileAttributeType.ARTIFACT));
+        return (Boolean) readAttribute(path, RepositoryFileAttributeType.ARTIFACT);
     }
 
     public static boolean wasModifiedAfter(RepositoryPath path,
@@ -69,22 +71,28 @@ public abstract class RepositoryFiles
     public static Boolean hasExpired(RepositoryPath path)
             throws IOException
     {
-        return (Boolean) Files.getAttribute(path, formatAttributes(RepositoryFileAttributeType.EXPIRED));
+        return (Boolean) readAttribute(path, RepositoryFileAttributeType.EXPIRED);
     }
 
     public static ArtifactCoordinates readCoordinates(RepositoryPath path)
         throws IOException
     {
-        return (ArtifactCoordinates) Files.getAttribute(path,
-                                                        formatAttributes(RepositoryFileAttributeType.COORDINATES));
+        return (ArtifactCoordinates) readAttribute(path, RepositoryFileAttributeType.COORDINATES);
     }
 
     public static URL readResourceUrl(RepositoryPath path)
         throws IOException
     {
-        return (URL) Files.getAttribute(path, formatAttributes(RepositoryFileAttributeType.RESOURCE_URL));
+        return (URL) readAttribute(path, RepositoryFileAttributeType.RESOURCE_URL);
     }
     
+    private static Object readAttribute(RepositoryPath path,
+                                        RepositoryFileAttributeType attributeType)
+        throws IOException
+    {
+        return path.getFileSystem().provider().readAttribute(path, attributeType);
+    }
+
     public static String formatAttributes(RepositoryFileAttributeType... attributeTypes)
     {
         if (attributeTypes == null)
@@ -109,12 +117,11 @@ public abstract class RepositoryFiles
         String attributesLocal = attributes.replace(schemePrefix, "").trim();
         if (attributesLocal.equals("*"))
         {
-            return Arrays.stream(RepositoryFileAttributeType.values())
-                         .collect(Collectors.toSet());
+            return EnumSet.allOf(RepositoryFileAttributeType.class);
         }
         return Arrays.stream(attributesLocal.split(","))
                      .map(e -> RepositoryFileAttributeType.of(e))
-                     .collect(Collectors.toSet());
+                     .collect(Collectors.toCollection(() -> EnumSet.noneOf(RepositoryFileAttributeType.class)));
     }
 
     public static URI relativizeUri(RepositoryPath p)
@@ -145,6 +152,19 @@ public abstract class RepositoryFiles
     {
         return TempRepositoryPath.of(p);
     }
+
+    /**
+     * Creates a plain file within the temporary directory of the repository, which is not a {@link RepositoryPath}
+     * itself and so is not involved into the artifact store process.
+     */
+    public static Path createTempFile(RepositoryPath p,
+                                      String suffix)
+        throws IOException
+    {
+        Path tempPath = temporary(p).getTarget();
+
+        return Files.createTempFile(tempPath.getParent(), tempPath.getFileName().toString(), suffix);
+    }
     
     public static RepositoryPath trash(RepositoryPath p)
         throws IOException
@@ -4,6 +4,7 @@ import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
 import org.carlspring.strongbox.configuration.ConfigurationManager;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.services.support.ArtifactEntryLookupCache;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
 
@@ -11,6 +12,7 @@ import javax.inject.Inject;
 import java.io.IOException;
 import java.util.Objects;
 
+import org.javatuples.Pair;
 import org.springframework.stereotype.Component;
 
 /**
@@ -29,6 +31,9 @@ public class RepositoryPathResolver
     @Inject
     protected RepositoryFileSystemRegistry fileSystemRegistry;
 
+    @Inject
+    protected ArtifactEntryLookupCache artifactEntryLookupCache;
+
     public RootRepositoryPath resolve(final Repository repository)
     {
         Objects.requireNonNull(repository, "Repository should be provided");
@@ -80,9 +85,15 @@ public class RepositoryPathResolver
         return new CachedRepositoryPath(repositoryPath.resolve(path));
     }
     
+    /**
+     * Memoizes the record id of the {@link ArtifactEntry} found, until the {@link ArtifactEntryLookupCache} generation
+     * of the path changes. The entry itself is loaded and detached on every call, as the callers update it.
+     */
     private class CachedRepositoryPath extends RepositoryPath
     {
 
+        private volatile Pair<String, Long> cachedArtifactEntryId;
+
         private CachedRepositoryPath(RepositoryPath target)
         {
             super(target.getTarget(), target.getFileSystem());
@@ -97,9 +108,25 @@ public class RepositoryPathResolver
                 return null;
             }
 
-            return artifactEntryService.findOneArtifact(getRepository().getStorage().getId(),
-                                                        getRepository().getId(),
-                                                        RepositoryFiles.relativizePath(this));
+            String storageId = getRepository().getStorage().getId();
+            String repositoryId = getRepository().getId();
+            String path = RepositoryFiles.relativizePath(this);
+
+            long generation = artifactEntryLookupCache.getGeneration(storageId, repositoryId, path);
+            Pair<String, Long> cached = cachedArtifactEntryId;
+            if (cached != null && cached.getValue1() == generation)
+            {
+                ArtifactEntry result = artifactEntryService.findOneArtifactById(cached.getValue0());
+                if (result != null)
+                {
+                    return result;
+                }
+            }
+
+            ArtifactEntry result = artifactEntryService.findOneArtifact(storageId, repositoryId, path);
+            cachedArtifactEntryId = result == null ? null : Pair.with(result.getObjectId(), generation);
+
+            return result;
             // TODO: we should check this restriction 
 //            if (Files.exists(this) && !Files.isDirectory(this) && RepositoryFiles.isArtifact(this) && result == null)
 //            {
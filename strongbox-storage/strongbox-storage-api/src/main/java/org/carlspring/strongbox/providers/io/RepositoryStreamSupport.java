@@ -3,7 +3,11 @@ package org.carlspring.strongbox.providers.io;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Optional;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -185,6 +189,10 @@ public class RepositoryStreamSupport
             extends ProxyInputStream
     {
 
+        private FileChannel fileChannel;
+
+        private long bytesCopied;
+
         protected RepositoryInputStream(Path path,
                                         InputStream in) throws IOException
         {
@@ -221,20 +229,129 @@ public class RepositoryStreamSupport
         protected void beforeRead(int n)
             throws IOException
         {
-            if (((CountingInputStream) in).getByteCount() == 0)
+            if (getBytesRead() == 0)
             {
                 callback.onBeforeRead((RepositoryStreamReadContext) ctx);
             }
         }
 
+        private long getBytesRead()
+        {
+            return ((CountingInputStream) in).getByteCount() + bytesCopied;
+        }
+
+        /**
+         * @return {@code true} if the file content can be copied with
+         *         {@link #copyTo(long, long, OutputStream, byte[])}, which is not the case for the file systems
+         *         without {@link FileChannel} support.
+         */
+        public boolean isDirectCopySupported()
+            throws IOException
+        {
+            try
+            {
+                getFileChannel();
+            }
+            catch (UnsupportedOperationException e)
+            {
+                logger.debug("The path [{}] can't be copied directly.", getContext().getPath(), e);
+
+                return false;
+            }
+
+            return true;
+        }
+
+        public long size()
+            throws IOException
+        {
+            return getFileChannel().size();
+        }
+
+        /**
+         * Copies a range of the file content with positional reads of the file channel, so that the bytes don't go
+         * through the decorating streams and the checksums are not calculated. The read callbacks are invoked the same
+         * way as for the bytes which were read from this stream.
+         * <p>
+         * Positional reads don't change the channel position, so the ranges can be copied in any order.
+         */
+        public long copyTo(long position,
+                           long count,
+                           OutputStream target,
+                           byte[] buffer)
+            throws IOException
+        {
+            FileChannel channel = getFileChannel();
+            beforeRead((int) Math.min(count, Integer.MAX_VALUE));
+
+            ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+            long result = 0;
+            while (result < count)
+            {
+                byteBuffer.clear();
+                byteBuffer.limit((int) Math.min(buffer.length, count - result));
+
+                int read = channel.read(byteBuffer, position + result);
+                if (read <= 0)
+                {
+                    break;
+                }
+
+                target.write(buffer, 0, read);
+
+                result += read;
+                bytesCopied += read;
+            }
+
+            return result;
+        }
+
+        /**
+         * Positions the file channel, so that the file content can be read from it up to the end of the file without
+         * going through the decorating streams. The read callbacks are invoked the same way as for
+         * {@link #copyTo(long, long, OutputStream, byte[])}.
+         * <p>
+         * The channel is closed with this stream.
+         */
+        public ReadableByteChannel getChannel(long position)
+            throws IOException
+        {
+            FileChannel channel = getFileChannel();
+
+            long count = Math.max(0L, channel.size() - position);
+            beforeRead((int) Math.min(count, Integer.MAX_VALUE));
+
+            channel.position(position);
+            bytesCopied += count;
+
+            return channel;
+        }
+
+        private FileChannel getFileChannel()
+            throws IOException
+        {
+            if (fileChannel == null)
+            {
+                RepositoryPath path = (RepositoryPath) getContext().getPath();
+                fileChannel = FileChannel.open(path.getTarget(), StandardOpenOption.READ);
+            }
+
+            return fileChannel;
+        }
+
         @Override
         public void close()
             throws IOException
         {
             try
             {
+                if (fileChannel != null)
+                {
+                    fileChannel.close();
+                }
+
                 super.close();
-                if (((CountingInputStream) in).getByteCount() > 0) 
+                if (getBytesRead() > 0)
                 {
                     callback.onAfterRead((RepositoryStreamReadContext) ctx);
                 }
@@ -24,8 +24,9 @@ import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.FileAttribute;
 import java.nio.file.attribute.FileAttributeView;
 import java.nio.file.spi.FileSystemProvider;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumMap;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Optional;
@@ -34,7 +35,9 @@ import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import org.apache.commons.io.output.ProxyOutputStream;
+import org.carlspring.strongbox.io.MultipleDigestEngine;
 import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.util.MessageDigestUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.FileSystemUtils;
@@ -356,6 +359,17 @@ public abstract class StorageFileSystemProvider
 
     public RepositoryPath moveFromTemporaryDirectory(TempRepositoryPath tempPath)
         throws IOException
+    {
+        return moveFromTemporaryDirectory(tempPath, null);
+    }
+
+    /**
+     * @param contentDigest the {@link ContentAddressableBlobStore#getDigestAlgorithm()} digest of the temporary file,
+     *                      to store it within the blob store, or {@code null} to store it as a plain file
+     */
+    protected RepositoryPath moveFromTemporaryDirectory(TempRepositoryPath tempPath,
+                                                        String contentDigest)
+        throws IOException
     {
         logger.debug("Moving [{}]", tempPath.getTarget());
         RepositoryPath path = tempPath.getTempTarget();
@@ -373,7 +387,14 @@ public abstract class StorageFileSystemProvider
         {
             Files.delete(path.getTarget());
         }
-        Files.move(tempPath.getTarget(), path.getTarget(), StandardCopyOption.ATOMIC_MOVE);
+        if (contentDigest != null)
+        {
+            getBlobStore().move(tempPath.getTarget(), contentDigest, path.getTarget());
+        }
+        else
+        {
+            Files.move(tempPath.getTarget(), path.getTarget(), StandardCopyOption.ATOMIC_MOVE);
+        }
 
         //path.artifactEntry = tempPath.artifactEntry;
 
@@ -446,9 +467,63 @@ public abstract class StorageFileSystemProvider
                                         OpenOption... options)
         throws IOException
     {
-        TempRepositoryPath temp = RepositoryFiles.temporary((RepositoryPath) path);
+        RepositoryPath repositoryPath = (RepositoryPath) path;
+        TempRepositoryPath temp = RepositoryFiles.temporary(repositoryPath);
         
-        return new TempOutputStream(temp, options);
+        return new TempOutputStream(temp, isContentAddressable(repositoryPath) ? newContentDigest() : null, options);
+    }
+
+    /**
+     * @return the blob store to keep the artifact files within, if there is one
+     */
+    protected ContentAddressableBlobStore getBlobStore()
+    {
+        return null;
+    }
+
+    private boolean isContentAddressable(RepositoryPath path)
+        throws IOException
+    {
+        ContentAddressableBlobStore blobStore = getBlobStore();
+
+        return blobStore != null && blobStore.supports(unwrap(path)) && RepositoryFiles.isArtifact(path);
+    }
+
+    private MultipleDigestEngine newContentDigest()
+        throws IOException
+    {
+        MultipleDigestEngine result = new MultipleDigestEngine();
+        try
+        {
+            result.addAlgorithm(getBlobStore().getDigestAlgorithm());
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IOException(e);
+        }
+
+        return result;
+    }
+
+    /**
+     * Lets a stream of {@link #newOutputStream} take the blob key from the given digests of the same content, instead
+     * of computing it a second time. The digests must be updated with the whole content before the stream is closed,
+     * like the ones of a stream which decorates it.
+     */
+    protected void shareContentDigest(OutputStream os,
+                                      MultipleDigestEngine digestEngine)
+    {
+        if (os instanceof TempOutputStream)
+        {
+            ((TempOutputStream) os).shareContentDigest(digestEngine);
+        }
+    }
+
+    private OutputStream newTempOutputStream(TempRepositoryPath path,
+                                             OpenOption... options)
+        throws IOException
+    {
+        return super.newOutputStream(unwrap(path), options);
     }
 
     public void copy(Path source,
@@ -519,9 +594,7 @@ public abstract class StorageFileSystemProvider
         }
 
         RepositoryFileAttributes repositoryFileAttributes = new RepositoryFileAttributes(targetAttributes,
-                getRepositoryFileAttributes((RepositoryPath) path,
-                                            RepositoryFiles.parseAttributes("*")
-                                                           .toArray(new RepositoryFileAttributeType[] {})));
+                getRepositoryFileAttributes((RepositoryPath) path, RepositoryFileAttributeType.values()));
 
         return (A) repositoryFileAttributes;
     }
@@ -548,10 +621,9 @@ public abstract class StorageFileSystemProvider
             }
         }
 
-        Set<RepositoryFileAttributeType> targetRepositoryAttributes = new HashSet<>(
-                RepositoryFiles.parseAttributes(attributes));
+        Set<RepositoryFileAttributeType> targetRepositoryAttributes = RepositoryFiles.parseAttributes(attributes);
 
-        final Map<RepositoryFileAttributeType, Object> repositoryFileAttributes = new HashMap<>();
+        final Map<RepositoryFileAttributeType, Object> repositoryFileAttributes = new EnumMap<>(RepositoryFileAttributeType.class);
         for (Iterator<RepositoryFileAttributeType> iterator = targetRepositoryAttributes.iterator(); iterator.hasNext();)
         {
             RepositoryFileAttributeType repositoryFileAttributeType = iterator.next();
@@ -585,6 +657,27 @@ public abstract class StorageFileSystemProvider
         return result;
     }
 
+    /**
+     * Typed alternative to {@link #readAttributes(Path, String, LinkOption...)}, which reads a single
+     * {@link RepositoryFileAttributeType} without formatting and parsing the attribute names.
+     */
+    public Object readAttribute(RepositoryPath repositoryPath,
+                                RepositoryFileAttributeType attributeType)
+        throws IOException
+    {
+        Object value = repositoryPath.cachedAttributes.get(attributeType);
+        if (value != null)
+        {
+            return value;
+        }
+
+        Map<RepositoryFileAttributeType, Object> newAttributes = getRepositoryFileAttributes(repositoryPath,
+                                                                                             attributeType);
+        repositoryPath.cachedAttributes.putAll(newAttributes);
+
+        return newAttributes.get(attributeType);
+    }
+
     protected abstract Map<RepositoryFileAttributeType, Object> getRepositoryFileAttributes(RepositoryPath repositoryRelativePath,
                                                                                             RepositoryFileAttributeType... attributeTypes)
         throws IOException;
@@ -656,24 +749,92 @@ public abstract class StorageFileSystemProvider
 
         private TempRepositoryPath path;
 
+        private MultipleDigestEngine contentDigest;
+
+        /**
+         * Whether the content digest is updated by another stream, see {@link #shareContentDigest}.
+         */
+        private boolean contentDigestShared;
+
         public TempOutputStream(TempRepositoryPath path,
+                                MultipleDigestEngine contentDigest,
                                 OpenOption... options)
             throws IOException
         {
-            super(StorageFileSystemProvider.super.newOutputStream(unwrap(path), options));
+            super(newTempOutputStream(path, options));
 
             this.path = path;
+            this.contentDigest = contentDigest;
+        }
+
+        private void shareContentDigest(MultipleDigestEngine digestEngine)
+        {
+            if (contentDigest == null || contentDigestShared ||
+                !digestEngine.getAlgorithms().contains(getBlobStore().getDigestAlgorithm()))
+            {
+                return;
+            }
+
+            contentDigest.close();
+            contentDigest = digestEngine;
+            contentDigestShared = true;
+        }
+
+        @Override
+        public void write(int b)
+            throws IOException
+        {
+            super.write(b);
+            if (contentDigest != null && !contentDigestShared)
+            {
+                contentDigest.update(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b)
+            throws IOException
+        {
+            write(b, 0, b.length);
+        }
+
+        @Override
+        public void write(byte[] b,
+                          int off,
+                          int len)
+            throws IOException
+        {
+            super.write(b, off, len);
+            if (contentDigest != null && !contentDigestShared)
+            {
+                contentDigest.update(b, off, len);
+            }
         }
 
         @Override
         public void close()
             throws IOException
         {
-            super.close();
+            try
+            {
+                super.close();
+            }
+            catch (IOException e)
+            {
+                if (contentDigest != null && !contentDigestShared)
+                {
+                    contentDigest.close();
+                }
+
+                throw e;
+            }
 
             try
             {
-                moveFromTemporaryDirectory(path);
+                moveFromTemporaryDirectory(path,
+                                           contentDigest == null ? null :
+                                           MessageDigestUtils.convertToHexadecimalString(
+                                                   contentDigest.digest().get(getBlobStore().getDigestAlgorithm())));
             } 
             finally
             {
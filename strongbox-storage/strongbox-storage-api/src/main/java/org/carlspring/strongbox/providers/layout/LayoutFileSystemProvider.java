@@ -12,6 +12,7 @@ import org.carlspring.strongbox.io.LazyInputStream;
 import org.carlspring.strongbox.io.LazyOutputStream;
 import org.carlspring.strongbox.io.LazyOutputStream.OutputStreamSupplier;
 import org.carlspring.strongbox.io.StreamUtils;
+import org.carlspring.strongbox.providers.io.ContentAddressableBlobStore;
 import org.carlspring.strongbox.providers.io.RepositoryFileAttributeType;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
@@ -30,11 +31,15 @@ import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.spi.FileSystemProvider;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 
+import org.apache.commons.codec.digest.MessageDigestAlgorithms;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -51,6 +56,13 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
 
     private static final Logger logger = LoggerFactory.getLogger(LayoutFileSystemProvider.class);
 
+    /**
+     * Digests computed in addition to the layout ones, which are only recorded in the
+     * {@link ArtifactEntry#getChecksums()} (and served as response headers), without checksum files.
+     */
+    private static final Set<String> RECORDED_DIGEST_ALGORITHMS = Collections.unmodifiableSet(
+            new LinkedHashSet<>(Arrays.asList(MessageDigestAlgorithms.SHA_256, MessageDigestAlgorithms.SHA_512)));
+
     @Inject
     private ArtifactEventListenerRegistry artifactEventListenerRegistry;
     
@@ -60,6 +72,8 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
     @Inject
     private ArtifactEntryService artifactEntryService;
 
+    @Inject
+    private ContentAddressableBlobStore blobStore;
 
     public LayoutFileSystemProvider(FileSystemProvider storageFileSystemProvider)
     {
@@ -67,6 +81,12 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
     }
 
     protected abstract AbstractLayoutProvider getLayoutProvider();
+
+    @Override
+    protected ContentAddressableBlobStore getBlobStore()
+    {
+        return blobStore;
+    }
     
     @Override
     public LazyInputStream newInputStream(Path path,
@@ -138,7 +158,11 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
 
             try
             {
-                return decorateStream((RepositoryPath) path, super.newOutputStream(path, options));
+                OutputStream os = super.newOutputStream(path, options);
+                LayoutOutputStream result = decorateStream((RepositoryPath) path, os);
+                shareContentDigest(os, result.getDigestEngine());
+
+                return result;
             }
             catch (NoSuchAlgorithmException e)
             {
@@ -160,17 +184,17 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
             return result;
         }
         
-        digestAlgorithmSet.stream()
-                          .forEach(e -> {
-                              try
-                              {
-                                  result.addAlgorithm(e);
-                              }
-                              catch (NoSuchAlgorithmException t)
-                              {
-                                  logger.error("Digest algorithm not supported: alg-[{}]", e, t);
-                              }
-                          });
+        Stream.concat(digestAlgorithmSet.stream(), RECORDED_DIGEST_ALGORITHMS.stream())
+              .forEach(e -> {
+                  try
+                  {
+                      result.addAlgorithm(e);
+                  }
+                  catch (NoSuchAlgorithmException t)
+                  {
+                      logger.error("Digest algorithm not supported: alg-[{}]", e, t);
+                  }
+              });
         return result;
     }
     
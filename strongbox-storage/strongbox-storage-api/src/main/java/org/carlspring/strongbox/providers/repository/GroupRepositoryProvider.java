@@ -4,20 +4,30 @@ package org.carlspring.strongbox.providers.repository;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Iterator;
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 
+import org.carlspring.strongbox.artifact.ArtifactNotFoundException;
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
 import org.carlspring.strongbox.configuration.ConfigurationUtils;
 import org.carlspring.strongbox.data.criteria.OQueryTemplate;
@@ -31,22 +41,53 @@ import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
 import org.carlspring.strongbox.providers.repository.event.GroupRepositoryPathFetchEvent;
+import org.carlspring.strongbox.providers.repository.group.GroupRepositoryNegativeLookupCache;
+import org.carlspring.strongbox.providers.repository.group.GroupRepositorySearchMerger;
+import org.carlspring.strongbox.providers.repository.group.GroupRepositorySearchMerger.MemberFetcher;
 import org.carlspring.strongbox.providers.repository.group.GroupRepositorySetCollector;
+import org.carlspring.strongbox.providers.repository.proxied.RemoteRepositorySkippedException;
 import org.carlspring.strongbox.services.support.ArtifactRoutingRulesChecker;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryHealthService;
 import org.carlspring.strongbox.util.ThrowingFunction;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.orientechnologies.common.concur.OTimeoutException;
+import com.orientechnologies.orient.core.id.ORecordId;
 
 /**
+ * Group paths are resolved from the first group member, in the group order, which has the path. Misses of the
+ * member repositories are remembered by the {@link GroupRepositoryNegativeLookupCache}.
+ * <p>
+ * With {@code strongbox.group.lookup.parallel.enabled}, the hosted members of a group are probed in parallel, while the
+ * other members are still resolved one after another, in the group order, so that the proxied remote repositories are
+ * only asked when none of the preceding members has the path. The result is the same as with the sequential
+ * resolution.
+ * <p>
+ * Proxy members whose remote repository is degraded, according to the {@link RemoteRepositoryHealthService}, are asked
+ * after all the other members.
+ * <p>
+ * Group searches query all the leaf members at once, on up to {@code strongbox.group.search.parallel.threads} threads,
+ * and merge their sorted results with the {@link GroupRepositorySearchMerger}. Keyset pages are merged in the record id
+ * order, the duplicates of a result returned by a previous keyset page are not removed.
+ *
  * @author carlspring
  */
 @Component
 public class GroupRepositoryProvider
         extends AbstractRepositoryProvider
+        implements InitializingBean, DisposableBean
 {
 
     private static final Logger logger = LoggerFactory.getLogger(GroupRepositoryProvider.class);
@@ -68,6 +109,77 @@ public class GroupRepositoryProvider
     @Inject
     private RepositoryPathResolver repositoryPathResolver;
 
+    @Inject
+    private GroupRepositoryNegativeLookupCache negativeLookupCache;
+
+    @Inject
+    private RemoteRepositoryHealthService remoteRepositoryHealthService;
+
+    @Value("${strongbox.group.lookup.parallel.enabled:false}")
+    private boolean parallelLookupEnabled;
+
+    @Value("${strongbox.group.lookup.parallel.threads:8}")
+    private int parallelLookupThreads;
+
+    private ExecutorService parallelLookupExecutor;
+
+    @Value("${strongbox.group.search.parallel.threads:8}")
+    private int parallelSearchThreads;
+
+    /**
+     * Above this duration the exact group count is given up for an approximation, a non positive value always counts
+     * exactly.
+     */
+    @Value("${strongbox.group.count.exactTimeoutMillis:5000}")
+    private long exactCountTimeoutMillis;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    private ExecutorService searchExecutor;
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        if (parallelSearchThreads > 1)
+        {
+            searchExecutor = Executors.newFixedThreadPool(parallelSearchThreads, r -> {
+                Thread thread = new Thread(r, "group-repository-search");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        if (!parallelLookupEnabled)
+        {
+            return;
+        }
+
+        parallelLookupExecutor = Executors.newFixedThreadPool(parallelLookupThreads, r -> {
+            Thread thread = new Thread(r, "group-repository-lookup");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void destroy()
+        throws InterruptedException
+    {
+        if (searchExecutor != null)
+        {
+            searchExecutor.shutdownNow();
+        }
+
+        if (parallelLookupExecutor == null)
+        {
+            return;
+        }
+
+        parallelLookupExecutor.shutdownNow();
+        parallelLookupExecutor.awaitTermination(1, TimeUnit.SECONDS);
+    }
+
     @Override
     public String getAlias()
     {
@@ -102,6 +214,8 @@ public class GroupRepositoryProvider
         Repository groupRepository = repositoryPath.getRepository();
         Storage storage = groupRepository.getStorage();
 
+        List<RepositoryPath> subRepositoryPaths = new ArrayList<>();
+        List<RepositoryPath> degradedSubRepositoryPaths = new ArrayList<>();
         // Iterate over the `repositories` collection.
         for (String storageAndRepositoryId : groupRepository.getGroupRepositories())
         {
@@ -116,20 +230,84 @@ public class GroupRepositoryProvider
                 continue;
             }
 
-            subRepositoryPath = resolvePathFromGroupMemberOrTraverse(subRepositoryPath);
-            if (subRepositoryPath == null)
+            (isDegraded(subRepository) ? degradedSubRepositoryPaths : subRepositoryPaths).add(subRepositoryPath);
+        }
+        subRepositoryPaths.addAll(degradedSubRepositoryPaths);
+
+        List<Future<RepositoryPath>> hostedLookups = lookupHostedRepositoriesInParallel(subRepositoryPaths);
+        try
+        {
+            for (int i = 0; i < subRepositoryPaths.size(); i++)
             {
-                continue;
-            }
+                RepositoryPath subRepositoryPath = hostedLookups.get(i) != null ?
+                                                   getLookupResult(hostedLookups.get(i), subRepositoryPaths.get(i)) :
+                                                   resolvePathFromGroupMemberOrTraverse(subRepositoryPaths.get(i));
+                if (subRepositoryPath == null)
+                {
+                    continue;
+                }
 
-            logger.debug("Located artifact: [{}]", subRepositoryPath);
+                logger.debug("Located artifact: [{}]", subRepositoryPath);
 
-            return subRepositoryPath;
+                return subRepositoryPath;
+            }
+        }
+        finally
+        {
+            hostedLookups.stream().filter(f -> f != null).forEach(f -> f.cancel(false));
         }
 
         return null;
     }
 
+    /**
+     * @return the lookups of the hosted members, {@code null} for the other members, aligned with the member paths
+     */
+    private List<Future<RepositoryPath>> lookupHostedRepositoriesInParallel(List<RepositoryPath> subRepositoryPaths)
+    {
+        List<Future<RepositoryPath>> result = new ArrayList<>(subRepositoryPaths.size());
+        for (RepositoryPath subRepositoryPath : subRepositoryPaths)
+        {
+            result.add(parallelLookupExecutor != null && subRepositoryPaths.size() > 1 &&
+                       subRepositoryPath.getRepository().isHostedRepository() ?
+                       parallelLookupExecutor.submit(() -> resolvePathFromGroupMemberOrTraverse(subRepositoryPath)) :
+                       null);
+        }
+
+        return result;
+    }
+
+    private RepositoryPath getLookupResult(Future<RepositoryPath> lookup,
+                                           RepositoryPath subRepositoryPath)
+            throws IOException
+    {
+        try
+        {
+            return lookup.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+
+            throw new IOException(String.format("Interrupted while resolving [%s]", subRepositoryPath), e);
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause() instanceof IOException)
+            {
+                throw (IOException) e.getCause();
+            }
+
+            throw new IOException(String.format("Failed to resolve [%s]", subRepositoryPath), e.getCause());
+        }
+    }
+
+    private boolean isDegraded(Repository subRepository)
+    {
+        return subRepository.isProxyRepository() &&
+               remoteRepositoryHealthService.isDegraded(subRepository.getRemoteRepository());
+    }
+
     private boolean isRepositoryResolvable(Repository groupRepository,
                                            Repository subRepository,
                                            RepositoryPath repositoryPath)
@@ -175,16 +353,50 @@ public class GroupRepositoryProvider
             return resolvePathTraversal(repositoryPath);
         }
 
+        String storageId = repository.getStorage().getId();
+        String path = RepositoryFiles.relativizePath(repositoryPath);
+        if (negativeLookupCache.isAbsent(storageId, repository.getId(), path))
+        {
+            logger.debug("- Path [{}] is known to be absent from [{}], skipping...",
+                         path, repository.getStorageIdAndRepositoryId());
+
+            return null;
+        }
+
+        long generation = negativeLookupCache.getGeneration(storageId, repository.getId(), path);
         RepositoryProvider provider = repositoryProviderRegistry.getProvider(repository.getType());
+        RepositoryPath result;
         try
         {
-            return (RepositoryPath) provider.fetchPath(repositoryPath);
+            result = provider instanceof ProxyRepositoryProvider ?
+                     ((ProxyRepositoryProvider) provider).fetchPathUnlessSkipped(repositoryPath) :
+                     (RepositoryPath) provider.fetchPath(repositoryPath);
+        }
+        catch (RemoteRepositorySkippedException e)
+        {
+            // A skipped remote repository doesn't tell whether the path is absent, so it's not cached.
+            logger.debug(e.getMessage());
+            return null;
+        }
+        catch (ArtifactNotFoundException e)
+        {
+            // The remote repository of a proxy member has been asked, and it doesn't have the path.
+            logger.debug("- Path [{}] not found in [{}].", path, repository.getStorageIdAndRepositoryId());
+            negativeLookupCache.putAbsent(storageId, repository.getId(), path, generation);
+            return null;
         }
         catch (IOException e)
         {
-            logger.error("Failed to resolve path [{}]", repositoryPath);
+            logger.error("Failed to resolve path [{}]", repositoryPath, e);
             return null;
         }
+
+        if (result == null)
+        {
+            negativeLookupCache.putAbsent(storageId, repository.getId(), path, generation);
+        }
+
+        return result;
     }
 
     @Override
@@ -205,79 +417,161 @@ public class GroupRepositoryProvider
     {
         logger.debug("Search in [{}]:[{}] ...", storageId, repositoryId);
 
-        Map<ArtifactCoordinates, Path> resultMap = new LinkedHashMap<>();
-
         Storage storage = getConfiguration().getStorage(storageId);
         Repository groupRepository = storage.getRepository(repositoryId);
-        Set<Repository> groupRepositorySet = groupRepositorySetCollector.collect(groupRepository);
+        Set<Repository> groupRepositorySet = groupRepositorySetCollector.collect(groupRepository, true);
 
         if (groupRepositorySet.isEmpty())
         {
             return new LinkedList<>();
         }
 
-        int skip = paginator.getSkip();
-        int limit = paginator.getLimit();
+        List<MemberFetcher<Path>> fetchers = groupRepositorySet.stream()
+                                                               .map(r -> paginator.isKeyset() ?
+                                                                         newKeysetFetcher(r, predicate, paginator) :
+                                                                         newFetcher(r, predicate, paginator))
+                                                               .collect(Collectors.toList());
 
-        int groupSize = groupRepositorySet.size();
-        int groupSkip = (skip / (limit * groupSize)) * limit;
-        int groupLimit = limit;
+        boolean byObjectId = paginator.isKeyset() || paginator.getProperty() == null;
+        String[] propertyPath = byObjectId ? null : paginator.getProperty().trim().split("\\.");
 
-        skip = skip - groupSkip;
+        Function<Path, Object> sortKey = byObjectId ? this::getObjectId : p -> getPropertyValue(p, propertyPath);
+        Comparator<Object> comparator = this::compareValues;
 
-        outer:
-        do
-        {
-            Paginator paginatorLocal = new Paginator();
-            paginatorLocal.setLimit(groupLimit);
-            paginatorLocal.setSkip(groupSkip);
-            paginatorLocal.setProperty(paginator.getProperty());
-            paginatorLocal.setOrder(paginator.getOrder());
+        GroupRepositorySearchMerger<Path, Object> merger = new GroupRepositorySearchMerger<>(
+                fetchers,
+                sortKey,
+                !byObjectId && paginator.getOrder() == Paginator.Order.DESC ? comparator.reversed() : comparator,
+                ThrowingFunction.unchecked(this::getArtifactCoordinates),
+                searchExecutor,
+                Paginator.MAX_LIMIT);
 
-            groupLimit = 0;
+        return new LinkedList<>(merger.merge(paginator.isKeyset() ? 0 : paginator.getSkip(), paginator.getLimit()));
+    }
 
-            for (Iterator<Repository> i = groupRepositorySet.iterator(); i.hasNext(); )
-            {
-                Repository r = i.next();
-                RepositoryProvider repositoryProvider = repositoryProviderRegistry.getProvider(r.getType());
+    private MemberFetcher<Path> newFetcher(Repository repository,
+                                           Predicate predicate,
+                                           Paginator paginator)
+    {
+        return (offset, limit) -> {
+            Paginator memberPaginator = new Paginator();
+            memberPaginator.setSkip(offset);
+            memberPaginator.setLimit(limit);
+            memberPaginator.setProperty(paginator.getProperty());
+            memberPaginator.setOrder(paginator.getOrder());
+
+            return searchMember(repository, predicate, memberPaginator);
+        };
+    }
 
-                List<Path> repositoryResult = repositoryProvider.search(r.getStorage().getId(), r.getId(), predicate,
-                                                                        paginatorLocal);
-                if (repositoryResult.isEmpty())
-                {
-                    i.remove();
-                    continue;
-                }
+    /**
+     * The keyset pages of all the members are in the same record id order, so the members continue from the cursor of
+     * the group page, and then each from the last record it returned.
+     */
+    private MemberFetcher<Path> newKeysetFetcher(Repository repository,
+                                                 Predicate predicate,
+                                                 Paginator paginator)
+    {
+        String[] cursor = { paginator.getCursor() };
 
-                // count coordinates intersection
-                groupLimit += repositoryResult.stream()
-                                              .map(ThrowingFunction.unchecked((Path p) -> resultMap.put(getArtifactCoordinates(p), p)))
-                                              .filter(p -> p != null)
-                                              .collect(Collectors.toList())
-                                              .size();
+        return (offset, limit) -> {
+            Paginator memberPaginator = new Paginator();
+            memberPaginator.setCursor(cursor[0]);
+            memberPaginator.setLimit(limit);
 
-                //Break search iterations if we have reached enough list size.
-                if (resultMap.size() >= limit + skip)
-                {
-                    break outer;
-                }
+            List<Path> result = searchMember(repository, predicate, memberPaginator);
+            if (!result.isEmpty())
+            {
+                cursor[0] = Paginator.toCursor(getArtifactEntry(result.get(result.size() - 1)).getObjectId());
             }
-            groupSkip += limit;
 
-            // Will iterate until there is no more coordinates intersection and
-            // there is more search results within group repositories
+            return result;
+        };
+    }
+
+    /**
+     * The members are searched within their own transaction, since they may be searched on the
+     * {@link #searchExecutor} threads.
+     */
+    private List<Path> searchMember(Repository repository,
+                                    Predicate predicate,
+                                    Paginator paginator)
+    {
+        RepositoryProvider repositoryProvider = repositoryProviderRegistry.getProvider(repository.getType());
+
+        return new TransactionTemplate(transactionManager).execute(
+                t -> repositoryProvider.search(repository.getStorage().getId(), repository.getId(), predicate,
+                                               paginator));
+    }
+
+    private ORecordId getObjectId(Path path)
+    {
+        ArtifactEntry artifactEntry = getArtifactEntry(path);
+
+        return artifactEntry == null || artifactEntry.getObjectId() == null ? null :
+               new ORecordId(artifactEntry.getObjectId());
+    }
+
+    /**
+     * Orders the sort keys of the member results the same way the {@code ORDER BY} of the member searches does, with
+     * the {@code null} values first.
+     */
+    @SuppressWarnings("unchecked")
+    private int compareValues(Object v1,
+                              Object v2)
+    {
+        if (v1 == null || v2 == null)
+        {
+            return v1 == null ? (v2 == null ? 0 : -1) : 1;
         }
-        while (groupLimit > 0 && !groupRepositorySet.isEmpty());
+        if (v1 instanceof Comparable && v1.getClass().isInstance(v2))
+        {
+            return ((Comparable<Object>) v1).compareTo(v2);
+        }
+
+        return v1.toString().compareTo(v2.toString());
+    }
 
-        LinkedList<Path> resultList = new LinkedList<>();
-        if (skip >= resultMap.size())
+    private Object getPropertyValue(Path path,
+                                    String[] propertyPath)
+    {
+        Object value = getArtifactEntry(path);
+        for (String name : propertyPath)
         {
-            return resultList;
+            if (value == null)
+            {
+                return null;
+            }
+
+            if (value instanceof Map)
+            {
+                value = ((Map<?, ?>) value).get(name);
+                continue;
+            }
+
+            try
+            {
+                value = new BeanWrapperImpl(value).getPropertyValue(name);
+            }
+            catch (BeansException e)
+            {
+                return null;
+            }
         }
-        resultList.addAll(resultMap.values());
 
-        int toIndex = resultList.size() - skip > limit ? limit + skip : resultList.size();
-        return resultList.subList(skip, toIndex);
+        return value;
+    }
+
+    private ArtifactEntry getArtifactEntry(Path path)
+    {
+        try
+        {
+            return ((RepositoryPath) path).getArtifactEntry();
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
     }
 
     private ArtifactCoordinates getArtifactCoordinates(Path p) throws IOException
@@ -285,6 +579,11 @@ public class GroupRepositoryProvider
         return RepositoryFiles.readCoordinates((RepositoryPath) p);
     }
 
+    /**
+     * Counts the distinct coordinates of the group members with a single query. If the query takes longer than
+     * {@link #exactCountTimeoutMillis}, the sum of the member counts, counted in parallel, is returned instead, which
+     * only overestimates the coordinates shared by several members.
+     */
     @Override
     public Long count(String storageId,
                       String repositoryId,
@@ -295,21 +594,51 @@ public class GroupRepositoryProvider
         Storage storage = getConfiguration().getStorage(storageId);
 
         Repository groupRepository = storage.getRepository(repositoryId);
+        Set<Repository> groupRepositorySet = groupRepositorySetCollector.collect(groupRepository, true);
 
         Predicate p = Predicate.empty();
 
         p.or(createPredicate(storageId, repositoryId, predicate));
-        groupRepositorySetCollector.collect(groupRepository, true)
-                                   .stream()
-                                   .forEach(r -> p.or(createPredicate(r.getStorage().getId(), r.getId(), predicate)));
+        groupRepositorySet.forEach(r -> p.or(createPredicate(r.getStorage().getId(), r.getId(), predicate)));
 
         Selector<ArtifactEntry> selector = new Selector<>(ArtifactEntry.class);
         selector.select("count(distinct(artifactCoordinates))").where(p);
+        selector.timeout(exactCountTimeoutMillis);
 
         QueryTemplate<Long, ArtifactEntry> queryTemplate = new OQueryTemplate<>(entityManager);
 
-        return queryTemplate.select(selector);
+        try
+        {
+            return queryTemplate.select(selector);
+        }
+        catch (OTimeoutException e)
+        {
+            logger.debug("Approximated count in [{}]:[{}] by [{}] members.",
+                         storageId, repositoryId, groupRepositorySet.size());
+
+            return countMembers(groupRepositorySet, predicate);
+        }
+    }
+
+    private long countMembers(Set<Repository> groupRepositorySet,
+                              Predicate predicate)
+    {
+        List<CompletableFuture<Long>> counts = new ArrayList<>(groupRepositorySet.size());
+        for (Repository r : groupRepositorySet)
+        {
+            RepositoryProvider repositoryProvider = repositoryProviderRegistry.getProvider(r.getType());
+            Supplier<Long> count = () -> new TransactionTemplate(transactionManager).execute(
+                    t -> repositoryProvider.count(r.getStorage().getId(), r.getId(), predicate));
+
+            counts.add(searchExecutor != null ? CompletableFuture.supplyAsync(count, searchExecutor) :
+                       CompletableFuture.completedFuture(count.get()));
+        }
 
+        return counts.stream()
+                     .map(CompletableFuture::join)
+                     .filter(c -> c != null)
+                     .mapToLong(Long::longValue)
+                     .sum();
     }
 
 }
@@ -12,6 +12,9 @@ import org.carlspring.strongbox.providers.io.RepositoryPathLock;
 import org.carlspring.strongbox.providers.repository.event.ProxyRepositoryPathExpiredEvent;
 import org.carlspring.strongbox.providers.repository.event.RemoteRepositorySearchEvent;
 import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryArtifactResolver;
+import org.carlspring.strongbox.providers.repository.proxied.RemoteRepositorySkippedException;
+import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
+import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryHealthService;
 
 import javax.inject.Inject;
 import java.io.IOException;
@@ -20,8 +23,6 @@ import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,7 +48,7 @@ public class ProxyRepositoryProvider
     private HostedRepositoryProvider hostedRepositoryProvider;
 
     @Inject
-    private RepositoryPathLock repositoryPathLock;
+    private RemoteRepositoryHealthService remoteRepositoryHealthService;
 
     @Override
     public String getAlias()
@@ -65,6 +66,27 @@ public class ProxyRepositoryProvider
     @Override
     protected RepositoryPath fetchPath(RepositoryPath repositoryPath)
         throws IOException
+    {
+        try
+        {
+            return fetchPathUnlessSkipped(repositoryPath);
+        }
+        catch (RemoteRepositorySkippedException e)
+        {
+            logger.debug(e.getMessage());
+
+            return null;
+        }
+    }
+
+    /**
+     * Same as {@link #fetchPath(RepositoryPath)}, except that a path which is not stored locally fails while the
+     * remote repository is skipped, so that the group repositories can tell it from a missing path.
+     *
+     * @throws RemoteRepositorySkippedException if the remote repository is down or failing, so it has not been asked
+     */
+    RepositoryPath fetchPathUnlessSkipped(RepositoryPath repositoryPath)
+        throws IOException
     {
         RepositoryPath targetPath = hostedRepositoryProvider.fetchPath(repositoryPath);
 
@@ -80,25 +102,40 @@ public class ProxyRepositoryProvider
         return targetPath;
     }
 
+    /**
+     * Concurrent requests of the same resource are deduplicated by the {@link ProxyRepositoryArtifactResolver}, so
+     * there is no need to hold the {@link RepositoryPathLock} (which is shared by all the artifact group files) for
+     * the whole remote download.
+     * <p>
+     * The remote repository is not asked at all while its circuit breaker is open, see
+     * {@link RemoteRepositoryHealthService}.
+     */
     private RepositoryPath resolvePathExclusive(RepositoryPath repositoryPath)
             throws IOException
     {
+        RemoteRepository remoteRepository = repositoryPath.getRepository().getRemoteRepository();
+        if (!remoteRepositoryHealthService.isCallPermitted(remoteRepository))
+        {
+            String message = String.format("Remote repository [%s] is failing, skipping [%s].",
+                                           remoteRepository.getUrl(), repositoryPath);
 
-        ReadWriteLock lockSource = repositoryPathLock.lock(repositoryPath, "pre-remote-fetch");
-        Lock lock = lockSource.writeLock();
-        lock.lock();
+            throw new RemoteRepositorySkippedException(message);
+        }
 
         try
         {
-            // This is the second attempt, but this time inside exclusive write lock
-            // Things might have changed.
+            // This is the second attempt, things might have changed.
             RepositoryPath targetPath = hostedRepositoryProvider.fetchPath(repositoryPath);
             if (targetPath != null)
             {
                 return targetPath;
 
             }
-            return proxyRepositoryArtifactResolver.fetchRemoteResource(repositoryPath);
+            return proxyRepositoryArtifactResolver.resolveRemoteResource(repositoryPath);
+        }
+        catch (RemoteRepositorySkippedException e)
+        {
+            throw e;
         }
         catch (IOException e)
         {
@@ -107,10 +144,6 @@ public class ProxyRepositoryProvider
 
             throw e;
         }
-        finally
-        {
-            lock.unlock();
-        }
     }
 
     @Override
@@ -0,0 +1,153 @@
+package org.carlspring.strongbox.providers.repository.group;
+
+import org.carlspring.strongbox.data.CacheName;
+import org.carlspring.strongbox.data.cache.LocalCacheFactory;
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.google.common.cache.Cache;
+import org.javatuples.Triplet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded cache of the paths which were not found in the group member repositories, keyed by
+ * {@code (storageId, repositoryId, path)}, which spares the repeated member lookups of the group path resolution.
+ * <p>
+ * The cache is the {@link CacheName.Repository#GROUP_NEGATIVE_LOOKUPS} local cache, see {@link LocalCacheFactory}.
+ * Entries expire after its {@code timeToLiveSeconds}, which bounds how long an artifact published to a proxied remote
+ * repository stays unnoticed (zero disables the cache), and are invalidated on artifact stored, updated and deleted
+ * events. Each invalidation increments the generation of the path, a miss found before the generation of its path has
+ * changed is not cached, since the path might have been stored in the meantime. The generations are striped by the
+ * path: an invalidation only holds back the misses of the paths which share its stripe, so the stores keep the rest
+ * of the cache working.
+ *
+ * @see org.carlspring.strongbox.providers.repository.GroupRepositoryProvider
+ */
+@Component
+public class GroupRepositoryNegativeLookupCache
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(GroupRepositoryNegativeLookupCache.class);
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    private final Object[] locks = new Object[GENERATION_STRIPES];
+
+    private final Cache<Triplet<String, String, String>, Boolean> absentPaths;
+
+    @Inject
+    GroupRepositoryNegativeLookupCache(LocalCacheFactory localCacheFactory)
+    {
+        absentPaths = localCacheFactory.newCacheBuilder(CacheName.Repository.GROUP_NEGATIVE_LOOKUPS, 10000, 60)
+                                       .build();
+        for (int i = 0; i < GENERATION_STRIPES; i++)
+        {
+            locks[i] = new Object();
+        }
+    }
+
+    public boolean isAbsent(String storageId,
+                            String repositoryId,
+                            String path)
+    {
+        return absentPaths.getIfPresent(Triplet.with(storageId, repositoryId, path)) != null;
+    }
+
+    /**
+     * @param generation the {@link #getGeneration(String, String, String)} of the path before it was looked up
+     */
+    public void putAbsent(String storageId,
+                          String repositoryId,
+                          String path,
+                          long generation)
+    {
+        Triplet<String, String, String> key = Triplet.with(storageId, repositoryId, path);
+        int stripe = stripe(key);
+        synchronized (locks[stripe])
+        {
+            if (generation == generations.get(stripe))
+            {
+                absentPaths.put(key, Boolean.TRUE);
+            }
+        }
+    }
+
+    public void invalidate(String storageId,
+                           String repositoryId,
+                           String path)
+    {
+        Triplet<String, String, String> key = Triplet.with(storageId, repositoryId, path);
+        int stripe = stripe(key);
+        synchronized (locks[stripe])
+        {
+            generations.incrementAndGet(stripe);
+            absentPaths.invalidate(key);
+        }
+    }
+
+    public void invalidateAll()
+    {
+        for (int i = 0; i < GENERATION_STRIPES; i++)
+        {
+            synchronized (locks[i])
+            {
+                generations.incrementAndGet(i);
+            }
+        }
+        absentPaths.invalidateAll();
+    }
+
+    public long getGeneration(String storageId,
+                              String repositoryId,
+                              String path)
+    {
+        return generations.get(stripe(Triplet.with(storageId, repositoryId, path)));
+    }
+
+    private static int stripe(Triplet<String, String, String> key)
+    {
+        int hash = key.hashCode();
+
+        return (hash ^ (hash >>> 16)) & (GENERATION_STRIPES - 1);
+    }
+
+    @EventListener
+    public void handle(final ArtifactEvent<RepositoryPath> event)
+    {
+        int type = event.getType();
+        if (type != ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType()
+                && type != ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_UPDATED.getType()
+                && type != ArtifactEventTypeEnum.EVENT_ARTIFACT_PATH_DELETED.getType())
+        {
+            return;
+        }
+
+        RepositoryPath repositoryPath = event.getPath();
+        Repository repository = repositoryPath.getRepository();
+        try
+        {
+            invalidate(repository.getStorage().getId(),
+                       repository.getId(),
+                       RepositoryFiles.relativizePath(repositoryPath));
+        }
+        catch (IOException e)
+        {
+            logger.warn("Failed to resolve [{}], invalidating all entries.", repositoryPath, e);
+
+            invalidateAll();
+        }
+    }
+
+}
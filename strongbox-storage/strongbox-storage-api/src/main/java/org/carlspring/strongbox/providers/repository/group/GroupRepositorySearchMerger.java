@@ -0,0 +1,207 @@
+package org.carlspring.strongbox.providers.repository.group;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * K-way merge of the search results of the group members, each of them sorted by the same {@link Comparator} of their
+ * sort key. The sort key of a result is extracted once, when the result is fetched, rather than on every comparison.
+ * <p>
+ * Every member is read through its own cursor, which continues from the offset the previous page of that member ended
+ * at, so a member is only asked for more results once all the results it returned so far have been merged. The first
+ * pages of all the members are fetched at once on the {@link Executor}. Results equal by the distinct key are only
+ * returned once, the first of them in the merge order, the earlier member on a tie.
+ *
+ * @param <T> the result type
+ * @param <K> the sort key type
+ */
+public class GroupRepositorySearchMerger<T, K>
+{
+
+    private final List<MemberCursor> members = new ArrayList<>();
+
+    private final Function<? super T, ? extends K> sortKey;
+
+    private final Comparator<? super K> comparator;
+
+    private final Function<? super T, ?> distinctKey;
+
+    private final Executor executor;
+
+    private final int maxPageSize;
+
+    /**
+     * @param fetchers    the member searches, in the group order
+     * @param sortKey     the key the member results are sorted by
+     * @param comparator  the order of the sort keys
+     * @param distinctKey the key of the duplicate results
+     * @param executor    the executor of the first member pages, or {@code null} to fetch them one after another
+     * @param maxPageSize the maximum number of results asked from a member at once
+     */
+    public GroupRepositorySearchMerger(List<? extends MemberFetcher<T>> fetchers,
+                                       Function<? super T, ? extends K> sortKey,
+                                       Comparator<? super K> comparator,
+                                       Function<? super T, ?> distinctKey,
+                                       Executor executor,
+                                       int maxPageSize)
+    {
+        for (int i = 0; i < fetchers.size(); i++)
+        {
+            members.add(new MemberCursor(i, fetchers.get(i)));
+        }
+        this.sortKey = sortKey;
+        this.comparator = comparator;
+        this.distinctKey = distinctKey;
+        this.executor = executor;
+        this.maxPageSize = maxPageSize;
+    }
+
+    public List<T> merge(int skip,
+                         int limit)
+    {
+        int needed = skip + limit;
+
+        fetchFirstPages(Math.min(needed, maxPageSize));
+
+        PriorityQueue<MemberCursor> heads = new PriorityQueue<>(Math.max(members.size(), 1), this::compareHeads);
+        members.stream().filter(m -> !m.buffer.isEmpty()).forEach(heads::add);
+
+        List<T> result = new ArrayList<>(limit);
+        Set<Object> distinctKeys = new HashSet<>();
+        int merged = 0;
+        while (merged < needed && !heads.isEmpty())
+        {
+            MemberCursor member = heads.poll();
+            T head = member.buffer.poll().value;
+            if (distinctKeys.add(distinctKey.apply(head)))
+            {
+                if (merged >= skip)
+                {
+                    result.add(head);
+                }
+                merged++;
+            }
+
+            if (member.buffer.isEmpty() && !member.exhausted && merged < needed)
+            {
+                member.fetch(Math.min(needed - merged, maxPageSize));
+            }
+            if (!member.buffer.isEmpty())
+            {
+                heads.add(member);
+            }
+        }
+
+        return result;
+    }
+
+    private int compareHeads(MemberCursor m1,
+                             MemberCursor m2)
+    {
+        int result = comparator.compare(m1.buffer.peek().key, m2.buffer.peek().key);
+
+        return result != 0 ? result : Integer.compare(m1.index, m2.index);
+    }
+
+    private void fetchFirstPages(int pageSize)
+    {
+        if (executor == null || members.size() < 2)
+        {
+            members.forEach(m -> m.fetch(pageSize));
+
+            return;
+        }
+
+        List<CompletableFuture<Void>> fetches = new ArrayList<>(members.size());
+        for (MemberCursor member : members)
+        {
+            fetches.add(CompletableFuture.runAsync(() -> member.fetch(pageSize), executor));
+        }
+
+        try
+        {
+            CompletableFuture.allOf(fetches.toArray(new CompletableFuture[0])).join();
+        }
+        catch (CompletionException e)
+        {
+            fetches.forEach(f -> f.cancel(false));
+
+            if (e.getCause() instanceof RuntimeException)
+            {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw e;
+        }
+    }
+
+    @FunctionalInterface
+    public interface MemberFetcher<T>
+    {
+
+        /**
+         * @return at most {@code limit} results of the member, starting at {@code offset}
+         */
+        List<T> fetch(int offset,
+                      int limit);
+
+    }
+
+    private class MemberCursor
+    {
+
+        private final int index;
+
+        private final MemberFetcher<T> fetcher;
+
+        private final Deque<Result> buffer = new ArrayDeque<>();
+
+        private int offset;
+
+        private boolean exhausted;
+
+        private MemberCursor(int index,
+                             MemberFetcher<T> fetcher)
+        {
+            this.index = index;
+            this.fetcher = fetcher;
+        }
+
+        private void fetch(int limit)
+        {
+            List<T> page = fetcher.fetch(offset, limit);
+
+            offset += page.size();
+            exhausted = page.size() < limit;
+            page.forEach(r -> buffer.add(new Result(r, sortKey.apply(r))));
+        }
+
+    }
+
+    private class Result
+    {
+
+        private final T value;
+
+        private final K key;
+
+        private Result(T value,
+                       K key)
+        {
+            this.value = value;
+            this.key = key;
+        }
+
+    }
+
+}
@@ -1,20 +1,18 @@
 package org.carlspring.strongbox.providers.repository.group;
 
 import org.carlspring.strongbox.configuration.ConfigurationManager;
-import org.carlspring.strongbox.configuration.ConfigurationUtils;
-import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.configuration.GroupRepositoryIndex;
 import org.carlspring.strongbox.storage.repository.Repository;
 
 import javax.inject.Inject;
-import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.Set;
-import java.util.stream.Collectors;
 
-import org.apache.commons.collections4.CollectionUtils;
 import org.springframework.stereotype.Component;
 
 /**
+ * The memberships are precomputed once per configuration, see {@link GroupRepositoryIndex}.
+ *
  * @author Przemyslaw Fusik
  */
 @Component
@@ -32,41 +30,10 @@ public class GroupRepositorySetCollector
     public Set<Repository> collect(Repository groupRepository,
                                    boolean traverse)
     {
-        Set<Repository> result = groupRepository.getGroupRepositories()
-                                                .stream()
-                                                .map(groupRepoId -> getRepository(groupRepository.getStorage(),
-                                                                                  groupRepoId))
-                                                .collect(Collectors.toCollection(LinkedHashSet::new));
+        GroupRepositoryIndex groupRepositoryIndex = configurationManager.getConfiguration().getGroupRepositoryIndex();
 
-        if (!traverse)
-        {
-            return result;
-        }
-
-        Set<Repository> traverseResult = new LinkedHashSet<>();
-        for (Iterator<Repository> i = result.iterator(); i.hasNext(); )
-        {
-            Repository r = i.next();
-            if (CollectionUtils.isEmpty(r.getGroupRepositories()))
-            {
-                traverseResult.add(r);
-                continue;
-            }
-
-            i.remove();
-            traverseResult.addAll(collect(r, true));
-        }
-
-        return traverseResult;
-    }
-
-    private Repository getRepository(Storage storage,
-                                     String id)
-    {
-        String sId = ConfigurationUtils.getStorageId(storage.getId(), id);
-        String rId = ConfigurationUtils.getRepositoryId(id);
-
-        return configurationManager.getConfiguration().getStorage(sId).getRepository(rId);
+        return new LinkedHashSet<>(traverse ? groupRepositoryIndex.getLeafMembers(groupRepository) :
+                                   groupRepositoryIndex.getMembers(groupRepository));
     }
 
 }
@@ -2,30 +2,39 @@ package org.carlspring.strongbox.providers.repository.proxied;
 
 import org.carlspring.strongbox.configuration.ConfigurationManager;
 import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
+import org.carlspring.strongbox.data.service.support.search.Sort;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
 import org.carlspring.strongbox.services.ArtifactEntryService;
 import org.carlspring.strongbox.services.ArtifactManagementService;
 import org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria;
-import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
 import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryAlivenessService;
 
 import javax.inject.Inject;
 import java.io.IOException;
-import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Collectors;
 
-import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.mutable.MutableLong;
+import org.javatuples.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import static org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria.Builder.anArtifactEntrySearchCriteria;
 
 /**
+ * Evicts the cached artifacts of the proxy repositories, whose remote repositories are alive, either by their
+ * expiration ({@link #cleanup(Integer, Long)}) or by a size quota ({@link #evict(long)}).
+ * <p>
+ * The candidates are streamed per proxy repository, {@link #batchSize} at a time, and every batch is deleted within its
+ * own transaction, so that the memory used and the work lost on a failure are bounded by the batch size.
+ *
  * @author Przemyslaw Fusik
  */
 @Component
@@ -34,6 +43,11 @@ public class LocalStorageProxyRepositoryExpiredArtifactsCleaner
 
     private final Logger logger = LoggerFactory.getLogger(LocalStorageProxyRepositoryExpiredArtifactsCleaner.class);
 
+    private static final Sort LEAST_RECENTLY_USED_FIRST = Sort.by(Sort.Order.asc("lastUsed"));
+
+    @Value("${strongbox.proxy.cache.eviction.batchSize:500}")
+    private int batchSize;
+
     @Inject
     private ConfigurationManager configurationManager;
 
@@ -49,74 +63,142 @@ public class LocalStorageProxyRepositoryExpiredArtifactsCleaner
     @Inject
     private ArtifactManagementService artifactManagementService;
 
-    @Transactional(rollbackFor = Exception.class)
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Deletes the cached artifacts which have not been used for the given number of days.
+     */
     public void cleanup(final Integer lastAccessedTimeInDays,
                         final Long minSizeInBytes)
-            throws IOException
     {
-        final ArtifactEntrySearchCriteria searchCriteria = anArtifactEntrySearchCriteria()
-                                                                   .withLastAccessedTimeInDays(lastAccessedTimeInDays)
-                                                                   .withMinSizeInBytes(minSizeInBytes)
-                                                                   .build();
+        for (final Repository repository : getEvictableRepositories())
+        {
+            final ArtifactEntrySearchCriteria searchCriteria = anArtifactEntrySearchCriteria()
+                                                                       .withStorageId(repository.getStorage().getId())
+                                                                       .withRepositoryId(repository.getId())
+                                                                       .withLastAccessedTimeInDays(lastAccessedTimeInDays)
+                                                                       .withMinSizeInBytes(minSizeInBytes)
+                                                                       .build();
+
+            final MutableLong deleted = new MutableLong();
+            String lastObjectId = null;
+            int found;
+            do
+            {
+                final String afterObjectId = lastObjectId;
+                final Pair<Integer, String> page = new TransactionTemplate(transactionManager).execute(t -> {
+                    List<ArtifactEntry> artifactEntries = artifactEntryService.findMatching(searchCriteria,
+                                                                                            PagingCriteria.after(afterObjectId,
+                                                                                                                 batchSize));
+                    // the entries which failed to be deleted are skipped by the next page
+                    String last = artifactEntries.isEmpty() ? null :
+                                  artifactEntries.get(artifactEntries.size() - 1).getObjectId();
+                    artifactEntries.stream()
+                                   .filter(e -> deleteFromStorage(repository, e))
+                                   .forEach(e -> deleted.increment());
+                    return Pair.with(artifactEntries.size(), last);
+                });
+
+                found = page.getValue0();
+                lastObjectId = page.getValue1();
+            }
+            while (found == batchSize);
 
-        final List<ArtifactEntry> artifactEntries = artifactEntryService.findMatching(searchCriteria,
-                                                                                      PagingCriteria.ALL);
-        filterAccessibleProxiedArtifacts(artifactEntries);
+            logger.debug("Deleted [{}] expired artifacts from [{}].", deleted, repository.getStorageIdAndRepositoryId());
+        }
+    }
 
-        if (CollectionUtils.isEmpty(artifactEntries))
+    /**
+     * Deletes the least recently used cached artifacts of every proxy repository, until the total size of its
+     * artifacts is not greater than the given quota.
+     */
+    public void evict(final long maxRepositorySizeInBytes)
+    {
+        for (final Repository repository : getEvictableRepositories())
         {
-            return;
+            final ArtifactEntrySearchCriteria searchCriteria = anArtifactEntrySearchCriteria()
+                                                                       .withStorageId(repository.getStorage().getId())
+                                                                       .withRepositoryId(repository.getId())
+                                                                       .build();
+
+            long sizeInBytes = artifactEntryService.sumSizeInBytes(searchCriteria);
+            while (sizeInBytes > maxRepositorySizeInBytes)
+            {
+                final long excessInBytes = sizeInBytes - maxRepositorySizeInBytes;
+                final Long evictedInBytes = new TransactionTemplate(transactionManager).execute(t -> {
+                    long result = 0;
+                    for (ArtifactEntry artifactEntry : artifactEntryService.findMatching(searchCriteria,
+                                                                                         new PagingCriteria(0,
+                                                                                                            batchSize,
+                                                                                                            LEAST_RECENTLY_USED_FIRST)))
+                    {
+                        if (result >= excessInBytes)
+                        {
+                            break;
+                        }
+                        if (deleteFromStorage(repository, artifactEntry))
+                        {
+                            result += artifactEntry.getSizeInBytes() != null ? artifactEntry.getSizeInBytes() : 0;
+                        }
+                    }
+                    return result;
+                });
+
+                if (evictedInBytes == null || evictedInBytes == 0)
+                {
+                    logger.warn("Failed to evict [{}] bytes from [{}].",
+                                excessInBytes, repository.getStorageIdAndRepositoryId());
+                    break;
+                }
+
+                sizeInBytes -= evictedInBytes;
+            }
         }
+    }
 
-        logger.debug("Cleaning artifacts {}", artifactEntries);
-        deleteFromStorage(artifactEntries);
+    private List<Repository> getEvictableRepositories()
+    {
+        return configurationManager.getConfiguration()
+                                   .getRepositories()
+                                   .stream()
+                                   .filter(Repository::isProxyRepository)
+                                   .filter(this::isRemoteRepositoryAlive)
+                                   .collect(Collectors.toList());
     }
 
-    private void filterAccessibleProxiedArtifacts(final List<ArtifactEntry> artifactEntries)
+    private boolean isRemoteRepositoryAlive(final Repository repository)
     {
-        if (CollectionUtils.isEmpty(artifactEntries))
+        final RemoteRepository remoteRepository = repository.getRemoteRepository();
+        if (remoteRepository == null)
         {
-            return;
+            logger.warn("Repository {} is not associated with remote repository", repository.getId());
+            return false;
         }
-        for (final Iterator<ArtifactEntry> it = artifactEntries.iterator(); it.hasNext(); )
+        if (!remoteRepositoryAlivenessCacheManager.isAlive(remoteRepository))
         {
-            final ArtifactEntry artifactEntry = it.next();
-            final Storage storage = configurationManager.getConfiguration().getStorage(artifactEntry.getStorageId());
-            final Repository repository = storage.getRepository(artifactEntry.getRepositoryId());
-            if (!repository.isProxyRepository())
-            {
-                it.remove();
-                continue;
-            }
-            final RemoteRepository remoteRepository = repository.getRemoteRepository();
-            if (remoteRepository == null)
-            {
-                logger.warn("Repository {} is not associated with remote repository", repository.getId());
-                it.remove();
-                continue;
-            }
-            if (!remoteRepositoryAlivenessCacheManager.isAlive(remoteRepository))
-            {
-                logger.warn("Remote repository {} is down. Artifacts won't be cleaned up.", remoteRepository.getUrl());
-                it.remove();
-                continue;
-            }
+            logger.warn("Remote repository {} is down. Artifacts won't be cleaned up.", remoteRepository.getUrl());
+            return false;
         }
 
+        return true;
     }
 
-    private void deleteFromStorage(final List<ArtifactEntry> artifactEntries)
-            throws IOException
+    private boolean deleteFromStorage(final Repository repository,
+                                      final ArtifactEntry artifactEntry)
     {
-        for (final ArtifactEntry artifactEntry : artifactEntries)
+        RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository).resolve(artifactEntry);
+        try
         {
-            final Storage storage = configurationManager.getConfiguration().getStorage(artifactEntry.getStorageId());
-            final Repository repository = storage.getRepository(artifactEntry.getRepositoryId());
-            
-            RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository).resolve(artifactEntry);
-
             artifactManagementService.delete(repositoryPath, true);
         }
+        catch (IOException e)
+        {
+            logger.error("Failed to delete [{}].", repositoryPath, e);
+            return false;
+        }
+
+        return true;
     }
 
 }
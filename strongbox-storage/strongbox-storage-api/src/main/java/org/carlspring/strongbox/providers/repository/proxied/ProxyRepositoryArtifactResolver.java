@@ -3,21 +3,33 @@ package org.carlspring.strongbox.providers.repository.proxied;
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.nio.file.Files;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.inject.Inject;
 
+import org.apache.commons.io.IOUtils;
+import org.carlspring.strongbox.artifact.ArtifactNotFoundException;
+import org.carlspring.strongbox.client.AsyncArtifactResolver;
+import org.carlspring.strongbox.client.ResponseException;
 import org.carlspring.strongbox.client.RestArtifactResolver;
 import org.carlspring.strongbox.event.artifact.ArtifactEventListenerRegistry;
 import org.carlspring.strongbox.providers.io.RepositoryFileAttributes;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
-import org.carlspring.strongbox.providers.io.RepositoryPathLock;
 import org.carlspring.strongbox.services.ArtifactManagementService;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
 import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryAlivenessService;
+import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryHealthService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -33,18 +45,25 @@ public class ProxyRepositoryArtifactResolver
     @Inject
     private RemoteRepositoryAlivenessService remoteRepositoryAlivenessCacheManager;
 
+    @Inject
+    private RemoteRepositoryHealthService remoteRepositoryHealthService;
+
     @Inject
     private ArtifactEventListenerRegistry artifactEventListenerRegistry;
 
     @Inject
     private RestArtifactResolverFactory restArtifactResolverFactory;
-    
-    @Inject
-    private RepositoryPathLock repositoryPathLock;
 
     @Inject
     private ArtifactManagementService artifactManagementService;
 
+    /**
+     * Remote fetches in progress, keyed by the exact resource {@link URI}. Only the first requester of a resource
+     * downloads it from the remote, all the concurrent requesters of the same resource wait for that download or
+     * follow its spool file, see {@link #openRemoteFetch(RepositoryPath)}.
+     */
+    private final ConcurrentMap<URI, RemoteFetch> remoteFetches = new ConcurrentHashMap<>();
+
     /**
      * This method has been developed to force fetch resource from remote.
      *
@@ -54,41 +73,283 @@ public class ProxyRepositoryArtifactResolver
      */
     public RepositoryPath fetchRemoteResource(RepositoryPath repositoryPath)
         throws IOException
+    {
+        try
+        {
+            return fetchRemoteResource(repositoryPath, false);
+        }
+        catch (RemoteRepositorySkippedException e)
+        {
+            logger.debug(e.getMessage());
+
+            return null;
+        }
+    }
+
+    /**
+     * Fetches the resource from remote, unless it has been stored locally in the meantime. The local existence is
+     * checked again once this requester is the one to download the resource, as the previous download of the same
+     * resource might have just finished.
+     *
+     * @throws RemoteRepositorySkippedException if the remote repository is down or failing, so it has not been asked
+     */
+    public RepositoryPath resolveRemoteResource(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        return fetchRemoteResource(repositoryPath, true);
+    }
+
+    private RepositoryPath fetchRemoteResource(RepositoryPath repositoryPath,
+                                               boolean checkLocal)
+        throws IOException
     {
         Repository repository = repositoryPath.getFileSystem().getRepository();
         final RemoteRepository remoteRepository = repository.getRemoteRepository();
         if (!remoteRepositoryAlivenessCacheManager.isAlive(remoteRepository))
         {
-            logger.debug("Remote repository '{}' is down.", remoteRepository.getUrl());
+            String message = String.format("Remote repository [%s] is down, skipping [%s].",
+                                           remoteRepository.getUrl(), repositoryPath);
+
+            throw new RemoteRepositorySkippedException(message);
+        }
 
+        URI resource = repositoryPath.toUri();
+        RemoteFetch remoteFetch = new RemoteFetch();
+        RemoteFetch inProgressRemoteFetch = remoteFetches.putIfAbsent(resource, remoteFetch);
+        if (inProgressRemoteFetch != null)
+        {
+            logger.debug("Waiting for in progress remote fetch of [{}].", repositoryPath);
+
+            return awaitRemoteFetch(inProgressRemoteFetch.getResult()) == null ? null : repositoryPath;
+        }
+
+        try
+        {
+            RepositoryPath result = checkLocal && RepositoryFiles.artifactExists(repositoryPath) ? repositoryPath :
+                                    doFetch(remoteRepository, repositoryPath, remoteFetch);
+            remoteFetch.getResult().complete(result);
+
+            return result;
+        }
+        catch (IOException | RuntimeException e)
+        {
+            remoteFetch.getResult().completeExceptionally(e);
+
+            throw e;
+        }
+        finally
+        {
+            remoteFetches.remove(resource, remoteFetch);
+            remoteFetch.finish();
+        }
+    }
+
+    /**
+     * Opens the spool file of the remote fetch in progress of the resource, so that the requester gets the bytes as
+     * they arrive from the remote, instead of waiting for the whole resource to be downloaded and stored.
+     *
+     * @return {@code null} if the resource is not being fetched or the fetch has failed, in which case the resource
+     *         has to be resolved the usual way
+     */
+    public InputStream openRemoteFetch(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        RemoteFetch remoteFetch = remoteFetches.get(repositoryPath.toUri());
+        if (remoteFetch == null)
+        {
             return null;
         }
 
-        RestArtifactResolver client = restArtifactResolverFactory.newInstance(remoteRepository);
+        InputStream result = remoteFetch.openSpool();
+        if (result != null)
+        {
+            logger.debug("Following the in progress remote fetch of [{}].", repositoryPath);
+
+            // The download statistics need the artifact entry, which exists only once the resource is stored.
+            remoteFetch.getResult()
+                       .thenAccept(p -> {
+                           if (p != null)
+                           {
+                               artifactEventListenerRegistry.dispatchArtifactDownloadingEvent(p);
+                           }
+                       });
+        }
+
+        return result;
+    }
+
+    private RepositoryPath awaitRemoteFetch(CompletableFuture<RepositoryPath> remoteFetch)
+        throws IOException
+    {
+        try
+        {
+            return remoteFetch.join();
+        }
+        catch (CompletionException e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+            {
+                // Rethrow as is to keep `ArtifactNotFoundException` semantic for the waiters.
+                throw (IOException) cause;
+            }
+            else if (cause instanceof UncheckedIOException)
+            {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+
+            throw e;
+        }
+    }
+
+    /**
+     * The remote resource is downloaded into a spool file first, without any lock held, so that the
+     * {@link ArtifactManagementService#store(RepositoryPath, InputStream)} (which locks the whole artifact group) only
+     * has to copy the local file. The concurrent requesters can follow the spool file in the meantime.
+     */
+    private RepositoryPath doFetch(RemoteRepository remoteRepository,
+                                   RepositoryPath repositoryPath,
+                                   RemoteFetch remoteFetch)
+        throws IOException
+    {
+        AsyncArtifactResolver asyncClient = restArtifactResolverFactory.newAsyncInstance(remoteRepository);
+
+        Path spoolPath = RepositoryFiles.createTempFile(repositoryPath, ".remote");
+        remoteFetch.spool(spoolPath);
+
+        if (!remoteRepositoryHealthService.tryAcquire(remoteRepository))
+        {
+            String message = String.format("Remote repository [%s] is failing, skipping [%s].",
+                                           remoteRepository.getUrl(), repositoryPath);
+
+            throw new RemoteRepositorySkippedException(message);
+        }
+
+        long size;
+        try
+        {
+            size = download(asyncClient, remoteRepository, repositoryPath, spoolPath);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            remoteFetch.downloadFailed(e);
+
+            throw e;
+        }
+        remoteFetch.downloaded(size);
+        logger.debug("Fetched [{}] bytes for [{}].", size, repositoryPath);
 
-        ReadWriteLock lockSource = repositoryPathLock.lock(repositoryPath, "remote-fetch");
-        Lock lock = lockSource.writeLock();
-        lock.lock();
+        try (InputStream is = new BufferedInputStream(Files.newInputStream(spoolPath)))
+        {
+            return doStore(repositoryPath, is);
+        }
+    }
 
+    /**
+     * Reports the outcome of the download to the {@link RemoteRepositoryHealthService}. A missing resource is a
+     * successful call, the remote repository did answer.
+     * <p>
+     * The duration of a successful call is the time to the response headers, so that the latency of the remote
+     * repository doesn't depend on the size of the resource. A failed call reports the whole duration, which is how
+     * long the remote stalled the request before it timed out or failed.
+     */
+    private long download(AsyncArtifactResolver asyncClient,
+                          RemoteRepository remoteRepository,
+                          RepositoryPath repositoryPath,
+                          Path spoolPath)
+        throws IOException
+    {
+        long startTime = System.currentTimeMillis();
+        AtomicLong responseMillis = new AtomicLong(-1);
+        Runnable onResponse = () -> responseMillis.compareAndSet(-1, System.currentTimeMillis() - startTime);
+        try
+        {
+            long size = asyncClient != null ?
+                        fetchAsync(asyncClient, repositoryPath, spoolPath, onResponse) :
+                        fetch(restArtifactResolverFactory.newInstance(remoteRepository),
+                              repositoryPath,
+                              spoolPath,
+                              onResponse);
+            onResponse.run();
+            remoteRepositoryHealthService.onSuccess(remoteRepository, responseMillis.get());
+
+            return size;
+        }
+        catch (ArtifactNotFoundException e)
+        {
+            onResponse.run();
+            remoteRepositoryHealthService.onSuccess(remoteRepository, responseMillis.get());
+
+            throw e;
+        }
+        catch (IOException | RuntimeException | Error e)
+        {
+            remoteRepositoryHealthService.onFailure(remoteRepository, System.currentTimeMillis() - startTime);
+
+            throw e;
+        }
+    }
+
+    private long fetch(RestArtifactResolver client,
+                       RepositoryPath repositoryPath,
+                       Path spoolPath,
+                       Runnable onResponse)
+        throws IOException
+    {
         try (InputStream is = new BufferedInputStream(new ProxyRepositoryInputStream(client, repositoryPath)))
         {
-            return doFetch(repositoryPath, is);
+            //We need this to force initialize lazy connection to remote repository.
+            int available = is.available();
+            logger.debug("Got [{}] available bytes for [{}].", available, repositoryPath);
+            onResponse.run();
+
+            // The spool file is written in place (not replaced), as it might be followed already.
+            try (OutputStream os = Files.newOutputStream(spoolPath))
+            {
+                return IOUtils.copyLarge(is, os);
+            }
         }
-        finally
+    }
+
+    /**
+     * The HTTP client writes the response into the spool file as it arrives, this thread only waits for the result.
+     * <p>
+     * The requesting thread is still parked for the whole transfer: the repository providers and the download
+     * controllers are synchronous, and the resource is served from the stored file once the fetch completes. The
+     * concurrent requesters of the resource follow the spool file instead, see {@link #openRemoteFetch(RepositoryPath)}.
+     * Until the download controllers are asynchronous this path is off by default, see {@code pool.async.enabled}.
+     */
+    private long fetchAsync(AsyncArtifactResolver client,
+                            RepositoryPath repositoryPath,
+                            Path spoolPath,
+                            Runnable onResponse)
+        throws IOException
+    {
+        URI resource = RepositoryFiles.resolveResource(repositoryPath);
+        try
+        {
+            return client.download(resource.toString(), spoolPath, onResponse).join();
+        }
+        catch (CompletionException e)
         {
-            lock.unlock();
+            Throwable cause = e.getCause();
+            if (cause instanceof ResponseException && ((ResponseException) cause).getStatusCode() == 404)
+            {
+                throw new ArtifactNotFoundException(resource);
+            }
+            else if (cause instanceof IOException)
+            {
+                throw (IOException) cause;
+            }
+
+            throw new IOException(String.format("Failed to fetch [%s].", resource), cause);
         }
     }
 
-    private RepositoryPath doFetch(RepositoryPath repositoryPath,
+    private RepositoryPath doStore(RepositoryPath repositoryPath,
                                    InputStream is)
         throws IOException
     {
-        //We need this to force initialize lazy connection to remote repository.
-        int available = is.available();
-        logger.debug("Got [{}] available bytes for [{}].", available, repositoryPath);
-        
-        
         RepositoryPath result = onSuccessfulProxyRepositoryResponse(is, repositoryPath);
         
         RepositoryFileAttributes artifactFileAttributes = Files.readAttributes(repositoryPath,
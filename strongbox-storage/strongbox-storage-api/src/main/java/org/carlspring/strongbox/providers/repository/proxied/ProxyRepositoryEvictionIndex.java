@@ -0,0 +1,65 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import org.carlspring.strongbox.domain.ArtifactEntry;
+
+import javax.inject.Inject;
+
+import com.orientechnologies.orient.core.db.ODatabasePool;
+import com.orientechnologies.orient.core.db.ODatabaseSession;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the {@link #INDEX_NAME} index on startup, if it is missing, which supports the least recently used
+ * candidates lookup of the {@link LocalStorageProxyRepositoryExpiredArtifactsCleaner} within a single repository.
+ */
+@Component
+@DependsOn("liquibase")
+public class ProxyRepositoryEvictionIndex
+        implements InitializingBean
+{
+
+    public static final String INDEX_NAME = "idx_artifact_entry_last_used";
+
+    private static final Logger logger = LoggerFactory.getLogger(ProxyRepositoryEvictionIndex.class);
+
+    private static final String CLASS_NAME = ArtifactEntry.class.getSimpleName();
+
+    private static final String[] PROPERTIES = { "storageId", "repositoryId", "lastUsed" };
+
+    @Inject
+    private ODatabasePool databasePool;
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        try (ODatabaseSession session = databasePool.acquire())
+        {
+            OClass oClass = session.getMetadata().getSchema().getClass(CLASS_NAME);
+            if (oClass == null)
+            {
+                logger.warn("Class [{}] not found, skip the eviction index.", CLASS_NAME);
+
+                return;
+            }
+            for (String property : PROPERTIES)
+            {
+                if (oClass.getProperty(property) == null)
+                {
+                    logger.warn("Property [{}.{}] not found, skip the eviction index.", CLASS_NAME, property);
+
+                    return;
+                }
+            }
+            if (oClass.getClassIndex(INDEX_NAME) == null)
+            {
+                oClass.createIndex(INDEX_NAME, OClass.INDEX_TYPE.NOTUNIQUE, PROPERTIES);
+            }
+        }
+    }
+
+}
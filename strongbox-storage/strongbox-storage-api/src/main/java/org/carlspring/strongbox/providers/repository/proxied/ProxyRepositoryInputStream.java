@@ -196,9 +196,24 @@ public class ProxyRepositoryInputStream extends FilterInputStream
     private boolean isRangeRequestSupported()
         throws IOException
     {
+        Boolean rangeRequestSupported = client.getRangeRequestSupported();
+        if (rangeRequestSupported != null)
+        {
+            return rangeRequestSupported;
+        }
+
         String acceptRangesHeader = remoteArtifactStreamFetcher.getHead(repositoryPath);
 
-        return StringUtils.isNotBlank(acceptRangesHeader) && !"none".equals(acceptRangesHeader);
+        if (acceptRangesHeader == null)
+        {
+            // Either the header is missing or the `HEAD` has failed, so there is nothing to remember.
+            return false;
+        }
+
+        rangeRequestSupported = StringUtils.isNotBlank(acceptRangesHeader) && !"none".equals(acceptRangesHeader);
+        client.setRangeRequestSupported(rangeRequestSupported);
+
+        return rangeRequestSupported;
     }
 
     private boolean checkRemoteRepositoryHeartbeat()
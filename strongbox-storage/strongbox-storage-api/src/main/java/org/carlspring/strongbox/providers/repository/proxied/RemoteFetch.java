@@ -0,0 +1,308 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A remote fetch in progress. The resource is downloaded into a spool file, which the concurrent requesters of the same
+ * resource can follow while it grows, see {@link #openSpool()}.
+ * <p>
+ * The spool file is deleted once the download is done with it and the last follower has been closed.
+ */
+class RemoteFetch
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(RemoteFetch.class);
+
+    /**
+     * How long a follower waits for more bytes before it checks the spool file again.
+     */
+    private static final long PROGRESS_INTERVAL_MILLIS = 100;
+
+    /**
+     * The size of the resource once it is downloaded, {@code -1} if it has not been downloaded at all.
+     */
+    private final CompletableFuture<Long> download = new CompletableFuture<>();
+
+    private final CompletableFuture<RepositoryPath> result = new CompletableFuture<>();
+
+    /**
+     * The download itself holds the first reference to the spool file.
+     */
+    private final AtomicInteger references = new AtomicInteger(1);
+
+    private volatile Path spoolPath;
+
+    CompletableFuture<RepositoryPath> getResult()
+    {
+        return result;
+    }
+
+    void spool(Path spoolPath)
+    {
+        this.spoolPath = spoolPath;
+    }
+
+    void downloaded(long size)
+    {
+        download.complete(size);
+    }
+
+    void downloadFailed(Throwable e)
+    {
+        download.completeExceptionally(e);
+    }
+
+    /**
+     * Called once the download is done with the spool file, whatever the outcome is.
+     */
+    void finish()
+    {
+        download.complete(-1L);
+
+        release();
+    }
+
+    private void release()
+    {
+        if (references.decrementAndGet() > 0)
+        {
+            return;
+        }
+
+        Path path = spoolPath;
+        if (path == null)
+        {
+            return;
+        }
+
+        try
+        {
+            Files.deleteIfExists(path);
+        }
+        catch (IOException e)
+        {
+            logger.warn("Failed to delete the spool file [{}].", path, e);
+        }
+    }
+
+    /**
+     * Waits for the first bytes of the resource and opens the spool file for reading. The returned stream reads the
+     * spool file as it grows and ends with the end of the download.
+     *
+     * @return {@code null} if the resource has not been downloaded (remote failure, missing resource), or the spool
+     *         file is gone already
+     */
+    InputStream openSpool()
+        throws IOException
+    {
+        if (!retain())
+        {
+            return null;
+        }
+
+        InputStream result = null;
+        try
+        {
+            if (awaitFirstBytes())
+            {
+                result = new SpoolInputStream(FileChannel.open(spoolPath, StandardOpenOption.READ));
+            }
+
+            return result;
+        }
+        finally
+        {
+            if (result == null)
+            {
+                release();
+            }
+        }
+    }
+
+    private boolean retain()
+    {
+        int count;
+        do
+        {
+            count = references.get();
+            if (count == 0)
+            {
+                return false;
+            }
+        }
+        while (!references.compareAndSet(count, count + 1));
+
+        return true;
+    }
+
+    private boolean awaitFirstBytes()
+        throws IOException
+    {
+        while (!download.isDone())
+        {
+            Path path = spoolPath;
+            if (path != null && Files.size(path) > 0)
+            {
+                return true;
+            }
+
+            awaitProgress();
+        }
+
+        return download.getNow(-1L) >= 0;
+    }
+
+    private void awaitProgress()
+        throws IOException
+    {
+        try
+        {
+            download.get(PROGRESS_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        catch (TimeoutException | ExecutionException e)
+        {
+            // The outcome is checked by the caller.
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+
+            throw new InterruptedIOException(e.getMessage());
+        }
+    }
+
+    /**
+     * @return the size of the downloaded resource, {@code -1} if the download has been abandoned
+     */
+    private long getDownloadedSize()
+        throws IOException
+    {
+        try
+        {
+            return download.get();
+        }
+        catch (ExecutionException e)
+        {
+            throw new IOException("Remote fetch failed.", e.getCause());
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+
+            throw new InterruptedIOException(e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the spool file by position, so that a download which has been started over (the remote ignored a range
+     * request) is followed transparently.
+     */
+    private class SpoolInputStream
+            extends InputStream
+    {
+
+        private final FileChannel channel;
+
+        private long position;
+
+        private boolean closed;
+
+        private SpoolInputStream(FileChannel channel)
+        {
+            this.channel = channel;
+        }
+
+        @Override
+        public int read()
+            throws IOException
+        {
+            byte[] b = new byte[1];
+
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b,
+                        int off,
+                        int len)
+            throws IOException
+        {
+            if (len == 0)
+            {
+                return 0;
+            }
+
+            while (true)
+            {
+                // Checked before the read, so that the read of a completed download sees the whole file.
+                boolean downloaded = download.isDone();
+
+                int n = channel.read(ByteBuffer.wrap(b, off, len), position);
+                if (n > 0)
+                {
+                    position += n;
+
+                    return n;
+                }
+
+                if (!downloaded)
+                {
+                    awaitProgress();
+
+                    continue;
+                }
+
+                long size = getDownloadedSize();
+                if (size < 0)
+                {
+                    throw new IOException("Remote fetch has been abandoned.");
+                }
+                if (position >= size)
+                {
+                    return -1;
+                }
+
+                throw new EOFException(String.format("Spool file ends at [%s] of [%s] bytes.", position, size));
+            }
+        }
+
+        @Override
+        public void close()
+            throws IOException
+        {
+            if (closed)
+            {
+                return;
+            }
+            closed = true;
+
+            try
+            {
+                channel.close();
+            }
+            finally
+            {
+                release();
+            }
+        }
+
+    }
+
+}
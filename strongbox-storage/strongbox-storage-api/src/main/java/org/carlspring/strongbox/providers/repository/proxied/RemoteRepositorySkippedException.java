@@ -0,0 +1,17 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import java.io.IOException;
+
+/**
+ * The remote repository has not been asked for the resource, as it's down or its circuit breaker is open. Unlike a
+ * {@code null} result, it doesn't tell whether the resource exists.
+ */
+public class RemoteRepositorySkippedException extends IOException
+{
+
+    public RemoteRepositorySkippedException(String message)
+    {
+        super(message);
+    }
+
+}
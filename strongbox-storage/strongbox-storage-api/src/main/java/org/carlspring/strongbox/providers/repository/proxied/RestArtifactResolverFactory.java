@@ -4,9 +4,11 @@ import java.util.Objects;
 
 import javax.inject.Inject;
 
+import org.carlspring.strongbox.client.AsyncArtifactResolver;
 import org.carlspring.strongbox.client.RemoteRepositoryRetryArtifactDownloadConfiguration;
 import org.carlspring.strongbox.client.RestArtifactResolver;
 import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.service.ProxyRepositoryAsyncClientService;
 import org.carlspring.strongbox.service.ProxyRepositoryConnectionPoolConfigurationService;
 import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
 import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryAlivenessService;
@@ -22,6 +24,9 @@ public class RestArtifactResolverFactory
 
     @Inject
     private ProxyRepositoryConnectionPoolConfigurationService proxyRepositoryConnectionPoolConfigurationService;
+
+    @Inject
+    private ProxyRepositoryAsyncClientService proxyRepositoryAsyncClientService;
     
     @Inject
     private ConfigurationManager configurationManager;
@@ -53,8 +58,50 @@ public class RestArtifactResolverFactory
                                     {
                                         return remoteRepositoryAlivenessCacheManager.isAlive(repository);
                                     }
+
+                                    @Override
+                                    public Boolean getRangeRequestSupported()
+                                    {
+                                        return proxyRepositoryAsyncClientService.getEndpoint(url)
+                                                                                .getRangeRequestSupported();
+                                    }
+
+                                    @Override
+                                    public void setRangeRequestSupported(boolean rangeRequestSupported)
+                                    {
+                                        proxyRepositoryAsyncClientService.getEndpoint(url)
+                                                                         .setRangeRequestSupported(rangeRequestSupported);
+                                    }
                         
                                 };
     }
 
+    /**
+     * @return the non-blocking resolver, or {@code null} if the asynchronous client is disabled
+     */
+    public AsyncArtifactResolver newAsyncInstance(RemoteRepository repository)
+    {
+        Objects.requireNonNull(repository);
+
+        if (!proxyRepositoryAsyncClientService.isEnabled())
+        {
+            return null;
+        }
+
+        RemoteRepositoryRetryArtifactDownloadConfiguration configuration = configurationManager.getConfiguration()
+                                                                                               .getRemoteRepositoriesConfiguration()
+                                                                                               .getRemoteRepositoryRetryArtifactDownloadConfiguration();
+
+        String username = repository.getUsername();
+        String password = repository.getPassword();
+        String url = repository.getUrl();
+
+        return new AsyncArtifactResolver(proxyRepositoryAsyncClientService,
+                                         url,
+                                         configuration,
+                                         () -> remoteRepositoryAlivenessCacheManager.isAlive(repository),
+                                         username,
+                                         password);
+    }
+
 }
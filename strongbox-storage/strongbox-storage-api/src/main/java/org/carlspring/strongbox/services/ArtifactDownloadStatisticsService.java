@@ -0,0 +1,38 @@
+package org.carlspring.strongbox.services;
+
+import org.carlspring.strongbox.domain.ArtifactEntry;
+
+/**
+ * Collects artifact downloads in memory and periodically flushes them into the
+ * {@link ArtifactEntry#getDownloadCount()} and {@link ArtifactEntry#getLastUsed()} properties in batches, so that
+ * downloading an artifact does not need a lock and a transaction of its own.
+ */
+public interface ArtifactDownloadStatisticsService
+{
+
+    /**
+     * Registers a single download of the given {@link ArtifactEntry}, the change will be persisted on the next flush.
+     *
+     * @param artifactEntry
+     *            the downloaded {@link ArtifactEntry}
+     */
+    void recordDownload(ArtifactEntry artifactEntry);
+
+    /**
+     * Persists all pending downloads.
+     *
+     * @return number of downloads flushed
+     */
+    long flush();
+
+    /**
+     * @return number of recorded downloads which are not flushed yet
+     */
+    long getPendingDownloadsCount();
+
+    /**
+     * @return total number of downloads flushed since startup
+     */
+    long getFlushedDownloadsCount();
+
+}
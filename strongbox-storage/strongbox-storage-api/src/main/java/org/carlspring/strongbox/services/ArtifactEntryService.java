@@ -1,6 +1,7 @@
 package org.carlspring.strongbox.services;
 
 import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -56,6 +57,11 @@ public interface ArtifactEntryService
     List<ArtifactEntry> findMatching(ArtifactEntrySearchCriteria searchCriteria,
                                      PagingCriteria pagingCriteria);
 
+    /**
+     * @return the total size of the matching artifacts
+     */
+    long sumSizeInBytes(ArtifactEntrySearchCriteria searchCriteria);
+
     Long countCoordinates(Collection<Pair<String, String>> storageRepositoryPairList,
                           Map<String, String> coordinates,
                           boolean strict);
@@ -77,4 +83,27 @@ public interface ArtifactEntryService
                                   String repositoryId,
                                   String path);
 
+    /**
+     * @param artifactEntryId
+     *            the {@link ArtifactEntry} record ID
+     * @return the detached {@link ArtifactEntry}, or {@code null} if there is no such record
+     */
+    ArtifactEntry findOneArtifactById(String artifactEntryId);
+
+    /**
+     * Increments the {@link ArtifactEntry} download count and sets its last used date with a single update statement,
+     * without fetching the entity first.
+     *
+     * @param artifactEntryId
+     *            the {@link ArtifactEntry} record ID
+     * @param downloadCount
+     *            number of downloads to add
+     * @param lastUsed
+     *            the last download date
+     * @return number of updated records
+     */
+    int updateDownloadStatistics(String artifactEntryId,
+                                 int downloadCount,
+                                 Date lastUsed);
+
 }
@@ -23,6 +23,7 @@ import org.carlspring.strongbox.event.artifact.ArtifactEventListenerRegistry;
 import org.carlspring.strongbox.io.LayoutOutputStream;
 import org.carlspring.strongbox.io.StreamUtils;
 import org.carlspring.strongbox.providers.ProviderImplementationException;
+import org.carlspring.strongbox.providers.io.ContentAddressableBlobStore;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
@@ -79,6 +80,9 @@ public class ArtifactManagementService
 
     @Inject
     protected RepositoryPathResolver repositoryPathResolver;
+
+    @Inject
+    protected ContentAddressableBlobStore blobStore;
     
     @Transactional
     public long validateAndStore(RepositoryPath repositoryPath,
@@ -169,7 +173,13 @@ public class ArtifactManagementService
         long totalAmountOfBytes = IOUtils.copy(is, os);
 
         URI repositoryPathId = repositoryPath.toUri();
-        Map<String, String> digestMap = aos.getDigestMap();
+        // The other digests are only recorded in the `ArtifactEntry`, they have no checksum files.
+        Set<String> digestAlgorithmSet = repositoryPath.getFileSystem().getDigestAlgorithmSet();
+        Map<String, String> digestMap = aos.getDigestMap()
+                                           .entrySet()
+                                           .stream()
+                                           .filter(e -> digestAlgorithmSet.contains(e.getKey()))
+                                           .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
         if (Boolean.FALSE.equals(checksumAttribute) && !digestMap.isEmpty())
         {
             // Store artifact digests in cache if we have them.
@@ -356,7 +366,11 @@ public class ArtifactManagementService
     {
         artifactOperationsValidator.validate(srcPath);
 
-        if (Files.isDirectory(srcPath))
+        if (blobStore.supports(srcPath) && blobStore.supports(destPath))
+        {
+            blobStore.copy(srcPath, destPath);
+        }
+        else if (Files.isDirectory(srcPath))
         {
             FileSystemUtils.copyRecursively(srcPath, destPath);
         }
@@ -15,6 +15,14 @@ import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
 public class ArtifactCoordinatesService extends CommonCrudService<AbstractArtifactCoordinates>
 {
 
+    @Override
+    protected <S extends AbstractArtifactCoordinates> S cascadeEntitySave(AbstractArtifactCoordinates entity)
+    {
+        entity.prepareSearchTokens();
+
+        return super.cascadeEntitySave(entity);
+    }
+
     @Override
     protected boolean identifyEntity(AbstractArtifactCoordinates entity)
     {
@@ -0,0 +1,233 @@
+package org.carlspring.strongbox.services.impl;
+
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.services.ArtifactDownloadStatisticsService;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+
+import javax.inject.Inject;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Pending downloads are aggregated per {@link ArtifactEntry} within a {@link ConcurrentHashMap}, which only locks the
+ * hash bin of the entry being updated, and are written with one {@code UPDATE ... INCREMENT} statement per entry,
+ * {@link #batchSize} entries per transaction.
+ * <p>
+ * They are flushed every {@code strongbox.download.statistics.flushIntervalMillis} on the shared
+ * {@code backgroundTaskScheduler} ({@code 0} to only flush on demand), and on shutdown.
+ */
+@Service
+public class ArtifactDownloadStatisticsServiceImpl
+        implements ArtifactDownloadStatisticsService, InitializingBean, DisposableBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactDownloadStatisticsServiceImpl.class);
+
+    @Value("${strongbox.download.statistics.flushIntervalMillis:5000}")
+    private long flushIntervalMillis;
+
+    @Value("${strongbox.download.statistics.batchSize:500}")
+    private int batchSize;
+
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    @Inject
+    private TaskScheduler backgroundTaskScheduler;
+
+    private final ConcurrentMap<String, PendingDownloads> pendingDownloads = new ConcurrentHashMap<>();
+
+    private final AtomicLong pendingDownloadsCount = new AtomicLong();
+
+    private final AtomicLong flushedDownloadsCount = new AtomicLong();
+
+    private final Object flushLock = new Object();
+
+    private ScheduledFuture<?> flushTask;
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        if (flushIntervalMillis <= 0)
+        {
+            return;
+        }
+
+        flushTask = backgroundTaskScheduler.scheduleWithFixedDelay(this::flushQuietly,
+                                                                   new Date(System.currentTimeMillis() +
+                                                                            flushIntervalMillis),
+                                                                   flushIntervalMillis);
+    }
+
+    @Override
+    public void destroy()
+    {
+        if (flushTask != null)
+        {
+            flushTask.cancel(false);
+        }
+
+        // Waits for a flush in progress, if any.
+        flushQuietly();
+    }
+
+    @Override
+    public void recordDownload(ArtifactEntry artifactEntry)
+    {
+        String artifactEntryId = artifactEntry.getObjectId();
+        if (artifactEntryId == null)
+        {
+            logger.debug("Skip download statistics for not persisted [{}].", artifactEntry.getArtifactPath());
+
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        pendingDownloads.compute(artifactEntryId, (k, v) -> v == null ? new PendingDownloads(1, now) : v.add(1, now));
+        pendingDownloadsCount.incrementAndGet();
+    }
+
+    @Override
+    public long flush()
+    {
+        synchronized (flushLock)
+        {
+            long result = 0;
+            List<Map.Entry<String, PendingDownloads>> batch = new ArrayList<>(batchSize);
+            for (String artifactEntryId : pendingDownloads.keySet())
+            {
+                PendingDownloads downloads = pendingDownloads.remove(artifactEntryId);
+                if (downloads == null)
+                {
+                    continue;
+                }
+
+                batch.add(new SimpleImmutableEntry<>(artifactEntryId, downloads));
+                if (batch.size() >= batchSize)
+                {
+                    result += flushBatch(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+
+            if (!batch.isEmpty())
+            {
+                result += flushBatch(batch);
+            }
+
+            return result;
+        }
+    }
+
+    private void flushQuietly()
+    {
+        try
+        {
+            long flushed = flush();
+            if (flushed > 0)
+            {
+                logger.debug("Flushed [{}] downloads, [{}] pending.", flushed, pendingDownloadsCount.get());
+            }
+        }
+        catch (Exception e)
+        {
+            logger.error("Failed to flush download statistics.", e);
+        }
+    }
+
+    private long flushBatch(List<Map.Entry<String, PendingDownloads>> batch)
+    {
+        long count = batch.stream().mapToLong(e -> e.getValue().count).sum();
+        try
+        {
+            new TransactionTemplate(transactionManager).execute(t -> {
+                batch.forEach(e -> artifactEntryService.updateDownloadStatistics(e.getKey(),
+                                                                                 e.getValue().count,
+                                                                                 new Date(e.getValue().lastUsed)));
+                return null;
+            });
+        }
+        catch (RuntimeException e)
+        {
+            logger.warn("Failed to flush [{}] download statistics entries, will retry with next flush.",
+                        batch.size(),
+                        e);
+
+            // Put the batch back, merging it with the downloads recorded in the meantime.
+            batch.forEach(d -> pendingDownloads.merge(d.getKey(), d.getValue(), PendingDownloads::add));
+
+            return 0;
+        }
+
+        pendingDownloadsCount.addAndGet(-count);
+        flushedDownloadsCount.addAndGet(count);
+
+        return count;
+    }
+
+    @Override
+    public long getPendingDownloadsCount()
+    {
+        return pendingDownloadsCount.get();
+    }
+
+    @Override
+    public long getFlushedDownloadsCount()
+    {
+        return flushedDownloadsCount.get();
+    }
+
+    /**
+     * Mutated only within {@link ConcurrentHashMap} atomic operations, so it needs no synchronization of its own.
+     */
+    private static class PendingDownloads
+    {
+
+        private int count;
+
+        private long lastUsed;
+
+        PendingDownloads(int count,
+                         long lastUsed)
+        {
+            this.count = count;
+            this.lastUsed = lastUsed;
+        }
+
+        PendingDownloads add(int count,
+                             long lastUsed)
+        {
+            this.count += count;
+            this.lastUsed = Math.max(this.lastUsed, lastUsed);
+
+            return this;
+        }
+
+        PendingDownloads add(PendingDownloads other)
+        {
+            return add(other.count, other.lastUsed);
+        }
+
+    }
+
+}
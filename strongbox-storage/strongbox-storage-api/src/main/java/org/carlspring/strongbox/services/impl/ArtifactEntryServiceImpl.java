@@ -1,25 +1,34 @@
 package org.carlspring.strongbox.services.impl;
 
 import org.carlspring.strongbox.artifact.ArtifactTag;
+import org.carlspring.strongbox.artifact.coordinates.AbstractArtifactCoordinates;
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
+import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinatesSearchTokens;
 import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.ArtifactTagEntry;
 import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.services.support.ArtifactCoordinatesSearchIndex;
+import org.carlspring.strongbox.services.support.ArtifactEntryLookupCache;
 import org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria;
 
+import javax.inject.Inject;
 import java.util.*;
 import java.util.Map.Entry;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
 import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.OCommandSQL;
 import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.time.DateUtils;
 import org.javatuples.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -35,6 +44,21 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
 
     private static final Logger logger = LoggerFactory.getLogger(ArtifactEntryService.class);
 
+    private static final String ARTIFACT_COORDINATES_IDS = "artifactCoordinatesIds";
+
+    @Inject
+    private ArtifactEntryLookupCache artifactEntryLookupCache;
+
+    @Inject
+    private ArtifactCoordinatesSearchIndex artifactCoordinatesSearchIndex;
+
+    /**
+     * Search tokens matching more coordinates than this are too common to narrow the search down, see
+     * {@link #findArtifactCoordinatesIds(Map, boolean)}.
+     */
+    @Value("${strongbox.artifact.coordinates.search.maxCandidates:1000}")
+    private int maxSearchCandidates;
+
     private boolean artifactEntryIsSavedForTheFirstTime(ArtifactEntry artifactEntry)
     {
         return artifactEntry.getUuid() == null;
@@ -44,10 +68,18 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
     protected <S extends ArtifactEntry> S cascadeEntitySave(ArtifactEntry entity)
     {
         entity.setArtifactCoordinates(entity.getArtifactCoordinates());
+        if (entity.getArtifactCoordinates() instanceof AbstractArtifactCoordinates)
+        {
+            ((AbstractArtifactCoordinates) entity.getArtifactCoordinates()).prepareSearchTokens();
+        }
         if (artifactEntryIsSavedForTheFirstTime(entity))
         {
             entity.setCreated(new Date());
         }
+        else
+        {
+            artifactEntryLookupCache.invalidate(entity);
+        }
 
         return super.cascadeEntitySave(entity);
     }
@@ -77,6 +109,12 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
             orderBy = "uuid";
         }
 
+        Set<ORID> artifactCoordinatesIds = findArtifactCoordinatesIds(coordinates, strict);
+        if (artifactCoordinatesIds != null && artifactCoordinatesIds.isEmpty())
+        {
+            return new ArrayList<>();
+        }
+
         coordinates = prepareParameterMap(coordinates, strict);
 
         Map<String, ArtifactTagEntry> tagMap = tagSet.stream()
@@ -84,11 +122,16 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
                                                                                t -> (ArtifactTagEntry) t));
 
         String sQuery = buildCoordinatesQuery(toList(storageId, repositoryId), coordinates.keySet(), tagMap.keySet(),
+                                              artifactCoordinatesIds != null,
                                               skip,
                                               limit, orderBy, strict);
         OSQLSynchQuery<ArtifactEntry> oQuery = new OSQLSynchQuery<>(sQuery);
 
         Map<String, Object> parameterMap = new HashMap<>(coordinates);
+        if (artifactCoordinatesIds != null)
+        {
+            parameterMap.put(ARTIFACT_COORDINATES_IDS, artifactCoordinatesIds);
+        }
         if (storageId != null && !storageId.trim().isEmpty())
         {
             parameterMap.put("storageId0", storageId);
@@ -111,8 +154,39 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
     {
         StringBuilder sb = new StringBuilder();
         sb.append("SELECT FROM ").append(getEntityClass().getSimpleName());
-        Map<String, Object> parameterMap = Collections.emptyMap();
+        Map<String, Object> parameterMap = appendSearchCriteria(sb, searchCriteria);
+
+        appendKeysetCondition(sb, pagingCriteria);
+        appendPagingCriteria(sb, pagingCriteria);
+
+        logger.debug("Executing SQL query> {}", sb);
+
+        OSQLSynchQuery<ArtifactEntry> oQuery = new OSQLSynchQuery<>(sb.toString());
+
+        return getDelegate().command(oQuery).execute(parameterMap);
+    }
+
+    @Override
+    public long sumSizeInBytes(ArtifactEntrySearchCriteria searchCriteria)
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("SELECT sum(sizeInBytes) AS sizeInBytes FROM ").append(getEntityClass().getSimpleName());
+        Map<String, Object> parameterMap = appendSearchCriteria(sb, searchCriteria);
+
+        logger.debug("Executing SQL query> {}", sb);
 
+        OSQLSynchQuery<ODocument> oQuery = new OSQLSynchQuery<>(sb.toString());
+
+        List<ODocument> result = getDelegate().command(oQuery).execute(parameterMap);
+        Number sizeInBytes = result.isEmpty() ? null : result.iterator().next().field("sizeInBytes");
+
+        return sizeInBytes == null ? 0L : sizeInBytes.longValue();
+    }
+
+    private Map<String, Object> appendSearchCriteria(StringBuilder sb,
+                                                     ArtifactEntrySearchCriteria searchCriteria)
+    {
+        Map<String, Object> parameterMap = Collections.emptyMap();
 
         if (!searchCriteria.isEmpty())
         {
@@ -120,8 +194,27 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
             sb.append(" WHERE ");
             parameterMap = new HashMap<>();
 
+            // the `idx_artifact` index starts with these
+            if (searchCriteria.getStorageId() != null)
+            {
+                criteriaQueryClasuse.append(" storageId = :storageId ");
+                parameterMap.put("storageId", searchCriteria.getStorageId());
+            }
+            if (searchCriteria.getRepositoryId() != null)
+            {
+                if (criteriaQueryClasuse.length() > 0)
+                {
+                    criteriaQueryClasuse.append(" AND ");
+                }
+                criteriaQueryClasuse.append(" repositoryId = :repositoryId ");
+                parameterMap.put("repositoryId", searchCriteria.getRepositoryId());
+            }
             if (searchCriteria.getMinSizeInBytes() != null && searchCriteria.getMinSizeInBytes() > 0)
             {
+                if (criteriaQueryClasuse.length() > 0)
+                {
+                    criteriaQueryClasuse.append(" AND ");
+                }
                 criteriaQueryClasuse.append(" sizeInBytes >= :minSizeInBytes ");
                 parameterMap.put("minSizeInBytes", searchCriteria.getMinSizeInBytes());
             }
@@ -136,16 +229,10 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
                 parameterMap.put("lastUsed", lastUsed);
             }
 
-            sb.append(criteriaQueryClasuse);
+            sb.append(criteriaQueryClasuse.length() > 0 ? criteriaQueryClasuse : " true = true ");
         }
 
-        appendPagingCriteria(sb, pagingCriteria);
-
-        logger.debug("Executing SQL query> {}", sb);
-
-        OSQLSynchQuery<ArtifactEntry> oQuery = new OSQLSynchQuery<>(sb.toString());
-
-        return getDelegate().command(oQuery).execute(parameterMap);
+        return parameterMap;
     }
 
     @Override
@@ -160,17 +247,42 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
         return findArtifactList(storageId, repositoryId, coordinates.getCoordinates(), true);
     }
 
+    /**
+     * When the {@link ArtifactCoordinatesSearchIndex} narrows the search down and the repositories are all known, the
+     * candidate coordinates are counted through the {@code idx_artifact} index, see
+     * {@link #countIndexedCoordinates(Collection, Map, Set, boolean)}. Otherwise the distinct coordinates of the
+     * matching artifact entries are counted.
+     */
     @Override
     public Long countCoordinates(Collection<Pair<String, String>> storageRepositoryPairList,
                                  Map<String, String> coordinates,
                                  boolean strict)
     {
+        Set<ORID> artifactCoordinatesIds = findArtifactCoordinatesIds(coordinates, strict);
+        if (artifactCoordinatesIds != null && artifactCoordinatesIds.isEmpty())
+        {
+            return 0L;
+        }
+
         coordinates = prepareParameterMap(coordinates, strict);
-        String sQuery = buildCoordinatesQuery(storageRepositoryPairList, coordinates.keySet(), Collections.emptySet(), 0, 0, null, strict);
+        if (artifactCoordinatesIds != null && !storageRepositoryPairList.isEmpty()
+                && storageRepositoryPairList.stream()
+                                            .allMatch(pair -> StringUtils.isNotBlank(pair.getValue0())
+                                                              && StringUtils.isNotBlank(pair.getValue1())))
+        {
+            return countIndexedCoordinates(storageRepositoryPairList, coordinates, artifactCoordinatesIds, strict);
+        }
+
+        String sQuery = buildCoordinatesQuery(storageRepositoryPairList, coordinates.keySet(), Collections.emptySet(),
+                                              artifactCoordinatesIds != null, 0, 0, null, strict);
         sQuery = sQuery.replace("*", "count(distinct(artifactCoordinates))");
         OSQLSynchQuery<ArtifactEntry> oQuery = new OSQLSynchQuery<>(sQuery);
 
         Map<String, Object> parameterMap = new HashMap<>(coordinates);
+        if (artifactCoordinatesIds != null)
+        {
+            parameterMap.put(ARTIFACT_COORDINATES_IDS, artifactCoordinatesIds);
+        }
 
         Pair<String, String>[] p = storageRepositoryPairList.toArray(new Pair[storageRepositoryPairList.size()]);
         IntStream.range(0, storageRepositoryPairList.size()).forEach(idx -> {
@@ -192,17 +304,71 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
         return (Long) result.iterator().next().field("count");
     }
 
+    /**
+     * The candidate coordinates are distinct records already, so they are counted without any aggregation, with a
+     * single query over the candidates: the ones which match the coordinates conditions and have an artifact entry in
+     * one of the repositories, looked up through the {@code idx_artifact} index.
+     */
+    private long countIndexedCoordinates(Collection<Pair<String, String>> storageRepositoryPairList,
+                                         Map<String, String> coordinates,
+                                         Set<ORID> artifactCoordinatesIds,
+                                         boolean strict)
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("SELECT count(*) FROM ")
+          .append(artifactCoordinatesIds.stream().map(ORID::toString).collect(Collectors.joining(", ", "[", "]")))
+          .append(" WHERE true = true");
+        coordinates.keySet()
+                   .forEach(e -> sb.append(" AND coordinates.")
+                                   .append(e)
+                                   .append(".toLowerCase()")
+                                   .append(strict ? " = " : " like ")
+                                   .append(String.format(":%s", e)));
+
+        Map<String, Object> parameterMap = new HashMap<>(coordinates);
+        parameterMap.put(ARTIFACT_COORDINATES_IDS, artifactCoordinatesIds);
+
+        Pair<String, String>[] p = storageRepositoryPairList.toArray(new Pair[storageRepositoryPairList.size()]);
+        StringBuilder c = new StringBuilder();
+        for (int idx = 0; idx < p.length; idx++)
+        {
+            c.append(idx > 0 ? " OR " : "").append(calculateStorageAndRepositoryCondition(p[idx], idx));
+            parameterMap.put(String.format("storageId%s", idx), p[idx].getValue0());
+            parameterMap.put(String.format("repositoryId%s", idx), p[idx].getValue1());
+        }
+        sb.append(String.format(" AND @rid IN (SELECT expand(artifactCoordinates) FROM %s " +
+                                "WHERE artifactCoordinates IN :%s AND (%s))",
+                                getEntityClass().getSimpleName(), ARTIFACT_COORDINATES_IDS, c));
+
+        logger.debug("Executing SQL query> {}", sb);
+
+        List<ODocument> result = getDelegate().command(new OSQLSynchQuery<ODocument>(sb.toString()))
+                                              .execute(parameterMap);
+        return (Long) result.iterator().next().field("count");
+    }
+
     @Override
     public Long countArtifacts(Collection<Pair<String, String>> storageRepositoryPairList,
                                Map<String, String> coordinates,
                                boolean strict)
     {
+        Set<ORID> artifactCoordinatesIds = findArtifactCoordinatesIds(coordinates, strict);
+        if (artifactCoordinatesIds != null && artifactCoordinatesIds.isEmpty())
+        {
+            return 0L;
+        }
+
         coordinates = prepareParameterMap(coordinates, strict);
-        String sQuery = buildCoordinatesQuery(storageRepositoryPairList, coordinates.keySet(), Collections.emptySet(), 0, 0, null, strict);
+        String sQuery = buildCoordinatesQuery(storageRepositoryPairList, coordinates.keySet(), Collections.emptySet(),
+                                              artifactCoordinatesIds != null, 0, 0, null, strict);
         sQuery = sQuery.replace("*", "count(*)");
         OSQLSynchQuery<ArtifactEntry> oQuery = new OSQLSynchQuery<>(sQuery);
 
         Map<String, Object> parameterMap = new HashMap<>(coordinates);
+        if (artifactCoordinatesIds != null)
+        {
+            parameterMap.put(ARTIFACT_COORDINATES_IDS, artifactCoordinatesIds);
+        }
 
         Pair<String, String>[] p = storageRepositoryPairList.toArray(new Pair[storageRepositoryPairList.size()]);
         IntStream.range(0, storageRepositoryPairList.size()).forEach(idx -> {
@@ -243,6 +409,7 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
     protected String buildCoordinatesQuery(Collection<Pair<String, String>> storageRepositoryPairList,
                                            Set<String> parameterNameSet,
                                            Set<String> tagNameSet,
+                                           boolean artifactCoordinatesIdsCondition,
                                            int skip,
                                            int limit,
                                            String orderBy,
@@ -261,7 +428,13 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
                                         .append(".toLowerCase()")
                                         .append(strict ? " = " : " like ")
                                         .append(String.format(":%s", e)));
-        sb.append(" WHERE ").append(c1.length() > 0 ? c1.append(" AND ").toString() : " true = true AND ");
+        sb.append(" WHERE ");
+        // the coordinates found by the search index, the conditions above still check the exact matches
+        if (artifactCoordinatesIdsCondition)
+        {
+            sb.append(String.format("artifactCoordinates IN :%s AND ", ARTIFACT_COORDINATES_IDS));
+        }
+        sb.append(c1.length() > 0 ? c1.append(" AND ").toString() : " true = true AND ");
 
         //REPOSITORIES
         StringBuffer c2 = new StringBuffer();
@@ -331,6 +504,70 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
         return result.toString();
     }
 
+    /**
+     * Narrows the coordinates search down with the {@link ArtifactCoordinatesSearchIndex}: the exact tokens for the
+     * strict searches and the n-gram tokens for the {@code LIKE} ones. The tokens are intersected, skipping the ones too
+     * common to help (more than {@link #maxSearchCandidates} matches).
+     *
+     * @return the candidate coordinates ids, a superset of the matching ones, or {@code null} if the search index can't
+     *         narrow the search down and the coordinates should be matched by a full scan
+     */
+    private Set<ORID> findArtifactCoordinatesIds(Map<String, String> coordinates,
+                                                 boolean strict)
+    {
+        if (!artifactCoordinatesSearchIndex.isReady())
+        {
+            return null;
+        }
+
+        Set<String> searchTokens = new LinkedHashSet<>();
+        coordinates.entrySet()
+                   .stream()
+                   .filter(e -> e.getValue() != null)
+                   // values with wildcards of their own can't be matched by the n-grams
+                   .filter(e -> strict || StringUtils.containsNone(e.getValue(), "%_?"))
+                   .forEach(e -> searchTokens.addAll(strict ?
+                                                     Collections.singleton(ArtifactCoordinatesSearchTokens.exact(e.getKey(),
+                                                                                                                 e.getValue())) :
+                                                     ArtifactCoordinatesSearchTokens.ngrams(e.getKey(), e.getValue())));
+
+        String sQuery = String.format("SELECT FROM INDEX:%s WHERE key = :token",
+                                      ArtifactCoordinatesSearchIndex.INDEX_NAME);
+
+        Set<ORID> result = null;
+        for (String searchToken : searchTokens)
+        {
+            OSQLSynchQuery<ODocument> oQuery = new OSQLSynchQuery<>(sQuery);
+            oQuery.setLimit(maxSearchCandidates + 1);
+
+            List<ODocument> resultList = getDelegate().command(oQuery)
+                                                      .execute(Collections.singletonMap("token", searchToken));
+            if (resultList.size() > maxSearchCandidates)
+            {
+                continue;
+            }
+
+            Set<ORID> artifactCoordinatesIds = resultList.stream()
+                                                         .map(d -> ((OIdentifiable) d.field("rid")).getIdentity())
+                                                         .collect(Collectors.toSet());
+            if (result == null)
+            {
+                result = artifactCoordinatesIds;
+            }
+            else
+            {
+                result.retainAll(artifactCoordinatesIds);
+            }
+
+            if (result.isEmpty())
+            {
+                break;
+            }
+        }
+
+        return result;
+    }
+
     private Map<String, String> prepareParameterMap(Map<String, String> coordinates,
                                                     boolean strict)
     {
@@ -344,7 +581,7 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
     private String calculateParameterValue(Entry<String, String> e,
                                            boolean strict)
     {
-        String result = e.getValue() == null ? null : e.getValue().toLowerCase();
+        String result = e.getValue() == null ? null : e.getValue().toLowerCase(Locale.ROOT);
         if (!strict)
         {
             result = "%" + result + "%";
@@ -357,7 +594,7 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
                                   String repositoryId,
                                   String path)
     {
-        return findArtifactEntryId(storageId, repositoryId, path) != null;
+        return findArtifactEntry(storageId, repositoryId, path) != null;
     }
 
     @Override
@@ -365,29 +602,99 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
                                          String repositoryId,
                                          String path)
     {
-        ORID artifactEntryId = findArtifactEntryId(storageId, repositoryId, path);
-        return Optional.ofNullable(artifactEntryId)
-                       .flatMap(id -> Optional.ofNullable(entityManager.find(ArtifactEntry.class, id)))
+        return Optional.ofNullable(findArtifactEntry(storageId, repositoryId, path))
                        .map(e -> detach(e))
                        .orElse(null);
     }
 
+    @Override
+    public ArtifactEntry findOneArtifactById(String artifactEntryId)
+    {
+        return findOne(artifactEntryId).map(e -> detach(e)).orElse(null);
+    }
+
+    @Override
+    public int updateDownloadStatistics(String artifactEntryId,
+                                        int downloadCount,
+                                        Date lastUsed)
+    {
+        String sQuery = String.format("UPDATE %s INCREMENT downloadCount = :downloadCount SET lastUsed = :lastUsed",
+                                      artifactEntryId);
+
+        HashMap<String, Object> params = new HashMap<>();
+        params.put("downloadCount", downloadCount);
+        params.put("lastUsed", lastUsed);
+
+        return getDelegate().command(new OCommandSQL(sQuery)).execute(params);
+    }
+
     @Override
     public void delete(String id)
     {
         super.delete(id);
+        artifactEntryLookupCache.invalidateAll();
     }
 
     @Override
     public void delete(ArtifactEntry entity)
     {
+        artifactEntryLookupCache.invalidate(entity);
         super.delete(entity);
     }
 
+    @Override
+    public int delete(List<ArtifactEntry> entityList)
+    {
+        int result = super.delete(entityList);
+        artifactEntryLookupCache.invalidateAll();
+
+        return result;
+    }
+
     @Override
     public void deleteAll()
     {
         super.deleteAll();
+        artifactEntryLookupCache.invalidateAll();
+    }
+
+    /**
+     * Record ids resolved from the indexes are kept within the {@link ArtifactEntryLookupCache}, a cached id is only
+     * trusted if it still points to the {@link ArtifactEntry} with the same storage, repository and path.
+     */
+    private ArtifactEntry findArtifactEntry(String storageId,
+                                            String repositoryId,
+                                            String path)
+    {
+        ORID artifactEntryId = artifactEntryLookupCache.get(storageId, repositoryId, path);
+        if (artifactEntryId != null)
+        {
+            ArtifactEntry result = entityManager.find(ArtifactEntry.class, artifactEntryId);
+            if (result != null
+                    && storageId.equals(result.getStorageId())
+                    && repositoryId.equals(result.getRepositoryId())
+                    && result.getArtifactCoordinates() != null
+                    && path.equals(result.getArtifactPath()))
+            {
+                return result;
+            }
+
+            artifactEntryLookupCache.invalidate(storageId, repositoryId, path);
+        }
+
+        artifactEntryId = findArtifactEntryId(storageId, repositoryId, path);
+        if (artifactEntryId == null)
+        {
+            return null;
+        }
+
+        ArtifactEntry result = entityManager.find(ArtifactEntry.class, artifactEntryId);
+        if (result != null)
+        {
+            artifactEntryLookupCache.put(storageId, repositoryId, path, artifactEntryId);
+        }
+
+        return result;
     }
 
     private ORID findArtifactEntryId(String storageId,
@@ -20,7 +20,6 @@ import java.io.IOException;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.util.*;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Consumer;
 
@@ -41,7 +40,7 @@ public class ConfigurationManagementServiceImpl
         implements ConfigurationManagementService
 {
 
-    private final ReadWriteLock configurationLock = new ReentrantReadWriteLock();
+    private final ReentrantReadWriteLock configurationLock = new ReentrantReadWriteLock();
 
     @Inject
     private ConfigurationFileManager configurationFileManager;
@@ -67,6 +66,14 @@ public class ConfigurationManagementServiceImpl
      */
     private MutableConfiguration configuration;
 
+    /**
+     * Immutable view of the {@link #configuration}, rebuilt once per modification
+     * and handed out to readers without taking the {@link #configurationLock}.
+     *
+     * @see #modifyInLock(Consumer, boolean)
+     */
+    private volatile ConfigurationSnapshot snapshot = new ConfigurationSnapshot(null, 0);
+
     @PostConstruct
     public void init()
     {
@@ -109,17 +116,20 @@ public class ConfigurationManagementServiceImpl
     @Override
     public Configuration getConfiguration()
     {
-        final Lock readLock = configurationLock.readLock();
-        readLock.lock();
-
-        try
+        // Modifications in progress (and event listeners fired from them) must see
+        // the not yet published state, so the owner of the write lock gets a fresh copy.
+        if (configurationLock.isWriteLockedByCurrentThread())
         {
             return new Configuration(configuration);
         }
-        finally
-        {
-            readLock.unlock();
-        }
+
+        return snapshot.configuration;
+    }
+
+    @Override
+    public long getConfigurationRevision()
+    {
+        return snapshot.revision;
     }
 
     @Override
@@ -611,6 +621,12 @@ public class ConfigurationManagementServiceImpl
             {
                 configurationFileManager.store(configuration);
             }
+
+            // Nested modifications are published once, by the outermost one.
+            if (configurationLock.getWriteHoldCount() == 1)
+            {
+                snapshot = new ConfigurationSnapshot(new Configuration(configuration), snapshot.revision + 1);
+            }
         }
         finally
         {
@@ -618,4 +634,20 @@ public class ConfigurationManagementServiceImpl
         }
     }
 
+    private static class ConfigurationSnapshot
+    {
+
+        private final Configuration configuration;
+
+        private final long revision;
+
+        ConfigurationSnapshot(Configuration configuration,
+                              long revision)
+        {
+            this.configuration = configuration;
+            this.revision = revision;
+        }
+
+    }
+
 }
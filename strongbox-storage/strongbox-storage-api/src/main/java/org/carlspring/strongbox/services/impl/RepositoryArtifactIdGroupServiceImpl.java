@@ -131,6 +131,7 @@ public class RepositoryArtifactIdGroupServiceImpl
         String sQuery = buildQuery(params);
 
         StringBuilder sb = new StringBuilder(sQuery);
+        appendKeysetCondition(sb, pagingCriteria);
         appendPagingCriteria(sb, pagingCriteria);
 
         logger.debug("Executing SQL query> {}", sb);
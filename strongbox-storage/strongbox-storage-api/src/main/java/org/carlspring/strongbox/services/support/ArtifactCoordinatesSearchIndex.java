@@ -0,0 +1,168 @@
+package org.carlspring.strongbox.services.support;
+
+import org.carlspring.strongbox.artifact.coordinates.AbstractArtifactCoordinates;
+import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinatesSearchTokens;
+
+import javax.inject.Inject;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import com.orientechnologies.common.concur.ONeedRetryException;
+import com.orientechnologies.orient.core.db.ODatabasePool;
+import com.orientechnologies.orient.core.db.ODatabaseSession;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maintains the {@link #INDEX_NAME} index over the {@link ArtifactCoordinatesSearchTokens} of the artifact coordinates.
+ * <p>
+ * The index and its property are created on startup, if they are missing, and the coordinates persisted before the
+ * tokens were introduced are back-filled on the {@code eventTaskExecutor}, walking them in the record id order. The
+ * index is {@link #isReady()} to be used by the searches only once every coordinates record has its tokens, until
+ * then the searches keep matching the coordinates by a full scan.
+ */
+@Component
+@DependsOn("liquibase")
+public class ArtifactCoordinatesSearchIndex
+        implements InitializingBean
+{
+
+    public static final String INDEX_NAME = "idx_artifact_coordinates_search";
+
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactCoordinatesSearchIndex.class);
+
+    private static final String CLASS_NAME = AbstractArtifactCoordinates.class.getSimpleName();
+
+    private static final int BACKFILL_BATCH_SIZE = 1000;
+
+    @Value("${strongbox.artifact.coordinates.search.index.enabled:true}")
+    private boolean enabled;
+
+    @Inject
+    private ODatabasePool databasePool;
+
+    @Inject
+    private Executor eventTaskExecutor;
+
+    private volatile boolean ready;
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        if (!enabled)
+        {
+            return;
+        }
+
+        try (ODatabaseSession session = databasePool.acquire())
+        {
+            OClass oClass = session.getMetadata().getSchema().getClass(CLASS_NAME);
+            if (oClass == null)
+            {
+                logger.warn("Class [{}] not found, skip the coordinates search index.", CLASS_NAME);
+
+                return;
+            }
+            if (oClass.getProperty(ArtifactCoordinatesSearchTokens.PROPERTY) == null)
+            {
+                oClass.createProperty(ArtifactCoordinatesSearchTokens.PROPERTY, OType.EMBEDDEDSET, OType.STRING);
+            }
+            if (oClass.getClassIndex(INDEX_NAME) == null)
+            {
+                oClass.createIndex(INDEX_NAME, OClass.INDEX_TYPE.NOTUNIQUE, ArtifactCoordinatesSearchTokens.PROPERTY);
+            }
+
+            if (countMissingTokens(session) == 0)
+            {
+                ready = true;
+
+                return;
+            }
+        }
+
+        eventTaskExecutor.execute(this::backfill);
+    }
+
+    public boolean isReady()
+    {
+        return ready;
+    }
+
+    private long countMissingTokens(ODatabaseSession session)
+    {
+        String sQuery = String.format("SELECT count(*) FROM %s WHERE %s IS NULL",
+                                      CLASS_NAME,
+                                      ArtifactCoordinatesSearchTokens.PROPERTY);
+
+        List<ODocument> result = session.command(new OSQLSynchQuery<ODocument>(sQuery)).execute();
+        return (Long) result.iterator().next().field("count");
+    }
+
+    private void backfill()
+    {
+        logger.info("Back-filling [{}] of [{}].", ArtifactCoordinatesSearchTokens.PROPERTY, CLASS_NAME);
+
+        long updated = 0;
+        try (ODatabaseSession session = databasePool.acquire())
+        {
+            ORID lastId = null;
+            List<ODocument> batch;
+            do
+            {
+                String sQuery = String.format("SELECT FROM %s %s ORDER BY @rid LIMIT %s",
+                                              CLASS_NAME,
+                                              lastId == null ? "" : "WHERE @rid > :lastId",
+                                              BACKFILL_BATCH_SIZE);
+                batch = session.command(new OSQLSynchQuery<ODocument>(sQuery))
+                               .execute(lastId == null ? Collections.emptyMap()
+                                                       : Collections.singletonMap("lastId", lastId));
+                for (ODocument document : batch)
+                {
+                    lastId = document.getIdentity();
+                    if (document.field(ArtifactCoordinatesSearchTokens.PROPERTY) != null)
+                    {
+                        continue;
+                    }
+
+                    Map<String, String> coordinates = document.field("coordinates");
+                    document.field(ArtifactCoordinatesSearchTokens.PROPERTY,
+                                   ArtifactCoordinatesSearchTokens.of(coordinates),
+                                   OType.EMBEDDEDSET);
+                    try
+                    {
+                        document.save();
+                        updated++;
+                    }
+                    catch (ONeedRetryException e)
+                    {
+                        // updated concurrently, the next startup will take care of it if still needed
+                        logger.debug("Failed to back-fill [{}].", document.getIdentity(), e);
+                    }
+                }
+            }
+            while (batch.size() == BACKFILL_BATCH_SIZE);
+
+            ready = countMissingTokens(session) == 0;
+        }
+        catch (Exception e)
+        {
+            logger.error("Failed to back-fill [{}] of [{}].", ArtifactCoordinatesSearchTokens.PROPERTY, CLASS_NAME, e);
+
+            return;
+        }
+
+        logger.info("Back-filled [{}] coordinates, search index is {}.", updated, ready ? "ready" : "not ready");
+    }
+
+}
@@ -0,0 +1,155 @@
+package org.carlspring.strongbox.services.support;
+
+import org.carlspring.strongbox.data.CacheName;
+import org.carlspring.strongbox.data.cache.LocalCacheFactory;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.google.common.cache.Cache;
+import com.orientechnologies.orient.core.id.ORID;
+import org.javatuples.Triplet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded near-cache of the {@link ArtifactEntry} record ids, keyed by {@code (storageId, repositoryId, path)}, which
+ * spares the two index queries of an {@link ArtifactEntry} lookup. Only record ids are cached, so every lookup still
+ * returns a freshly loaded and detached entity. The cache is the {@link CacheName.Artifact#ARTIFACT_ENTRY_IDS} local
+ * cache, see {@link LocalCacheFactory}.
+ * <p>
+ * Entries are invalidated on artifact stored, updated and deleted events, as well as on every save or delete of an
+ * {@link ArtifactEntry}. Each invalidation increments the generation of the path, see
+ * {@link #getGeneration(String, String, String)}, which lets the {@link RepositoryPath} instances validate their
+ * memoized record id. The generations are striped by the path, so an invalidation only drops the memoized record ids
+ * of the paths which share its stripe.
+ *
+ * @see org.carlspring.strongbox.providers.io.RepositoryPathResolver
+ */
+@Component
+public class ArtifactEntryLookupCache
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactEntryLookupCache.class);
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    private final Cache<Triplet<String, String, String>, ORID> artifactEntryIds;
+
+    @Inject
+    ArtifactEntryLookupCache(LocalCacheFactory localCacheFactory)
+    {
+        artifactEntryIds = localCacheFactory.newCacheBuilder(CacheName.Artifact.ARTIFACT_ENTRY_IDS, 10000, -1).build();
+    }
+
+    public ORID get(String storageId,
+                    String repositoryId,
+                    String path)
+    {
+        return artifactEntryIds.getIfPresent(Triplet.with(storageId, repositoryId, path));
+    }
+
+    public void put(String storageId,
+                    String repositoryId,
+                    String path,
+                    ORID artifactEntryId)
+    {
+        if (!artifactEntryId.isPersistent())
+        {
+            return;
+        }
+
+        artifactEntryIds.put(Triplet.with(storageId, repositoryId, path), artifactEntryId.copy());
+    }
+
+    public void invalidate(String storageId,
+                           String repositoryId,
+                           String path)
+    {
+        Triplet<String, String, String> key = Triplet.with(storageId, repositoryId, path);
+        generations.incrementAndGet(stripe(key));
+        artifactEntryIds.invalidate(key);
+    }
+
+    public void invalidate(ArtifactEntry artifactEntry)
+    {
+        if (artifactEntry.getArtifactCoordinates() == null)
+        {
+            incrementGenerations();
+            return;
+        }
+
+        invalidate(artifactEntry.getStorageId(), artifactEntry.getRepositoryId(), artifactEntry.getArtifactPath());
+    }
+
+    public void invalidateAll()
+    {
+        incrementGenerations();
+        artifactEntryIds.invalidateAll();
+    }
+
+    /**
+     * @return the number of invalidations of the path so far (and of the paths sharing its stripe), an
+     *         {@link ArtifactEntry} record id found before the generation has changed might be outdated.
+     */
+    public long getGeneration(String storageId,
+                              String repositoryId,
+                              String path)
+    {
+        return generations.get(stripe(Triplet.with(storageId, repositoryId, path)));
+    }
+
+    private void incrementGenerations()
+    {
+        for (int i = 0; i < GENERATION_STRIPES; i++)
+        {
+            generations.incrementAndGet(i);
+        }
+    }
+
+    private static int stripe(Triplet<String, String, String> key)
+    {
+        int hash = key.hashCode();
+
+        return (hash ^ (hash >>> 16)) & (GENERATION_STRIPES - 1);
+    }
+
+    @EventListener
+    public void handle(final ArtifactEvent<RepositoryPath> event)
+    {
+        int type = event.getType();
+        if (type != ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType()
+                && type != ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_UPDATED.getType()
+                && type != ArtifactEventTypeEnum.EVENT_ARTIFACT_PATH_DELETED.getType())
+        {
+            return;
+        }
+
+        RepositoryPath repositoryPath = event.getPath();
+        Repository repository = repositoryPath.getRepository();
+        try
+        {
+            invalidate(repository.getStorage().getId(),
+                       repository.getId(),
+                       RepositoryFiles.relativizePath(repositoryPath));
+        }
+        catch (IOException e)
+        {
+            logger.warn("Failed to resolve [{}], invalidating all entries.", repositoryPath, e);
+
+            invalidateAll();
+        }
+    }
+
+}
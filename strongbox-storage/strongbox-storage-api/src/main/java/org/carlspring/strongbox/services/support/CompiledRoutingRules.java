@@ -0,0 +1,258 @@
+package org.carlspring.strongbox.services.support;
+
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.routing.RepositoryIdentifiable;
+import org.carlspring.strongbox.storage.routing.RoutingRule;
+import org.carlspring.strongbox.storage.routing.RoutingRules;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.javatuples.Pair;
+
+/**
+ * The {@link RoutingRules} of a single configuration revision, compiled for the {@link ArtifactRoutingRulesChecker}.
+ * <p>
+ * The rules are bucketed lazily by the group repository and its member repository, every bucket holds a
+ * {@link PathMatcher} for the deny rules and one for the accept rules. A {@link PathMatcher} places the rule patterns
+ * into a trie by their literal prefixes, and combines the patterns sharing a trie node into a single regular
+ * expression, so that a path is only matched against the patterns whose literal prefix it starts with, in one walk
+ * down the trie.
+ *
+ * @see <a href="https://strongbox.github.io/user-guide/artifact-routing-rules.html">Artifact Routing Rules</a>
+ */
+class CompiledRoutingRules
+{
+
+    private static final String REGEX_META_CHARACTERS = ".[]{}()*+?^$|\\";
+
+    private static final String REGEX_OPTIONAL_QUANTIFIERS = "*?{";
+
+    private final long revision;
+
+    private final List<RoutingRule> denied;
+
+    private final List<RoutingRule> accepted;
+
+    private final ConcurrentMap<Pair<String, String>, Pair<PathMatcher, PathMatcher>> matchers = new ConcurrentHashMap<>();
+
+    CompiledRoutingRules(long revision,
+                         RoutingRules routingRules)
+    {
+        this.revision = revision;
+        this.denied = routingRules.getDenied();
+        this.accepted = routingRules.getAccepted();
+    }
+
+    long getRevision()
+    {
+        return revision;
+    }
+
+    boolean isDenied(Repository groupRepository,
+                     Repository subRepository,
+                     String artifactPath)
+    {
+        return isDenied(groupRepository.getStorage().getId(),
+                        groupRepository.getId(),
+                        subRepository.getStorage().getId(),
+                        subRepository.getId(),
+                        artifactPath);
+    }
+
+    boolean isDenied(String groupStorageId,
+                     String groupRepositoryId,
+                     String subStorageId,
+                     String subRepositoryId,
+                     String artifactPath)
+    {
+        Pair<String, String> group = normalize(groupStorageId, groupRepositoryId);
+        Pair<String, String> subRepository = normalize(subStorageId, subRepositoryId);
+
+        Pair<PathMatcher, PathMatcher> deniedAndAccepted = matchers.computeIfAbsent(
+                Pair.with(toKey(group), toKey(subRepository)),
+                k -> Pair.with(new PathMatcher(select(denied, group, subRepository)),
+                               new PathMatcher(select(accepted, group, subRepository))));
+
+        return deniedAndAccepted.getValue0().matches(artifactPath) &&
+               !deniedAndAccepted.getValue1().matches(artifactPath);
+    }
+
+    private static List<RoutingRule> select(List<RoutingRule> routingRules,
+                                            Pair<String, String> group,
+                                            Pair<String, String> subRepository)
+    {
+        return routingRules.stream()
+                           .filter(rule -> isMatch(rule, group))
+                           // an empty collection means the rule is applied to **all** repositories in the group.
+                           .filter(rule -> rule.getRepositories().isEmpty() ||
+                                           rule.getRepositories()
+                                               .stream()
+                                               .anyMatch(r -> isMatch(r, subRepository)))
+                           .collect(Collectors.toList());
+    }
+
+    /**
+     * Blank storage and repository ids of the rules are wildcards: {@code storageId:repositoryId},
+     * {@code storageId:*}, {@code *:repositoryId} and {@code *:*}.
+     */
+    private static boolean isMatch(RepositoryIdentifiable rule,
+                                   Pair<String, String> repository)
+    {
+        Pair<String, String> ruleIds = normalize(rule.getStorageId(), rule.getRepositoryId());
+
+        return (ruleIds.getValue0().isEmpty() || ruleIds.getValue0().equals(repository.getValue0())) &&
+               (ruleIds.getValue1().isEmpty() || ruleIds.getValue1().equals(repository.getValue1()));
+    }
+
+    private static Pair<String, String> normalize(String storageId,
+                                                  String repositoryId)
+    {
+        return Pair.with(StringUtils.trimToEmpty(storageId).toLowerCase(),
+                         StringUtils.trimToEmpty(repositoryId).toLowerCase());
+    }
+
+    private static String toKey(Pair<String, String> repository)
+    {
+        return repository.getValue0() + ":" + repository.getValue1();
+    }
+
+    /**
+     * @return the literal characters every path matched by the pattern starts with, empty if there are none or the
+     *         pattern is too complex to tell
+     */
+    static String literalPrefix(String pattern)
+    {
+        if (pattern.indexOf('|') >= 0)
+        {
+            return StringUtils.EMPTY;
+        }
+
+        StringBuilder result = new StringBuilder();
+        int i = pattern.startsWith("^") ? 1 : 0;
+        while (i < pattern.length())
+        {
+            char c = pattern.charAt(i);
+            int length = 1;
+            if (c == '\\')
+            {
+                // escaped letters and digits are character classes, back references or quotations
+                if (i + 1 >= pattern.length() || Character.isLetterOrDigit(pattern.charAt(i + 1)))
+                {
+                    break;
+                }
+                c = pattern.charAt(i + 1);
+                length = 2;
+            }
+            else if (REGEX_META_CHARACTERS.indexOf(c) >= 0)
+            {
+                break;
+            }
+
+            i += length;
+            if (i < pattern.length() && REGEX_OPTIONAL_QUANTIFIERS.indexOf(pattern.charAt(i)) >= 0)
+            {
+                break;
+            }
+            result.append(c);
+        }
+
+        return result.toString();
+    }
+
+    /**
+     * @return whether the pattern can be wrapped into an alternation without changing its meaning, which is not the case
+     *         with inline flags, named groups, back references and quotations
+     */
+    static boolean isCombinable(String pattern)
+    {
+        return !pattern.replace("(?:", "").contains("(?") &&
+               !pattern.matches(".*\\\\[1-9kQE].*");
+    }
+
+    static class PathMatcher
+    {
+
+        private final Node root = new Node();
+
+        private final boolean empty;
+
+        PathMatcher(List<RoutingRule> routingRules)
+        {
+            Map<Node, List<String>> combinablePatterns = new HashMap<>();
+            for (RoutingRule rule : routingRules)
+            {
+                Node node = root;
+                for (char c : literalPrefix(rule.getPattern()).toCharArray())
+                {
+                    node = node.children.computeIfAbsent(c, k -> new Node());
+                }
+
+                if (isCombinable(rule.getPattern()))
+                {
+                    combinablePatterns.computeIfAbsent(node, k -> new ArrayList<>()).add(rule.getPattern());
+                }
+                else
+                {
+                    node.regexes.add(rule.getRegex());
+                }
+            }
+
+            combinablePatterns.forEach((node, patterns) -> node.regexes.add(Pattern.compile(
+                    patterns.stream().map(p -> "(?:" + p + ")").collect(Collectors.joining("|")))));
+
+            this.empty = routingRules.isEmpty();
+        }
+
+        boolean matches(String path)
+        {
+            if (empty)
+            {
+                return false;
+            }
+
+            Node node = root;
+            for (int i = 0; node != null; i++)
+            {
+                if (node.matches(path))
+                {
+                    return true;
+                }
+                node = i < path.length() ? node.children.get(path.charAt(i)) : null;
+            }
+
+            return false;
+        }
+
+    }
+
+    private static class Node
+    {
+
+        private final Map<Character, Node> children = new HashMap<>();
+
+        private final List<Pattern> regexes = new ArrayList<>(1);
+
+        private boolean matches(String path)
+        {
+            for (Pattern regex : regexes)
+            {
+                if (regex.matcher(path).matches())
+                {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+    }
+
+}
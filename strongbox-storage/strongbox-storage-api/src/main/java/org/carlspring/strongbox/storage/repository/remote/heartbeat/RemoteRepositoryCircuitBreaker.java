@@ -0,0 +1,260 @@
+package org.carlspring.strongbox.storage.repository.remote.heartbeat;
+
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Circuit breaker of a remote repository, fed by the outcomes of the proxied requests.
+ * <p>
+ * The outcomes and durations of the last {@code windowSize} calls are kept in a ring buffer. Once the window holds at
+ * least {@code minimumCalls} calls and the failure rate reaches {@code failureRateThreshold}, the breaker opens and
+ * rejects the calls for {@code openMillis}. Then a single probe call is let through (half-open): if it succeeds the
+ * breaker closes with an empty window, otherwise it opens again for twice as long, up to {@code maxOpenMillis}.
+ * <p>
+ * The health score, from {@code 0} to {@code 1}, is the success rate of the window, scaled down by the 90th percentile
+ * of the call durations once it exceeds {@code slowCallMillis}, so that an upstream which times out is penalized twice.
+ * It is {@code 0} while the breaker is not closed.
+ */
+public class RemoteRepositoryCircuitBreaker
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(RemoteRepositoryCircuitBreaker.class);
+
+    private final String url;
+
+    private final int minimumCalls;
+
+    private final double failureRateThreshold;
+
+    private final long openMillis;
+
+    private final long maxOpenMillis;
+
+    private final long slowCallMillis;
+
+    private final LongSupplier clock;
+
+    private final boolean[] failures;
+
+    private final long[] durations;
+
+    private int size;
+
+    private int next;
+
+    private int failureCount;
+
+    private State state = State.CLOSED;
+
+    private long openUntil;
+
+    private long currentOpenMillis;
+
+    private boolean probing;
+
+    public RemoteRepositoryCircuitBreaker(String url,
+                                          int windowSize,
+                                          int minimumCalls,
+                                          double failureRateThreshold,
+                                          long openMillis,
+                                          long maxOpenMillis,
+                                          long slowCallMillis)
+    {
+        this(url, windowSize, minimumCalls, failureRateThreshold, openMillis, maxOpenMillis, slowCallMillis,
+             System::currentTimeMillis);
+    }
+
+    RemoteRepositoryCircuitBreaker(String url,
+                                   int windowSize,
+                                   int minimumCalls,
+                                   double failureRateThreshold,
+                                   long openMillis,
+                                   long maxOpenMillis,
+                                   long slowCallMillis,
+                                   LongSupplier clock)
+    {
+        this.url = url;
+        this.minimumCalls = Math.max(minimumCalls, 1);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openMillis = openMillis;
+        this.maxOpenMillis = Math.max(maxOpenMillis, openMillis);
+        this.slowCallMillis = slowCallMillis;
+        this.clock = clock;
+        this.failures = new boolean[Math.max(windowSize, 1)];
+        this.durations = new long[failures.length];
+        this.currentOpenMillis = openMillis;
+    }
+
+    /**
+     * Acquires the permission to call the remote repository. Every permitted call should be reported with
+     * {@link #onSuccess(long)} or {@link #onFailure(long)}.
+     *
+     * @return {@code false} if the breaker is open, or half-open with the probe call in progress
+     */
+    public synchronized boolean tryAcquire()
+    {
+        switch (state)
+        {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (clock.getAsLong() < openUntil)
+                {
+                    return false;
+                }
+
+                logger.debug("Probing remote repository [{}].", url);
+
+                state = State.HALF_OPEN;
+                probing = true;
+
+                return true;
+            default:
+                if (probing)
+                {
+                    return false;
+                }
+                probing = true;
+
+                return true;
+        }
+    }
+
+    /**
+     * Same as {@link #tryAcquire()}, without acquiring anything.
+     */
+    public synchronized boolean isCallPermitted()
+    {
+        switch (state)
+        {
+            case CLOSED:
+                return true;
+            case OPEN:
+                return clock.getAsLong() >= openUntil;
+            default:
+                return !probing;
+        }
+    }
+
+    public synchronized void onSuccess(long durationMillis)
+    {
+        record(false, durationMillis);
+
+        if (state == State.HALF_OPEN)
+        {
+            logger.info("Remote repository [{}] has recovered.", url);
+
+            state = State.CLOSED;
+            probing = false;
+            currentOpenMillis = openMillis;
+            reset();
+        }
+    }
+
+    /**
+     * Reports a failed call, timeouts included. The 404 responses are not failures.
+     */
+    public synchronized void onFailure(long durationMillis)
+    {
+        record(true, durationMillis);
+
+        if (state == State.HALF_OPEN)
+        {
+            open(Math.min(currentOpenMillis * 2, maxOpenMillis));
+        }
+        else if (state == State.CLOSED && size >= minimumCalls && failureCount >= failureRateThreshold * size)
+        {
+            open(openMillis);
+        }
+    }
+
+    public synchronized State getState()
+    {
+        return state;
+    }
+
+    public synchronized double getHealthScore()
+    {
+        if (state != State.CLOSED)
+        {
+            return 0;
+        }
+        if (size == 0)
+        {
+            return 1;
+        }
+
+        double score = 1 - (double) failureCount / size;
+
+        long durationPercentile = getDurationPercentile(0.9);
+        if (durationPercentile > slowCallMillis)
+        {
+            score *= (double) slowCallMillis / durationPercentile;
+        }
+
+        return score;
+    }
+
+    /**
+     * @param percentile the percentile, from {@code 0} (exclusive) to {@code 1}
+     * @return the call duration at the percentile of the window, {@code 0} if there was no call
+     */
+    public synchronized long getDurationPercentile(double percentile)
+    {
+        if (size == 0)
+        {
+            return 0;
+        }
+
+        long[] sorted = Arrays.copyOf(durations, size);
+        Arrays.sort(sorted);
+
+        int index = (int) Math.ceil(percentile * size) - 1;
+
+        return sorted[Math.min(Math.max(index, 0), size - 1)];
+    }
+
+    private void record(boolean failure,
+                        long durationMillis)
+    {
+        if (size == failures.length)
+        {
+            failureCount -= failures[next] ? 1 : 0;
+        }
+        else
+        {
+            size++;
+        }
+
+        failures[next] = failure;
+        durations[next] = durationMillis;
+        failureCount += failure ? 1 : 0;
+        next = (next + 1) % failures.length;
+    }
+
+    private void reset()
+    {
+        size = 0;
+        next = 0;
+        failureCount = 0;
+    }
+
+    private void open(long millis)
+    {
+        logger.warn("Remote repository [{}] is failing, skipping it for [{}] ms.", url, millis);
+
+        state = State.OPEN;
+        probing = false;
+        currentOpenMillis = millis;
+        openUntil = clock.getAsLong() + millis;
+    }
+
+    public enum State
+    {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+}
@@ -0,0 +1,107 @@
+package org.carlspring.strongbox.storage.repository.remote.heartbeat;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Health of the remote repositories as seen by the proxied requests of this node, as opposed to the
+ * {@link RemoteRepositoryAlivenessService}, which only knows whether the heartbeat of a remote repository succeeds.
+ * <p>
+ * Every remote repository URL has its own {@link RemoteRepositoryCircuitBreaker}, so that a degraded upstream is skipped
+ * after a few failed or timed out requests instead of stalling every request on its timeouts, and the group
+ * repositories can ask the healthy members first.
+ */
+@Component
+public class RemoteRepositoryHealthService
+{
+
+    @Value("${strongbox.remote.circuitBreaker.enabled:true}")
+    private boolean enabled;
+
+    @Value("${strongbox.remote.circuitBreaker.windowSize:20}")
+    private int windowSize;
+
+    @Value("${strongbox.remote.circuitBreaker.minimumCalls:10}")
+    private int minimumCalls;
+
+    @Value("${strongbox.remote.circuitBreaker.failureRateThreshold:0.5}")
+    private double failureRateThreshold;
+
+    @Value("${strongbox.remote.circuitBreaker.openMillis:10000}")
+    private long openMillis;
+
+    @Value("${strongbox.remote.circuitBreaker.maxOpenMillis:300000}")
+    private long maxOpenMillis;
+
+    @Value("${strongbox.remote.circuitBreaker.slowCallMillis:10000}")
+    private long slowCallMillis;
+
+    /**
+     * Remote repositories with a lower health score are considered degraded.
+     */
+    @Value("${strongbox.remote.health.degradedScore:0.5}")
+    private double degradedScore;
+
+    private final ConcurrentMap<String, RemoteRepositoryCircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+    /**
+     * @see RemoteRepositoryCircuitBreaker#tryAcquire()
+     */
+    public boolean tryAcquire(RemoteRepository remoteRepository)
+    {
+        return !enabled || getCircuitBreaker(remoteRepository).tryAcquire();
+    }
+
+    /**
+     * @see RemoteRepositoryCircuitBreaker#isCallPermitted()
+     */
+    public boolean isCallPermitted(RemoteRepository remoteRepository)
+    {
+        return !enabled || getCircuitBreaker(remoteRepository).isCallPermitted();
+    }
+
+    public void onSuccess(RemoteRepository remoteRepository,
+                          long durationMillis)
+    {
+        if (enabled)
+        {
+            getCircuitBreaker(remoteRepository).onSuccess(durationMillis);
+        }
+    }
+
+    public void onFailure(RemoteRepository remoteRepository,
+                          long durationMillis)
+    {
+        if (enabled)
+        {
+            getCircuitBreaker(remoteRepository).onFailure(durationMillis);
+        }
+    }
+
+    public double getHealthScore(RemoteRepository remoteRepository)
+    {
+        return enabled ? getCircuitBreaker(remoteRepository).getHealthScore() : 1;
+    }
+
+    public boolean isDegraded(RemoteRepository remoteRepository)
+    {
+        return getHealthScore(remoteRepository) < degradedScore;
+    }
+
+    private RemoteRepositoryCircuitBreaker getCircuitBreaker(RemoteRepository remoteRepository)
+    {
+        return circuitBreakers.computeIfAbsent(remoteRepository.getUrl(),
+                                               url -> new RemoteRepositoryCircuitBreaker(url,
+                                                                                         windowSize,
+                                                                                         minimumCalls,
+                                                                                         failureRateThreshold,
+                                                                                         openMillis,
+                                                                                         maxOpenMillis,
+                                                                                         slowCallMillis));
+    }
+
+}
@@ -0,0 +1,60 @@
+package org.carlspring.strongbox.artifact.coordinates;
+
+import java.util.Collections;
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ArtifactCoordinatesSearchTokensTest
+{
+
+    @Test
+    public void tokensShouldBeLowerCase()
+    {
+        assertThat(ArtifactCoordinatesSearchTokens.of(Collections.singletonMap("groupId", "Org.Foo")))
+                .containsExactly("groupId=org.foo",
+                                 "groupId~org",
+                                 "groupId~rg.",
+                                 "groupId~g.f",
+                                 "groupId~.fo",
+                                 "groupId~foo");
+    }
+
+    @Test
+    public void tokensShouldNotDependOnTheDefaultLocale()
+    {
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try
+        {
+            assertThat(ArtifactCoordinatesSearchTokens.of(Collections.singletonMap("artifactId", "TIL")))
+                    .containsExactly("artifactId=til", "artifactId~til");
+        }
+        finally
+        {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    public void shortValuesShouldHaveNoNgrams()
+    {
+        assertThat(ArtifactCoordinatesSearchTokens.of(Collections.singletonMap("classifier", "JD")))
+                .containsExactly("classifier=jd");
+    }
+
+    @Test
+    public void nullValuesShouldHaveNoTokens()
+    {
+        assertThat(ArtifactCoordinatesSearchTokens.of(Collections.singletonMap("classifier", null))).isEmpty();
+    }
+
+    @Test
+    public void searchedValueNgramsShouldBeContainedByMatchingValue()
+    {
+        assertThat(ArtifactCoordinatesSearchTokens.of(Collections.singletonMap("artifactId", "strongbox-commons")))
+                .containsAll(ArtifactCoordinatesSearchTokens.ngrams("artifactId", "BOX-COM"));
+    }
+
+}
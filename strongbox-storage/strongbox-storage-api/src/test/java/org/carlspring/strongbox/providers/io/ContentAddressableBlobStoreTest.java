@@ -0,0 +1,232 @@
+package org.carlspring.strongbox.providers.io;
+
+import org.carlspring.strongbox.StorageApiTestConfig;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.testing.repository.RawRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+@SpringBootTest(properties = "strongbox.storage.blobs.enabled=true")
+@ActiveProfiles(profiles = "test")
+@ContextConfiguration(classes = StorageApiTestConfig.class)
+public class ContentAddressableBlobStoreTest
+{
+
+    private static final String REPOSITORY_RELEASES_1 = "cabst-releases-1";
+
+    private static final String REPOSITORY_RELEASES_2 = "cabst-releases-2";
+
+    @Inject
+    private ContentAddressableBlobStore blobStore;
+
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    @Test
+    public void filesOfTheSameContentShouldBeMovedAsLinksToOneBlob(@RawRepository(repositoryId = REPOSITORY_RELEASES_1)
+                                                                   Repository repository)
+        throws IOException
+    {
+        Path basedir = resolveTarget(repository, "move");
+        String content = "filesOfTheSameContentShouldBeMovedAsLinksToOneBlob";
+        String digest = DigestUtils.sha256Hex(content);
+
+        assertThat(blobStore.supports(basedir.resolve("foo-1.0.jar"))).isTrue();
+
+        Path target1 = basedir.resolve("foo-1.0.jar");
+        Path file1 = newFile(basedir, content);
+        blobStore.move(file1, digest, target1);
+
+        assertThat(file1).doesNotExist();
+        assertThat(target1).hasContent(content);
+        assertThat(Files.isSameFile(blobStore.resolveBlob(digest), target1)).isTrue();
+        assertThat(getLinkCount(target1)).isEqualTo(2);
+
+        Path target2 = basedir.resolve("foo-1.1.jar");
+        Path file2 = newFile(basedir, content);
+        blobStore.move(file2, digest, target2);
+
+        assertThat(file2).doesNotExist();
+        assertThat(Files.isSameFile(target1, target2)).isTrue();
+        assertThat(getLinkCount(target1)).isEqualTo(3);
+    }
+
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    @Test
+    public void fileShouldBeLinkedOnlyReplacingOnRequest(@RawRepository(repositoryId = REPOSITORY_RELEASES_1)
+                                                         Repository repository)
+        throws IOException
+    {
+        Path basedir = resolveTarget(repository, "link");
+        Path source = basedir.resolve("foo-1.0.jar");
+        Files.write(source, "fileShouldBeLinkedOnlyReplacingOnRequest".getBytes(StandardCharsets.UTF_8));
+        Path target = basedir.resolve("foo-1.1.jar");
+
+        blobStore.link(source, target);
+        assertThat(Files.isSameFile(source, target)).isTrue();
+
+        assertThatExceptionOfType(FileAlreadyExistsException.class).isThrownBy(() -> blobStore.link(source, target));
+
+        Path otherSource = basedir.resolve("foo-1.2.jar");
+        Files.write(otherSource, "other".getBytes(StandardCharsets.UTF_8));
+        blobStore.link(otherSource, target, StandardCopyOption.REPLACE_EXISTING);
+
+        assertThat(Files.isSameFile(otherSource, target)).isTrue();
+        assertThat(source).hasContent("fileShouldBeLinkedOnlyReplacingOnRequest");
+    }
+
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    @Test
+    public void directoryShouldBeCopiedAsLinks(@RawRepository(repositoryId = REPOSITORY_RELEASES_1)
+                                               Repository repository1,
+                                               @RawRepository(repositoryId = REPOSITORY_RELEASES_2)
+                                               Repository repository2)
+        throws IOException
+    {
+        RepositoryPath srcPath = repositoryPathResolver.resolve(repository1, "copy");
+        Files.createDirectories(srcPath.resolve("foo/1.0"));
+        Files.write(srcPath.resolve("foo/1.0/foo-1.0.jar"), "foo".getBytes(StandardCharsets.UTF_8));
+        Files.write(srcPath.resolve("foo/1.0/foo-1.0.pom"), "pom".getBytes(StandardCharsets.UTF_8));
+
+        RepositoryPath destPath = repositoryPathResolver.resolve(repository2, "copy");
+        assertThat(blobStore.supports(srcPath)).isTrue();
+        assertThat(blobStore.supports(destPath)).isTrue();
+
+        blobStore.copy(srcPath, destPath);
+
+        assertThat(Files.isSameFile(srcPath.resolve("foo/1.0/foo-1.0.jar").getTarget(),
+                                    destPath.resolve("foo/1.0/foo-1.0.jar").getTarget())).isTrue();
+        assertThat(Files.isSameFile(srcPath.resolve("foo/1.0/foo-1.0.pom").getTarget(),
+                                    destPath.resolve("foo/1.0/foo-1.0.pom").getTarget())).isTrue();
+
+        // A single file is copied as a link as well, creating its directory.
+        RepositoryPath destFilePath = repositoryPathResolver.resolve(repository2, "copy-file/foo-1.0.jar");
+        blobStore.copy(srcPath.resolve("foo/1.0/foo-1.0.jar"), destFilePath);
+
+        assertThat(Files.isSameFile(srcPath.resolve("foo/1.0/foo-1.0.jar").getTarget(),
+                                    destFilePath.getTarget())).isTrue();
+    }
+
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    @Test
+    public void onlyUnreferencedBlobsShouldBeCollected(@RawRepository(repositoryId = REPOSITORY_RELEASES_1)
+                                                       Repository repository)
+        throws IOException
+    {
+        Path basedir = resolveTarget(repository, "gc");
+
+        String referencedContent = "onlyUnreferencedBlobsShouldBeCollected-referenced";
+        String referencedDigest = DigestUtils.sha256Hex(referencedContent);
+        Path referencedPath = basedir.resolve("foo-1.0.jar");
+        blobStore.move(newFile(basedir, referencedContent), referencedDigest, referencedPath);
+
+        String unreferencedContent = "onlyUnreferencedBlobsShouldBeCollected-unreferenced";
+        String unreferencedDigest = DigestUtils.sha256Hex(unreferencedContent);
+        Path unreferencedPath = basedir.resolve("foo-1.1.jar");
+        blobStore.move(newFile(basedir, unreferencedContent), unreferencedDigest, unreferencedPath);
+        Files.delete(unreferencedPath);
+
+        assertThat(blobStore.collectGarbage()).isGreaterThanOrEqualTo(1);
+
+        assertThat(blobStore.resolveBlob(unreferencedDigest)).doesNotExist();
+        assertThat(blobStore.resolveBlob(referencedDigest)).exists();
+        assertThat(Files.isSameFile(blobStore.resolveBlob(referencedDigest), referencedPath)).isTrue();
+    }
+
+    /**
+     * A blob which is not referenced anymore gets new references while the garbage collection runs: the references
+     * must never end up pointing to a deleted blob.
+     */
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    @Test
+    public void blobShouldNotBeCollectedWhileItIsLinked(@RawRepository(repositoryId = REPOSITORY_RELEASES_1)
+                                                        Repository repository)
+        throws Exception
+    {
+        Path basedir = resolveTarget(repository, "gc-race");
+        String content = "blobShouldNotBeCollectedWhileItIsLinked";
+        String digest = DigestUtils.sha256Hex(content);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            for (int i = 0; i < 100; i++)
+            {
+                // leave an unreferenced blob behind
+                Path unreferencedPath = basedir.resolve("foo-1.0.jar");
+                blobStore.move(newFile(basedir, content), digest, unreferencedPath);
+                Files.delete(unreferencedPath);
+
+                CountDownLatch startGate = new CountDownLatch(1);
+                Future<Long> gc = executor.submit(() -> {
+                    startGate.await();
+
+                    return blobStore.collectGarbage();
+                });
+
+                Path target = basedir.resolve("foo-" + i + ".jar");
+                Path file = newFile(basedir, content);
+                startGate.countDown();
+                blobStore.move(file, digest, target);
+
+                gc.get(1, TimeUnit.MINUTES);
+
+                assertThat(target).hasContent(content);
+                assertThat(blobStore.resolveBlob(digest)).exists();
+                assertThat(Files.isSameFile(blobStore.resolveBlob(digest), target)).isTrue();
+
+                Files.delete(target);
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private Path resolveTarget(Repository repository,
+                               String path)
+        throws IOException
+    {
+        Path result = repositoryPathResolver.resolve(repository, path).getTarget();
+        Files.createDirectories(result);
+
+        return result;
+    }
+
+    private Path newFile(Path basedir,
+                         String content)
+        throws IOException
+    {
+        return Files.write(Files.createTempFile(basedir, "cabst", ".tmp"), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private int getLinkCount(Path path)
+        throws IOException
+    {
+        return (Integer) Files.getAttribute(path, "unix:nlink");
+    }
+
+}
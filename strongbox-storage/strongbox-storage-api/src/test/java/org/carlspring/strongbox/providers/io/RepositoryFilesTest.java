@@ -0,0 +1,132 @@
+package org.carlspring.strongbox.providers.io;
+
+import org.carlspring.strongbox.booters.PropertiesBooter;
+import org.carlspring.strongbox.storage.repository.RepositoryData;
+import org.carlspring.strongbox.storage.repository.RepositoryDto;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class RepositoryFilesTest
+{
+
+    private static final Path REPOSITORY_BASEDIR = Paths.get("target/strongbox-vault/storages/storage0/releases")
+                                                        .toAbsolutePath();
+
+    @Test
+    public void formattedAttributesShouldBeParsedBack()
+    {
+        String attributes = RepositoryFiles.formatAttributes(RepositoryFileAttributeType.ARTIFACT,
+                                                             RepositoryFileAttributeType.ARTIFACT_PATH,
+                                                             RepositoryFileAttributeType.COORDINATES);
+
+        assertThat(attributes).isEqualTo("strongbox:artifact,artifactPath,coordinates");
+        assertThat(RepositoryFiles.parseAttributes(attributes)).containsExactlyInAnyOrder(RepositoryFileAttributeType.ARTIFACT,
+                                                                                         RepositoryFileAttributeType.ARTIFACT_PATH,
+                                                                                         RepositoryFileAttributeType.COORDINATES);
+    }
+
+    @Test
+    public void wildcardShouldBeParsedToAllAttributes()
+    {
+        assertThat(RepositoryFiles.parseAttributes("strongbox:*")).isEqualTo(EnumSet.allOf(RepositoryFileAttributeType.class));
+    }
+
+    @Test
+    public void unknownAttributeShouldNotBeParsed()
+    {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> RepositoryFileAttributeType.of("unknown"));
+    }
+
+    @Test
+    public void typedAttributeShouldBeReadThroughThePathCache()
+        throws IOException
+    {
+        List<Set<RepositoryFileAttributeType>> reads = new ArrayList<>();
+        StorageFileSystemProvider provider = new StorageFileSystemProvider(FileSystems.getDefault().provider())
+        {
+
+            @Override
+            protected Map<RepositoryFileAttributeType, Object> getRepositoryFileAttributes(RepositoryPath repositoryPath,
+                                                                                           RepositoryFileAttributeType... attributeTypes)
+            {
+                reads.add(EnumSet.copyOf(Arrays.asList(attributeTypes)));
+
+                Map<RepositoryFileAttributeType, Object> result = new EnumMap<>(RepositoryFileAttributeType.class);
+                for (RepositoryFileAttributeType attributeType : attributeTypes)
+                {
+                    result.put(attributeType, attributeType == RepositoryFileAttributeType.ARTIFACT);
+                }
+
+                return result;
+            }
+
+        };
+
+        RepositoryPath path = newRepositoryPath("org/carlspring/test/1.0/test-1.0.jar");
+
+        assertThat(provider.readAttribute(path, RepositoryFileAttributeType.ARTIFACT)).isEqualTo(Boolean.TRUE);
+        assertThat(reads).containsExactly(EnumSet.of(RepositoryFileAttributeType.ARTIFACT));
+
+        // The cached value is returned, without reading the attribute again.
+        assertThat(provider.readAttribute(path, RepositoryFileAttributeType.ARTIFACT)).isEqualTo(Boolean.TRUE);
+        assertThat(reads).hasSize(1);
+        assertThat(path.cachedAttributes).containsEntry(RepositoryFileAttributeType.ARTIFACT, Boolean.TRUE);
+
+        // Only the missing attribute is read.
+        assertThat(provider.readAttribute(path, RepositoryFileAttributeType.CHECKSUM)).isEqualTo(Boolean.FALSE);
+        assertThat(reads).hasSize(2);
+        assertThat(reads.get(1)).containsExactly(RepositoryFileAttributeType.CHECKSUM);
+
+        // The string based attributes share the same cache.
+        Map<String, Object> attributes = provider.readAttributes(path,
+                                                                 RepositoryFiles.formatAttributes(RepositoryFileAttributeType.ARTIFACT,
+                                                                                                  RepositoryFileAttributeType.CHECKSUM));
+        assertThat(attributes).containsEntry(RepositoryFileAttributeType.ARTIFACT.getName(), Boolean.TRUE)
+                              .containsEntry(RepositoryFileAttributeType.CHECKSUM.getName(), Boolean.FALSE)
+                              .hasSize(2);
+        assertThat(reads).hasSize(2);
+
+        // The cache belongs to the path instance.
+        RepositoryPath samePath = newRepositoryPath("org/carlspring/test/1.0/test-1.0.jar");
+        assertThat(provider.readAttribute(samePath, RepositoryFileAttributeType.ARTIFACT)).isEqualTo(Boolean.TRUE);
+        assertThat(reads).hasSize(3);
+    }
+
+    private RepositoryPath newRepositoryPath(String path)
+    {
+        RepositoryDto repository = new RepositoryDto();
+        repository.setBasedir(REPOSITORY_BASEDIR.toString());
+
+        LayoutFileSystem fileSystem = new LayoutFileSystem(new PropertiesBooter(),
+                                                           new RepositoryData(repository),
+                                                           FileSystems.getDefault(),
+                                                           null)
+        {
+
+            @Override
+            public Set<String> getDigestAlgorithmSet()
+            {
+                throw new UnsupportedOperationException();
+            }
+
+        };
+
+        return new RepositoryPath(REPOSITORY_BASEDIR, fileSystem).resolve(path);
+    }
+
+}
@@ -0,0 +1,86 @@
+package org.carlspring.strongbox.providers.repository.group;
+
+import org.carlspring.strongbox.data.cache.LocalCacheFactory;
+
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GroupRepositoryNegativeLookupCacheTest
+{
+
+    private static final String STORAGE_ID = "storage0";
+
+    private static final String REPOSITORY_ID = "grnlct-releases";
+
+    private static final String PATH = "org/carlspring/strongbox/grnlct/foo/1.0/foo-1.0.jar";
+
+    private GroupRepositoryNegativeLookupCache cache;
+
+    @BeforeEach
+    public void setUp()
+    {
+        cache = new GroupRepositoryNegativeLookupCache(new LocalCacheFactory(new StandardEnvironment()));
+    }
+
+    @Test
+    public void missShouldBeCachedUntilThePathIsInvalidated()
+    {
+        assertThat(cache.isAbsent(STORAGE_ID, REPOSITORY_ID, PATH)).isFalse();
+
+        cache.putAbsent(STORAGE_ID, REPOSITORY_ID, PATH, cache.getGeneration(STORAGE_ID, REPOSITORY_ID, PATH));
+        assertThat(cache.isAbsent(STORAGE_ID, REPOSITORY_ID, PATH)).isTrue();
+
+        cache.invalidate(STORAGE_ID, REPOSITORY_ID, PATH);
+        assertThat(cache.isAbsent(STORAGE_ID, REPOSITORY_ID, PATH)).isFalse();
+    }
+
+    @Test
+    public void missFoundWhileThePathWasInvalidatedShouldNotBeCached()
+    {
+        long generation = cache.getGeneration(STORAGE_ID, REPOSITORY_ID, PATH);
+
+        // The path is stored while it is being looked up.
+        cache.invalidate(STORAGE_ID, REPOSITORY_ID, PATH);
+
+        cache.putAbsent(STORAGE_ID, REPOSITORY_ID, PATH, generation);
+        assertThat(cache.isAbsent(STORAGE_ID, REPOSITORY_ID, PATH)).isFalse();
+    }
+
+    @Test
+    public void invalidationOfOtherPathShouldNotHoldBackTheMisses()
+    {
+        // Move the stripe of the path ahead, to pick an other path from a different stripe.
+        cache.invalidate(STORAGE_ID, REPOSITORY_ID, PATH);
+        String otherPath = IntStream.range(0, 100)
+                                    .mapToObj(i -> PATH + "." + i)
+                                    .filter(p -> cache.getGeneration(STORAGE_ID, "grnlct-other", p) == 0)
+                                    .findFirst()
+                                    .get();
+
+        long generation = cache.getGeneration(STORAGE_ID, REPOSITORY_ID, PATH);
+
+        // An unrelated path is stored while the path is being looked up.
+        cache.invalidate(STORAGE_ID, "grnlct-other", otherPath);
+
+        cache.putAbsent(STORAGE_ID, REPOSITORY_ID, PATH, generation);
+        assertThat(cache.isAbsent(STORAGE_ID, REPOSITORY_ID, PATH)).isTrue();
+    }
+
+    @Test
+    public void invalidateAllShouldDropEveryMiss()
+    {
+        long generation = cache.getGeneration(STORAGE_ID, REPOSITORY_ID, PATH);
+        cache.putAbsent(STORAGE_ID, REPOSITORY_ID, PATH, generation);
+
+        cache.invalidateAll();
+        assertThat(cache.isAbsent(STORAGE_ID, REPOSITORY_ID, PATH)).isFalse();
+
+        cache.putAbsent(STORAGE_ID, REPOSITORY_ID, PATH, generation);
+        assertThat(cache.isAbsent(STORAGE_ID, REPOSITORY_ID, PATH)).isFalse();
+    }
+
+}
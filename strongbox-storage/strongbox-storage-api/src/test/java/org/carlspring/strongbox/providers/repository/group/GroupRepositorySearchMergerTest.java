@@ -0,0 +1,138 @@
+package org.carlspring.strongbox.providers.repository.group;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.carlspring.strongbox.providers.repository.group.GroupRepositorySearchMerger.MemberFetcher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GroupRepositorySearchMergerTest
+{
+
+    private ExecutorService executor;
+
+    private List<String> fetches;
+
+    @BeforeEach
+    public void setUp()
+    {
+        executor = Executors.newFixedThreadPool(2);
+        fetches = new ArrayList<>();
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void resultsShouldBeMergedInOrderWithoutDuplicates()
+    {
+        GroupRepositorySearchMerger<String, String> merger = newMerger(3,
+                                                               Arrays.asList("a", "c", "e", "g"),
+                                                               Arrays.asList("b", "c", "d"),
+                                                               Arrays.asList("a", "f", "h"));
+
+        assertThat(merger.merge(0, 100)).containsExactly("a", "b", "c", "d", "e", "f", "g", "h");
+    }
+
+    @Test
+    public void pagesShouldSkipTheDistinctResults()
+    {
+        List<String> member1 = Arrays.asList("a", "b", "c", "d", "e");
+        List<String> member2 = Arrays.asList("a", "b", "c", "f", "g");
+
+        assertThat(newMerger(2, member1, member2).merge(0, 3)).containsExactly("a", "b", "c");
+        assertThat(newMerger(2, member1, member2).merge(3, 3)).containsExactly("d", "e", "f");
+        assertThat(newMerger(2, member1, member2).merge(6, 3)).containsExactly("g");
+    }
+
+    @Test
+    public void membersShouldContinueFromTheirOwnOffset()
+    {
+        GroupRepositorySearchMerger<String, String> merger = newMerger(2,
+                                                               Arrays.asList("a", "b", "c", "d", "e", "f"),
+                                                               Arrays.asList("x", "y", "z"));
+
+        assertThat(merger.merge(0, 4)).containsExactly("a", "b", "c", "d");
+        // The second member is never asked beyond its first page, since its head sorts after the merged results.
+        assertThat(fetches).containsExactlyInAnyOrder("0:0", "1:0", "0:2");
+    }
+
+    @Test
+    public void equalResultsShouldBeTakenFromTheEarlierMember()
+    {
+        GroupRepositorySearchMerger<String, String> merger = new GroupRepositorySearchMerger<>(
+                Arrays.asList(fetcher(0, Arrays.asList("a-1"), 10), fetcher(1, Arrays.asList("a-2"), 10)),
+                s -> s.substring(0, 1),
+                Comparator.naturalOrder(),
+                s -> s.substring(0, 1),
+                executor,
+                10);
+
+        assertThat(merger.merge(0, 10)).containsExactly("a-1");
+    }
+
+    @Test
+    public void sortKeysShouldBeExtractedOncePerResult()
+    {
+        AtomicInteger extractions = new AtomicInteger();
+        GroupRepositorySearchMerger<String, String> merger = new GroupRepositorySearchMerger<>(
+                Arrays.asList(fetcher(0, Arrays.asList("a", "c", "e"), 10), fetcher(1, Arrays.asList("b", "d"), 10)),
+                s -> {
+                    extractions.incrementAndGet();
+                    return s;
+                },
+                Comparator.naturalOrder(),
+                Function.identity(),
+                executor,
+                10);
+
+        assertThat(merger.merge(0, 10)).containsExactly("a", "b", "c", "d", "e");
+        assertThat(extractions.get()).isEqualTo(5);
+    }
+
+    @SafeVarargs
+    private final GroupRepositorySearchMerger<String, String> newMerger(int maxPageSize,
+                                                                        List<String>... members)
+    {
+        List<MemberFetcher<String>> fetchers = new ArrayList<>();
+        for (int i = 0; i < members.length; i++)
+        {
+            fetchers.add(fetcher(i, members[i], maxPageSize));
+        }
+
+        return new GroupRepositorySearchMerger<>(fetchers,
+                                                 Function.identity(),
+                                                 Comparator.naturalOrder(),
+                                                 Function.identity(),
+                                                 executor,
+                                                 maxPageSize);
+    }
+
+    private MemberFetcher<String> fetcher(int member,
+                                          List<String> results,
+                                          int maxPageSize)
+    {
+        return (offset, limit) -> {
+            assertThat(limit).isLessThanOrEqualTo(maxPageSize);
+            synchronized (fetches)
+            {
+                fetches.add(member + ":" + offset);
+            }
+
+            return results.subList(Math.min(offset, results.size()), Math.min(offset + limit, results.size()));
+        };
+    }
+
+}
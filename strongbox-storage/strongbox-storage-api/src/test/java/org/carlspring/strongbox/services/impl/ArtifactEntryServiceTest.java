@@ -3,21 +3,35 @@ package org.carlspring.strongbox.services.impl;
 import org.carlspring.strongbox.StorageApiTestConfig;
 import org.carlspring.strongbox.artifact.coordinates.AbstractArtifactCoordinates;
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
+import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinatesSearchTokens;
 import org.carlspring.strongbox.artifact.coordinates.RawArtifactCoordinates;
 import org.carlspring.strongbox.data.CacheManagerTestExecutionListener;
 import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
 import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.services.ArtifactDownloadStatisticsService;
 import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.services.support.ArtifactCoordinatesSearchIndex;
+import org.carlspring.strongbox.services.support.ArtifactEntryLookupCache;
 
 import javax.inject.Inject;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import com.orientechnologies.orient.core.db.ODatabasePool;
+import com.orientechnologies.orient.core.db.ODatabaseSession;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
+
 import org.apache.commons.lang3.time.DateUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assumptions;
@@ -65,6 +79,18 @@ public class ArtifactEntryServiceTest
     @Inject
     private  ArtifactCoordinatesService artifactCoordinatesService;
 
+    @Inject
+    private ArtifactDownloadStatisticsService artifactDownloadStatisticsService;
+
+    @Inject
+    private ArtifactEntryLookupCache artifactEntryLookupCache;
+
+    @Inject
+    private ArtifactCoordinatesSearchIndex artifactCoordinatesSearchIndex;
+
+    @Inject
+    private ODatabasePool databasePool;
+
     @BeforeEach
     public void setup(TestInfo testInfo)
     {
@@ -364,6 +390,82 @@ public class ArtifactEntryServiceTest
         assertThat(c).isEqualTo(Long.valueOf(1));
     }
 
+    /**
+     * Make sure that the coordinates searches are narrowed down by the coordinates search index and still return the
+     * expected entries.
+     */
+    @Test
+    public void searchByCoordinatesThroughSearchIndex(TestInfo testInfo)
+            throws InterruptedException
+    {
+        final String groupId = getGroupId(GROUP_ID, testInfo);
+        awaitSearchIndex();
+
+        String path = String.format("%s/%s/%s/%s", groupId, ARTIFACT_ID, "1.2.3", "jar");
+
+        // The stored coordinates are indexed by their exact token.
+        Set<String> indexedIds = findIndexedCoordinatesIds(ArtifactCoordinatesSearchTokens.exact("path", path));
+        assertThat(indexedIds).hasSize(1);
+
+        Map<String, String> strictCoordinates = Collections.singletonMap("path", path);
+        List<ArtifactEntry> strictResult = artifactEntryService.findArtifactList(STORAGE_ID,
+                                                                                 REPOSITORY_ID,
+                                                                                 strictCoordinates,
+                                                                                 true);
+        assertThat(strictResult).hasSize(1);
+        assertThat(((RawArtifactCoordinates) strictResult.get(0).getArtifactCoordinates()).getPath()).isEqualTo(path);
+        assertThat(indexedIds).containsExactly(((AbstractArtifactCoordinates) strictResult.get(0)
+                                                                                          .getArtifactCoordinates()).getObjectId());
+        assertThat(artifactEntryService.countArtifacts(STORAGE_ID, REPOSITORY_ID, strictCoordinates, true))
+                .isEqualTo(Long.valueOf(1));
+
+        // The LIKE search is narrowed down by the n-grams of the value, which every matching path contains.
+        String pathPart = groupId + "/" + ARTIFACT_ID + "/";
+        ArtifactCoordinatesSearchTokens.ngrams("path", pathPart)
+                                       .forEach(t -> assertThat(findIndexedCoordinatesIds(t)).containsAll(indexedIds));
+
+        List<ArtifactEntry> likeResult = artifactEntryService.findArtifactList(STORAGE_ID,
+                                                                               REPOSITORY_ID,
+                                                                               Collections.singletonMap("path", pathPart),
+                                                                               false);
+        assertThat(likeResult).hasSize(1);
+        assertThat(((RawArtifactCoordinates) likeResult.get(0).getArtifactCoordinates()).getPath()).isEqualTo(path);
+
+        // A value which is not indexed doesn't match anything.
+        assertThat(artifactEntryService.findArtifactList(STORAGE_ID,
+                                                         REPOSITORY_ID,
+                                                         Collections.singletonMap("path", path + "-missing"),
+                                                         true)).isEmpty();
+    }
+
+    private void awaitSearchIndex()
+            throws InterruptedException
+    {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+        while (!artifactCoordinatesSearchIndex.isReady() && System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(100);
+        }
+
+        assertThat(artifactCoordinatesSearchIndex.isReady()).as("The coordinates search index is not ready.").isTrue();
+    }
+
+    private Set<String> findIndexedCoordinatesIds(String searchToken)
+    {
+        String sQuery = String.format("SELECT FROM INDEX:%s WHERE key = :token",
+                                      ArtifactCoordinatesSearchIndex.INDEX_NAME);
+
+        try (ODatabaseSession session = databasePool.acquire())
+        {
+            List<ODocument> result = session.command(new OSQLSynchQuery<ODocument>(sQuery))
+                                            .execute(Collections.singletonMap("token", searchToken));
+
+            return result.stream()
+                         .map(d -> ((OIdentifiable) d.field("rid")).getIdentity().toString())
+                         .collect(Collectors.toSet());
+        }
+    }
+
     @Test
     public void saveEntityCreationDateShouldBeGeneratedAutomaticallyAndRemainUnchanged(TestInfo testInfo)
     {
@@ -425,6 +527,59 @@ public class ArtifactEntryServiceTest
         assertThat(secondTimeReadFromDatabase.getLastUsed()).isEqualTo(sampleDate);
     }
 
+    @Test
+    public void downloadStatisticsShouldBeAggregatedUntilFlush(TestInfo testInfo)
+    {
+        final String groupId = getGroupId(GROUP_ID, testInfo);
+
+        final ArtifactEntry artifactEntry = save(createArtifactEntry(groupId));
+        final String artifactEntryId = artifactEntry.getObjectId();
+
+        long flushedBefore = artifactDownloadStatisticsService.getFlushedDownloadsCount();
+
+        for (int i = 0; i < 3; i++)
+        {
+            artifactDownloadStatisticsService.recordDownload(artifactEntry);
+        }
+
+        // The periodic flush may have run meanwhile, this one waits for it and flushes the rest.
+        artifactDownloadStatisticsService.flush();
+
+        ArtifactEntry result = artifactEntryService.findOne(artifactEntryId).get();
+        assertThat(result.getDownloadCount()).isEqualTo(3);
+        assertThat(result.getLastUsed()).isNotNull();
+        assertThat(artifactEntryService.findOneArtifactById(artifactEntryId).getDownloadCount()).isEqualTo(3);
+        assertThat(artifactDownloadStatisticsService.getFlushedDownloadsCount()).isGreaterThanOrEqualTo(flushedBefore + 3);
+    }
+
+    @Test
+    public void lookupCacheShouldBeInvalidatedOnSaveAndDelete(TestInfo testInfo)
+    {
+        final String groupId = getGroupId(GROUP_ID, testInfo);
+
+        final ArtifactEntry artifactEntry = save(createArtifactEntry(groupId));
+        final String path = artifactEntry.getArtifactPath();
+
+        assertThat(artifactEntryService.findOneArtifact(STORAGE_ID, REPOSITORY_ID, path)).isNotNull();
+        assertThat(artifactEntryLookupCache.get(STORAGE_ID, REPOSITORY_ID, path)).isNotNull();
+
+        ArtifactEntry cached = artifactEntryService.findOneArtifact(STORAGE_ID, REPOSITORY_ID, path);
+        assertThat(cached.getObjectId()).isEqualTo(artifactEntry.getObjectId());
+
+        long generation = artifactEntryLookupCache.getGeneration(STORAGE_ID, REPOSITORY_ID, path);
+        cached.setSizeInBytes(123L);
+        save(cached);
+
+        assertThat(artifactEntryLookupCache.getGeneration(STORAGE_ID, REPOSITORY_ID, path)).isGreaterThan(generation);
+        assertThat(artifactEntryService.findOneArtifact(STORAGE_ID, REPOSITORY_ID, path).getSizeInBytes()).isEqualTo(123L);
+
+        artifactEntryService.delete(artifactEntryService.findOneArtifact(STORAGE_ID, REPOSITORY_ID, path));
+
+        assertThat(artifactEntryLookupCache.get(STORAGE_ID, REPOSITORY_ID, path)).isNull();
+        assertThat(artifactEntryService.findOneArtifact(STORAGE_ID, REPOSITORY_ID, path)).isNull();
+        assertThat(artifactEntryService.artifactExists(STORAGE_ID, REPOSITORY_ID, path)).isFalse();
+    }
+
     private Date createSampleDate()
             throws ParseException
     {
@@ -3,6 +3,7 @@ package org.carlspring.strongbox.services.impl;
 import org.carlspring.strongbox.StorageApiTestConfig;
 import org.carlspring.strongbox.artifact.coordinates.RawArtifactCoordinates;
 import org.carlspring.strongbox.configuration.Configuration;
+import org.carlspring.strongbox.configuration.GroupRepositoryIndex;
 import org.carlspring.strongbox.services.ConfigurationManagementService;
 import org.carlspring.strongbox.storage.repository.HttpConnectionPool;
 import org.carlspring.strongbox.storage.repository.Repository;
@@ -118,6 +119,29 @@ public class ConfigurationManagementServiceImplTest
         assertThat(iterator.next()).isEqualTo("jboss-public-releases");
     }
 
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    @Test
+    public void configurationSnapshotShouldBeSharedUntilModified(@RawRepository(repositoryId = REPOSITORY_RELEASES_2)
+                                                                 Repository releases2)
+            throws IOException
+    {
+        final String storageId = releases2.getStorage().getId();
+        final String releases2Id = releases2.getId();
+
+        Configuration configuration = configurationManagementService.getConfiguration();
+        long revision = configurationManagementService.getConfigurationRevision();
+
+        assertThat(configurationManagementService.getConfiguration()).isSameAs(configuration);
+        assertThat(configurationManagementService.getConfigurationRevision()).isEqualTo(revision);
+
+        configurationManagementService.setArtifactMaxSize(storageId, releases2Id, 1024L);
+
+        Configuration modified = configurationManagementService.getConfiguration();
+        assertThat(modified).isNotSameAs(configuration);
+        assertThat(modified.getRepository(storageId, releases2Id).getArtifactMaxSize()).isEqualTo(1024L);
+        assertThat(configurationManagementService.getConfigurationRevision()).isGreaterThan(revision);
+    }
+
     @Test
     public void testGetRepositories()
     {
@@ -173,6 +197,35 @@ public class ConfigurationManagementServiceImplTest
         }
     }
 
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    @Test
+    public void testNestedGroupRepositoriesShouldBeIndexed(@RawRepository(repositoryId = REPOSITORY_RELEASES_1)
+                                                           Repository releases1,
+                                                           @Group(repositories = REPOSITORY_RELEASES_1)
+                                                           @RawRepository(repositoryId = REPOSITORY_GROUP_1)
+                                                           Repository releasesGroup1,
+                                                           @Group(repositories = REPOSITORY_GROUP_1)
+                                                           @RawRepository(repositoryId = REPOSITORY_GROUP_2)
+                                                           Repository releasesGroup2)
+    {
+        final String storageId = releases1.getStorage().getId();
+        final GroupRepositoryIndex groupRepositoryIndex = configurationManagementService.getConfiguration()
+                                                                                        .getGroupRepositoryIndex();
+
+        assertThat(groupRepositoryIndex.getDirectParents(storageId, releases1.getId()))
+                .extracting(Repository::getId)
+                .containsExactly(REPOSITORY_GROUP_1);
+        assertThat(groupRepositoryIndex.getAncestors(storageId, releases1.getId()))
+                .extracting(Repository::getId)
+                .containsExactly(REPOSITORY_GROUP_1, REPOSITORY_GROUP_2);
+        assertThat(groupRepositoryIndex.getMembers(releasesGroup2))
+                .extracting(Repository::getId)
+                .containsExactly(REPOSITORY_GROUP_1);
+        assertThat(groupRepositoryIndex.getLeafMembers(releasesGroup2))
+                .extracting(Repository::getId)
+                .containsExactly(REPOSITORY_RELEASES_1);
+    }
+
     @ExtendWith(RepositoryManagementTestExecutionListener.class)
     @Test
     public void testRemoveRepositoryFromAssociatedGroups(@RawRepository(repositoryId = REPOSITORY_RELEASES_1) 
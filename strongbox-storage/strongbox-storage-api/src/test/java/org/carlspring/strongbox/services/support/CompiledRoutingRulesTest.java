@@ -0,0 +1,83 @@
+package org.carlspring.strongbox.services.support;
+
+import org.carlspring.strongbox.storage.routing.MutableRoutingRule;
+import org.carlspring.strongbox.storage.routing.MutableRoutingRuleRepository;
+import org.carlspring.strongbox.storage.routing.MutableRoutingRules;
+import org.carlspring.strongbox.storage.routing.RoutingRuleTypeEnum;
+import org.carlspring.strongbox.storage.routing.RoutingRules;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CompiledRoutingRulesTest
+{
+
+    @Test
+    public void literalPrefixShouldStopAtRegexSyntax()
+    {
+        assertThat(CompiledRoutingRules.literalPrefix("org/carlspring/.*")).isEqualTo("org/carlspring/");
+        assertThat(CompiledRoutingRules.literalPrefix("^org\\.carlspring/.*")).isEqualTo("org.carlspring/");
+        assertThat(CompiledRoutingRules.literalPrefix("org/carlsprings?/.*")).isEqualTo("org/carlspring");
+        assertThat(CompiledRoutingRules.literalPrefix("org/carlspring+/.*")).isEqualTo("org/carlspring");
+        assertThat(CompiledRoutingRules.literalPrefix("org/\\d+/.*")).isEqualTo("org/");
+        assertThat(CompiledRoutingRules.literalPrefix("org/foo|com/bar")).isEmpty();
+        assertThat(CompiledRoutingRules.literalPrefix(".*(com|org)/carlspring/.*")).isEmpty();
+    }
+
+    @Test
+    public void patternsWithGroupReferencesShouldNotBeCombined()
+    {
+        assertThat(CompiledRoutingRules.isCombinable("org/(?:foo|bar)/.*")).isTrue();
+        assertThat(CompiledRoutingRules.isCombinable("(?i)org/.*")).isFalse();
+        assertThat(CompiledRoutingRules.isCombinable("(org)/\\1/.*")).isFalse();
+    }
+
+    @Test
+    public void denyRulesShouldBeOverriddenByAcceptRules()
+    {
+        CompiledRoutingRules routingRules = compile(
+                MutableRoutingRule.create("storage0", "group", Collections.emptyList(), "org/carlspring/.*",
+                                          RoutingRuleTypeEnum.DENY),
+                MutableRoutingRule.create("storage0", "group", Collections.emptyList(), "org/carlspring/strongbox/.*",
+                                          RoutingRuleTypeEnum.ACCEPT));
+
+        assertThat(routingRules.isDenied("storage0", "group", "storage0", "releases",
+                                         "org/carlspring/commons/1.0/commons-1.0.jar")).isTrue();
+        assertThat(routingRules.isDenied("storage0", "group", "storage0", "releases",
+                                         "org/carlspring/strongbox/1.0/strongbox-1.0.jar")).isFalse();
+        assertThat(routingRules.isDenied("storage0", "group", "storage0", "releases",
+                                         "com/carlspring/commons/1.0/commons-1.0.jar")).isFalse();
+        assertThat(routingRules.isDenied("storage0", "group", "storage0", "releases", "org")).isFalse();
+    }
+
+    @Test
+    public void rulesShouldBeAppliedToMatchingRepositoriesOnly()
+    {
+        CompiledRoutingRules routingRules = compile(
+                MutableRoutingRule.create("", "GROUP", Collections.emptyList(), ".*/foo/.*", RoutingRuleTypeEnum.DENY),
+                MutableRoutingRule.create("storage0", "", Collections.singletonList(
+                        new MutableRoutingRuleRepository("storage0", "snapshots")), "bar/.*",
+                                          RoutingRuleTypeEnum.DENY));
+
+        assertThat(routingRules.isDenied("storage1", "group", "storage1", "releases", "org/foo/1.0/foo-1.0.jar"))
+                .isTrue();
+        assertThat(routingRules.isDenied("storage1", "other", "storage1", "releases", "org/foo/1.0/foo-1.0.jar"))
+                .isFalse();
+        assertThat(routingRules.isDenied("storage0", "other", "storage0", "snapshots", "bar/1.0/bar-1.0.jar"))
+                .isTrue();
+        assertThat(routingRules.isDenied("storage0", "other", "storage0", "releases", "bar/1.0/bar-1.0.jar"))
+                .isFalse();
+    }
+
+    private CompiledRoutingRules compile(MutableRoutingRule... rules)
+    {
+        MutableRoutingRules mutableRoutingRules = new MutableRoutingRules();
+        mutableRoutingRules.setRules(Arrays.asList(rules));
+
+        return new CompiledRoutingRules(0, new RoutingRules(mutableRoutingRules));
+    }
+
+}
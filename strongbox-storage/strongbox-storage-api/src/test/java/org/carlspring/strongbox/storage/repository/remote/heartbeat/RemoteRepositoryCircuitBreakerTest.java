@@ -0,0 +1,119 @@
+package org.carlspring.strongbox.storage.repository.remote.heartbeat;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryCircuitBreaker.State;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class RemoteRepositoryCircuitBreakerTest
+{
+
+    private AtomicLong clock;
+
+    private RemoteRepositoryCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    public void setUp()
+    {
+        clock = new AtomicLong();
+        circuitBreaker = new RemoteRepositoryCircuitBreaker("http://localhost/remote",
+                                                            10,
+                                                            4,
+                                                            0.5,
+                                                            1000,
+                                                            3000,
+                                                            100,
+                                                            clock::get);
+    }
+
+    @Test
+    public void breakerShouldOpenOnceTheFailureRateIsReached()
+    {
+        circuitBreaker.onSuccess(10);
+        circuitBreaker.onFailure(10);
+        circuitBreaker.onSuccess(10);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(State.CLOSED);
+
+        circuitBreaker.onFailure(10);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(State.OPEN);
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+        assertThat(circuitBreaker.getHealthScore()).isZero();
+    }
+
+    @Test
+    public void halfOpenBreakerShouldLetASingleProbeThrough()
+    {
+        open();
+
+        clock.addAndGet(1000);
+
+        assertThat(circuitBreaker.isCallPermitted()).isTrue();
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        assertThat(circuitBreaker.getState()).isEqualTo(State.HALF_OPEN);
+        assertThat(circuitBreaker.isCallPermitted()).isFalse();
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+
+        circuitBreaker.onSuccess(10);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(State.CLOSED);
+        assertThat(circuitBreaker.getHealthScore()).isEqualTo(1.0);
+
+        // The window has been reset, a single failure doesn't open the breaker again.
+        circuitBreaker.onFailure(10);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    public void failedProbesShouldBackOffExponentially()
+    {
+        open();
+
+        clock.addAndGet(1000);
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        circuitBreaker.onFailure(10);
+
+        clock.addAndGet(1999);
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+        clock.addAndGet(1);
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        circuitBreaker.onFailure(10);
+
+        // Up to the maximum open duration.
+        clock.addAndGet(2999);
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+        clock.addAndGet(1);
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    public void slowCallsShouldLowerTheHealthScore()
+    {
+        for (int i = 0; i < 8; i++)
+        {
+            circuitBreaker.onSuccess(50);
+        }
+        circuitBreaker.onSuccess(400);
+        circuitBreaker.onFailure(400);
+
+        assertThat(circuitBreaker.getDurationPercentile(0.5)).isEqualTo(50);
+        assertThat(circuitBreaker.getDurationPercentile(0.9)).isEqualTo(400);
+        assertThat(circuitBreaker.getHealthScore()).isCloseTo(0.9 * 100 / 400, within(0.001));
+    }
+
+    private void open()
+    {
+        for (int i = 0; i < 4; i++)
+        {
+            circuitBreaker.onFailure(10);
+        }
+
+        assertThat(circuitBreaker.getState()).isEqualTo(State.OPEN);
+    }
+
+}
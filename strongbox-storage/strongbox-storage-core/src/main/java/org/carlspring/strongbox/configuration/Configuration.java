@@ -51,6 +51,8 @@ public class Configuration
 
     private final SmtpConfiguration smtpConfiguration;
 
+    private volatile GroupRepositoryIndex groupRepositoryIndex;
+
     public Configuration(final MutableConfiguration delegate)
     {
 
@@ -230,22 +232,16 @@ public class Configuration
     public List<Repository> getGroupRepositoriesContaining(String storageId,
                                                            String repositoryId)
     {
-        String storageAndRepositoryId = storageId + ":" + repositoryId;
-        List<Repository> groupRepositories = getGroupRepositories();
-        for (Iterator<Repository> it = groupRepositories.iterator(); it.hasNext(); )
+        return new ArrayList<>(getGroupRepositoryIndex().getDirectParents(storageId, repositoryId));
+    }
+
+    public GroupRepositoryIndex getGroupRepositoryIndex()
+    {
+        if (groupRepositoryIndex != null)
         {
-            Repository repository = it.next();
-            Optional<String> exists = repository.getGroupRepositories()
-                                                .stream()
-                                                .filter(groupName -> (groupName.equals(storageAndRepositoryId) ||
-                                                                      (repository.getStorage().getId().equals(storageId) && groupName.equals(repositoryId))))
-                                                .findFirst();
-            if (!exists.isPresent())
-            {
-                it.remove();
-            }
+            return groupRepositoryIndex;
         }
-        return groupRepositories;
+        return groupRepositoryIndex = new GroupRepositoryIndex(this);
     }
 
     public HttpConnectionPool getHttpConnectionPoolConfiguration(String storageId,
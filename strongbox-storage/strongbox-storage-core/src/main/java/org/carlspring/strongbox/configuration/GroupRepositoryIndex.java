@@ -0,0 +1,179 @@
+package org.carlspring.strongbox.configuration;
+
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The group repository memberships of a {@link Configuration}, computed once per configuration: the direct members
+ * and the transitive (leaf) members of every group, the reverse index of the groups directly containing a repository,
+ * and the topologically ordered group ancestors of a repository.
+ *
+ * @see Configuration#getGroupRepositoryIndex()
+ */
+@Immutable
+public class GroupRepositoryIndex
+{
+
+    private final Map<String, List<Repository>> directParents = new HashMap<>();
+
+    private final Map<String, Set<Repository>> members = new HashMap<>();
+
+    private final Map<String, Set<Repository>> leafMembers = new HashMap<>();
+
+    private final ConcurrentMap<String, List<Repository>> ancestors = new ConcurrentHashMap<>();
+
+    GroupRepositoryIndex(Configuration configuration)
+    {
+        for (Storage storage : configuration.getStorages().values())
+        {
+            for (Repository repository : storage.getRepositories().values())
+            {
+                if (!repository.isGroupRepository())
+                {
+                    continue;
+                }
+
+                Set<Repository> groupMembers = new LinkedHashSet<>();
+                for (String storageAndRepositoryId : repository.getGroupRepositories())
+                {
+                    String sId = ConfigurationUtils.getStorageId(storage.getId(), storageAndRepositoryId);
+                    String rId = ConfigurationUtils.getRepositoryId(storageAndRepositoryId);
+
+                    directParents.computeIfAbsent(toKey(sId, rId), k -> new ArrayList<>()).add(repository);
+
+                    Storage memberStorage = configuration.getStorage(sId);
+                    Repository member = memberStorage != null ? memberStorage.getRepository(rId) : null;
+                    if (member != null)
+                    {
+                        groupMembers.add(member);
+                    }
+                }
+
+                members.put(toKey(repository), Collections.unmodifiableSet(groupMembers));
+            }
+        }
+
+        directParents.replaceAll((k, v) -> Collections.unmodifiableList(v));
+        members.keySet().forEach(groupKey -> collectLeafMembers(groupKey, new HashSet<>()));
+    }
+
+    /**
+     * @return the group repositories which directly contain the repository, in the configuration order
+     */
+    public List<Repository> getDirectParents(String storageId,
+                                             String repositoryId)
+    {
+        return directParents.getOrDefault(toKey(storageId, repositoryId), Collections.emptyList());
+    }
+
+    /**
+     * @return all the group repositories which contain the repository, directly or through other groups, ordered so
+     *         that every group comes after the groups it contains
+     */
+    public List<Repository> getAncestors(String storageId,
+                                         String repositoryId)
+    {
+        return ancestors.computeIfAbsent(toKey(storageId, repositoryId), this::collectAncestors);
+    }
+
+    /**
+     * @return the direct members of the group repository, in the group order
+     */
+    public Set<Repository> getMembers(Repository groupRepository)
+    {
+        return members.getOrDefault(toKey(groupRepository), Collections.emptySet());
+    }
+
+    /**
+     * @return the members of the group repository with the nested groups replaced by their own leaf members, in the
+     *         group order
+     */
+    public Set<Repository> getLeafMembers(Repository groupRepository)
+    {
+        return leafMembers.getOrDefault(toKey(groupRepository), Collections.emptySet());
+    }
+
+    private Set<Repository> collectLeafMembers(String groupKey,
+                                               Set<String> visiting)
+    {
+        Set<Repository> result = leafMembers.get(groupKey);
+        if (result != null)
+        {
+            return result;
+        }
+
+        visiting.add(groupKey);
+        result = new LinkedHashSet<>();
+        for (Repository member : members.getOrDefault(groupKey, Collections.emptySet()))
+        {
+            String memberKey = toKey(member);
+            if (member.getGroupRepositories() == null || member.getGroupRepositories().isEmpty())
+            {
+                result.add(member);
+            }
+            // cyclic memberships are not valid, just don't follow them
+            else if (!visiting.contains(memberKey))
+            {
+                result.addAll(collectLeafMembers(memberKey, visiting));
+            }
+        }
+        visiting.remove(groupKey);
+
+        result = Collections.unmodifiableSet(result);
+        leafMembers.put(groupKey, result);
+
+        return result;
+    }
+
+    private List<Repository> collectAncestors(String key)
+    {
+        List<Repository> postOrder = new ArrayList<>();
+        Set<String> visited = new HashSet<>();
+        visited.add(key);
+        collectAncestors(key, visited, postOrder);
+
+        // parents are visited after their own parents, the reversed order has every group before its parents
+        Collections.reverse(postOrder);
+
+        return Collections.unmodifiableList(postOrder);
+    }
+
+    private void collectAncestors(String key,
+                                  Set<String> visited,
+                                  List<Repository> postOrder)
+    {
+        for (Repository parent : directParents.getOrDefault(key, Collections.emptyList()))
+        {
+            String parentKey = toKey(parent);
+            if (visited.add(parentKey))
+            {
+                collectAncestors(parentKey, visited, postOrder);
+                postOrder.add(parent);
+            }
+        }
+    }
+
+    private static String toKey(Repository repository)
+    {
+        return toKey(repository.getStorage().getId(), repository.getId());
+    }
+
+    private static String toKey(String storageId,
+                                String repositoryId)
+    {
+        return storageId + ":" + repositoryId;
+    }
+
+}
@@ -1,11 +1,11 @@
 package org.carlspring.strongbox.io;
 
-import org.carlspring.commons.util.MessageDigestUtils;
+import org.carlspring.strongbox.util.MessageDigestUtils;
 
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.security.MessageDigest;
+import java.io.UncheckedIOException;
 import java.security.NoSuchAlgorithmException;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -37,7 +37,7 @@ public class LayoutInputStream
                                                                        MessageDigestAlgorithms.SHA_1)
                                                                    .collect(Collectors.toSet()); 
     
-    private Map<String, MessageDigest> digests = new LinkedHashMap<>();
+    private final MultipleDigestEngine digestEngine = new MultipleDigestEngine();
 
     private Map<String, String> hexDigests = new LinkedHashMap<>();
 
@@ -62,19 +62,12 @@ public class LayoutInputStream
     public final void addAlgorithm(String algorithm)
             throws NoSuchAlgorithmException
     {
-        MessageDigest digest = MessageDigest.getInstance(algorithm);
-
-        digests.put(algorithm, digest);
-    }
-
-    public MessageDigest getMessageDigest(String algorithm)
-    {
-        return digests.get(algorithm);
+        digestEngine.addAlgorithm(algorithm);
     }
 
-    public Map<String, MessageDigest> getDigests()
+    public Set<String> getAlgorithms()
     {
-        return digests;
+        return digestEngine.getAlgorithms();
     }
 
     public void resetHexDidests()
@@ -89,24 +82,27 @@ public class LayoutInputStream
 
     public String getMessageDigestAsHexadecimalString(String algorithm)
     {
-        if (hexDigests.containsKey(algorithm))
+        if (hexDigests.isEmpty())
         {
-            return hexDigests.get(algorithm);
+            // This completes the digests, so the read content is not digested anymore.
+            try
+            {
+                completeDigests();
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
         }
-        else
-        {
-            // This method will invoke MessageDigest.digest() which will reset the bytes when it's done
-            // and thus this data will no longer be available, so we'll need to cache the calculated digest
-            String hexDigest = MessageDigestUtils.convertToHexadecimalString(getMessageDigest(algorithm));
-            hexDigests.put(algorithm, hexDigest);
 
-            return hexDigest;
-        }
+        return hexDigests.get(algorithm);
     }
 
-    public void setDigests(Map<String, MessageDigest> digests)
+    private void completeDigests()
+        throws IOException
     {
-        this.digests = digests;
+        digestEngine.digest()
+                    .forEach((a, d) -> hexDigests.put(a, MessageDigestUtils.convertToHexadecimalString(d)));
     }
 
     @Override
@@ -116,11 +112,7 @@ public class LayoutInputStream
         int ch = in.read();
         if (ch != -1)
         {
-            for (Map.Entry entry : digests.entrySet())
-            {
-                MessageDigest digest = (MessageDigest) entry.getValue();
-                digest.update((byte) ch);
-            }
+            digestEngine.update(ch);
         }
 
         return ch;
@@ -135,11 +127,7 @@ public class LayoutInputStream
         int numberOfBytesRead = in.read(bytes, off, len);
         if (numberOfBytesRead != -1)
         {
-            for (Map.Entry entry : digests.entrySet())
-            {
-                MessageDigest digest = (MessageDigest) entry.getValue();
-                digest.update(bytes, off, numberOfBytesRead);
-            }
+            digestEngine.update(bytes, off, numberOfBytesRead);
         }
 
         return numberOfBytesRead;
@@ -149,15 +137,29 @@ public class LayoutInputStream
     public int read(byte[] bytes)
             throws IOException
     {
-        int len = in.read(bytes);
+        return read(bytes, 0, bytes.length);
+    }
 
-        for (Map.Entry entry : digests.entrySet())
+    @Override
+    public void close()
+            throws IOException
+    {
+        try
         {
-            MessageDigest digest = (MessageDigest) entry.getValue();
-            digest.update(bytes);
+            super.close();
+        }
+        catch (IOException e)
+        {
+            digestEngine.close();
+
+            throw e;
         }
 
-        return len;
+        // Complete the digests, so that they are still available after the stream is closed.
+        if (hexDigests.isEmpty())
+        {
+            completeDigests();
+        }
     }
 
     InputStream getTarget()
@@ -1,11 +1,12 @@
 package org.carlspring.strongbox.io;
 
-import org.carlspring.commons.io.MultipleDigestOutputStream;
 import org.carlspring.strongbox.util.MessageDigestUtils;
 
 import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.security.NoSuchAlgorithmException;
 import java.util.Map;
 import java.util.function.Function;
@@ -24,9 +25,11 @@ import org.slf4j.LoggerFactory;
  *     ArtifactOutputStream aos = (ArtifactOutputStream) Files.newOutputStream(repositoryPath); 
  * </pre>
  * 
+ * The digests are computed with the {@link MultipleDigestEngine}.
+ * 
  * @author Sergey Bespalov
  */
-public class LayoutOutputStream extends MultipleDigestOutputStream
+public class LayoutOutputStream extends FilterOutputStream
 {
 
     private static final Logger logger = LoggerFactory.getLogger(LayoutOutputStream.class);
@@ -39,11 +42,19 @@ public class LayoutOutputStream extends MultipleDigestOutputStream
     private OutputStream cacheOutputStream;
     private Function<OutputStreamFunction, ?> cacheOutputStreamTemplate = this::doWithOutputStream;
     private Map<String, String> digestMap;
+
+    private final MultipleDigestEngine digestEngine = new MultipleDigestEngine();
     
     public LayoutOutputStream(OutputStream source)
             throws NoSuchAlgorithmException
     {
-        super(new BufferedOutputStream(source), new String[]{});
+        super(new BufferedOutputStream(source));
+    }
+
+    public void addAlgorithm(String algorithm)
+            throws NoSuchAlgorithmException
+    {
+        digestEngine.addAlgorithm(algorithm);
     }
 
     public void setCacheOutputStreamTemplate(Function<OutputStreamFunction, ?> chahceOutputStreamTemplate)
@@ -71,16 +82,32 @@ public class LayoutOutputStream extends MultipleDigestOutputStream
         this.digestStringifier = digestStringifier;
     }
 
+    /**
+     * @return the engine which digests the written content, it's updated by this stream only
+     */
+    public MultipleDigestEngine getDigestEngine()
+    {
+        return digestEngine;
+    }
+
     public Map<String, String> getDigestMap()
     {
         if (digestMap == null)
         {
-            digestMap = getDigests().entrySet()
-                                    .stream()
-                                    .collect(Collectors.toMap(Map.Entry::getKey,
-                                                              e -> stringifyDigest(digestStringifier,
-                                                                                   e.getValue()
-                                                                                    .digest())));
+            Map<String, byte[]> digests;
+            try
+            {
+                digests = digestEngine.digest();
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+
+            digestMap = digests.entrySet()
+                               .stream()
+                               .collect(Collectors.toMap(Map.Entry::getKey,
+                                                         e -> stringifyDigest(digestStringifier, e.getValue())));
         }
         
         return digestMap;
@@ -96,7 +123,8 @@ public class LayoutOutputStream extends MultipleDigestOutputStream
     public void write(int b)
         throws IOException
     {
-        super.write(b);
+        out.write(b);
+        digestEngine.update(b);
         cacheOutputStreamTemplate.apply(o -> o.write(b));
     }
 
@@ -106,7 +134,8 @@ public class LayoutOutputStream extends MultipleDigestOutputStream
                       int len)
         throws IOException
     {
-        super.write(b, off, len);
+        out.write(b, off, len);
+        digestEngine.update(b, off, len);
         cacheOutputStreamTemplate.apply(o -> o.write(b, off, len));
     }
 
@@ -114,7 +143,8 @@ public class LayoutOutputStream extends MultipleDigestOutputStream
     public void write(byte[] b)
             throws IOException
     {
-        super.write(b);
+        out.write(b);
+        digestEngine.update(b, 0, b.length);
         cacheOutputStreamTemplate.apply(o -> o.write(b));
     }
 
@@ -124,6 +154,9 @@ public class LayoutOutputStream extends MultipleDigestOutputStream
     {
         super.close();
         cacheOutputStreamTemplate.apply(o -> o.close());
+
+        // Complete the digests, so that they are still available after the stream is closed.
+        getDigestMap();
     }
 
     @Override
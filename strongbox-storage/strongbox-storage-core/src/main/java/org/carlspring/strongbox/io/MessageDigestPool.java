@@ -0,0 +1,48 @@
+package org.carlspring.strongbox.io;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per thread pool of {@link MessageDigest} instances, to save the provider lookup of
+ * {@link MessageDigest#getInstance(String)} for every stream.
+ */
+public final class MessageDigestPool
+{
+
+    private static final int MAX_POOLED_PER_ALGORITHM = 4;
+
+    private static final ThreadLocal<Map<String, Deque<MessageDigest>>> pool = ThreadLocal.withInitial(HashMap::new);
+
+    private MessageDigestPool()
+    {
+    }
+
+    public static MessageDigest acquire(String algorithm)
+        throws NoSuchAlgorithmException
+    {
+        Deque<MessageDigest> digests = pool.get().get(algorithm);
+        MessageDigest digest = digests == null ? null : digests.poll();
+
+        return digest != null ? digest : MessageDigest.getInstance(algorithm);
+    }
+
+    /**
+     * Returns the digest into the pool of the current thread, which is not necessarily the one it was acquired from.
+     */
+    public static void release(String algorithm,
+                               MessageDigest digest)
+    {
+        Deque<MessageDigest> digests = pool.get().computeIfAbsent(algorithm, a -> new ArrayDeque<>());
+        if (digests.size() < MAX_POOLED_PER_ALGORITHM)
+        {
+            digest.reset();
+            digests.push(digest);
+        }
+    }
+
+}
@@ -0,0 +1,421 @@
+package org.carlspring.strongbox.io;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Computes several digests of the same content.
+ * <p>
+ * The digests are updated on the calling thread, one after another, until the content exceeds
+ * {@code strongbox.digest.parallel.threshold} bytes (8 MiB by default, {@code 0} to disable). From then on the content
+ * is copied into a ring buffer, and every algorithm is updated by its own worker from the JVM wide
+ * {@link ForkJoinPool#commonPool() common pool}, the workers never block. The calling thread only waits for the
+ * workers when the ring buffer is full or on {@link #digest()}, so large uploads are hashed by all the algorithms at
+ * once and at the same time as they are read from the network. On a single CPU the digests are always updated on the
+ * calling thread.
+ * <p>
+ * This class is not thread safe, like the streams it's used by.
+ */
+public class MultipleDigestEngine
+{
+
+    /**
+     * Copying into the ring buffer only pays off if the workers can run beside the calling thread.
+     */
+    private static final long PARALLEL_THRESHOLD =
+            Runtime.getRuntime().availableProcessors() > 1 ?
+            Long.getLong("strongbox.digest.parallel.threshold", 8L * 1024 * 1024) : 0;
+
+    private static final int SLOT_SIZE = 256 * 1024;
+
+    private static final int SLOTS = 8;
+
+    private final Map<String, MessageDigest> digests = new LinkedHashMap<>();
+
+    private final long parallelThreshold;
+
+    private Map<String, byte[]> result;
+
+    private long length;
+
+    private RingBuffer ringBuffer;
+
+    public MultipleDigestEngine()
+    {
+        this(PARALLEL_THRESHOLD);
+    }
+
+    MultipleDigestEngine(long parallelThreshold)
+    {
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    public void addAlgorithm(String algorithm)
+        throws NoSuchAlgorithmException
+    {
+        if (length > 0 || result != null)
+        {
+            throw new IllegalStateException("Algorithms should be added before the content.");
+        }
+        if (!digests.containsKey(algorithm))
+        {
+            digests.put(algorithm, MessageDigestPool.acquire(algorithm));
+        }
+    }
+
+    public Set<String> getAlgorithms()
+    {
+        return Collections.unmodifiableSet(digests.keySet());
+    }
+
+    public void update(int b)
+        throws IOException
+    {
+        if (digests.isEmpty() || result != null)
+        {
+            return;
+        }
+
+        length++;
+        if (isParallel())
+        {
+            ringBuffer.write((byte) b);
+
+            return;
+        }
+
+        for (MessageDigest digest : digests.values())
+        {
+            digest.update((byte) b);
+        }
+    }
+
+    public void update(byte[] b,
+                       int off,
+                       int len)
+        throws IOException
+    {
+        if (len <= 0 || digests.isEmpty() || result != null)
+        {
+            return;
+        }
+
+        length += len;
+        if (isParallel())
+        {
+            ringBuffer.write(b, off, len);
+
+            return;
+        }
+
+        for (MessageDigest digest : digests.values())
+        {
+            digest.update(b, off, len);
+        }
+    }
+
+    /**
+     * Completes the digests and returns them into the {@link MessageDigestPool}, so the content can't be updated
+     * anymore. Subsequent calls return the same digests.
+     *
+     * @return the digests by algorithm
+     */
+    public Map<String, byte[]> digest()
+        throws IOException
+    {
+        if (result != null)
+        {
+            return result;
+        }
+
+        if (ringBuffer != null)
+        {
+            ringBuffer.flush();
+        }
+
+        Map<String, byte[]> digestMap = new LinkedHashMap<>();
+        for (Map.Entry<String, MessageDigest> entry : digests.entrySet())
+        {
+            digestMap.put(entry.getKey(), entry.getValue().digest());
+        }
+        result = Collections.unmodifiableMap(digestMap);
+
+        release();
+
+        return result;
+    }
+
+    /**
+     * Returns the digests into the {@link MessageDigestPool} without completing them.
+     */
+    public void close()
+    {
+        if (result != null)
+        {
+            return;
+        }
+
+        result = Collections.emptyMap();
+        if (ringBuffer != null && !ringBuffer.abort())
+        {
+            // Some workers are still running, leave the digests to them.
+            digests.clear();
+
+            return;
+        }
+
+        release();
+    }
+
+    /**
+     * @return whether the content goes to the ring buffer, which is started once the content exceeds the threshold
+     */
+    private boolean isParallel()
+    {
+        if (ringBuffer == null && parallelThreshold > 0 && length > parallelThreshold)
+        {
+            ringBuffer = new RingBuffer();
+        }
+
+        return ringBuffer != null;
+    }
+
+    private void release()
+    {
+        digests.forEach(MessageDigestPool::release);
+        digests.clear();
+    }
+
+    /**
+     * The writer fills the slots in turn and publishes them, every {@link Worker} consumes the published slots in
+     * the same order. A slot is reused once all the workers have consumed it.
+     */
+    private class RingBuffer
+    {
+
+        private final byte[][] slots = new byte[SLOTS][];
+
+        private final int[] slotLengths = new int[SLOTS];
+
+        private final List<Worker> ringWorkers = new ArrayList<>();
+
+        /**
+         * The number of slots published by the writer, guarded by {@code this} like the worker state.
+         */
+        private long published;
+
+        private int currentLength;
+
+        private Throwable failure;
+
+        private boolean aborted;
+
+        private RingBuffer()
+        {
+            digests.values().forEach(d -> ringWorkers.add(new Worker(d)));
+        }
+
+        private void write(byte[] b,
+                           int off,
+                           int len)
+            throws IOException
+        {
+            while (len > 0)
+            {
+                byte[] slot = currentSlot();
+                int n = Math.min(len, SLOT_SIZE - currentLength);
+                System.arraycopy(b, off, slot, currentLength, n);
+                currentLength += n;
+                off += n;
+                len -= n;
+
+                if (currentLength == SLOT_SIZE)
+                {
+                    publish();
+                }
+            }
+        }
+
+        private void write(byte b)
+            throws IOException
+        {
+            currentSlot()[currentLength++] = b;
+            if (currentLength == SLOT_SIZE)
+            {
+                publish();
+            }
+        }
+
+        /**
+         * @return the slot to write to, waiting for a free one if the current slot is still empty
+         */
+        private byte[] currentSlot()
+            throws IOException
+        {
+            int index = (int) (published % SLOTS);
+            if (currentLength == 0)
+            {
+                awaitFreeSlot();
+                if (slots[index] == null)
+                {
+                    slots[index] = new byte[SLOT_SIZE];
+                }
+            }
+
+            return slots[index];
+        }
+
+        private void flush()
+            throws IOException
+        {
+            if (currentLength > 0)
+            {
+                publish();
+            }
+
+            awaitConsumed(published);
+        }
+
+        /**
+         * @return {@code true} if none of the workers is running
+         */
+        private synchronized boolean abort()
+        {
+            aborted = true;
+
+            return ringWorkers.stream().noneMatch(w -> w.running);
+        }
+
+        private void publish()
+        {
+            synchronized (this)
+            {
+                slotLengths[(int) (published % SLOTS)] = currentLength;
+                published++;
+            }
+            currentLength = 0;
+
+            ringWorkers.forEach(Worker::schedule);
+        }
+
+        private void awaitFreeSlot()
+            throws IOException
+        {
+            // The next slot has been used by the sequence `published - SLOTS` before.
+            awaitConsumed(published - SLOTS + 1);
+        }
+
+        private synchronized void awaitConsumed(long sequence)
+            throws IOException
+        {
+            while (true)
+            {
+                if (failure != null)
+                {
+                    throw new IOException("Failed to update the digests.", failure);
+                }
+                if (ringWorkers.stream().allMatch(w -> w.consumed >= sequence))
+                {
+                    return;
+                }
+
+                try
+                {
+                    wait();
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+
+                    throw new InterruptedIOException("Interrupted while waiting for the digests.");
+                }
+            }
+        }
+
+        private class Worker
+        {
+
+            private final MessageDigest digest;
+
+            private long consumed;
+
+            private boolean running;
+
+            private Worker(MessageDigest digest)
+            {
+                this.digest = digest;
+            }
+
+            private void schedule()
+            {
+                synchronized (RingBuffer.this)
+                {
+                    if (running)
+                    {
+                        return;
+                    }
+                    running = true;
+                }
+
+                ForkJoinPool.commonPool().execute(this::drain);
+            }
+
+            private void drain()
+            {
+                while (true)
+                {
+                    byte[] slot;
+                    int slotLength;
+                    synchronized (RingBuffer.this)
+                    {
+                        if (consumed == published || failure != null || aborted)
+                        {
+                            running = false;
+                            RingBuffer.this.notifyAll();
+
+                            return;
+                        }
+
+                        int index = (int) (consumed % SLOTS);
+                        slot = slots[index];
+                        slotLength = slotLengths[index];
+                    }
+
+                    try
+                    {
+                        digest.update(slot, 0, slotLength);
+                    }
+                    catch (Throwable e)
+                    {
+                        synchronized (RingBuffer.this)
+                        {
+                            failure = e;
+                            running = false;
+                            RingBuffer.this.notifyAll();
+                        }
+
+                        return;
+                    }
+
+                    synchronized (RingBuffer.this)
+                    {
+                        consumed++;
+                        RingBuffer.this.notifyAll();
+                    }
+                }
+            }
+
+        }
+
+    }
+
+}
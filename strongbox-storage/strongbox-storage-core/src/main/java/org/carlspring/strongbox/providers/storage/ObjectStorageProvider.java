@@ -0,0 +1,186 @@
+package org.carlspring.strongbox.providers.storage;
+
+import org.carlspring.strongbox.booters.PropertiesBooter;
+import org.carlspring.strongbox.providers.storage.object.ObjectStorageCache;
+import org.carlspring.strongbox.providers.storage.object.ObjectStorageClient;
+import org.carlspring.strongbox.providers.storage.object.ObjectStorageFileSystemProvider;
+import org.carlspring.strongbox.providers.storage.object.S3ObjectStorageClient;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystem;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.spi.FileSystemProvider;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stores the repositories in an S3 compatible object storage bucket, configured with the
+ * {@code strongbox.storage.s3.*} properties. The bucket is only connected to once a repository with this storage
+ * provider is used.
+ *
+ * @see ObjectStorageFileSystemProvider
+ */
+@Component("objectStorageProvider")
+public class ObjectStorageProvider
+        extends AbstractStorageProvider
+        implements DisposableBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ObjectStorageProvider.class);
+
+    public static final String ALIAS = "s3";
+
+    /**
+     * The minimal size of the multipart upload parts, but the last one, accepted by S3.
+     */
+    private static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    @Value("${strongbox.storage.s3.endpoint:}")
+    private String endpoint;
+
+    @Value("${strongbox.storage.s3.region:us-east-1}")
+    private String region;
+
+    @Value("${strongbox.storage.s3.bucket:strongbox}")
+    private String bucket;
+
+    @Value("${strongbox.storage.s3.accessKey:}")
+    private String accessKey;
+
+    @Value("${strongbox.storage.s3.secretKey:}")
+    private String secretKey;
+
+    @Value("${strongbox.storage.s3.connectTimeout:10000}")
+    private int connectTimeout;
+
+    @Value("${strongbox.storage.s3.readTimeout:60000}")
+    private int readTimeout;
+
+    @Value("${strongbox.storage.s3.partSize:8388608}")
+    private int partSize;
+
+    @Value("${strongbox.storage.s3.uploadThreads:8}")
+    private int uploadThreads;
+
+    @Value("${strongbox.storage.s3.cache.dir:}")
+    private String cacheDirectory;
+
+    @Value("${strongbox.storage.s3.cache.maxSizeInBytes:10737418240}")
+    private long cacheMaxSizeInBytes;
+
+    @Inject
+    private PropertiesBooter propertiesBooter;
+
+    private volatile ObjectStorageFileSystemProvider fileSystemProvider;
+
+    private ExecutorService uploadExecutor;
+
+
+    @Override
+    public String getAlias()
+    {
+        return ALIAS;
+    }
+
+    @PostConstruct
+    @Override
+    public void register()
+    {
+        logger.info("Registered storage provider '{}' with alias '{}'.",
+                    getClass().getCanonicalName(), ALIAS);
+    }
+
+    @Override
+    public FileSystem getFileSystem()
+    {
+        return getObjectStorageFileSystemProvider().getFileSystem();
+    }
+
+    @Override
+    public FileSystemProvider getFileSystemProvider()
+    {
+        return getObjectStorageFileSystemProvider();
+    }
+
+    private ObjectStorageFileSystemProvider getObjectStorageFileSystemProvider()
+    {
+        ObjectStorageFileSystemProvider result = fileSystemProvider;
+        if (result != null)
+        {
+            return result;
+        }
+
+        synchronized (this)
+        {
+            if (fileSystemProvider == null)
+            {
+                fileSystemProvider = createFileSystemProvider();
+            }
+
+            return fileSystemProvider;
+        }
+    }
+
+    private ObjectStorageFileSystemProvider createFileSystemProvider()
+    {
+        if (StringUtils.isBlank(endpoint))
+        {
+            throw new IllegalStateException(String.format("The [%s] storage provider requires the " +
+                                                          "[strongbox.storage.s3.endpoint] property.", ALIAS));
+        }
+
+        ObjectStorageClient client = new S3ObjectStorageClient(endpoint, region, bucket, accessKey, secretKey,
+                                                               connectTimeout, readTimeout);
+
+        Path cachePath = StringUtils.isBlank(cacheDirectory) ?
+                         Paths.get(propertiesBooter.getVaultDirectory(), "tmp", "s3-cache") :
+                         Paths.get(cacheDirectory);
+        ObjectStorageCache cache;
+        try
+        {
+            cache = cacheMaxSizeInBytes > 0 ? new ObjectStorageCache(cachePath, cacheMaxSizeInBytes) : null;
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        uploadExecutor = Executors.newFixedThreadPool(uploadThreads, r -> {
+            Thread thread = new Thread(r, "s3-upload-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        logger.info("Connected storage provider '{}' to bucket [{}] at [{}].", ALIAS, bucket, endpoint);
+
+        return new ObjectStorageFileSystemProvider(client,
+                                                   bucket,
+                                                   cache,
+                                                   uploadExecutor,
+                                                   Math.max(partSize, MIN_PART_SIZE),
+                                                   uploadThreads);
+    }
+
+    @Override
+    public void destroy()
+    {
+        if (uploadExecutor != null)
+        {
+            uploadExecutor.shutdown();
+        }
+    }
+
+}
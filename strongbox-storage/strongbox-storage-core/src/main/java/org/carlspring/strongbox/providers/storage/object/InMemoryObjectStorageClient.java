@@ -0,0 +1,268 @@
+package org.carlspring.strongbox.providers.storage.object;
+
+import org.carlspring.strongbox.util.MessageDigestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-process stand-in of an S3 compatible object storage, which keeps the objects in memory. Meant for the tests and
+ * the local development only.
+ */
+public class InMemoryObjectStorageClient
+        implements ObjectStorageClient
+{
+
+    private final ConcurrentSkipListMap<String, StoredObject> objects = new ConcurrentSkipListMap<>();
+
+    private final ConcurrentMap<String, ConcurrentSkipListMap<Integer, byte[]>> multipartUploads = new ConcurrentHashMap<>();
+
+    @Override
+    public ObjectMetadata headObject(String key)
+    {
+        StoredObject object = objects.get(key);
+
+        return object == null ? null : object.toMetadata(key);
+    }
+
+    @Override
+    public InputStream getObject(String key,
+                                 long offset,
+                                 long length)
+        throws IOException
+    {
+        StoredObject object = objects.get(key);
+        if (object == null)
+        {
+            throw new NoSuchFileException(key);
+        }
+
+        int from = (int) Math.min(offset, object.content.length);
+        int to = length < 0 ? object.content.length : (int) Math.min(from + length, object.content.length);
+
+        return new ByteArrayInputStream(object.content, from, to - from);
+    }
+
+    @Override
+    public void putObject(String key,
+                          byte[] content,
+                          int length)
+    {
+        objects.put(key, new StoredObject(Arrays.copyOf(content, length)));
+    }
+
+    @Override
+    public void copyObject(String sourceKey,
+                           String targetKey)
+        throws IOException
+    {
+        StoredObject object = objects.get(sourceKey);
+        if (object == null)
+        {
+            throw new NoSuchFileException(sourceKey);
+        }
+
+        objects.put(targetKey, new StoredObject(object.content));
+    }
+
+    @Override
+    public void deleteObject(String key)
+    {
+        objects.remove(key);
+    }
+
+    @Override
+    public ObjectListing listObjects(String prefix,
+                                     String delimiter,
+                                     String continuationToken,
+                                     int maxKeys)
+    {
+        List<ObjectMetadata> result = new ArrayList<>();
+        List<String> commonPrefixes = new ArrayList<>();
+
+        NavigableMap<String, StoredObject> tail = continuationToken == null ? objects.tailMap(prefix, true)
+                                                                            : objects.tailMap(continuationToken, false);
+        String lastCommonPrefix = delimiter != null && continuationToken != null &&
+                                  continuationToken.endsWith(delimiter) ? continuationToken : null;
+        String last = null;
+        for (Map.Entry<String, StoredObject> entry : tail.entrySet())
+        {
+            String key = entry.getKey();
+            if (!key.startsWith(prefix))
+            {
+                break;
+            }
+            if (lastCommonPrefix != null && key.startsWith(lastCommonPrefix))
+            {
+                continue;
+            }
+            if (result.size() + commonPrefixes.size() >= maxKeys)
+            {
+                return new ObjectListing(result, commonPrefixes, last);
+            }
+
+            int delimiterIndex = delimiter == null ? -1 : key.indexOf(delimiter, prefix.length());
+            if (delimiterIndex >= 0)
+            {
+                lastCommonPrefix = key.substring(0, delimiterIndex + delimiter.length());
+                commonPrefixes.add(lastCommonPrefix);
+                last = lastCommonPrefix;
+            }
+            else
+            {
+                result.add(entry.getValue().toMetadata(key));
+                last = key;
+            }
+        }
+
+        return new ObjectListing(result, commonPrefixes, null);
+    }
+
+    @Override
+    public String createMultipartUpload(String key)
+    {
+        String uploadId = UUID.randomUUID().toString();
+        multipartUploads.put(uploadId, new ConcurrentSkipListMap<>());
+
+        return uploadId;
+    }
+
+    @Override
+    public String uploadPart(String key,
+                             String uploadId,
+                             int partNumber,
+                             byte[] content,
+                             int length)
+        throws IOException
+    {
+        byte[] part = Arrays.copyOf(content, length);
+        getMultipartUpload(uploadId).put(partNumber, part);
+
+        return md5Hex(part);
+    }
+
+    @Override
+    public String uploadPartCopy(String sourceKey,
+                                 String key,
+                                 String uploadId,
+                                 int partNumber,
+                                 long offset,
+                                 long length)
+        throws IOException
+    {
+        StoredObject object = objects.get(sourceKey);
+        if (object == null)
+        {
+            throw new NoSuchFileException(sourceKey);
+        }
+        if (offset + length > object.content.length)
+        {
+            throw new IOException(String.format("Range [%s-%s] of [%s] is not satisfiable.",
+                                                offset, offset + length - 1, sourceKey));
+        }
+
+        byte[] part = Arrays.copyOfRange(object.content, (int) offset, (int) (offset + length));
+        getMultipartUpload(uploadId).put(partNumber, part);
+
+        return md5Hex(part);
+    }
+
+    @Override
+    public void completeMultipartUpload(String key,
+                                        String uploadId,
+                                        List<String> partETags)
+        throws IOException
+    {
+        ConcurrentSkipListMap<Integer, byte[]> parts = getMultipartUpload(uploadId);
+        if (parts.size() != partETags.size())
+        {
+            throw new IOException(String.format("Expected [%s] parts of [%s], got [%s].",
+                                                partETags.size(), key, parts.size()));
+        }
+
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        for (byte[] part : parts.values())
+        {
+            content.write(part);
+        }
+
+        objects.put(key, new StoredObject(content.toByteArray()));
+        multipartUploads.remove(uploadId);
+    }
+
+    @Override
+    public void abortMultipartUpload(String key,
+                                     String uploadId)
+    {
+        multipartUploads.remove(uploadId);
+    }
+
+    /**
+     * @return the number of the multipart uploads neither completed nor aborted
+     */
+    public int getPendingMultipartUploads()
+    {
+        return multipartUploads.size();
+    }
+
+    private ConcurrentSkipListMap<Integer, byte[]> getMultipartUpload(String uploadId)
+        throws IOException
+    {
+        ConcurrentSkipListMap<Integer, byte[]> parts = multipartUploads.get(uploadId);
+        if (parts == null)
+        {
+            throw new IOException(String.format("Upload [%s] not found.", uploadId));
+        }
+
+        return parts;
+    }
+
+    private static String md5Hex(byte[] content)
+    {
+        try
+        {
+            return MessageDigestUtils.convertToHexadecimalString(MessageDigest.getInstance("MD5").digest(content));
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class StoredObject
+    {
+
+        private final byte[] content;
+
+        private final long lastModified = System.currentTimeMillis();
+
+        private final String eTag;
+
+        private StoredObject(byte[] content)
+        {
+            this.content = content;
+            this.eTag = md5Hex(content);
+        }
+
+        private ObjectMetadata toMetadata(String key)
+        {
+            return new ObjectMetadata(key, content.length, lastModified, eTag);
+        }
+
+    }
+
+}
@@ -0,0 +1,55 @@
+package org.carlspring.strongbox.providers.storage.object;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A single page of the {@link ObjectStorageClient#listObjects(String, String, String, int)} results.
+ */
+@Immutable
+public class ObjectListing
+{
+
+    private final List<ObjectMetadata> objects;
+
+    private final List<String> commonPrefixes;
+
+    private final String nextContinuationToken;
+
+    public ObjectListing(List<ObjectMetadata> objects,
+                         List<String> commonPrefixes,
+                         String nextContinuationToken)
+    {
+        this.objects = Collections.unmodifiableList(objects);
+        this.commonPrefixes = Collections.unmodifiableList(commonPrefixes);
+        this.nextContinuationToken = nextContinuationToken;
+    }
+
+    public List<ObjectMetadata> getObjects()
+    {
+        return objects;
+    }
+
+    /**
+     * @return the rolled up prefixes, each ending with the delimiter
+     */
+    public List<String> getCommonPrefixes()
+    {
+        return commonPrefixes;
+    }
+
+    /**
+     * @return the token of the next page, or {@code null} if this is the last one
+     */
+    public String getNextContinuationToken()
+    {
+        return nextContinuationToken;
+    }
+
+    public boolean isEmpty()
+    {
+        return objects.isEmpty() && commonPrefixes.isEmpty();
+    }
+
+}
@@ -0,0 +1,51 @@
+package org.carlspring.strongbox.providers.storage.object;
+
+import javax.annotation.concurrent.Immutable;
+
+@Immutable
+public class ObjectMetadata
+{
+
+    private final String key;
+
+    private final long size;
+
+    private final long lastModified;
+
+    private final String eTag;
+
+    public ObjectMetadata(String key,
+                          long size,
+                          long lastModified,
+                          String eTag)
+    {
+        this.key = key;
+        this.size = size;
+        this.lastModified = lastModified;
+        this.eTag = eTag;
+    }
+
+    public String getKey()
+    {
+        return key;
+    }
+
+    public long getSize()
+    {
+        return size;
+    }
+
+    /**
+     * @return the last modification time in milliseconds since the epoch
+     */
+    public long getLastModified()
+    {
+        return lastModified;
+    }
+
+    public String getETag()
+    {
+        return eTag;
+    }
+
+}
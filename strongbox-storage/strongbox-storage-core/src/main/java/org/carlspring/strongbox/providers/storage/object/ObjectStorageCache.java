@@ -0,0 +1,169 @@
+package org.carlspring.strongbox.providers.storage.object;
+
+import org.carlspring.strongbox.util.MessageDigestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Local read-through disk cache of the objects, bounded by {@link #maxSizeInBytes} and evicting the least recently
+ * used objects first.
+ * <p>
+ * A cached object is only served while its size and ETag match the object metadata, so the objects modified by other
+ * nodes are fetched again. The cache index is kept in memory, the cache directory is cleaned up on startup.
+ */
+public class ObjectStorageCache
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ObjectStorageCache.class);
+
+    private final Path basedir;
+
+    private final long maxSizeInBytes;
+
+    private final Map<String, ObjectMetadata> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long sizeInBytes;
+
+    public ObjectStorageCache(Path basedir,
+                              long maxSizeInBytes)
+        throws IOException
+    {
+        this.basedir = basedir;
+        this.maxSizeInBytes = maxSizeInBytes;
+
+        FileSystemUtils.deleteRecursively(basedir);
+        Files.createDirectories(basedir);
+    }
+
+    /**
+     * @return the cached copy of the object, or {@code null} if there is no valid one
+     */
+    public Path get(ObjectMetadata metadata)
+    {
+        synchronized (entries)
+        {
+            ObjectMetadata cached = entries.get(metadata.getKey());
+            if (cached == null)
+            {
+                return null;
+            }
+            if (cached.getSize() != metadata.getSize() || !Objects.equals(cached.getETag(), metadata.getETag()))
+            {
+                remove(metadata.getKey());
+
+                return null;
+            }
+        }
+
+        return resolve(metadata.getKey());
+    }
+
+    /**
+     * @return a new temporary file, to be {@link #put(ObjectMetadata, Path)} into the cache
+     */
+    public Path createTempFile()
+        throws IOException
+    {
+        return Files.createTempFile(basedir, UUID.randomUUID().toString(), ".tmp");
+    }
+
+    /**
+     * Moves the file with the complete content of the object into the cache.
+     */
+    public void put(ObjectMetadata metadata,
+                    Path file)
+        throws IOException
+    {
+        if (metadata.getSize() > maxSizeInBytes)
+        {
+            Files.deleteIfExists(file);
+
+            return;
+        }
+
+        synchronized (entries)
+        {
+            remove(metadata.getKey());
+
+            Path path = resolve(metadata.getKey());
+            Files.createDirectories(path.getParent());
+            Files.move(file, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            entries.put(metadata.getKey(), metadata);
+            sizeInBytes += metadata.getSize();
+
+            for (Iterator<String> iterator = entries.keySet().iterator(); sizeInBytes > maxSizeInBytes; )
+            {
+                String key = iterator.next();
+                sizeInBytes -= entries.get(key).getSize();
+                iterator.remove();
+                delete(key);
+            }
+        }
+    }
+
+    public void invalidate(String key)
+    {
+        synchronized (entries)
+        {
+            remove(key);
+        }
+    }
+
+    private void remove(String key)
+    {
+        ObjectMetadata removed = entries.remove(key);
+        if (removed != null)
+        {
+            sizeInBytes -= removed.getSize();
+            delete(key);
+        }
+    }
+
+    private void delete(String key)
+    {
+        try
+        {
+            Files.deleteIfExists(resolve(key));
+        }
+        catch (IOException e)
+        {
+            logger.warn("Failed to delete the cached [{}].", key, e);
+        }
+    }
+
+    /**
+     * The keys are hashed, since a key can be both an object and a prefix of other objects.
+     */
+    private Path resolve(String key)
+    {
+        String hash;
+        try
+        {
+            hash = MessageDigestUtils.convertToHexadecimalString(
+                    MessageDigest.getInstance("SHA-1").digest(key.getBytes(StandardCharsets.UTF_8)));
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException(e);
+        }
+
+        return basedir.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+}
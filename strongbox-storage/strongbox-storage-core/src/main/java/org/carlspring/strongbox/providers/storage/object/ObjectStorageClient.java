@@ -0,0 +1,106 @@
+package org.carlspring.strongbox.providers.storage.object;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * The subset of the S3 API the {@link ObjectStorageFileSystemProvider} is built on. The keys are {@code /} separated,
+ * the directories are only prefixes of the keys, or empty marker objects with a trailing {@code /}.
+ *
+ * @see S3ObjectStorageClient
+ * @see InMemoryObjectStorageClient
+ */
+public interface ObjectStorageClient
+{
+
+    /**
+     * @return the object metadata, or {@code null} if there is no such object
+     */
+    ObjectMetadata headObject(String key)
+        throws IOException;
+
+    /**
+     * @param offset the first byte to read
+     * @param length the number of bytes to read, or a negative number to read up to the end of the object
+     */
+    InputStream getObject(String key,
+                          long offset,
+                          long length)
+        throws IOException;
+
+    void putObject(String key,
+                   byte[] content,
+                   int length)
+        throws IOException;
+
+    /**
+     * Copies the object with a single request, which is limited to the objects up to 5 GiB, the larger ones are
+     * copied part by part with {@link #uploadPartCopy}.
+     */
+    void copyObject(String sourceKey,
+                    String targetKey)
+        throws IOException;
+
+    void deleteObject(String key)
+        throws IOException;
+
+    /**
+     * Lists a single page of the keys starting with the prefix, the keys containing the delimiter after the prefix are
+     * rolled up into the common prefixes.
+     *
+     * @param continuationToken the {@link ObjectListing#getNextContinuationToken()} of the previous page, or
+     *                          {@code null} for the first page
+     */
+    ObjectListing listObjects(String prefix,
+                              String delimiter,
+                              String continuationToken,
+                              int maxKeys)
+        throws IOException;
+
+    /**
+     * @return the upload id
+     */
+    String createMultipartUpload(String key)
+        throws IOException;
+
+    /**
+     * @param partNumber starts with {@code 1}
+     * @return the part ETag
+     */
+    String uploadPart(String key,
+                      String uploadId,
+                      int partNumber,
+                      byte[] content,
+                      int length)
+        throws IOException;
+
+    /**
+     * Copies the range of the source object as a part of the multipart upload.
+     *
+     * @param partNumber starts with {@code 1}
+     * @param offset     the first byte of the source object to copy
+     * @param length     the number of bytes to copy
+     * @return the part ETag
+     */
+    String uploadPartCopy(String sourceKey,
+                          String key,
+                          String uploadId,
+                          int partNumber,
+                          long offset,
+                          long length)
+        throws IOException;
+
+    /**
+     * @param partETags the ETags of the parts, in the part number order
+     */
+    void completeMultipartUpload(String key,
+                                 String uploadId,
+                                 List<String> partETags)
+        throws IOException;
+
+    void abortMultipartUpload(String key,
+                              String uploadId)
+        throws IOException;
+
+}
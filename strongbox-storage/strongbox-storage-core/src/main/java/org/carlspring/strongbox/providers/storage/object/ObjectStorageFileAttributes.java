@@ -0,0 +1,118 @@
+package org.carlspring.strongbox.providers.storage.object;
+
+import javax.annotation.concurrent.Immutable;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Map;
+
+@Immutable
+public class ObjectStorageFileAttributes
+        implements BasicFileAttributes
+{
+
+    private static final ObjectStorageFileAttributes DIRECTORY = new ObjectStorageFileAttributes(null, true, 0, 0);
+
+    private final String key;
+
+    private final boolean directory;
+
+    private final long size;
+
+    private final FileTime lastModifiedTime;
+
+    private ObjectStorageFileAttributes(String key,
+                                        boolean directory,
+                                        long size,
+                                        long lastModified)
+    {
+        this.key = key;
+        this.directory = directory;
+        this.size = size;
+        this.lastModifiedTime = FileTime.fromMillis(lastModified);
+    }
+
+    static ObjectStorageFileAttributes directory()
+    {
+        return DIRECTORY;
+    }
+
+    static ObjectStorageFileAttributes of(ObjectMetadata metadata)
+    {
+        return new ObjectStorageFileAttributes(metadata.getKey(), false, metadata.getSize(), metadata.getLastModified());
+    }
+
+    @Override
+    public FileTime lastModifiedTime()
+    {
+        return lastModifiedTime;
+    }
+
+    @Override
+    public FileTime lastAccessTime()
+    {
+        return lastModifiedTime;
+    }
+
+    @Override
+    public FileTime creationTime()
+    {
+        return lastModifiedTime;
+    }
+
+    @Override
+    public boolean isRegularFile()
+    {
+        return !directory;
+    }
+
+    @Override
+    public boolean isDirectory()
+    {
+        return directory;
+    }
+
+    @Override
+    public boolean isSymbolicLink()
+    {
+        return false;
+    }
+
+    @Override
+    public boolean isOther()
+    {
+        return false;
+    }
+
+    @Override
+    public long size()
+    {
+        return size;
+    }
+
+    @Override
+    public Object fileKey()
+    {
+        return key;
+    }
+
+    /**
+     * @return the attributes of the {@code basic} view, by their names
+     */
+    Map<String, Object> toMap()
+    {
+        Map<String, Object> result = new HashMap<>();
+        result.put("lastModifiedTime", lastModifiedTime());
+        result.put("lastAccessTime", lastAccessTime());
+        result.put("creationTime", creationTime());
+        result.put("size", size());
+        result.put("isRegularFile", isRegularFile());
+        result.put("isDirectory", isDirectory());
+        result.put("isSymbolicLink", isSymbolicLink());
+        result.put("isOther", isOther());
+        result.put("fileKey", fileKey());
+
+        return result;
+    }
+
+}
@@ -0,0 +1,122 @@
+package org.carlspring.strongbox.providers.storage.object;
+
+import java.nio.file.FileStore;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.UserPrincipalLookupService;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * The {@link FileSystem} of a single object storage bucket.
+ *
+ * @see ObjectStorageFileSystemProvider
+ */
+public class ObjectStorageFileSystem
+        extends FileSystem
+{
+
+    private static final String SEPARATOR = "/";
+
+    private final ObjectStorageFileSystemProvider provider;
+
+    private final String bucket;
+
+    ObjectStorageFileSystem(ObjectStorageFileSystemProvider provider,
+                            String bucket)
+    {
+        this.provider = provider;
+        this.bucket = bucket;
+    }
+
+    public String getBucket()
+    {
+        return bucket;
+    }
+
+    @Override
+    public ObjectStorageFileSystemProvider provider()
+    {
+        return provider;
+    }
+
+    @Override
+    public void close()
+    {
+        // the bucket stays open as long as the provider
+    }
+
+    @Override
+    public boolean isOpen()
+    {
+        return true;
+    }
+
+    @Override
+    public boolean isReadOnly()
+    {
+        return false;
+    }
+
+    @Override
+    public String getSeparator()
+    {
+        return SEPARATOR;
+    }
+
+    @Override
+    public Iterable<Path> getRootDirectories()
+    {
+        return Collections.singletonList(getPath(SEPARATOR));
+    }
+
+    @Override
+    public Iterable<FileStore> getFileStores()
+    {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public Set<String> supportedFileAttributeViews()
+    {
+        return Collections.singleton("basic");
+    }
+
+    @Override
+    public ObjectStoragePath getPath(String first,
+                                     String... more)
+    {
+        StringBuilder path = new StringBuilder(first);
+        for (String name : more)
+        {
+            path.append(SEPARATOR).append(name);
+        }
+
+        return new ObjectStoragePath(this, path.toString());
+    }
+
+    @Override
+    public PathMatcher getPathMatcher(String syntaxAndPattern)
+    {
+        PathMatcher pathMatcher = FileSystems.getDefault().getPathMatcher(syntaxAndPattern);
+
+        return path -> pathMatcher.matches(Paths.get(path.toString()));
+    }
+
+    @Override
+    public UserPrincipalLookupService getUserPrincipalLookupService()
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public WatchService newWatchService()
+    {
+        throw new UnsupportedOperationException();
+    }
+
+}
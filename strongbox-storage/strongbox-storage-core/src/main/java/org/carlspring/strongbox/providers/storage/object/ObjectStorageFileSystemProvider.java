@@ -0,0 +1,789 @@
+package org.carlspring.strongbox.providers.storage.object;
+
+import static org.carlspring.strongbox.providers.storage.object.ObjectStoragePath.toObjectStoragePath;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.AccessMode;
+import java.nio.file.CopyOption;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.DirectoryStream.Filter;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileStore;
+import java.nio.file.FileSystemAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.FileAttributeView;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.spi.FileSystemProvider;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * {@link FileSystemProvider} over an S3 compatible object storage bucket:
+ * <ul>
+ * <li>the files are the objects, keyed by their absolute paths without the leading {@code /}</li>
+ * <li>the directories are the key prefixes, {@link #createDirectory} writes an empty {@code <key>/} marker object so
+ * that the empty directories exist as well</li>
+ * <li>the objects are read with ranged GET requests and cached locally by the {@link ObjectStorageCache}</li>
+ * <li>the objects are written with parallel multipart uploads, see {@link ObjectStorageWriteChannel}</li>
+ * <li>the directory streams page through the prefix listing, the listed attributes spare the metadata requests</li>
+ * </ul>
+ * The moves are copies followed by deletes, so {@link StandardCopyOption#ATOMIC_MOVE} is accepted but not atomic. The
+ * objects too large to be copied with a single request are copied part by part, in parallel on the upload executor.
+ */
+public class ObjectStorageFileSystemProvider
+        extends FileSystemProvider
+{
+
+    public static final String SCHEME = "s3";
+
+    private static final String DELIMITER = "/";
+
+    private static final int LIST_PAGE_SIZE = 1000;
+
+    /**
+     * The largest object copied with a single request, S3 doesn't copy the objects over 5 GiB at once.
+     */
+    static final long MAX_COPY_OBJECT_SIZE = 5L * 1024 * 1024 * 1024;
+
+    static final long COPY_PART_SIZE = 512L * 1024 * 1024;
+
+    private final ObjectStorageClient client;
+
+    private final ObjectStorageCache cache;
+
+    private final ExecutorService uploadExecutor;
+
+    private final int partSize;
+
+    private final int maxPendingParts;
+
+    private final long maxCopyObjectSize;
+
+    private final long copyPartSize;
+
+    private final ObjectStorageFileSystem fileSystem;
+
+    /**
+     * @param cache           the local cache, or {@code null} to read every object from the storage
+     * @param uploadExecutor  uploads the parts of the multipart uploads
+     * @param partSize        the size of the multipart upload parts, the smaller objects are written at once
+     * @param maxPendingParts the number of parts of a single upload buffered in memory before the writes block
+     */
+    public ObjectStorageFileSystemProvider(ObjectStorageClient client,
+                                           String bucket,
+                                           ObjectStorageCache cache,
+                                           ExecutorService uploadExecutor,
+                                           int partSize,
+                                           int maxPendingParts)
+    {
+        this(client, bucket, cache, uploadExecutor, partSize, maxPendingParts, MAX_COPY_OBJECT_SIZE, COPY_PART_SIZE);
+    }
+
+    /**
+     * @param maxCopyObjectSize the size of the largest object copied with a single request
+     * @param copyPartSize      the size of the parts of the larger objects
+     */
+    ObjectStorageFileSystemProvider(ObjectStorageClient client,
+                                    String bucket,
+                                    ObjectStorageCache cache,
+                                    ExecutorService uploadExecutor,
+                                    int partSize,
+                                    int maxPendingParts,
+                                    long maxCopyObjectSize,
+                                    long copyPartSize)
+    {
+        this.client = client;
+        this.cache = cache;
+        this.uploadExecutor = uploadExecutor;
+        this.partSize = partSize;
+        this.maxPendingParts = maxPendingParts;
+        this.maxCopyObjectSize = maxCopyObjectSize;
+        this.copyPartSize = copyPartSize;
+        this.fileSystem = new ObjectStorageFileSystem(this, bucket);
+    }
+
+    public ObjectStorageFileSystem getFileSystem()
+    {
+        return fileSystem;
+    }
+
+    @Override
+    public String getScheme()
+    {
+        return SCHEME;
+    }
+
+    @Override
+    public ObjectStorageFileSystem newFileSystem(URI uri,
+                                                 Map<String, ?> env)
+    {
+        throw new FileSystemAlreadyExistsException(uri.toString());
+    }
+
+    @Override
+    public ObjectStorageFileSystem getFileSystem(URI uri)
+    {
+        return fileSystem;
+    }
+
+    @Override
+    public Path getPath(URI uri)
+    {
+        return fileSystem.getPath(uri.getPath());
+    }
+
+    @Override
+    public SeekableByteChannel newByteChannel(Path path,
+                                              Set<? extends OpenOption> options,
+                                              FileAttribute<?>... attrs)
+        throws IOException
+    {
+        ObjectStoragePath objectStoragePath = toObjectStoragePath(path);
+        String key = objectStoragePath.toKey();
+
+        if (!options.contains(StandardOpenOption.WRITE) && !options.contains(StandardOpenOption.APPEND))
+        {
+            ObjectMetadata metadata = getObjectMetadata(key);
+            Path cached = cache == null ? null : cache.get(metadata);
+            if (cached != null)
+            {
+                try
+                {
+                    return FileChannel.open(cached, StandardOpenOption.READ);
+                }
+                catch (NoSuchFileException e)
+                {
+                    // Evicted in the meantime.
+                }
+            }
+
+            return new ObjectStorageReadChannel(client, metadata, cache);
+        }
+
+        if (options.contains(StandardOpenOption.APPEND))
+        {
+            throw new UnsupportedOperationException("The objects can't be appended to.");
+        }
+        if (key.isEmpty())
+        {
+            throw new FileSystemException(path.toString(), null, "Is a directory");
+        }
+        if (options.contains(StandardOpenOption.CREATE_NEW) && client.headObject(key) != null)
+        {
+            throw new FileAlreadyExistsException(path.toString());
+        }
+        if (!options.contains(StandardOpenOption.CREATE) && !options.contains(StandardOpenOption.CREATE_NEW))
+        {
+            getObjectMetadata(key);
+        }
+
+        invalidate(objectStoragePath);
+
+        return new ObjectStorageWriteChannel(client, key, partSize, maxPendingParts, uploadExecutor,
+                                             () -> invalidate(objectStoragePath));
+    }
+
+    /**
+     * The object storage has no file channels: only the locally cached objects can be opened for reading, the
+     * {@link UnsupportedOperationException} makes the callers fall back to the {@link #newByteChannel}.
+     */
+    @Override
+    public FileChannel newFileChannel(Path path,
+                                      Set<? extends OpenOption> options,
+                                      FileAttribute<?>... attrs)
+        throws IOException
+    {
+        if (cache == null || options.contains(StandardOpenOption.WRITE) || options.contains(StandardOpenOption.APPEND))
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        Path cached = cache.get(getObjectMetadata(toObjectStoragePath(path).toKey()));
+        if (cached == null)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        return FileChannel.open(cached, StandardOpenOption.READ);
+    }
+
+    @Override
+    public DirectoryStream<Path> newDirectoryStream(Path dir,
+                                                    Filter<? super Path> filter)
+        throws IOException
+    {
+        ObjectStoragePath directory = toObjectStoragePath(dir);
+        String key = directory.toKey();
+        String prefix = key.isEmpty() ? key : key + DELIMITER;
+
+        ObjectListing firstPage = client.listObjects(prefix, DELIMITER, null, LIST_PAGE_SIZE);
+        if (firstPage.isEmpty() && !key.isEmpty())
+        {
+            if (client.headObject(key) != null)
+            {
+                throw new NotDirectoryException(dir.toString());
+            }
+
+            throw new NoSuchFileException(dir.toString());
+        }
+
+        return new ObjectStorageDirectoryStream(directory, prefix, firstPage, filter);
+    }
+
+    @Override
+    public void createDirectory(Path dir,
+                                FileAttribute<?>... attrs)
+        throws IOException
+    {
+        String key = toObjectStoragePath(dir).toKey();
+        if (key.isEmpty() || exists(key))
+        {
+            throw new FileAlreadyExistsException(dir.toString());
+        }
+
+        // The parent directories are implied by the key prefix.
+        client.putObject(key + DELIMITER, new byte[0], 0);
+    }
+
+    @Override
+    public void delete(Path path)
+        throws IOException
+    {
+        ObjectStoragePath objectStoragePath = toObjectStoragePath(path);
+        String key = objectStoragePath.toKey();
+
+        if (readAttributes(objectStoragePath).isRegularFile())
+        {
+            client.deleteObject(key);
+            invalidate(objectStoragePath);
+
+            return;
+        }
+        if (key.isEmpty())
+        {
+            throw new FileSystemException(path.toString(), null, "Can't delete the root directory");
+        }
+
+        String prefix = key + DELIMITER;
+        ObjectListing listing = client.listObjects(prefix, DELIMITER, null, 2);
+        if (!listing.getCommonPrefixes().isEmpty() ||
+            listing.getObjects().stream().anyMatch(o -> !o.getKey().equals(prefix)))
+        {
+            throw new DirectoryNotEmptyException(path.toString());
+        }
+
+        client.deleteObject(prefix);
+        objectStoragePath.setListedAttributes(null);
+    }
+
+    @Override
+    public void copy(Path source,
+                     Path target,
+                     CopyOption... options)
+        throws IOException
+    {
+        ObjectStoragePath sourcePath = toObjectStoragePath(source);
+        ObjectStoragePath targetPath = toObjectStoragePath(target);
+
+        ObjectStorageFileAttributes attributes = readAttributes(sourcePath);
+        prepareTarget(targetPath, options);
+
+        if (attributes.isDirectory())
+        {
+            client.putObject(targetPath.toKey() + DELIMITER, new byte[0], 0);
+        }
+        else
+        {
+            copyObject(sourcePath.toKey(), attributes.size(), targetPath.toKey());
+        }
+    }
+
+    @Override
+    public void move(Path source,
+                     Path target,
+                     CopyOption... options)
+        throws IOException
+    {
+        ObjectStoragePath sourcePath = toObjectStoragePath(source);
+        ObjectStoragePath targetPath = toObjectStoragePath(target);
+        String sourceKey = sourcePath.toKey();
+        String targetKey = targetPath.toKey();
+
+        ObjectStorageFileAttributes attributes = readAttributes(sourcePath);
+        if (sourceKey.equals(targetKey))
+        {
+            return;
+        }
+        prepareTarget(targetPath, options);
+
+        if (!attributes.isDirectory())
+        {
+            copyObject(sourceKey, attributes.size(), targetKey);
+            client.deleteObject(sourceKey);
+            invalidate(sourcePath);
+
+            return;
+        }
+
+        // Unlike the local directories, the prefixes are moved with everything under them.
+        String sourcePrefix = sourceKey + DELIMITER;
+        String continuationToken = null;
+        List<ObjectMetadata> objects = new ArrayList<>();
+        do
+        {
+            ObjectListing listing = client.listObjects(sourcePrefix, null, continuationToken, LIST_PAGE_SIZE);
+            objects.addAll(listing.getObjects());
+            continuationToken = listing.getNextContinuationToken();
+        }
+        while (continuationToken != null);
+
+        for (ObjectMetadata object : objects)
+        {
+            copyObject(object.getKey(),
+                       object.getSize(),
+                       targetKey + DELIMITER + object.getKey().substring(sourcePrefix.length()));
+        }
+        for (ObjectMetadata object : objects)
+        {
+            client.deleteObject(object.getKey());
+            if (cache != null)
+            {
+                cache.invalidate(object.getKey());
+            }
+        }
+        sourcePath.setListedAttributes(null);
+    }
+
+    /**
+     * Copies the object with a single request, or part by part with a multipart upload if it's too large for a single
+     * request. The multipart upload is aborted if any of the parts fails.
+     */
+    private void copyObject(String sourceKey,
+                            long size,
+                            String targetKey)
+        throws IOException
+    {
+        if (size <= maxCopyObjectSize)
+        {
+            client.copyObject(sourceKey, targetKey);
+
+            return;
+        }
+
+        String uploadId = client.createMultipartUpload(targetKey);
+        List<Future<String>> parts = new ArrayList<>();
+        try
+        {
+            for (long offset = 0; offset < size; offset += copyPartSize)
+            {
+                int partNumber = parts.size() + 1;
+                long partOffset = offset;
+                long partLength = Math.min(copyPartSize, size - offset);
+
+                parts.add(uploadExecutor.submit(() -> client.uploadPartCopy(sourceKey, targetKey, uploadId,
+                                                                            partNumber, partOffset, partLength)));
+            }
+
+            List<String> partETags = new ArrayList<>();
+            for (Future<String> part : parts)
+            {
+                partETags.add(part.get());
+            }
+
+            client.completeMultipartUpload(targetKey, uploadId, partETags);
+        }
+        catch (IOException | InterruptedException | ExecutionException e)
+        {
+            parts.forEach(part -> part.cancel(true));
+            try
+            {
+                client.abortMultipartUpload(targetKey, uploadId);
+            }
+            catch (IOException abortException)
+            {
+                e.addSuppressed(abortException);
+            }
+
+            if (e instanceof InterruptedException)
+            {
+                Thread.currentThread().interrupt();
+
+                throw new InterruptedIOException(String.format("Copy of [%s] interrupted.", sourceKey));
+            }
+            if (e instanceof IOException)
+            {
+                throw (IOException) e;
+            }
+            if (e.getCause() instanceof IOException)
+            {
+                throw (IOException) e.getCause();
+            }
+
+            throw new IOException(String.format("Failed to copy [%s] to [%s].", sourceKey, targetKey), e.getCause());
+        }
+    }
+
+    private void prepareTarget(ObjectStoragePath target,
+                               CopyOption... options)
+        throws IOException
+    {
+        if (!exists(target.toKey()))
+        {
+            return;
+        }
+        if (!Arrays.asList(options).contains(StandardCopyOption.REPLACE_EXISTING))
+        {
+            throw new FileAlreadyExistsException(target.toString());
+        }
+
+        delete(target);
+    }
+
+    @Override
+    public boolean isSameFile(Path path,
+                              Path path2)
+    {
+        return path2 instanceof ObjectStoragePath &&
+               toObjectStoragePath(path).toKey().equals(toObjectStoragePath(path2).toKey());
+    }
+
+    @Override
+    public boolean isHidden(Path path)
+    {
+        return false;
+    }
+
+    @Override
+    public FileStore getFileStore(Path path)
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void checkAccess(Path path,
+                            AccessMode... modes)
+        throws IOException
+    {
+        readAttributes(toObjectStoragePath(path));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <V extends FileAttributeView> V getFileAttributeView(Path path,
+                                                                Class<V> type,
+                                                                LinkOption... options)
+    {
+        if (type != BasicFileAttributeView.class)
+        {
+            return null;
+        }
+
+        ObjectStoragePath objectStoragePath = toObjectStoragePath(path);
+
+        return (V) new BasicFileAttributeView()
+        {
+
+            @Override
+            public String name()
+            {
+                return "basic";
+            }
+
+            @Override
+            public BasicFileAttributes readAttributes()
+                throws IOException
+            {
+                return ObjectStorageFileSystemProvider.this.readAttributes(objectStoragePath);
+            }
+
+            @Override
+            public void setTimes(FileTime lastModifiedTime,
+                                 FileTime lastAccessTime,
+                                 FileTime createTime)
+            {
+                throw new UnsupportedOperationException();
+            }
+
+        };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <A extends BasicFileAttributes> A readAttributes(Path path,
+                                                            Class<A> type,
+                                                            LinkOption... options)
+        throws IOException
+    {
+        if (!type.isAssignableFrom(ObjectStorageFileAttributes.class))
+        {
+            throw new UnsupportedOperationException(type.getName());
+        }
+
+        return (A) readAttributes(toObjectStoragePath(path));
+    }
+
+    @Override
+    public Map<String, Object> readAttributes(Path path,
+                                              String attributes,
+                                              LinkOption... options)
+        throws IOException
+    {
+        int viewIndex = attributes.indexOf(':');
+        if (viewIndex >= 0 && !"basic".equals(attributes.substring(0, viewIndex)))
+        {
+            throw new UnsupportedOperationException(attributes);
+        }
+
+        Map<String, Object> all = readAttributes(toObjectStoragePath(path)).toMap();
+        String names = attributes.substring(viewIndex + 1);
+        if ("*".equals(names))
+        {
+            return all;
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        for (String name : names.split(","))
+        {
+            if (!all.containsKey(name))
+            {
+                throw new IllegalArgumentException(name);
+            }
+            result.put(name, all.get(name));
+        }
+
+        return result;
+    }
+
+    @Override
+    public void setAttribute(Path path,
+                             String attribute,
+                             Object value,
+                             LinkOption... options)
+    {
+        throw new UnsupportedOperationException(attribute);
+    }
+
+    private ObjectStorageFileAttributes readAttributes(ObjectStoragePath path)
+        throws IOException
+    {
+        ObjectStorageFileAttributes listedAttributes = path.getListedAttributes();
+        if (listedAttributes != null)
+        {
+            return listedAttributes;
+        }
+
+        String key = path.toKey();
+        if (key.isEmpty())
+        {
+            return ObjectStorageFileAttributes.directory();
+        }
+
+        ObjectMetadata metadata = client.headObject(key);
+        if (metadata != null)
+        {
+            return ObjectStorageFileAttributes.of(metadata);
+        }
+        // Either the marker object or any object under the prefix.
+        if (!client.listObjects(key + DELIMITER, DELIMITER, null, 1).isEmpty())
+        {
+            return ObjectStorageFileAttributes.directory();
+        }
+
+        throw new NoSuchFileException(path.toString());
+    }
+
+    private boolean exists(String key)
+        throws IOException
+    {
+        return key.isEmpty() || client.headObject(key) != null ||
+               !client.listObjects(key + DELIMITER, DELIMITER, null, 1).isEmpty();
+    }
+
+    private ObjectMetadata getObjectMetadata(String key)
+        throws IOException
+    {
+        ObjectMetadata metadata = key.isEmpty() ? null : client.headObject(key);
+        if (metadata == null)
+        {
+            throw new NoSuchFileException(DELIMITER + key);
+        }
+
+        return metadata;
+    }
+
+    private void invalidate(ObjectStoragePath path)
+    {
+        path.setListedAttributes(null);
+        if (cache != null)
+        {
+            cache.invalidate(path.toKey());
+        }
+    }
+
+    private class ObjectStorageDirectoryStream
+            implements DirectoryStream<Path>
+    {
+
+        private final ObjectStoragePath directory;
+
+        private final String prefix;
+
+        private final Filter<? super Path> filter;
+
+        private ObjectListing page;
+
+        private boolean iterated;
+
+        private boolean closed;
+
+        private ObjectStorageDirectoryStream(ObjectStoragePath directory,
+                                             String prefix,
+                                             ObjectListing firstPage,
+                                             Filter<? super Path> filter)
+        {
+            this.directory = directory;
+            this.prefix = prefix;
+            this.page = firstPage;
+            this.filter = filter;
+        }
+
+        @Override
+        public synchronized Iterator<Path> iterator()
+        {
+            if (closed || iterated)
+            {
+                throw new IllegalStateException("The directory stream is closed or already iterated.");
+            }
+            iterated = true;
+
+            return new Iterator<Path>()
+            {
+
+                private Iterator<ObjectStoragePath> entries = toPaths(page).iterator();
+
+                private Path next;
+
+                @Override
+                public boolean hasNext()
+                {
+                    if (next != null)
+                    {
+                        return true;
+                    }
+
+                    try
+                    {
+                        while (!closed)
+                        {
+                            while (entries.hasNext())
+                            {
+                                ObjectStoragePath entry = entries.next();
+                                if (filter == null || filter.accept(entry))
+                                {
+                                    next = entry;
+
+                                    return true;
+                                }
+                            }
+
+                            String continuationToken = page.getNextContinuationToken();
+                            if (continuationToken == null)
+                            {
+                                return false;
+                            }
+
+                            page = client.listObjects(prefix, DELIMITER, continuationToken, LIST_PAGE_SIZE);
+                            entries = toPaths(page).iterator();
+                        }
+                    }
+                    catch (IOException e)
+                    {
+                        throw new DirectoryIteratorException(e);
+                    }
+
+                    return false;
+                }
+
+                @Override
+                public Path next()
+                {
+                    if (!hasNext())
+                    {
+                        throw new NoSuchElementException();
+                    }
+
+                    Path result = next;
+                    next = null;
+
+                    return result;
+                }
+
+            };
+        }
+
+        private List<ObjectStoragePath> toPaths(ObjectListing listing)
+        {
+            if (listing.isEmpty())
+            {
+                return Collections.emptyList();
+            }
+
+            List<ObjectStoragePath> result = new ArrayList<>();
+            for (String commonPrefix : listing.getCommonPrefixes())
+            {
+                String name = commonPrefix.substring(prefix.length(), commonPrefix.length() - DELIMITER.length());
+                ObjectStoragePath entry = (ObjectStoragePath) directory.resolve(name);
+                entry.setListedAttributes(ObjectStorageFileAttributes.directory());
+                result.add(entry);
+            }
+            for (ObjectMetadata object : listing.getObjects())
+            {
+                // The marker object of the directory itself.
+                if (object.getKey().equals(prefix))
+                {
+                    continue;
+                }
+
+                ObjectStoragePath entry = (ObjectStoragePath) directory.resolve(object.getKey().substring(prefix.length()));
+                entry.setListedAttributes(ObjectStorageFileAttributes.of(object));
+                result.add(entry);
+            }
+
+            return result;
+        }
+
+        @Override
+        public synchronized void close()
+        {
+            closed = true;
+        }
+
+    }
+
+}
@@ -0,0 +1,405 @@
+package org.carlspring.strongbox.providers.storage.object;
+
+import java.io.File;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.ProviderMismatchException;
+import java.nio.file.WatchEvent.Kind;
+import java.nio.file.WatchEvent.Modifier;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * {@code /} separated {@link Path} of the {@link ObjectStorageFileSystem}, the absolute paths without the leading
+ * {@code /} are the object keys.
+ */
+public class ObjectStoragePath
+        implements Path
+{
+
+    private static final String SEPARATOR = "/";
+
+    private final ObjectStorageFileSystem fileSystem;
+
+    private final String path;
+
+    private final String[] names;
+
+    /**
+     * The attributes of the path listed by the {@link ObjectStorageFileSystemProvider#newDirectoryStream}, which spare
+     * the metadata request of every listed path.
+     */
+    private volatile ObjectStorageFileAttributes listedAttributes;
+
+    ObjectStoragePath(ObjectStorageFileSystem fileSystem,
+                      String path)
+    {
+        this.fileSystem = fileSystem;
+
+        String normalized = path.replaceAll("/{2,}", SEPARATOR);
+        if (normalized.length() > 1 && normalized.endsWith(SEPARATOR))
+        {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        this.path = normalized;
+        this.names = Arrays.stream(normalized.split(SEPARATOR)).filter(n -> !n.isEmpty()).toArray(String[]::new);
+    }
+
+    ObjectStorageFileAttributes getListedAttributes()
+    {
+        return listedAttributes;
+    }
+
+    void setListedAttributes(ObjectStorageFileAttributes listedAttributes)
+    {
+        this.listedAttributes = listedAttributes;
+    }
+
+    /**
+     * @return the object key, which is empty for the root
+     */
+    String toKey()
+    {
+        return toAbsolutePath().normalize().path.substring(1);
+    }
+
+    @Override
+    public ObjectStorageFileSystem getFileSystem()
+    {
+        return fileSystem;
+    }
+
+    @Override
+    public boolean isAbsolute()
+    {
+        return path.startsWith(SEPARATOR);
+    }
+
+    @Override
+    public Path getRoot()
+    {
+        return isAbsolute() ? new ObjectStoragePath(fileSystem, SEPARATOR) : null;
+    }
+
+    @Override
+    public Path getFileName()
+    {
+        return names.length == 0 ? null : new ObjectStoragePath(fileSystem, names[names.length - 1]);
+    }
+
+    @Override
+    public Path getParent()
+    {
+        if (names.length == 0)
+        {
+            return null;
+        }
+        if (names.length == 1)
+        {
+            return getRoot();
+        }
+
+        return join(isAbsolute(), Arrays.asList(names).subList(0, names.length - 1));
+    }
+
+    @Override
+    public int getNameCount()
+    {
+        return names.length;
+    }
+
+    @Override
+    public Path getName(int index)
+    {
+        if (index < 0 || index >= names.length)
+        {
+            throw new IllegalArgumentException(String.valueOf(index));
+        }
+
+        return new ObjectStoragePath(fileSystem, names[index]);
+    }
+
+    @Override
+    public Path subpath(int beginIndex,
+                        int endIndex)
+    {
+        if (beginIndex < 0 || endIndex > names.length || beginIndex >= endIndex)
+        {
+            throw new IllegalArgumentException(String.format("[%s, %s)", beginIndex, endIndex));
+        }
+
+        return join(false, Arrays.asList(names).subList(beginIndex, endIndex));
+    }
+
+    @Override
+    public boolean startsWith(Path other)
+    {
+        if (!(other instanceof ObjectStoragePath))
+        {
+            return false;
+        }
+
+        ObjectStoragePath that = (ObjectStoragePath) other;
+        if (that.isAbsolute() != isAbsolute() || that.names.length > names.length)
+        {
+            return false;
+        }
+        for (int i = 0; i < that.names.length; i++)
+        {
+            if (!names[i].equals(that.names[i]))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean startsWith(String other)
+    {
+        return startsWith(new ObjectStoragePath(fileSystem, other));
+    }
+
+    @Override
+    public boolean endsWith(Path other)
+    {
+        if (!(other instanceof ObjectStoragePath))
+        {
+            return false;
+        }
+
+        ObjectStoragePath that = (ObjectStoragePath) other;
+        if (that.isAbsolute())
+        {
+            return equals(that);
+        }
+        if (that.names.length > names.length)
+        {
+            return false;
+        }
+        for (int i = 1; i <= that.names.length; i++)
+        {
+            if (!names[names.length - i].equals(that.names[that.names.length - i]))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean endsWith(String other)
+    {
+        return endsWith(new ObjectStoragePath(fileSystem, other));
+    }
+
+    @Override
+    public ObjectStoragePath normalize()
+    {
+        LinkedList<String> result = new LinkedList<>();
+        for (String name : names)
+        {
+            if (".".equals(name))
+            {
+                continue;
+            }
+            if ("..".equals(name) && !result.isEmpty() && !"..".equals(result.getLast()))
+            {
+                result.removeLast();
+                continue;
+            }
+            if ("..".equals(name) && isAbsolute())
+            {
+                continue;
+            }
+
+            result.add(name);
+        }
+
+        return join(isAbsolute(), result);
+    }
+
+    @Override
+    public Path resolve(Path other)
+    {
+        ObjectStoragePath that = toObjectStoragePath(other);
+        if (that.isAbsolute())
+        {
+            return that;
+        }
+        if (that.path.isEmpty())
+        {
+            return this;
+        }
+        if (path.isEmpty())
+        {
+            return that;
+        }
+
+        return new ObjectStoragePath(fileSystem, path + SEPARATOR + that.path);
+    }
+
+    @Override
+    public Path resolve(String other)
+    {
+        return resolve(new ObjectStoragePath(fileSystem, other));
+    }
+
+    @Override
+    public Path resolveSibling(Path other)
+    {
+        Path parent = getParent();
+
+        return parent == null ? other : parent.resolve(other);
+    }
+
+    @Override
+    public Path resolveSibling(String other)
+    {
+        return resolveSibling(new ObjectStoragePath(fileSystem, other));
+    }
+
+    @Override
+    public Path relativize(Path other)
+    {
+        ObjectStoragePath that = toObjectStoragePath(other);
+        if (that.isAbsolute() != isAbsolute())
+        {
+            throw new IllegalArgumentException(String.format("Can't relativize [%s] against [%s].", other, this));
+        }
+
+        int common = 0;
+        while (common < names.length && common < that.names.length && names[common].equals(that.names[common]))
+        {
+            common++;
+        }
+
+        List<String> result = new ArrayList<>();
+        for (int i = common; i < names.length; i++)
+        {
+            result.add("..");
+        }
+        result.addAll(Arrays.asList(that.names).subList(common, that.names.length));
+
+        return join(false, result);
+    }
+
+    @Override
+    public URI toUri()
+    {
+        try
+        {
+            return new URI(fileSystem.provider().getScheme(),
+                           fileSystem.getBucket(),
+                           toAbsolutePath().path,
+                           null,
+                           null);
+        }
+        catch (URISyntaxException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public ObjectStoragePath toAbsolutePath()
+    {
+        return isAbsolute() ? this : new ObjectStoragePath(fileSystem, SEPARATOR + path);
+    }
+
+    @Override
+    public Path toRealPath(LinkOption... options)
+    {
+        return toAbsolutePath().normalize();
+    }
+
+    @Override
+    public File toFile()
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public WatchKey register(WatchService watcher,
+                             Kind<?>[] events,
+                             Modifier... modifiers)
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public WatchKey register(WatchService watcher,
+                             Kind<?>... events)
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<Path> iterator()
+    {
+        return Arrays.stream(names).map(n -> (Path) new ObjectStoragePath(fileSystem, n)).iterator();
+    }
+
+    @Override
+    public int compareTo(Path other)
+    {
+        return path.compareTo(toObjectStoragePath(other).path);
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj)
+        {
+            return true;
+        }
+        if (!(obj instanceof ObjectStoragePath))
+        {
+            return false;
+        }
+
+        ObjectStoragePath that = (ObjectStoragePath) obj;
+
+        return fileSystem.equals(that.fileSystem) && path.equals(that.path);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return path.hashCode();
+    }
+
+    @Override
+    public String toString()
+    {
+        return path;
+    }
+
+    private ObjectStoragePath join(boolean absolute,
+                                   List<String> pathNames)
+    {
+        return new ObjectStoragePath(fileSystem,
+                                     (absolute ? SEPARATOR : "") + pathNames.stream().collect(Collectors.joining(SEPARATOR)));
+    }
+
+    static ObjectStoragePath toObjectStoragePath(Path path)
+    {
+        if (!(path instanceof ObjectStoragePath))
+        {
+            throw new ProviderMismatchException(String.valueOf(path));
+        }
+
+        return (ObjectStoragePath) path;
+    }
+
+}
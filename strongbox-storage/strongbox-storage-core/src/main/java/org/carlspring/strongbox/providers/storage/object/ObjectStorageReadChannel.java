@@ -0,0 +1,228 @@
+package org.carlspring.strongbox.providers.storage.object;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads an object with ranged GET requests: the request is sent lazily, from the current position, so that changing
+ * the {@link #position(long)} before reading downloads only the requested range.
+ * <p>
+ * An object read sequentially from the beginning to the end is stored in the {@link ObjectStorageCache} along the way.
+ */
+class ObjectStorageReadChannel
+        implements SeekableByteChannel
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ObjectStorageReadChannel.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ObjectStorageClient client;
+
+    private final ObjectMetadata metadata;
+
+    private final ObjectStorageCache cache;
+
+    private InputStream stream;
+
+    private long streamPosition;
+
+    private long position;
+
+    private Path cacheFile;
+
+    private OutputStream cacheStream;
+
+    private boolean open = true;
+
+    ObjectStorageReadChannel(ObjectStorageClient client,
+                             ObjectMetadata metadata,
+                             ObjectStorageCache cache)
+    {
+        this.client = client;
+        this.metadata = metadata;
+        this.cache = cache;
+    }
+
+    @Override
+    public synchronized int read(ByteBuffer dst)
+        throws IOException
+    {
+        ensureOpen();
+
+        if (position >= metadata.getSize())
+        {
+            return -1;
+        }
+        if (stream == null || streamPosition != position)
+        {
+            openStream();
+        }
+
+        byte[] buffer = new byte[Math.min(dst.remaining(), BUFFER_SIZE)];
+        int length = stream.read(buffer);
+        if (length < 0)
+        {
+            throw new IOException(String.format("Unexpected end of [%s] at [%s] of [%s] bytes.",
+                                                metadata.getKey(), position, metadata.getSize()));
+        }
+
+        dst.put(buffer, 0, length);
+        position += length;
+        streamPosition += length;
+
+        if (cacheStream != null)
+        {
+            cacheStream.write(buffer, 0, length);
+            if (position == metadata.getSize())
+            {
+                cacheStream.close();
+                cacheStream = null;
+                cache.put(metadata, cacheFile);
+                cacheFile = null;
+            }
+        }
+
+        return length;
+    }
+
+    private void openStream()
+        throws IOException
+    {
+        closeStream();
+        discardCacheFile();
+
+        stream = client.getObject(metadata.getKey(), position, -1);
+        streamPosition = position;
+
+        if (cache != null && position == 0)
+        {
+            cacheFile = cache.createTempFile();
+            cacheStream = Files.newOutputStream(cacheFile);
+        }
+    }
+
+    @Override
+    public int write(ByteBuffer src)
+    {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public synchronized long position()
+        throws IOException
+    {
+        ensureOpen();
+
+        return position;
+    }
+
+    @Override
+    public synchronized SeekableByteChannel position(long newPosition)
+        throws IOException
+    {
+        ensureOpen();
+        if (newPosition < 0)
+        {
+            throw new IllegalArgumentException(String.valueOf(newPosition));
+        }
+
+        position = newPosition;
+
+        return this;
+    }
+
+    @Override
+    public long size()
+        throws IOException
+    {
+        ensureOpen();
+
+        return metadata.getSize();
+    }
+
+    @Override
+    public SeekableByteChannel truncate(long size)
+    {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public synchronized boolean isOpen()
+    {
+        return open;
+    }
+
+    @Override
+    public synchronized void close()
+        throws IOException
+    {
+        if (!open)
+        {
+            return;
+        }
+
+        open = false;
+        try
+        {
+            closeStream();
+        }
+        finally
+        {
+            discardCacheFile();
+        }
+    }
+
+    private void ensureOpen()
+        throws ClosedChannelException
+    {
+        if (!open)
+        {
+            throw new ClosedChannelException();
+        }
+    }
+
+    private void closeStream()
+        throws IOException
+    {
+        if (stream != null)
+        {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    private void discardCacheFile()
+    {
+        if (cacheFile == null)
+        {
+            return;
+        }
+
+        try
+        {
+            cacheStream.close();
+            Files.deleteIfExists(cacheFile);
+        }
+        catch (IOException e)
+        {
+            logger.warn("Failed to delete [{}].", cacheFile, e);
+        }
+        finally
+        {
+            cacheStream = null;
+            cacheFile = null;
+        }
+    }
+
+}
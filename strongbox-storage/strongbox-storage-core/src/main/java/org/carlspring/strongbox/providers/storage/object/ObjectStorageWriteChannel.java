@@ -0,0 +1,297 @@
+package org.carlspring.strongbox.providers.storage.object;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonReadableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes an object, the content is buffered up to the part size: the objects which fit into a single part are written
+ * with a single PUT request, the larger ones with a multipart upload, which uploads the parts in parallel on the upload
+ * executor while the next part is being written.
+ * <p>
+ * The buffer grows with the content, so that the small objects don't take a whole part of memory each. Once a
+ * multipart upload has started, the buffers of the next parts are allocated whole.
+ * <p>
+ * The object is only visible once the channel has been closed, the multipart upload is aborted if any of the parts
+ * fails.
+ */
+class ObjectStorageWriteChannel
+        implements SeekableByteChannel
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ObjectStorageWriteChannel.class);
+
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+    private final ObjectStorageClient client;
+
+    private final String key;
+
+    private final int partSize;
+
+    private final int maxPendingParts;
+
+    private final ExecutorService uploadExecutor;
+
+    private final Runnable onClose;
+
+    private final List<Future<String>> parts = new ArrayList<>();
+
+    private byte[] buffer;
+
+    private int bufferLength;
+
+    private String uploadId;
+
+    private long position;
+
+    private boolean open = true;
+
+    /**
+     * @param maxPendingParts the number of parts to be uploaded, which are buffered in memory, before the writes block
+     * @param onClose         invoked once the channel has been closed, whether the object has been written or not
+     */
+    ObjectStorageWriteChannel(ObjectStorageClient client,
+                              String key,
+                              int partSize,
+                              int maxPendingParts,
+                              ExecutorService uploadExecutor,
+                              Runnable onClose)
+    {
+        this.client = client;
+        this.key = key;
+        this.partSize = partSize;
+        this.maxPendingParts = maxPendingParts;
+        this.uploadExecutor = uploadExecutor;
+        this.onClose = onClose;
+    }
+
+    @Override
+    public synchronized int write(ByteBuffer src)
+        throws IOException
+    {
+        ensureOpen();
+
+        int length = src.remaining();
+        while (src.hasRemaining())
+        {
+            int chunk = Math.min(src.remaining(), partSize - bufferLength);
+            ensureCapacity(bufferLength + chunk);
+            src.get(buffer, bufferLength, chunk);
+            bufferLength += chunk;
+
+            if (bufferLength == partSize)
+            {
+                uploadPart();
+            }
+        }
+        position += length;
+
+        return length;
+    }
+
+    private void ensureCapacity(int capacity)
+    {
+        if (buffer != null && buffer.length >= capacity)
+        {
+            return;
+        }
+
+        if (uploadId != null)
+        {
+            buffer = new byte[partSize];
+        }
+        else if (buffer == null)
+        {
+            buffer = new byte[Math.min(partSize, Math.max(capacity, INITIAL_BUFFER_SIZE))];
+        }
+        else
+        {
+            buffer = Arrays.copyOf(buffer, (int) Math.min(partSize, Math.max(capacity, buffer.length * 2L)));
+        }
+    }
+
+    private void uploadPart()
+        throws IOException
+    {
+        try
+        {
+            if (uploadId == null)
+            {
+                uploadId = client.createMultipartUpload(key);
+            }
+            if (parts.size() >= maxPendingParts)
+            {
+                parts.get(parts.size() - maxPendingParts).get();
+            }
+        }
+        catch (IOException | InterruptedException | ExecutionException e)
+        {
+            abort();
+
+            throw toIOException(e);
+        }
+
+        String partUploadId = uploadId;
+        int partNumber = parts.size() + 1;
+        byte[] part = buffer;
+        int partLength = bufferLength;
+
+        parts.add(uploadExecutor.submit(() -> client.uploadPart(key, partUploadId, partNumber, part, partLength)));
+
+        buffer = null;
+        bufferLength = 0;
+    }
+
+    @Override
+    public synchronized void close()
+        throws IOException
+    {
+        if (!open)
+        {
+            return;
+        }
+
+        open = false;
+        try
+        {
+            if (uploadId == null)
+            {
+                client.putObject(key, buffer != null ? buffer : new byte[0], bufferLength);
+
+                return;
+            }
+
+            if (bufferLength > 0)
+            {
+                uploadPart();
+            }
+
+            List<String> partETags = new ArrayList<>();
+            try
+            {
+                for (Future<String> part : parts)
+                {
+                    partETags.add(part.get());
+                }
+
+                client.completeMultipartUpload(key, uploadId, partETags);
+            }
+            catch (IOException | InterruptedException | ExecutionException e)
+            {
+                abort();
+
+                throw toIOException(e);
+            }
+        }
+        finally
+        {
+            buffer = null;
+            onClose.run();
+        }
+    }
+
+    private void abort()
+    {
+        open = false;
+        parts.forEach(part -> part.cancel(true));
+
+        if (uploadId == null)
+        {
+            return;
+        }
+
+        try
+        {
+            client.abortMultipartUpload(key, uploadId);
+        }
+        catch (IOException e)
+        {
+            logger.warn("Failed to abort the upload [{}] of [{}].", uploadId, key, e);
+        }
+    }
+
+    private IOException toIOException(Exception e)
+    {
+        if (e instanceof InterruptedException)
+        {
+            Thread.currentThread().interrupt();
+
+            return new InterruptedIOException(String.format("Upload of [%s] interrupted.", key));
+        }
+        if (e.getCause() instanceof IOException)
+        {
+            return (IOException) e.getCause();
+        }
+        if (e instanceof IOException)
+        {
+            return (IOException) e;
+        }
+
+        return new IOException(String.format("Failed to upload [%s].", key), e.getCause());
+    }
+
+    @Override
+    public int read(ByteBuffer dst)
+    {
+        throw new NonReadableChannelException();
+    }
+
+    @Override
+    public synchronized long position()
+        throws IOException
+    {
+        ensureOpen();
+
+        return position;
+    }
+
+    @Override
+    public SeekableByteChannel position(long newPosition)
+    {
+        throw new UnsupportedOperationException("The objects can only be written sequentially.");
+    }
+
+    @Override
+    public synchronized long size()
+        throws IOException
+    {
+        ensureOpen();
+
+        return position;
+    }
+
+    @Override
+    public SeekableByteChannel truncate(long size)
+    {
+        throw new UnsupportedOperationException("The objects can only be written sequentially.");
+    }
+
+    @Override
+    public synchronized boolean isOpen()
+    {
+        return open;
+    }
+
+    private void ensureOpen()
+        throws ClosedChannelException
+    {
+        if (!open)
+        {
+            throw new ClosedChannelException();
+        }
+    }
+
+}
@@ -0,0 +1,528 @@
+package org.carlspring.strongbox.providers.storage.object;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+/**
+ * {@link ObjectStorageClient} of the S3 REST API, with path style requests ({@code <endpoint>/<bucket>/<key>}), which
+ * are supported by AWS as well as by the S3 compatible storages.
+ */
+public class S3ObjectStorageClient
+        implements ObjectStorageClient
+{
+
+    private static final DateTimeFormatter AMZ_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'")
+                                                                              .withZone(ZoneOffset.UTC);
+
+    private static final int ERROR_MESSAGE_LENGTH = 1024;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final String endpoint;
+
+    private final String bucket;
+
+    private final S3RequestSigner signer;
+
+    private final int connectTimeout;
+
+    private final int readTimeout;
+
+    /**
+     * @param endpoint the base URL, such as {@code https://s3.eu-west-1.amazonaws.com}
+     */
+    public S3ObjectStorageClient(String endpoint,
+                                 String region,
+                                 String bucket,
+                                 String accessKey,
+                                 String secretKey,
+                                 int connectTimeout,
+                                 int readTimeout)
+    {
+        this.endpoint = endpoint.endsWith("/") ? endpoint.substring(0, endpoint.length() - 1) : endpoint;
+        this.bucket = bucket;
+        this.signer = new S3RequestSigner(accessKey, secretKey, region);
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+    }
+
+    @Override
+    public ObjectMetadata headObject(String key)
+        throws IOException
+    {
+        HttpURLConnection connection = execute("HEAD", key, Collections.emptyMap(), Collections.emptyMap(), EMPTY, 0);
+        try
+        {
+            if (connection.getResponseCode() == HttpURLConnection.HTTP_NOT_FOUND)
+            {
+                return null;
+            }
+            checkResponse(connection, key);
+
+            return new ObjectMetadata(key,
+                                      connection.getContentLengthLong(),
+                                      connection.getLastModified(),
+                                      unquote(connection.getHeaderField("ETag")));
+        }
+        finally
+        {
+            closeQuietly(connection);
+        }
+    }
+
+    @Override
+    public InputStream getObject(String key,
+                                 long offset,
+                                 long length)
+        throws IOException
+    {
+        Map<String, String> headers = new LinkedHashMap<>();
+        if (offset > 0 || length >= 0)
+        {
+            headers.put("range", "bytes=" + offset + "-" + (length < 0 ? "" : String.valueOf(offset + length - 1)));
+        }
+
+        HttpURLConnection connection = execute("GET", key, Collections.emptyMap(), headers, EMPTY, 0);
+        if (connection.getResponseCode() == HttpURLConnection.HTTP_NOT_FOUND)
+        {
+            connection.disconnect();
+
+            throw new NoSuchFileException(key);
+        }
+        checkResponse(connection, key);
+
+        // Closing the stream before its end makes the connection drain the rest, or drop it if it's too long.
+        return connection.getInputStream();
+    }
+
+    @Override
+    public void putObject(String key,
+                          byte[] content,
+                          int length)
+        throws IOException
+    {
+        HttpURLConnection connection = execute("PUT", key, Collections.emptyMap(), Collections.emptyMap(), content,
+                                               length);
+        try
+        {
+            checkResponse(connection, key);
+        }
+        finally
+        {
+            closeQuietly(connection);
+        }
+    }
+
+    @Override
+    public void copyObject(String sourceKey,
+                           String targetKey)
+        throws IOException
+    {
+        Map<String, String> headers = Collections.singletonMap("x-amz-copy-source",
+                                                               "/" + bucket + "/" +
+                                                               S3RequestSigner.uriEncode(sourceKey, false));
+
+        HttpURLConnection connection = execute("PUT", targetKey, Collections.emptyMap(), headers, EMPTY, 0);
+        try
+        {
+            if (connection.getResponseCode() == HttpURLConnection.HTTP_NOT_FOUND)
+            {
+                throw new NoSuchFileException(sourceKey);
+            }
+            // The copy can fail after the response has been started.
+            parse(connection, targetKey);
+        }
+        finally
+        {
+            closeQuietly(connection);
+        }
+    }
+
+    @Override
+    public void deleteObject(String key)
+        throws IOException
+    {
+        HttpURLConnection connection = execute("DELETE", key, Collections.emptyMap(), Collections.emptyMap(), EMPTY,
+                                               0);
+        try
+        {
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_NOT_FOUND)
+            {
+                checkResponse(connection, key);
+            }
+        }
+        finally
+        {
+            closeQuietly(connection);
+        }
+    }
+
+    @Override
+    public ObjectListing listObjects(String prefix,
+                                     String delimiter,
+                                     String continuationToken,
+                                     int maxKeys)
+        throws IOException
+    {
+        Map<String, String> query = new LinkedHashMap<>();
+        query.put("list-type", "2");
+        query.put("prefix", prefix);
+        query.put("max-keys", String.valueOf(maxKeys));
+        if (delimiter != null)
+        {
+            query.put("delimiter", delimiter);
+        }
+        if (continuationToken != null)
+        {
+            query.put("continuation-token", continuationToken);
+        }
+
+        HttpURLConnection connection = execute("GET", null, query, Collections.emptyMap(), EMPTY, 0);
+        Document document;
+        try
+        {
+            document = parse(connection, prefix);
+        }
+        finally
+        {
+            closeQuietly(connection);
+        }
+
+        List<ObjectMetadata> objects = new ArrayList<>();
+        NodeList contents = document.getElementsByTagName("Contents");
+        for (int i = 0; i < contents.getLength(); i++)
+        {
+            Element element = (Element) contents.item(i);
+            objects.add(new ObjectMetadata(text(element, "Key"),
+                                           Long.parseLong(text(element, "Size")),
+                                           Instant.parse(text(element, "LastModified")).toEpochMilli(),
+                                           unquote(text(element, "ETag"))));
+        }
+
+        List<String> commonPrefixes = new ArrayList<>();
+        NodeList prefixes = document.getElementsByTagName("CommonPrefixes");
+        for (int i = 0; i < prefixes.getLength(); i++)
+        {
+            commonPrefixes.add(text((Element) prefixes.item(i), "Prefix"));
+        }
+
+        Element root = document.getDocumentElement();
+        String nextContinuationToken = "true".equals(text(root, "IsTruncated")) ?
+                                       text(root, "NextContinuationToken") : null;
+
+        return new ObjectListing(objects, commonPrefixes, nextContinuationToken);
+    }
+
+    @Override
+    public String createMultipartUpload(String key)
+        throws IOException
+    {
+        HttpURLConnection connection = execute("POST", key, Collections.singletonMap("uploads", ""),
+                                               Collections.emptyMap(), EMPTY, 0);
+        try
+        {
+            return text(parse(connection, key).getDocumentElement(), "UploadId");
+        }
+        finally
+        {
+            closeQuietly(connection);
+        }
+    }
+
+    @Override
+    public String uploadPart(String key,
+                             String uploadId,
+                             int partNumber,
+                             byte[] content,
+                             int length)
+        throws IOException
+    {
+        Map<String, String> query = new LinkedHashMap<>();
+        query.put("partNumber", String.valueOf(partNumber));
+        query.put("uploadId", uploadId);
+
+        HttpURLConnection connection = execute("PUT", key, query, Collections.emptyMap(), content, length);
+        try
+        {
+            checkResponse(connection, key);
+
+            return unquote(connection.getHeaderField("ETag"));
+        }
+        finally
+        {
+            closeQuietly(connection);
+        }
+    }
+
+    @Override
+    public String uploadPartCopy(String sourceKey,
+                                 String key,
+                                 String uploadId,
+                                 int partNumber,
+                                 long offset,
+                                 long length)
+        throws IOException
+    {
+        Map<String, String> query = new LinkedHashMap<>();
+        query.put("partNumber", String.valueOf(partNumber));
+        query.put("uploadId", uploadId);
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("x-amz-copy-source", "/" + bucket + "/" + S3RequestSigner.uriEncode(sourceKey, false));
+        headers.put("x-amz-copy-source-range", "bytes=" + offset + "-" + (offset + length - 1));
+
+        HttpURLConnection connection = execute("PUT", key, query, headers, EMPTY, 0);
+        try
+        {
+            if (connection.getResponseCode() == HttpURLConnection.HTTP_NOT_FOUND)
+            {
+                throw new NoSuchFileException(sourceKey);
+            }
+            // The copy can fail after the response has been started.
+            return unquote(text(parse(connection, key).getDocumentElement(), "ETag"));
+        }
+        finally
+        {
+            closeQuietly(connection);
+        }
+    }
+
+    @Override
+    public void completeMultipartUpload(String key,
+                                        String uploadId,
+                                        List<String> partETags)
+        throws IOException
+    {
+        StringBuilder body = new StringBuilder("<CompleteMultipartUpload>");
+        for (int i = 0; i < partETags.size(); i++)
+        {
+            body.append("<Part><PartNumber>")
+                .append(i + 1)
+                .append("</PartNumber><ETag>\"")
+                .append(partETags.get(i))
+                .append("\"</ETag></Part>");
+        }
+        body.append("</CompleteMultipartUpload>");
+
+        byte[] content = body.toString().getBytes(StandardCharsets.UTF_8);
+        HttpURLConnection connection = execute("POST", key, Collections.singletonMap("uploadId", uploadId),
+                                               Collections.emptyMap(), content, content.length);
+        try
+        {
+            // The upload can fail after the response has been started.
+            parse(connection, key);
+        }
+        finally
+        {
+            closeQuietly(connection);
+        }
+    }
+
+    @Override
+    public void abortMultipartUpload(String key,
+                                     String uploadId)
+        throws IOException
+    {
+        HttpURLConnection connection = execute("DELETE", key, Collections.singletonMap("uploadId", uploadId),
+                                               Collections.emptyMap(), EMPTY, 0);
+        try
+        {
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_NOT_FOUND)
+            {
+                checkResponse(connection, key);
+            }
+        }
+        finally
+        {
+            closeQuietly(connection);
+        }
+    }
+
+    /**
+     * Sends the signed request.
+     *
+     * @param key the object key, or {@code null} for the bucket requests
+     */
+    private HttpURLConnection execute(String method,
+                                      String key,
+                                      Map<String, String> query,
+                                      Map<String, String> headers,
+                                      byte[] content,
+                                      int length)
+        throws IOException
+    {
+        String canonicalUri = "/" + bucket + (key == null ? "" : "/" + S3RequestSigner.uriEncode(key, false));
+        String canonicalQuery = S3RequestSigner.canonicalQuery(query);
+        URL url = new URL(endpoint + canonicalUri + (canonicalQuery.isEmpty() ? "" : "?" + canonicalQuery));
+
+        String payloadHash = S3RequestSigner.sha256Hex(content, 0, length);
+        String amzDate = AMZ_DATE_FORMAT.format(ZonedDateTime.now(ZoneOffset.UTC));
+
+        SortedMap<String, String> signedHeaders = new TreeMap<>(headers);
+        // The Host header is set by the connection, the same way.
+        signedHeaders.put("host", url.getPort() < 0 || url.getPort() == url.getDefaultPort() ?
+                                  url.getHost() : url.getHost() + ":" + url.getPort());
+        signedHeaders.put("x-amz-content-sha256", payloadHash);
+        signedHeaders.put("x-amz-date", amzDate);
+
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod(method);
+        connection.setConnectTimeout(connectTimeout);
+        connection.setReadTimeout(readTimeout);
+        connection.setUseCaches(false);
+        signedHeaders.entrySet()
+                     .stream()
+                     .filter(e -> !"host".equals(e.getKey()))
+                     .forEach(e -> connection.setRequestProperty(e.getKey(), e.getValue()));
+        connection.setRequestProperty("Authorization",
+                                      signer.sign(method, canonicalUri, canonicalQuery, signedHeaders, payloadHash,
+                                                  amzDate));
+
+        if ("PUT".equals(method) || "POST".equals(method))
+        {
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(length);
+            try (OutputStream os = connection.getOutputStream())
+            {
+                os.write(content, 0, length);
+            }
+        }
+
+        return connection;
+    }
+
+    private void checkResponse(HttpURLConnection connection,
+                               String key)
+        throws IOException
+    {
+        int status = connection.getResponseCode();
+        if (status >= 200 && status < 300)
+        {
+            return;
+        }
+
+        String message = "";
+        try (InputStream errorStream = connection.getErrorStream())
+        {
+            if (errorStream != null)
+            {
+                message = new String(readFully(errorStream), StandardCharsets.UTF_8);
+                message = message.substring(0, Math.min(message.length(), ERROR_MESSAGE_LENGTH));
+            }
+        }
+
+        throw new IOException(String.format("[%s %s] of [%s] failed with [%s]: %s",
+                                            connection.getRequestMethod(), connection.getURL(), key, status, message));
+    }
+
+    private Document parse(HttpURLConnection connection,
+                           String key)
+        throws IOException
+    {
+        checkResponse(connection, key);
+
+        Document document;
+        try (InputStream is = connection.getInputStream())
+        {
+            document = newDocumentBuilder().parse(is);
+        }
+        catch (SAXException | ParserConfigurationException e)
+        {
+            throw new IOException(String.format("Failed to parse the response of [%s].", connection.getURL()), e);
+        }
+
+        if ("Error".equals(document.getDocumentElement().getTagName()))
+        {
+            throw new IOException(String.format("[%s %s] of [%s] failed with [%s]: %s",
+                                                connection.getRequestMethod(),
+                                                connection.getURL(),
+                                                key,
+                                                text(document.getDocumentElement(), "Code"),
+                                                text(document.getDocumentElement(), "Message")));
+        }
+
+        return document;
+    }
+
+    private static DocumentBuilder newDocumentBuilder()
+        throws ParserConfigurationException
+    {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        factory.setExpandEntityReferences(false);
+
+        return factory.newDocumentBuilder();
+    }
+
+    private static String text(Element element,
+                               String tagName)
+    {
+        NodeList nodes = element.getElementsByTagName(tagName);
+
+        return nodes.getLength() == 0 ? null : nodes.item(0).getTextContent();
+    }
+
+    private static String unquote(String eTag)
+    {
+        return eTag == null ? null : eTag.replace("\"", "");
+    }
+
+    private static byte[] readFully(InputStream is)
+        throws IOException
+    {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        for (int length; (length = is.read(buffer)) >= 0; )
+        {
+            result.write(buffer, 0, length);
+        }
+
+        return result.toByteArray();
+    }
+
+    private static void closeQuietly(HttpURLConnection connection)
+    {
+        try
+        {
+            InputStream is = connection.getResponseCode() < 400 ? connection.getInputStream() :
+                             connection.getErrorStream();
+            if (is != null)
+            {
+                readFully(is);
+                is.close();
+            }
+        }
+        catch (IOException e)
+        {
+            connection.disconnect();
+        }
+    }
+
+}
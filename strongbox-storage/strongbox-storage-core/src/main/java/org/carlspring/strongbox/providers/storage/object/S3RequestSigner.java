@@ -0,0 +1,157 @@
+package org.carlspring.strongbox.providers.storage.object;
+
+import org.carlspring.strongbox.util.MessageDigestUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.stream.Collectors;
+
+/**
+ * Signs the S3 requests with the AWS Signature Version 4.
+ */
+class S3RequestSigner
+{
+
+    static final String ALGORITHM = "AWS4-HMAC-SHA256";
+
+    private static final String SERVICE = "s3";
+
+    private final String accessKey;
+
+    private final String secretKey;
+
+    private final String region;
+
+    S3RequestSigner(String accessKey,
+                    String secretKey,
+                    String region)
+    {
+        this.accessKey = accessKey;
+        this.secretKey = secretKey;
+        this.region = region;
+    }
+
+    /**
+     * @param canonicalUri   the {@link #uriEncode(String, boolean) encoded} path
+     * @param canonicalQuery the sorted and encoded query string
+     * @param headers        the headers to sign, by their lower case names
+     * @param payloadHash    the hexadecimal SHA-256 of the request body
+     * @param amzDate        the {@code x-amz-date} of the request
+     * @return the {@code Authorization} header value
+     */
+    String sign(String method,
+                String canonicalUri,
+                String canonicalQuery,
+                SortedMap<String, String> headers,
+                String payloadHash,
+                String amzDate)
+    {
+        String canonicalHeaders = headers.entrySet()
+                                         .stream()
+                                         .map(e -> e.getKey() + ":" + e.getValue().trim() + "\n")
+                                         .collect(Collectors.joining());
+        String signedHeaders = String.join(";", headers.keySet());
+
+        String canonicalRequest = method + "\n" +
+                                  canonicalUri + "\n" +
+                                  canonicalQuery + "\n" +
+                                  canonicalHeaders + "\n" +
+                                  signedHeaders + "\n" +
+                                  payloadHash;
+
+        byte[] canonicalRequestBytes = canonicalRequest.getBytes(StandardCharsets.UTF_8);
+
+        String date = amzDate.substring(0, 8);
+        String scope = date + "/" + region + "/" + SERVICE + "/aws4_request";
+        String stringToSign = ALGORITHM + "\n" +
+                              amzDate + "\n" +
+                              scope + "\n" +
+                              sha256Hex(canonicalRequestBytes, 0, canonicalRequestBytes.length);
+
+        byte[] signingKey = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), date);
+        signingKey = hmac(signingKey, region);
+        signingKey = hmac(signingKey, SERVICE);
+        signingKey = hmac(signingKey, "aws4_request");
+
+        String signature = MessageDigestUtils.convertToHexadecimalString(hmac(signingKey, stringToSign));
+
+        return ALGORITHM + " Credential=" + accessKey + "/" + scope +
+               ", SignedHeaders=" + signedHeaders +
+               ", Signature=" + signature;
+    }
+
+    /**
+     * @return the sorted and encoded query string
+     */
+    static String canonicalQuery(Map<String, String> parameters)
+    {
+        return parameters.entrySet()
+                         .stream()
+                         .map(e -> uriEncode(e.getKey(), true) + "=" + uriEncode(e.getValue(), true))
+                         .sorted()
+                         .collect(Collectors.joining("&"));
+    }
+
+    /**
+     * Encodes everything but the unreserved characters, as required by the signature.
+     */
+    static String uriEncode(String value,
+                            boolean encodeSlash)
+    {
+        StringBuilder result = new StringBuilder();
+        for (byte b : value.getBytes(StandardCharsets.UTF_8))
+        {
+            char c = (char) (b & 0xFF);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') ||
+                c == '-' || c == '_' || c == '.' || c == '~' || (c == '/' && !encodeSlash))
+            {
+                result.append(c);
+            }
+            else
+            {
+                result.append('%').append(String.format("%02X", b & 0xFF));
+            }
+        }
+
+        return result.toString();
+    }
+
+    static String sha256Hex(byte[] content,
+                            int offset,
+                            int length)
+    {
+        try
+        {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(content, offset, length);
+
+            return MessageDigestUtils.convertToHexadecimalString(digest);
+        }
+        catch (GeneralSecurityException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] hmac(byte[] key,
+                               String data)
+    {
+        try
+        {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        }
+        catch (GeneralSecurityException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -24,6 +24,12 @@ public interface ConfigurationManagementService
 
     Configuration getConfiguration();
 
+    /**
+     * @return the revision of the {@link Configuration} currently returned by {@link #getConfiguration()}, it is
+     *         incremented on every modification and can be used to cache structures derived from the configuration.
+     */
+    long getConfigurationRevision();
+
     void setConfiguration(MutableConfiguration configuration) throws IOException;
 
     void setInstanceName(String instanceName) throws IOException;
@@ -0,0 +1,93 @@
+package org.carlspring.strongbox.io;
+
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class MultipleDigestEngineTest
+{
+
+    private static final String[] ALGORITHMS = { "MD5", "SHA-1", "SHA-256" };
+
+    @ParameterizedTest
+    @ValueSource(longs = { 0, 1024, 100000 })
+    public void digestsShouldMatchTheMessageDigests(long parallelThreshold)
+        throws Exception
+    {
+        Random random = new Random(parallelThreshold);
+        byte[] content = new byte[3 * 1024 * 1024 + 17];
+        random.nextBytes(content);
+
+        MultipleDigestEngine engine = new MultipleDigestEngine(parallelThreshold);
+        for (String algorithm : ALGORITHMS)
+        {
+            engine.addAlgorithm(algorithm);
+        }
+
+        int off = 0;
+        while (off < content.length)
+        {
+            if (random.nextInt(10) == 0)
+            {
+                engine.update(content[off++]);
+                continue;
+            }
+
+            int len = Math.min(content.length - off, random.nextInt(512 * 1024));
+            engine.update(content, off, len);
+            off += len;
+        }
+
+        Map<String, byte[]> digests = engine.digest();
+
+        assertThat(digests).containsOnlyKeys(ALGORITHMS);
+        for (String algorithm : ALGORITHMS)
+        {
+            assertThat(digests.get(algorithm)).isEqualTo(MessageDigest.getInstance(algorithm).digest(content));
+        }
+        assertThat(engine.digest()).isSameAs(digests);
+    }
+
+    @Test
+    public void singleBytesShouldBeDigestedInParallel()
+        throws Exception
+    {
+        byte[] content = new byte[1024 * 1024 + 3];
+        new Random(1).nextBytes(content);
+
+        MultipleDigestEngine engine = new MultipleDigestEngine(1);
+        for (String algorithm : ALGORITHMS)
+        {
+            engine.addAlgorithm(algorithm);
+        }
+
+        for (byte b : content)
+        {
+            engine.update(b);
+        }
+
+        Map<String, byte[]> digests = engine.digest();
+        for (String algorithm : ALGORITHMS)
+        {
+            assertThat(digests.get(algorithm)).isEqualTo(MessageDigest.getInstance(algorithm).digest(content));
+        }
+    }
+
+    @Test
+    public void algorithmsShouldBeAddedBeforeTheContent()
+        throws Exception
+    {
+        MultipleDigestEngine engine = new MultipleDigestEngine(0);
+        engine.addAlgorithm("MD5");
+        engine.update(1);
+
+        assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() -> engine.addAlgorithm("SHA-1"));
+    }
+
+}
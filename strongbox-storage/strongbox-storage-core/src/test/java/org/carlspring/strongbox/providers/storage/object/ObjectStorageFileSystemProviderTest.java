@@ -0,0 +1,346 @@
+package org.carlspring.strongbox.providers.storage.object;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class ObjectStorageFileSystemProviderTest
+{
+
+    private static final int PART_SIZE = 16;
+
+    @TempDir
+    Path cacheDirectory;
+
+    private InMemoryObjectStorageClient client;
+
+    private ExecutorService uploadExecutor;
+
+    private ObjectStorageFileSystem fileSystem;
+
+    @BeforeEach
+    public void setUp()
+        throws IOException
+    {
+        client = new InMemoryObjectStorageClient();
+        uploadExecutor = Executors.newFixedThreadPool(4);
+        fileSystem = new ObjectStorageFileSystemProvider(client,
+                                                         "strongbox",
+                                                         new ObjectStorageCache(cacheDirectory, 1024),
+                                                         uploadExecutor,
+                                                         PART_SIZE,
+                                                         2).getFileSystem();
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        uploadExecutor.shutdownNow();
+    }
+
+    @Test
+    public void smallObjectShouldBeWrittenAtOnce()
+        throws IOException
+    {
+        Path path = fileSystem.getPath("/storages/storage0/releases/a.txt");
+        Files.write(path, "small".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(client.headObject("storages/storage0/releases/a.txt").getSize()).isEqualTo(5);
+        assertThat(new String(Files.readAllBytes(path), StandardCharsets.UTF_8)).isEqualTo("small");
+        assertThat(client.getPendingMultipartUploads()).isZero();
+    }
+
+    @Test
+    public void objectLargerThanTheInitialBufferShouldBeWrittenAtOnce()
+        throws IOException
+    {
+        ObjectStorageFileSystem largePartFileSystem = new ObjectStorageFileSystemProvider(client,
+                                                                                          "strongbox",
+                                                                                          null,
+                                                                                          uploadExecutor,
+                                                                                          1024 * 1024,
+                                                                                          2).getFileSystem();
+        byte[] content = new byte[300 * 1024];
+        new Random(0).nextBytes(content);
+
+        Path path = largePartFileSystem.getPath("/releases/medium.bin");
+        try (OutputStream os = Files.newOutputStream(path))
+        {
+            for (int i = 0; i < content.length; i += 4096)
+            {
+                os.write(content, i, Math.min(4096, content.length - i));
+            }
+        }
+
+        assertThat(Files.readAllBytes(path)).isEqualTo(content);
+        assertThat(client.getPendingMultipartUploads()).isZero();
+    }
+
+    @Test
+    public void emptyObjectShouldBeWritten()
+        throws IOException
+    {
+        Path path = fileSystem.getPath("/releases/empty.txt");
+        Files.write(path, new byte[0]);
+
+        assertThat(client.headObject("releases/empty.txt").getSize()).isZero();
+    }
+
+    @Test
+    public void largeObjectShouldBeWrittenWithMultipartUpload()
+        throws IOException
+    {
+        byte[] content = new byte[PART_SIZE * 10 + 3];
+        new Random(0).nextBytes(content);
+
+        Path path = fileSystem.getPath("/releases/large.bin");
+        try (OutputStream os = Files.newOutputStream(path))
+        {
+            for (int i = 0; i < content.length; i += 7)
+            {
+                os.write(content, i, Math.min(7, content.length - i));
+            }
+        }
+
+        assertThat(Files.size(path)).isEqualTo(content.length);
+        assertThat(Files.readAllBytes(path)).isEqualTo(content);
+        assertThat(client.getPendingMultipartUploads()).isZero();
+    }
+
+    @Test
+    public void rangeShouldBeReadFromPosition()
+        throws IOException
+    {
+        Path path = fileSystem.getPath("/releases/range.txt");
+        Files.write(path, "0123456789".getBytes(StandardCharsets.UTF_8));
+
+        try (SeekableByteChannel channel = Files.newByteChannel(path))
+        {
+            channel.position(6);
+
+            ByteBuffer buffer = ByteBuffer.allocate(10);
+            channel.read(buffer);
+
+            assertThat(new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8)).isEqualTo("6789");
+        }
+    }
+
+    @Test
+    public void fullyReadObjectShouldBeServedFromCache()
+        throws IOException
+    {
+        Path path = fileSystem.getPath("/releases/cached.txt");
+        Files.write(path, "cached".getBytes(StandardCharsets.UTF_8));
+
+        try (InputStream is = Files.newInputStream(path))
+        {
+            assertThat(is.read(new byte[16])).isEqualTo(6);
+            assertThat(is.read()).isEqualTo(-1);
+        }
+        try (SeekableByteChannel channel = Files.newByteChannel(path))
+        {
+            assertThat(channel).isInstanceOf(FileChannel.class);
+        }
+
+        Files.write(path, "modified".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(new String(Files.readAllBytes(path), StandardCharsets.UTF_8)).isEqualTo("modified");
+    }
+
+    @Test
+    public void directoriesShouldBeListedAcrossPages()
+        throws IOException
+    {
+        Path directory = Files.createDirectories(fileSystem.getPath("/releases/org/carlspring"));
+        Files.createDirectories(directory.resolve("empty"));
+        for (int i = 0; i < 5; i++)
+        {
+            Files.write(directory.resolve("nested" + i).resolve("file.txt"), new byte[]{ 1 });
+            Files.write(directory.resolve("file" + i + ".txt"), new byte[]{ 1, 2 });
+        }
+
+        List<String> names;
+        try (Stream<Path> children = Files.list(directory))
+        {
+            names = children.map(p -> p.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+
+        assertThat(names).hasSize(11).contains("empty", "file0.txt", "nested4");
+        assertThat(Files.isDirectory(directory.resolve("nested0"))).isTrue();
+        assertThat(Files.isRegularFile(directory.resolve("file0.txt"))).isTrue();
+        assertThat(Files.size(directory.resolve("file0.txt"))).isEqualTo(2);
+        assertThat(Files.exists(directory.resolve("missing"))).isFalse();
+
+        ObjectListing firstPage = client.listObjects("releases/org/carlspring/", "/", null, 4);
+        ObjectListing secondPage = client.listObjects("releases/org/carlspring/", "/",
+                                                      firstPage.getNextContinuationToken(), 100);
+
+        assertThat(firstPage.getObjects().size() + firstPage.getCommonPrefixes().size()).isEqualTo(4);
+        assertThat(secondPage.getNextContinuationToken()).isNull();
+    }
+
+    @Test
+    public void onlyEmptyDirectoriesShouldBeDeleted()
+        throws IOException
+    {
+        Path directory = Files.createDirectories(fileSystem.getPath("/releases/dir"));
+        Path file = directory.resolve("file.txt");
+        Files.write(file, new byte[]{ 1 });
+
+        assertThatExceptionOfType(DirectoryNotEmptyException.class).isThrownBy(() -> Files.delete(directory));
+
+        Files.delete(file);
+        Files.delete(directory);
+
+        assertThat(Files.exists(directory)).isFalse();
+        assertThatExceptionOfType(NoSuchFileException.class).isThrownBy(() -> Files.delete(directory));
+    }
+
+    @Test
+    public void directoryShouldBeMovedWithItsContent()
+        throws IOException
+    {
+        Path source = Files.createDirectories(fileSystem.getPath("/.temp/upload"));
+        Files.write(source.resolve("a/b.txt"), new byte[]{ 1 });
+
+        Path target = fileSystem.getPath("/releases/upload");
+        Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+
+        assertThat(Files.exists(source)).isFalse();
+        assertThat(Files.readAllBytes(target.resolve("a/b.txt"))).containsExactly(1);
+    }
+
+    @Test
+    public void largeObjectShouldBeCopiedPartByPart()
+        throws IOException
+    {
+        AtomicInteger singleCopies = new AtomicInteger();
+        AtomicInteger partCopies = new AtomicInteger();
+        InMemoryObjectStorageClient countingClient = new InMemoryObjectStorageClient()
+        {
+
+            @Override
+            public void copyObject(String sourceKey,
+                                   String targetKey)
+                throws IOException
+            {
+                singleCopies.incrementAndGet();
+                super.copyObject(sourceKey, targetKey);
+            }
+
+            @Override
+            public String uploadPartCopy(String sourceKey,
+                                         String key,
+                                         String uploadId,
+                                         int partNumber,
+                                         long offset,
+                                         long length)
+                throws IOException
+            {
+                partCopies.incrementAndGet();
+                return super.uploadPartCopy(sourceKey, key, uploadId, partNumber, offset, length);
+            }
+
+        };
+        ObjectStorageFileSystem copyFileSystem = newFileSystem(countingClient);
+
+        byte[] content = new byte[PART_SIZE * 6 + 5];
+        new Random(0).nextBytes(content);
+        Path source = copyFileSystem.getPath("/.temp/releases/large.bin");
+        Files.write(source, content);
+
+        Path target = copyFileSystem.getPath("/releases/large.bin");
+        Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+
+        assertThat(Files.exists(source)).isFalse();
+        assertThat(Files.readAllBytes(target)).isEqualTo(content);
+        assertThat(singleCopies.get()).isZero();
+        assertThat(partCopies.get()).isEqualTo(4);
+        assertThat(countingClient.getPendingMultipartUploads()).isZero();
+
+        Path small = copyFileSystem.getPath("/releases/small.bin");
+        Files.write(small, new byte[]{ 1, 2, 3 });
+        Files.copy(small, copyFileSystem.getPath("/releases/small-copy.bin"));
+
+        assertThat(Files.readAllBytes(copyFileSystem.getPath("/releases/small-copy.bin"))).containsExactly(1, 2, 3);
+        assertThat(singleCopies.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void failedPartCopyShouldAbortTheCopy()
+        throws IOException
+    {
+        InMemoryObjectStorageClient failingClient = new InMemoryObjectStorageClient()
+        {
+
+            @Override
+            public String uploadPartCopy(String sourceKey,
+                                         String key,
+                                         String uploadId,
+                                         int partNumber,
+                                         long offset,
+                                         long length)
+                throws IOException
+            {
+                if (partNumber == 2)
+                {
+                    throw new IOException("Part copy failed.");
+                }
+
+                return super.uploadPartCopy(sourceKey, key, uploadId, partNumber, offset, length);
+            }
+
+        };
+        ObjectStorageFileSystem copyFileSystem = newFileSystem(failingClient);
+
+        Path source = copyFileSystem.getPath("/.temp/releases/large.bin");
+        Files.write(source, new byte[PART_SIZE * 6]);
+        Path target = copyFileSystem.getPath("/releases/large.bin");
+
+        assertThatExceptionOfType(IOException.class).isThrownBy(() -> Files.move(source, target))
+                                                    .withMessage("Part copy failed.");
+
+        assertThat(Files.exists(source)).isTrue();
+        assertThat(Files.exists(target)).isFalse();
+        assertThat(failingClient.getPendingMultipartUploads()).isZero();
+    }
+
+    /**
+     * @return a file system which copies the objects larger than two parts part by part
+     */
+    private ObjectStorageFileSystem newFileSystem(ObjectStorageClient objectStorageClient)
+    {
+        return new ObjectStorageFileSystemProvider(objectStorageClient,
+                                                   "strongbox",
+                                                   null,
+                                                   uploadExecutor,
+                                                   PART_SIZE,
+                                                   2,
+                                                   PART_SIZE * 2,
+                                                   PART_SIZE * 2).getFileSystem();
+    }
+
+}
@@ -9,6 +9,7 @@ import org.carlspring.strongbox.providers.repository.RepositoryProviderRegistry;
 import org.carlspring.strongbox.providers.repository.event.GroupRepositoryPathFetchEvent;
 import org.carlspring.strongbox.services.support.ArtifactRoutingRulesChecker;
 import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.metadata.MavenGroupMetadataCache;
 import org.carlspring.strongbox.storage.repository.Repository;
 
 import javax.inject.Inject;
@@ -47,6 +48,9 @@ public class MavenGroupRepositoryPathFetchEventListener
     @Inject
     private RepositoryProviderRegistry repositoryProviderRegistry;
 
+    @Inject
+    private MavenGroupMetadataCache groupMetadataCache;
+
     @EventListener
     public void handle(final GroupRepositoryPathFetchEvent event)
             throws IOException
@@ -63,6 +67,9 @@ public class MavenGroupRepositoryPathFetchEventListener
         }
 
         fetchInSubRepositories(repositoryPath);
+
+        // The merged versions are stored with a delay, the requested file should have them already.
+        groupMetadataCache.flush(repositoryPath.getParent());
     }
 
     /**
@@ -51,28 +51,23 @@ public abstract class BaseMavenGroupRepositoryComponent
 
     public void cleanupGroupsContaining(RepositoryPath repositoryPath)
             throws IOException
-    {
-        cleanupGroupsContaining(repositoryPath, new HashMap<>());
-    }
-
-    private void cleanupGroupsContaining(RepositoryPath repositoryPath,
-                                         final Map<String, MutableBoolean> repositoryArtifactExistence)
-            throws IOException
     {
         Repository repository = repositoryPath.getRepository();
-        final List<Repository> directParents = configurationManagementService.getConfiguration()
-                                                                             .getGroupRepositoriesContaining(repository.getStorage().getId(),
-                                                                                                                      repository.getId());
-        if (CollectionUtils.isEmpty(directParents))
+        // every ancestor once, each one after the groups it contains
+        final List<Repository> ancestors = configurationManagementService.getConfiguration()
+                                                                         .getGroupRepositoryIndex()
+                                                                         .getAncestors(repository.getStorage().getId(),
+                                                                                       repository.getId());
+        if (CollectionUtils.isEmpty(ancestors))
         {
             return;
         }
-        
+
         String artifactPath = RepositoryFiles.relativizePath(repositoryPath);
-        
-        for (final Repository groupRepository : directParents)
-        {
+        final Map<String, MutableBoolean> repositoryArtifactExistence = new HashMap<>();
 
+        for (final Repository groupRepository : ancestors)
+        {
             boolean artifactExists = groupRepositoryArtifactExistenceChecker.artifactExistsInTheGroupRepositorySubTree(groupRepository,
                                                                                                                        repositoryPath,
                                                                                                                        repositoryArtifactExistence);
@@ -81,9 +76,6 @@ public abstract class BaseMavenGroupRepositoryComponent
             {
                 cleanupGroupWhenArtifactPathNoLongerExistsInSubTree(groupRepository, artifactPath);
             }
-            
-            cleanupGroupsContaining(repositoryPathResolver.resolve(groupRepository, repositoryPath),
-                                    repositoryArtifactExistence);
         }
     }
 
@@ -118,8 +110,9 @@ public abstract class BaseMavenGroupRepositoryComponent
     {
         Repository repository = repositoryPath.getRepository();
         final List<Repository> groupRepositories = configurationManagementService.getConfiguration()
-                                                                                 .getGroupRepositoriesContaining(repository.getStorage().getId(),
-                                                                                                                 repository.getId());
+                                                                                 .getGroupRepositoryIndex()
+                                                                                 .getDirectParents(repository.getStorage().getId(),
+                                                                                                   repository.getId());
         if (CollectionUtils.isEmpty(groupRepositories))
         {
             return;
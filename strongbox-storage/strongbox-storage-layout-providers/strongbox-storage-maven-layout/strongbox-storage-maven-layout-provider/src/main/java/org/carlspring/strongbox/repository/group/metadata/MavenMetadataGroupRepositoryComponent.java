@@ -3,6 +3,7 @@ package org.carlspring.strongbox.repository.group.metadata;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.layout.LayoutProvider;
 import org.carlspring.strongbox.repository.group.BaseMavenGroupRepositoryComponent;
+import org.carlspring.strongbox.storage.metadata.MavenGroupMetadataCache;
 import org.carlspring.strongbox.storage.metadata.MavenMetadataManager;
 import org.carlspring.strongbox.storage.repository.Repository;
 
@@ -26,6 +27,9 @@ public class MavenMetadataGroupRepositoryComponent
     @Inject
     private MavenMetadataManager mavenMetadataManager;
 
+    @Inject
+    private MavenGroupMetadataCache groupMetadataCache;
+
     @Override
     protected void cleanupGroupWhenArtifactPathNoLongerExistsInSubTree(final Repository groupRepository,
                                                                        final String artifactPath)
@@ -81,7 +85,10 @@ public class MavenMetadataGroupRepositoryComponent
         public void performUpdate(final RepositoryPath parentRepositoryArtifactAbsolutePath)
                 throws IOException
         {
-            mavenMetadataManager.mergeAndStore(parentRepositoryArtifactAbsolutePath, mergeMetadata);
+            if (!groupMetadataCache.merge(parentRepositoryArtifactAbsolutePath, mergeMetadata))
+            {
+                mavenMetadataManager.mergeAndStore(parentRepositoryArtifactAbsolutePath, mergeMetadata);
+            }
         }
     }
 
@@ -27,6 +27,17 @@ public abstract class AbstractRepositoryIndexCreator
     @Override
     public RepositoryPath apply(Repository repository)
             throws IOException
+    {
+        return apply(repository, this::onIndexingContextCreated);
+    }
+
+    /**
+     * Runs the given callback against the indexing context of the repository, while holding the write lock of the
+     * repository index directory.
+     */
+    protected RepositoryPath apply(Repository repository,
+                                   IndexingContextCallback callback)
+            throws IOException
     {
         final RepositoryPath repositoryIndexDirectoryPath = getRepositoryIndexDirectoryPathResolver().resolve(
                 repository);
@@ -39,7 +50,7 @@ public abstract class AbstractRepositoryIndexCreator
                 try (final RepositoryCloseableIndexingContext indexingContext = getRepositoryIndexingContextFactory().create(
                         repository))
                 {
-                    onIndexingContextCreated(repositoryIndexDirectoryPath, indexingContext);
+                    callback.accept(repositoryIndexDirectoryPath, indexingContext);
                 }
                 finally
                 {
@@ -68,4 +79,14 @@ public abstract class AbstractRepositoryIndexCreator
     protected abstract RepositoryIndexingContextFactory getRepositoryIndexingContextFactory();
 
     protected abstract RepositoryIndexDirectoryPathResolver getRepositoryIndexDirectoryPathResolver();
+
+    @FunctionalInterface
+    protected interface IndexingContextCallback
+    {
+
+        void accept(RepositoryPath repositoryIndexDirectoryPath,
+                    RepositoryCloseableIndexingContext indexingContext)
+                throws IOException;
+
+    }
 }
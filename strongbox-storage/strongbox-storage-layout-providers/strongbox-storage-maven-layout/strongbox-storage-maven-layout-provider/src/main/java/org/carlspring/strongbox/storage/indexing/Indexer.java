@@ -4,6 +4,7 @@ import org.apache.maven.index.DefaultIndexer;
 import org.apache.maven.index.DefaultIndexerEngine;
 import org.apache.maven.index.DefaultQueryCreator;
 import org.apache.maven.index.DefaultSearchEngine;
+import org.apache.maven.index.IndexerEngine;
 
 /**
  * @author Przemyslaw Fusik
@@ -11,7 +12,12 @@ import org.apache.maven.index.DefaultSearchEngine;
 public class Indexer
 {
 
+    /**
+     * Exposed for the incremental index updates, which need to update and remove single documents.
+     */
+    public static final IndexerEngine ENGINE = new DefaultIndexerEngine();
+
     public static final org.apache.maven.index.Indexer INSTANCE = new DefaultIndexer(new DefaultSearchEngine(),
-                                                                                     new DefaultIndexerEngine(),
+                                                                                     ENGINE,
                                                                                      new DefaultQueryCreator());
 }
@@ -1,5 +1,6 @@
 package org.carlspring.strongbox.storage.indexing.local;
 
+import org.carlspring.strongbox.artifact.MavenArtifactUtils;
 import org.carlspring.strongbox.artifact.coordinates.MavenArtifactCoordinates;
 import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
 import org.carlspring.strongbox.domain.ArtifactEntry;
@@ -17,8 +18,11 @@ import javax.inject.Inject;
 import java.io.IOException;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.function.Predicate;
 
 import org.apache.maven.index.ArtifactContext;
+import org.apache.maven.index.ArtifactInfo;
+import org.apache.maven.index.artifact.Gav;
 import org.springframework.stereotype.Component;
 
 /**
@@ -53,6 +57,33 @@ public class RepositoryHostedIndexCreator
         IndexPacker.pack(repositoryIndexDirectoryPath, indexingContext);
     }
 
+    /**
+     * Applies the stored and deleted artifacts to the already packed index of the repository, instead of purging and
+     * re-creating all its documents. The documents of the deleted artifacts are removed, and the documents of every
+     * version touched by the changes are re-created, because their {@code pom}, {@code sources} and {@code javadoc}
+     * flags depend on the neighbour artifacts. The packer then publishes only the changed documents as the next
+     * incremental chunk.
+     *
+     * @return {@code false} if the repository index has never been packed and needs a full {@link #apply(Repository)}
+     */
+    public boolean update(final Repository repository,
+                          final Set<String> storedPaths,
+                          final Set<String> deletedPaths)
+            throws IOException
+    {
+        if (!IndexPacker.packageExists(indexDirectoryPathResolver.resolve(repository)))
+        {
+            return false;
+        }
+
+        apply(repository, (repositoryIndexDirectoryPath, indexingContext) -> {
+            updateIndexingContext(indexingContext, storedPaths, deletedPaths);
+            IndexPacker.pack(repositoryIndexDirectoryPath, indexingContext);
+        });
+
+        return true;
+    }
+
     @Override
     protected RepositoryIndexingContextFactory getRepositoryIndexingContextFactory()
     {
@@ -73,30 +104,107 @@ public class RepositoryHostedIndexCreator
         final String storageId = repository.getStorage().getId();
         final String repositoryId = repository.getId();
 
-        final long totalArtifactGroupsInRepository = repositoryArtifactIdGroupService.count(storageId,
-                                                                                            repositoryId);
-        if (totalArtifactGroupsInRepository == 0)
+        // keyset paging, a SKIP based one would make the database scan all the previous groups for every page
+        String lastObjectId = null;
+        List<RepositoryArtifactIdGroupEntry> repositoryArtifactIdGroupEntries;
+        do
         {
-            return;
+            final PagingCriteria pagingCriteria = PagingCriteria.after(lastObjectId,
+                                                                       REPOSITORY_ARTIFACT_GROUP_FETCH_PAGE_SIZE);
+            repositoryArtifactIdGroupEntries = repositoryArtifactIdGroupService.findMatching(storageId,
+                                                                                             repositoryId,
+                                                                                             pagingCriteria);
+            if (repositoryArtifactIdGroupEntries.isEmpty())
+            {
+                break;
+            }
+
+            final List<ArtifactContext> artifactContexts = createArtifactContexts(repositoryArtifactIdGroupEntries);
+            Indexer.INSTANCE.addArtifactsToIndex(artifactContexts, indexingContext);
+
+            lastObjectId = repositoryArtifactIdGroupEntries.get(repositoryArtifactIdGroupEntries.size() - 1)
+                                                           .getObjectId();
         }
+        while (repositoryArtifactIdGroupEntries.size() == REPOSITORY_ARTIFACT_GROUP_FETCH_PAGE_SIZE);
+    }
 
-        final long iterations = totalArtifactGroupsInRepository / REPOSITORY_ARTIFACT_GROUP_FETCH_PAGE_SIZE + 1;
+    private void updateIndexingContext(final RepositoryCloseableIndexingContext indexingContext,
+                                       final Set<String> storedPaths,
+                                       final Set<String> deletedPaths)
+            throws IOException
+    {
+        final Repository repository = indexingContext.getRepositoryRaw();
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
 
-        for (int i = 0; i < iterations; i++)
+        final Map<String, Set<String>> changedVersionsByArtifactId = new LinkedHashMap<>();
+        for (final String path : deletedPaths)
         {
-            final PagingCriteria pagingCriteria = new PagingCriteria(i * REPOSITORY_ARTIFACT_GROUP_FETCH_PAGE_SIZE,
-                                                                     REPOSITORY_ARTIFACT_GROUP_FETCH_PAGE_SIZE);
-            final List<RepositoryArtifactIdGroupEntry> repositoryArtifactIdGroupEntries = repositoryArtifactIdGroupService.findMatching(
+            final Gav gav = MavenArtifactUtils.convertPathToGav(path);
+            if (gav == null || !isIndexable(path))
+            {
+                continue;
+            }
+
+            final ArtifactInfo artifactInfo = new ArtifactInfo(repositoryId,
+                                                               gav.getGroupId(),
+                                                               gav.getArtifactId(),
+                                                               gav.getVersion(),
+                                                               gav.getClassifier(),
+                                                               gav.getExtension());
+            Indexer.ENGINE.remove(indexingContext, new ArtifactContext(null, null, null, artifactInfo, gav));
+
+            addChangedVersion(changedVersionsByArtifactId, gav);
+        }
+        for (final String path : storedPaths)
+        {
+            final Gav gav = MavenArtifactUtils.convertPathToGav(path);
+            if (gav == null || !isIndexable(path))
+            {
+                continue;
+            }
+
+            addChangedVersion(changedVersionsByArtifactId, gav);
+        }
+
+        for (final Map.Entry<String, Set<String>> changedVersions : changedVersionsByArtifactId.entrySet())
+        {
+            final RepositoryArtifactIdGroupEntry repositoryArtifactIdGroupEntry = repositoryArtifactIdGroupService.findOne(
                     storageId,
                     repositoryId,
-                    pagingCriteria);
+                    changedVersions.getKey());
+            if (repositoryArtifactIdGroupEntry == null)
+            {
+                continue;
+            }
 
-            final List<ArtifactContext> artifactContexts = createArtifactContexts(repositoryArtifactIdGroupEntries);
-            Indexer.INSTANCE.addArtifactsToIndex(artifactContexts, indexingContext);
+            final List<ArtifactContext> artifactContexts = createArtifactContexts(
+                    Collections.singletonList(repositoryArtifactIdGroupEntry),
+                    changedVersions.getValue()::contains);
+            for (final ArtifactContext artifactContext : artifactContexts)
+            {
+                Indexer.ENGINE.update(indexingContext, artifactContext);
+            }
         }
+
+        indexingContext.commit();
+    }
+
+    private void addChangedVersion(final Map<String, Set<String>> changedVersionsByArtifactId,
+                                   final Gav gav)
+    {
+        changedVersionsByArtifactId.computeIfAbsent(String.format("%s:%s", gav.getGroupId(), gav.getArtifactId()),
+                                                    k -> new HashSet<>())
+                                   .add(gav.getVersion());
     }
 
     private List<ArtifactContext> createArtifactContexts(final List<RepositoryArtifactIdGroupEntry> repositoryArtifactIdGroupEntries)
+    {
+        return createArtifactContexts(repositoryArtifactIdGroupEntries, version -> true);
+    }
+
+    private List<ArtifactContext> createArtifactContexts(final List<RepositoryArtifactIdGroupEntry> repositoryArtifactIdGroupEntries,
+                                                         final Predicate<String> versionFilter)
     {
         final List<ArtifactContext> artifactContexts = new ArrayList<>();
         for (final RepositoryArtifactIdGroupEntry repositoryArtifactIdGroupEntry : repositoryArtifactIdGroupEntries)
@@ -105,6 +213,11 @@ public class RepositoryHostedIndexCreator
                     repositoryArtifactIdGroupEntry);
             for (final Map.Entry<String, List<ArtifactEntry>> sameVersionArtifactEntries : groupedByVersion.entrySet())
             {
+                if (!versionFilter.test(sameVersionArtifactEntries.getKey()))
+                {
+                    continue;
+                }
+
                 for (final ArtifactEntry artifactEntry : sameVersionArtifactEntries.getValue())
                 {
                     if (!isIndexable(artifactEntry))
@@ -180,12 +293,17 @@ public class RepositoryHostedIndexCreator
         return new ArtifactEntryArtifactContextHelper(pomExists, sourcesExists, javadocExists);
     }
 
+    private boolean isIndexable(final ArtifactEntry artifactEntry)
+    {
+        return isIndexable(artifactEntry.getArtifactPath());
+    }
+
     /**
      * org.apache.maven.index.DefaultArtifactContextProducer#isIndexable(java.io.File)
      */
-    private boolean isIndexable(final ArtifactEntry artifactEntry)
+    private boolean isIndexable(final String artifactPath)
     {
-        final String filename = Paths.get(artifactEntry.getArtifactPath()).getFileName().toString();
+        final String filename = Paths.get(artifactPath).getFileName().toString();
 
         if (filename.equals("maven-metadata.xml")
             // || filename.endsWith( "-javadoc.jar" )
@@ -0,0 +1,261 @@
+package org.carlspring.strongbox.storage.indexing.local;
+
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.layout.Maven2LayoutProvider;
+import org.carlspring.strongbox.repository.MavenRepositoryFeatures;
+import org.carlspring.strongbox.storage.indexing.IndexLockedException;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+
+import org.javatuples.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+/**
+ * Collects the artifacts stored into and deleted from the indexed hosted Maven repositories, and periodically applies
+ * them to the already packed repository indexes through {@link RepositoryHostedIndexCreator#update}, on the shared
+ * {@code backgroundTaskScheduler}, so that the indexes stay current without purging and rebuilding them.
+ * <p>
+ * Pending changes are kept in memory, per repository, with only the last change of every path. They are lost on
+ * shutdown, the next full index rebuild catches up with them.
+ */
+@Component
+public class RepositoryHostedIndexUpdater
+        implements InitializingBean, DisposableBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(RepositoryHostedIndexUpdater.class);
+
+    @Value("${strongbox.maven.index.incremental.enabled:true}")
+    private boolean enabled;
+
+    @Value("${strongbox.maven.index.incremental.flushIntervalMillis:30000}")
+    private long flushIntervalMillis;
+
+    @Inject
+    private ConfigurationManager configurationManager;
+
+    @Inject
+    private MavenRepositoryFeatures mavenRepositoryFeatures;
+
+    @Inject
+    private RepositoryHostedIndexCreator repositoryHostedIndexCreator;
+
+    @Inject
+    private TaskScheduler backgroundTaskScheduler;
+
+    /**
+     * {@code true} for the stored paths, {@code false} for the deleted ones.
+     */
+    private final ConcurrentMap<Pair<String, String>, Map<String, Boolean>> pendingChanges = new ConcurrentHashMap<>();
+
+    private final Object flushLock = new Object();
+
+    private ScheduledFuture<?> flushTask;
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        if (!enabled)
+        {
+            return;
+        }
+
+        flushTask = backgroundTaskScheduler.scheduleWithFixedDelay(this::flushQuietly,
+                                                                   new Date(System.currentTimeMillis() +
+                                                                            flushIntervalMillis),
+                                                                   flushIntervalMillis);
+    }
+
+    @Override
+    public void destroy()
+    {
+        if (flushTask != null)
+        {
+            flushTask.cancel(false);
+        }
+    }
+
+    @EventListener
+    public void handle(final ArtifactEvent<RepositoryPath> event)
+    {
+        if (!enabled)
+        {
+            return;
+        }
+
+        final Boolean stored;
+        if (event.getType() == ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType()
+                || event.getType() == ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_UPDATED.getType())
+        {
+            stored = Boolean.TRUE;
+        }
+        else if (event.getType() == ArtifactEventTypeEnum.EVENT_ARTIFACT_PATH_DELETED.getType())
+        {
+            stored = Boolean.FALSE;
+        }
+        else
+        {
+            return;
+        }
+
+        final RepositoryPath repositoryPath = event.getPath();
+        final Repository repository = repositoryPath.getRepository();
+        if (!Maven2LayoutProvider.ALIAS.equals(repository.getLayout())
+                || !repository.isHostedRepository()
+                || !mavenRepositoryFeatures.isIndexingEnabled(repository))
+        {
+            return;
+        }
+
+        final String path;
+        try
+        {
+            path = RepositoryFiles.relativizePath(repositoryPath);
+        }
+        catch (IOException e)
+        {
+            logger.warn("Failed to resolve [{}], it will be indexed with the next index rebuild.", repositoryPath, e);
+
+            return;
+        }
+
+        addPendingChange(Pair.with(repository.getStorage().getId(), repository.getId()), path, stored, true);
+    }
+
+    /**
+     * Applies the pending changes to the repository indexes.
+     *
+     * @return the number of updated repository indexes
+     */
+    public int flush()
+    {
+        synchronized (flushLock)
+        {
+            int result = 0;
+            for (Pair<String, String> storageAndRepositoryId : pendingChanges.keySet())
+            {
+                Map<String, Boolean> changes = pendingChanges.remove(storageAndRepositoryId);
+                if (changes == null || changes.isEmpty())
+                {
+                    continue;
+                }
+
+                if (flush(storageAndRepositoryId, changes))
+                {
+                    result++;
+                }
+            }
+
+            return result;
+        }
+    }
+
+    private boolean flush(final Pair<String, String> storageAndRepositoryId,
+                          final Map<String, Boolean> changes)
+    {
+        final Repository repository = configurationManager.getRepository(storageAndRepositoryId.getValue0(),
+                                                                         storageAndRepositoryId.getValue1());
+        if (repository == null || !mavenRepositoryFeatures.isIndexingEnabled(repository))
+        {
+            return false;
+        }
+
+        final Set<String> storedPaths = new HashSet<>();
+        final Set<String> deletedPaths = new HashSet<>();
+        changes.forEach((path, stored) -> (stored ? storedPaths : deletedPaths).add(path));
+
+        try
+        {
+            if (!repositoryHostedIndexCreator.update(repository, storedPaths, deletedPaths))
+            {
+                logger.debug("Index of [{}:{}] has not been built yet, skip [{}] changes.",
+                             storageAndRepositoryId.getValue0(),
+                             storageAndRepositoryId.getValue1(),
+                             changes.size());
+
+                return false;
+            }
+        }
+        catch (IndexLockedException e)
+        {
+            logger.debug("Index of [{}:{}] is locked, postpone [{}] changes.",
+                         storageAndRepositoryId.getValue0(),
+                         storageAndRepositoryId.getValue1(),
+                         changes.size());
+
+            changes.forEach((path, stored) -> addPendingChange(storageAndRepositoryId, path, stored, false));
+
+            return false;
+        }
+        catch (IOException e)
+        {
+            logger.error("Failed to update index of [{}:{}], [{}] changes will be indexed with the next index rebuild.",
+                         storageAndRepositoryId.getValue0(),
+                         storageAndRepositoryId.getValue1(),
+                         changes.size(),
+                         e);
+
+            return false;
+        }
+
+        return true;
+    }
+
+    private void flushQuietly()
+    {
+        try
+        {
+            flush();
+        }
+        catch (Exception e)
+        {
+            logger.error("Failed to update repository indexes.", e);
+        }
+    }
+
+    /**
+     * @param replace whether the change should replace the pending change of the same path, postponed changes must not
+     *                override the ones which came after them
+     */
+    private void addPendingChange(final Pair<String, String> storageAndRepositoryId,
+                                  final String path,
+                                  final Boolean stored,
+                                  final boolean replace)
+    {
+        // Mutating within `compute` guarantees that the changes map is not modified after `flush` has removed it.
+        pendingChanges.compute(storageAndRepositoryId, (k, v) -> {
+            Map<String, Boolean> changes = v == null ? new HashMap<>() : v;
+            if (replace)
+            {
+                changes.put(path, stored);
+            }
+            else
+            {
+                changes.putIfAbsent(path, stored);
+            }
+            return changes;
+        });
+    }
+
+}
@@ -0,0 +1,549 @@
+package org.carlspring.strongbox.storage.metadata;
+
+import org.carlspring.strongbox.data.CacheName;
+import org.carlspring.strongbox.data.cache.LocalCacheFactory;
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathLock;
+import org.carlspring.strongbox.storage.metadata.maven.comparators.VersionComparator;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.util.MessageDigestUtils;
+
+import javax.inject.Inject;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.Lock;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.RemovalCause;
+import org.apache.maven.artifact.ArtifactUtils;
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.artifact.repository.metadata.Versioning;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Reader;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Writer;
+import org.codehaus.plexus.util.WriterFactory;
+import org.javatuples.Triplet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory versions of the artifact level {@code maven-metadata.xml} files of the group repositories, keyed by
+ * {@code (storageId, repositoryId, groupId/artifactId path)}.
+ * <p>
+ * The group metadata is merged into the sorted version set when a member repository stores its metadata, instead of
+ * reading, parsing and merging the file of every ancestor group. The merged versions are not written right away, as
+ * every deploy into a member would rewrite the files of all its ancestor groups: an entry with new versions is stored
+ * {@code strongbox.maven.group.metadata.storeDelayMillis} after its first pending change, on the shared
+ * {@code backgroundTaskScheduler}, or before the stored file is read ({@link #flush(RepositoryPath)}), whichever
+ * comes first. Only a changed version set needs to be stored: the last updated time of the members changes with
+ * every deploy, it's written along with the next version change. The file is not rewritten either if the hash of its
+ * versions is the stored one.
+ * <p>
+ * Entries are loaded from the stored file on first use, and evicted when the file is deleted or written by the
+ * {@link MavenMetadataManager}, so the stored file is authoritative again.
+ * <p>
+ * The stored file can also be written by another instance sharing the storage: its size and last modified time are
+ * checked before every write, and the versions of a changed file are merged in again, instead of being overwritten.
+ * <p>
+ * Entries which are pending, or failed to be written, are also stored with the next merge when they are evicted from
+ * the {@link CacheName.Repository#MAVEN_GROUP_METADATA} local cache (see {@link LocalCacheFactory}), and on shutdown.
+ *
+ * @see org.carlspring.strongbox.repository.group.metadata.MavenMetadataGroupRepositoryComponent
+ */
+@Component
+public class MavenGroupMetadataCache
+        implements DisposableBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(MavenGroupMetadataCache.class);
+
+    @Inject
+    private RepositoryPathLock repositoryPathLock;
+
+    @Inject
+    private TaskScheduler backgroundTaskScheduler;
+
+    @Value("${strongbox.maven.group.metadata.storeDelayMillis:1000}")
+    private long storeDelayMillis;
+
+    private final Queue<GroupMetadata> evicted = new ConcurrentLinkedQueue<>();
+
+    private final Cache<Triplet<String, String, String>, GroupMetadata> entries;
+
+    @Inject
+    MavenGroupMetadataCache(LocalCacheFactory localCacheFactory)
+    {
+        entries = localCacheFactory.newCacheBuilder(CacheName.Repository.MAVEN_GROUP_METADATA, 10000, -1)
+                                   .<Triplet<String, String, String>, GroupMetadata>removalListener(n -> {
+                                       if (n.wasEvicted() && n.getValue().isPending())
+                                       {
+                                           evicted.add(n.getValue());
+                                       }
+                                       else if (n.getCause() == RemovalCause.EXPLICIT)
+                                       {
+                                           // The scheduled store, if any, should not bring the dropped versions back.
+                                           n.getValue().discard();
+                                       }
+                                   })
+                                   .build();
+    }
+
+    /**
+     * Merges the versions of the member repository metadata into the group repository metadata, which is stored
+     * later, or right away if {@code strongbox.maven.group.metadata.storeDelayMillis} is {@code 0}.
+     *
+     * @param metadataBasePath the {@code groupId/artifactId} directory of the group repository
+     * @return {@code false} if the metadata is not an artifact level metadata, which has to be merged into the stored
+     *         file instead
+     */
+    public boolean merge(RepositoryPath metadataBasePath,
+                         Metadata mergeMetadata)
+            throws IOException
+    {
+        if (mergeMetadata.getArtifactId() == null || mergeMetadata.getVersioning() == null ||
+            !mergeMetadata.getPlugins().isEmpty())
+        {
+            return false;
+        }
+
+        Triplet<String, String, String> key = getKey(metadataBasePath);
+        GroupMetadata groupMetadata = entries.getIfPresent(key);
+        if (groupMetadata == null)
+        {
+            // An evicted entry of the same path has to be stored before it's loaded again.
+            storeEvicted();
+
+            groupMetadata = load(metadataBasePath);
+
+            GroupMetadata existing = entries.asMap().putIfAbsent(key, groupMetadata);
+            groupMetadata = existing != null ? existing : groupMetadata;
+        }
+
+        groupMetadata.merge(mergeMetadata);
+        if (storeDelayMillis > 0)
+        {
+            groupMetadata.scheduleStore();
+        }
+        else
+        {
+            groupMetadata.store();
+        }
+
+        storeEvicted();
+
+        return true;
+    }
+
+    /**
+     * Stores the pending versions of the group repository metadata, if any. It's a plain lookup otherwise, without the
+     * path lock or any file access, so it can be called before every read of the stored file.
+     *
+     * @param metadataBasePath the {@code groupId/artifactId} directory of the group repository
+     */
+    public void flush(RepositoryPath metadataBasePath)
+            throws IOException
+    {
+        GroupMetadata groupMetadata = entries.getIfPresent(getKey(metadataBasePath));
+        if (groupMetadata != null && groupMetadata.isPending())
+        {
+            groupMetadata.store();
+        }
+    }
+
+    /**
+     * Drops the versions of the group repository metadata, including the pending ones, as the stored file has been
+     * written or deleted meanwhile. The next merge loads the stored file again.
+     *
+     * @param metadataBasePath the {@code groupId/artifactId} directory of the group repository
+     */
+    public void evict(RepositoryPath metadataBasePath)
+            throws IOException
+    {
+        entries.invalidate(getKey(metadataBasePath));
+    }
+
+    @Override
+    public void destroy()
+    {
+        List<GroupMetadata> pending = new ArrayList<>(entries.asMap().values());
+        pending.addAll(evicted);
+        evicted.clear();
+
+        for (GroupMetadata groupMetadata : pending)
+        {
+            storeQuietly(groupMetadata);
+        }
+    }
+
+    @EventListener
+    public void handle(final ArtifactEvent<RepositoryPath> event)
+    {
+        if (event.getType() != ArtifactEventTypeEnum.EVENT_ARTIFACT_PATH_DELETED.getType())
+        {
+            return;
+        }
+
+        RepositoryPath repositoryPath = event.getPath();
+        if (!MetadataHelper.MAVEN_METADATA_XML.equals(repositoryPath.getFileName().toString()))
+        {
+            return;
+        }
+
+        try
+        {
+            evict(repositoryPath.getParent());
+        }
+        catch (IOException e)
+        {
+            logger.warn("Failed to resolve [{}], evicting all entries.", repositoryPath, e);
+
+            entries.invalidateAll();
+        }
+    }
+
+    private void storeEvicted()
+    {
+        GroupMetadata groupMetadata;
+        while ((groupMetadata = evicted.poll()) != null)
+        {
+            storeQuietly(groupMetadata);
+        }
+    }
+
+    private void storeQuietly(GroupMetadata groupMetadata)
+    {
+        try
+        {
+            groupMetadata.store();
+        }
+        catch (IOException e)
+        {
+            logger.error("Failed to store the group metadata [{}].", groupMetadata.metadataBasePath, e);
+        }
+    }
+
+    private GroupMetadata load(RepositoryPath metadataBasePath)
+            throws IOException
+    {
+        GroupMetadata groupMetadata = new GroupMetadata(metadataBasePath);
+
+        Lock lock = repositoryPathLock.lock(metadataBasePath).readLock();
+        lock.lock();
+        try
+        {
+            groupMetadata.mergeStored();
+            groupMetadata.storedModifications = groupMetadata.modifications;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        return groupMetadata;
+    }
+
+    private Triplet<String, String, String> getKey(RepositoryPath metadataBasePath)
+            throws IOException
+    {
+        Repository repository = metadataBasePath.getRepository();
+
+        return Triplet.with(repository.getStorage().getId(),
+                            repository.getId(),
+                            RepositoryFiles.relativizePath(metadataBasePath));
+    }
+
+    private class GroupMetadata
+    {
+
+        private final RepositoryPath metadataBasePath;
+
+        private final NavigableSet<String> versions = new TreeSet<>(new VersionComparator());
+
+        private String groupId;
+
+        private String artifactId;
+
+        private String lastUpdated;
+
+        private long modifications;
+
+        private long storedModifications;
+
+        private String contentHash;
+
+        private boolean storeScheduled;
+
+        /**
+         * The last modified time and size of the stored file, when it was last read or written, {@code null} if there
+         * was no file.
+         */
+        private FileTime storedLastModifiedTime;
+
+        private long storedSize = -1;
+
+        private GroupMetadata(RepositoryPath metadataBasePath)
+        {
+            this.metadataBasePath = metadataBasePath;
+        }
+
+        private synchronized boolean isPending()
+        {
+            return modifications != storedModifications;
+        }
+
+        private synchronized void discard()
+        {
+            storedModifications = modifications;
+        }
+
+        private synchronized void merge(Metadata metadata)
+        {
+            if (groupId == null)
+            {
+                groupId = metadata.getGroupId();
+                artifactId = metadata.getArtifactId();
+            }
+
+            Versioning versioning = metadata.getVersioning();
+            if (versioning == null)
+            {
+                return;
+            }
+
+            // The last updated time alone doesn't make the entry pending, see the class javadoc.
+            String mergeLastUpdated = versioning.getLastUpdated();
+            if (mergeLastUpdated != null && (lastUpdated == null || mergeLastUpdated.compareTo(lastUpdated) > 0))
+            {
+                lastUpdated = mergeLastUpdated;
+            }
+
+            if (versions.addAll(versioning.getVersions()))
+            {
+                modifications++;
+            }
+        }
+
+        /**
+         * Schedules the store of the pending versions, unless it's already scheduled, so the versions merged until it
+         * runs are stored at once.
+         */
+        private void scheduleStore()
+        {
+            synchronized (this)
+            {
+                if (storeScheduled || modifications == storedModifications)
+                {
+                    return;
+                }
+                storeScheduled = true;
+            }
+
+            backgroundTaskScheduler.schedule(() -> {
+                synchronized (this)
+                {
+                    // The versions merged from now on schedule another store.
+                    storeScheduled = false;
+                }
+                storeQuietly(this);
+            }, new Date(System.currentTimeMillis() + storeDelayMillis));
+        }
+
+        private void store()
+                throws IOException
+        {
+            Lock lock = repositoryPathLock.lock(metadataBasePath).writeLock();
+            lock.lock();
+
+            try
+            {
+                mergeStored();
+
+                byte[] content;
+                String hash;
+                long storing;
+                synchronized (this)
+                {
+                    if (modifications == storedModifications)
+                    {
+                        return;
+                    }
+
+                    content = serialize();
+                    hash = digestVersions();
+                    storing = modifications;
+                }
+
+                if (!hash.equals(contentHash))
+                {
+                    Files.createDirectories(metadataBasePath);
+                    try (OutputStream os = Files.newOutputStream(MetadataHelper.getMetadataPath(metadataBasePath)))
+                    {
+                        os.write(content);
+                    }
+
+                    logger.debug("Stored the group metadata [{}].", metadataBasePath);
+                }
+                BasicFileAttributes attributes = readStoredAttributes();
+
+                synchronized (this)
+                {
+                    contentHash = hash;
+                    storedModifications = storing;
+                    storedLastModifiedTime = attributes == null ? null : attributes.lastModifiedTime();
+                    storedSize = attributes == null ? -1 : attributes.size();
+                }
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Merges the versions of the stored file, if it has been written since it was last read or written here, by
+         * another instance for example. Must be called within the path lock.
+         */
+        private void mergeStored()
+                throws IOException
+        {
+            BasicFileAttributes attributes = readStoredAttributes();
+            FileTime lastModifiedTime = attributes == null ? null : attributes.lastModifiedTime();
+            long size = attributes == null ? -1 : attributes.size();
+            synchronized (this)
+            {
+                if (Objects.equals(lastModifiedTime, storedLastModifiedTime) && size == storedSize)
+                {
+                    return;
+                }
+            }
+
+            Path metadataPath = MetadataHelper.getMetadataPath(metadataBasePath);
+            Metadata metadata = null;
+            try (InputStream is = Files.newInputStream(metadataPath))
+            {
+                metadata = new MetadataXpp3Reader().read(is);
+            }
+            catch (FileNotFoundException | NoSuchFileException e)
+            {
+                logger.debug("No stored group metadata [{}].", metadataPath);
+            }
+            catch (Exception e)
+            {
+                // Same as MavenMetadataManager#mergeAndStore, an unreadable file gets replaced.
+                logger.debug("Unable to read the group metadata [{}], it will be replaced.", metadataPath, e);
+            }
+
+            synchronized (this)
+            {
+                if (metadata != null)
+                {
+                    merge(metadata);
+                }
+                // The content of the file isn't known anymore.
+                contentHash = null;
+                storedLastModifiedTime = lastModifiedTime;
+                storedSize = size;
+            }
+        }
+
+        private BasicFileAttributes readStoredAttributes()
+                throws IOException
+        {
+            try
+            {
+                return Files.readAttributes(MetadataHelper.getMetadataPath(metadataBasePath),
+                                            BasicFileAttributes.class);
+            }
+            catch (FileNotFoundException | NoSuchFileException e)
+            {
+                return null;
+            }
+        }
+
+        private byte[] serialize()
+                throws IOException
+        {
+            Versioning versioning = new Versioning();
+            versioning.setVersions(new ArrayList<>(versions));
+            versioning.setLastUpdated(lastUpdated);
+            if (!versions.isEmpty())
+            {
+                versioning.setLatest(versions.last());
+                versions.descendingSet()
+                        .stream()
+                        .filter(v -> !ArtifactUtils.isSnapshot(v))
+                        .findFirst()
+                        .ifPresent(versioning::setRelease);
+            }
+            if (lastUpdated == null)
+            {
+                MetadataHelper.setLastUpdated(versioning);
+            }
+
+            Metadata metadata = new Metadata();
+            metadata.setGroupId(groupId);
+            metadata.setArtifactId(artifactId);
+            metadata.setVersioning(versioning);
+
+            ByteArrayOutputStream os = new ByteArrayOutputStream();
+            try (Writer writer = WriterFactory.newXmlWriter(os))
+            {
+                new MetadataXpp3Writer().write(writer, metadata);
+            }
+
+            return os.toByteArray();
+        }
+
+        /**
+         * @return the hash of the stored content without the last updated time, which changes with every merge
+         */
+        private String digestVersions()
+        {
+            try
+            {
+                MessageDigest digest = MessageDigest.getInstance("SHA-1");
+                digest.update((groupId + ":" + artifactId).getBytes(StandardCharsets.UTF_8));
+                for (String version : versions)
+                {
+                    digest.update((byte) '\n');
+                    digest.update(version.getBytes(StandardCharsets.UTF_8));
+                }
+
+                return MessageDigestUtils.convertToHexadecimalString(digest.digest());
+            }
+            catch (NoSuchAlgorithmException e)
+            {
+                throw new IllegalStateException(e);
+            }
+        }
+
+    }
+
+}
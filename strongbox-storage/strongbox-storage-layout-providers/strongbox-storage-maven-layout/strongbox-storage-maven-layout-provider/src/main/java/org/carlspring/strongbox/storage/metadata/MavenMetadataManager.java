@@ -61,6 +61,9 @@ public class MavenMetadataManager
     @Inject
     private RepositoryPathLock repositoryPathLock;
 
+    @Inject
+    private MavenGroupMetadataCache groupMetadataCache;
+
 
     public Metadata readMetadata(MavenArtifact artifact)
             throws IOException,
@@ -92,6 +95,12 @@ public class MavenMetadataManager
     public Metadata readMetadata(Path artifactBasePath)
             throws IOException, XmlPullParserException
     {
+        if (artifactBasePath instanceof RepositoryPath)
+        {
+            // Only stores the pending group metadata versions, if any.
+            groupMetadataCache.flush((RepositoryPath) artifactBasePath);
+        }
+
         Path metadataPath = MetadataHelper.getMetadataPath(artifactBasePath);
         Metadata metadata;
 
@@ -148,6 +157,11 @@ public class MavenMetadataManager
                      }
                  }
         );
+
+        if (metadataType == MetadataType.ARTIFACT_ROOT_LEVEL)
+        {
+            groupMetadataCache.evict(metadataBasePath);
+        }
     }
 
     /**
@@ -0,0 +1,99 @@
+package org.carlspring.strongbox.providers.repository;
+
+import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.providers.repository.group.GroupRepositoryNegativeLookupCache;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.testing.artifact.ArtifactManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.artifact.MavenTestArtifact;
+import org.carlspring.strongbox.testing.repository.MavenRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.storage.repository.TestRepository.Group;
+
+import javax.inject.Inject;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+
+/**
+ * The group lookups with {@code strongbox.group.lookup.parallel.enabled}, where the hosted members are probed in
+ * parallel.
+ */
+@SpringBootTest(properties = "strongbox.group.lookup.parallel.enabled=true")
+@ActiveProfiles(profiles = "test")
+@ContextConfiguration(classes = Maven2LayoutProviderTestConfig.class)
+@Execution(CONCURRENT)
+public class MavenGroupRepositoryParallelLookupTest
+{
+
+    private static final String REPOSITORY_RELEASES_1 = "mgrplt-releases-1";
+
+    private static final String REPOSITORY_RELEASES_2 = "mgrplt-releases-2";
+
+    private static final String REPOSITORY_RELEASES_3 = "mgrplt-releases-3";
+
+    private static final String REPOSITORY_RELEASES_GROUP = "mgrplt-releases-group";
+
+    private static final String REPOSITORY_RELEASES_REVERSED_GROUP = "mgrplt-releases-reversed-group";
+
+    @Inject
+    private RepositoryProviderRegistry repositoryProviderRegistry;
+
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Inject
+    private GroupRepositoryNegativeLookupCache negativeLookupCache;
+
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void groupOrderShouldWinOverTheParallelLookups(@MavenRepository(repositoryId = REPOSITORY_RELEASES_1) Repository releases1,
+                                                          @MavenRepository(repositoryId = REPOSITORY_RELEASES_2) Repository releases2,
+                                                          @MavenRepository(repositoryId = REPOSITORY_RELEASES_3) Repository releases3,
+                                                          @Group({ REPOSITORY_RELEASES_1,
+                                                                   REPOSITORY_RELEASES_2,
+                                                                   REPOSITORY_RELEASES_3 })
+                                                          @MavenRepository(repositoryId = REPOSITORY_RELEASES_GROUP) Repository releasesGroup,
+                                                          @Group({ REPOSITORY_RELEASES_3,
+                                                                   REPOSITORY_RELEASES_2,
+                                                                   REPOSITORY_RELEASES_1 })
+                                                          @MavenRepository(repositoryId = REPOSITORY_RELEASES_REVERSED_GROUP) Repository reversedGroup,
+                                                          @MavenTestArtifact(repositoryId = REPOSITORY_RELEASES_1, id = "com.artifacts.in.releases.mgrplt:foo", versions = "1.2.3") Path a1,
+                                                          @MavenTestArtifact(repositoryId = REPOSITORY_RELEASES_2, id = "com.artifacts.in.releases.mgrplt:foo", versions = "1.2.3") Path a2,
+                                                          @MavenTestArtifact(repositoryId = REPOSITORY_RELEASES_3, id = "com.artifacts.in.releases.mgrplt:foo", versions = "1.2.3") Path a3,
+                                                          @MavenTestArtifact(repositoryId = REPOSITORY_RELEASES_3, id = "com.artifacts.in.releases.mgrplt:bar", versions = "1.2.3") Path a4)
+            throws Exception
+    {
+        RepositoryProvider repositoryProvider = repositoryProviderRegistry.getProvider(releasesGroup.getType());
+
+        // All the members have the path and are probed at once, the first one in the group order still wins.
+        for (int i = 0; i < 10; i++)
+        {
+            RepositoryPath resolvedPath = repositoryProvider.fetchPath(
+                    repositoryPathResolver.resolve(releasesGroup, (RepositoryPath) a1.normalize()));
+            assertThat(resolvedPath.getRepository().getId()).isEqualTo(releases1.getId());
+
+            resolvedPath = repositoryProvider.fetchPath(
+                    repositoryPathResolver.resolve(reversedGroup, (RepositoryPath) a1.normalize()));
+            assertThat(resolvedPath.getRepository().getId()).isEqualTo(releases3.getId());
+        }
+
+        // The path is only in the last member, the misses of the preceding ones are cached.
+        String path = RepositoryFiles.relativizePath((RepositoryPath) a4.normalize());
+        RepositoryPath resolvedPath = repositoryProvider.fetchPath(repositoryPathResolver.resolve(releasesGroup, path));
+        assertThat(resolvedPath.getRepository().getId()).isEqualTo(releases3.getId());
+        assertThat(negativeLookupCache.isAbsent(releases1.getStorage().getId(), releases1.getId(), path)).isTrue();
+        assertThat(negativeLookupCache.isAbsent(releases2.getStorage().getId(), releases2.getId(), path)).isTrue();
+    }
+
+}
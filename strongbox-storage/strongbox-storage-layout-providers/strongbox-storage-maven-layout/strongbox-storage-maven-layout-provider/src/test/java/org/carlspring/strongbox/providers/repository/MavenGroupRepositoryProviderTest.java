@@ -1,8 +1,12 @@
 package org.carlspring.strongbox.providers.repository;
 
 import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
+import org.carlspring.strongbox.data.criteria.Predicate;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.providers.repository.group.GroupRepositoryNegativeLookupCache;
+import org.carlspring.strongbox.services.ArtifactManagementService;
 import org.carlspring.strongbox.services.ArtifactMetadataService;
 import org.carlspring.strongbox.services.ConfigurationManagementService;
 import org.carlspring.strongbox.storage.repository.Repository;
@@ -21,6 +25,7 @@ import org.carlspring.strongbox.testing.storage.repository.TestRepository.Group;
 import org.carlspring.strongbox.testing.storage.repository.TestRepository.Group.Rule;
 
 import javax.inject.Inject;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Path;
@@ -37,6 +42,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
 
@@ -136,9 +143,32 @@ public class MavenGroupRepositoryProviderTest
 
     private static final String REPOSITORY_RELEASES_DRRSWFAGUTSRN_GROUP = "mgrpt-releases-drrswfagutsrn-group";
 
+    private static final String REPOSITORY_RELEASES_GMSBCUAIS_1 = "mgrpt-releases-gmsbcuais-1";
+
+    private static final String REPOSITORY_RELEASES_GMSBCUAIS_2 = "mgrpt-releases-gmsbcuais-2";
+
+    private static final String REPOSITORY_RELEASES_GMSBCUAIS_GROUP = "mgrpt-releases-gmsbcuais-group";
+
+    private static final String REPOSITORY_RELEASES_GMSBRIO_1 = "mgrpt-releases-gmsbrio-1";
+
+    private static final String REPOSITORY_RELEASES_GMSBRIO_2 = "mgrpt-releases-gmsbrio-2";
+
+    private static final String REPOSITORY_RELEASES_GMSBRIO_GROUP = "mgrpt-releases-gmsbrio-group";
+
+    private static final String REPOSITORY_RELEASES_GMSBRIO_REVERSED_GROUP = "mgrpt-releases-gmsbrio-reversed-group";
+
+    private static final String REPOSITORY_RELEASES_GCSCSCO_1 = "mgrpt-releases-gcscsco-1";
+
+    private static final String REPOSITORY_RELEASES_GCSCSCO_2 = "mgrpt-releases-gcscsco-2";
+
+    private static final String REPOSITORY_RELEASES_GCSCSCO_GROUP = "mgrpt-releases-gcscsco-group";
+
     @Inject
     private RepositoryProviderRegistry repositoryProviderRegistry;
 
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
     @Inject
     private ArtifactMetadataService artifactMetadataService;
 
@@ -151,6 +181,12 @@ public class MavenGroupRepositoryProviderTest
     @Inject
     private MavenMetadataServiceHelper mavenMetadataServiceHelper;
 
+    @Inject
+    private ArtifactManagementService artifactManagementService;
+
+    @Inject
+    private GroupRepositoryNegativeLookupCache negativeLookupCache;
+
     @ExtendWith({ RepositoryManagementTestExecutionListener.class,
                   ArtifactManagementTestExecutionListener.class })
     @Test
@@ -563,6 +599,103 @@ public class MavenGroupRepositoryProviderTest
                  (RepositoryPath) a2.normalize());
     }
 
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    @Test
+    public void groupMissShouldBeCachedUntilTheArtifactIsStored(@MavenRepository(repositoryId = REPOSITORY_RELEASES_GMSBCUAIS_1) Repository releases1,
+                                                                @MavenRepository(repositoryId = REPOSITORY_RELEASES_GMSBCUAIS_2) Repository releases2,
+                                                                @Group({ REPOSITORY_RELEASES_GMSBCUAIS_1,
+                                                                         REPOSITORY_RELEASES_GMSBCUAIS_2 })
+                                                                @MavenRepository(repositoryId = REPOSITORY_RELEASES_GMSBCUAIS_GROUP) Repository releasesGroup)
+            throws Exception
+    {
+        String storageId = releasesGroup.getStorage().getId();
+        String path = "com/artifacts/in/releases/gmsbcuais/foo/1.2.3/foo-1.2.3.jar";
+
+        RepositoryProvider repositoryProvider = repositoryProviderRegistry.getProvider(releasesGroup.getType());
+        RepositoryPath groupPath = repositoryPathResolver.resolve(releasesGroup, path);
+
+        assertThat(repositoryProvider.fetchPath(groupPath)).isNull();
+        assertThat(negativeLookupCache.isAbsent(storageId, releases1.getId(), path)).isTrue();
+        assertThat(negativeLookupCache.isAbsent(storageId, releases2.getId(), path)).isTrue();
+
+        artifactManagementService.store(repositoryPathResolver.resolve(releases2, path),
+                                        new ByteArrayInputStream("gmsbcuais".getBytes()));
+
+        // Only the stored path of the member it was stored in is invalidated.
+        assertThat(negativeLookupCache.isAbsent(storageId, releases2.getId(), path)).isFalse();
+        assertThat(negativeLookupCache.isAbsent(storageId, releases1.getId(), path)).isTrue();
+
+        RepositoryPath resolvedPath = repositoryProvider.fetchPath(groupPath);
+        assertThat(resolvedPath).isNotNull();
+        assertThat(resolvedPath.getRepository().getId()).isEqualTo(releases2.getId());
+    }
+
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void groupMembersShouldBeResolvedInOrder(@MavenRepository(repositoryId = REPOSITORY_RELEASES_GMSBRIO_1) Repository releases1,
+                                                    @MavenRepository(repositoryId = REPOSITORY_RELEASES_GMSBRIO_2) Repository releases2,
+                                                    @Group({ REPOSITORY_RELEASES_GMSBRIO_1,
+                                                             REPOSITORY_RELEASES_GMSBRIO_2 })
+                                                    @MavenRepository(repositoryId = REPOSITORY_RELEASES_GMSBRIO_GROUP) Repository releasesGroup,
+                                                    @Group({ REPOSITORY_RELEASES_GMSBRIO_2,
+                                                             REPOSITORY_RELEASES_GMSBRIO_1 })
+                                                    @MavenRepository(repositoryId = REPOSITORY_RELEASES_GMSBRIO_REVERSED_GROUP) Repository reversedGroup,
+                                                    @MavenTestArtifact(repositoryId = REPOSITORY_RELEASES_GMSBRIO_1, id = "com.artifacts.in.releases.gmsbrio:foo", versions = "1.2.3") Path a1,
+                                                    @MavenTestArtifact(repositoryId = REPOSITORY_RELEASES_GMSBRIO_2, id = "com.artifacts.in.releases.gmsbrio:foo", versions = "1.2.3") Path a2,
+                                                    @MavenTestArtifact(repositoryId = REPOSITORY_RELEASES_GMSBRIO_2, id = "com.artifacts.in.releases.gmsbrio:bar", versions = "1.2.3") Path a3)
+            throws Exception
+    {
+        RepositoryProvider repositoryProvider = repositoryProviderRegistry.getProvider(releasesGroup.getType());
+
+        // The first member in the group order which has the path wins, see MavenGroupRepositoryParallelLookupTest.
+        RepositoryPath resolvedPath = repositoryProvider.fetchPath(repositoryPathResolver.resolve(releasesGroup,
+                                                                                                  (RepositoryPath) a1.normalize()));
+        assertThat(resolvedPath.getRepository().getId()).isEqualTo(releases1.getId());
+
+        resolvedPath = repositoryProvider.fetchPath(repositoryPathResolver.resolve(reversedGroup,
+                                                                                   (RepositoryPath) a1.normalize()));
+        assertThat(resolvedPath.getRepository().getId()).isEqualTo(releases2.getId());
+
+        // The path is only in the second member, the miss of the first member is cached.
+        String path = RepositoryFiles.relativizePath((RepositoryPath) a3.normalize());
+        resolvedPath = repositoryProvider.fetchPath(repositoryPathResolver.resolve(releasesGroup, path));
+        assertThat(resolvedPath.getRepository().getId()).isEqualTo(releases2.getId());
+        assertThat(negativeLookupCache.isAbsent(releases1.getStorage().getId(), releases1.getId(), path)).isTrue();
+
+        resolvedPath = repositoryProvider.fetchPath(repositoryPathResolver.resolve(releasesGroup, path));
+        assertThat(resolvedPath.getRepository().getId()).isEqualTo(releases2.getId());
+    }
+
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void groupCountShouldCountSharedCoordinatesOnce(@MavenRepository(repositoryId = REPOSITORY_RELEASES_GCSCSCO_1) Repository releases1,
+                                                           @MavenRepository(repositoryId = REPOSITORY_RELEASES_GCSCSCO_2) Repository releases2,
+                                                           @Group({ REPOSITORY_RELEASES_GCSCSCO_1,
+                                                                    REPOSITORY_RELEASES_GCSCSCO_2 })
+                                                           @MavenRepository(repositoryId = REPOSITORY_RELEASES_GCSCSCO_GROUP) Repository releasesGroup,
+                                                           @MavenTestArtifact(repositoryId = REPOSITORY_RELEASES_GCSCSCO_1, id = "com.artifacts.in.releases.gcscsco:foo", versions = "1.2.3") Path a1,
+                                                           @MavenTestArtifact(repositoryId = REPOSITORY_RELEASES_GCSCSCO_2, id = "com.artifacts.in.releases.gcscsco:foo", versions = "1.2.3") Path a2,
+                                                           @MavenTestArtifact(repositoryId = REPOSITORY_RELEASES_GCSCSCO_2, id = "com.artifacts.in.releases.gcscsco:bar", versions = "1.2.3") Path a3)
+    {
+        long count1 = count(releases1);
+        long count2 = count(releases2);
+        assertThat(count1).isPositive();
+
+        // The second member holds all the coordinates of the first one, which are counted once.
+        assertThat(count(releasesGroup)).isEqualTo(count2);
+        assertThat(count(releasesGroup)).isLessThan(count1 + count2);
+    }
+
+    private long count(Repository repository)
+    {
+        RepositoryProvider repositoryProvider = repositoryProviderRegistry.getProvider(repository.getType());
+
+        return new TransactionTemplate(transactionManager).execute(
+                t -> repositoryProvider.count(repository.getStorage().getId(), repository.getId(), Predicate.empty()));
+    }
+
     private void testDeny(Repository repository1,
                           Repository repository2,
                           Repository repositoryReleasesGroup,
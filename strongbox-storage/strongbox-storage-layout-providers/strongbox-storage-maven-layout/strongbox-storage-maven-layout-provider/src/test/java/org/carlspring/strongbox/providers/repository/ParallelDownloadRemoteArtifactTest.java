@@ -2,6 +2,7 @@ package org.carlspring.strongbox.providers.repository;
 
 import org.carlspring.strongbox.artifact.MavenArtifactUtils;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.services.ArtifactDownloadStatisticsService;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.testing.artifact.MavenArtifactTestUtils;
 import org.carlspring.strongbox.testing.repository.MavenRepository;
@@ -52,6 +53,9 @@ public class ParallelDownloadRemoteArtifactTest
     @Inject
     private PlatformTransactionManager transactionManager;
 
+    @Inject
+    private ArtifactDownloadStatisticsService artifactDownloadStatisticsService;
+
     @Override
     public InputStream getInputStream()
     {
@@ -126,7 +130,9 @@ public class ParallelDownloadRemoteArtifactTest
         assertThat(result).hasSize(concurrency);
 
         assertThat(actual).isEqualTo(expected);
-        
+
+        artifactDownloadStatisticsService.flush();
+
         RepositoryPath repositoryPath = repositoryPathResolver.resolve(storageId,
                                                                        repositoryId,
                                                                        path);
@@ -0,0 +1,275 @@
+package org.carlspring.strongbox.providers.repository;
+
+import org.carlspring.strongbox.artifact.MavenArtifactUtils;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryArtifactResolver;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.testing.artifact.MavenArtifactTestUtils;
+import org.carlspring.strongbox.testing.repository.MavenRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.storage.repository.TestRepository.Remote;
+
+import javax.inject.Inject;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.maven.artifact.Artifact;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent requests of the same missing artifact must end up in a single remote download, which they can follow.
+ */
+public class SingleFlightRemoteFetchTest
+        extends MockedRestArtifactResolverTestBase
+        implements ArtifactResolverContext
+{
+
+    private static final String REPOSITORY = "sfrft-repository";
+
+    private static final String REPOSITORY_FOLLOW = "sfrft-follow-repository";
+
+    private static final String PROXY_REPOSITORY_URL = "https://repo.maven.apache.org/maven2/";
+
+    /**
+     * How long the remote download stalls before its first byte, so that all the requesters are in flight.
+     */
+    private static final long REMOTE_LATENCY_MILLIS = 1000;
+
+    private final int concurrency = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+    private final AtomicInteger remoteDownloads = new AtomicInteger();
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    @Inject
+    private ProxyRepositoryArtifactResolver proxyRepositoryArtifactResolver;
+
+    @Override
+    public InputStream getInputStream()
+    {
+        remoteDownloads.incrementAndGet();
+        try
+        {
+            return new SlowRemoteInputStream(jarArtifact.getInputStream());
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected ArtifactResolverContext lookupArtifactResolverContext()
+    {
+        return this;
+    }
+
+    @Test
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    public void testConcurrentRequestsOfMissingArtifactFetchOnce(@MavenRepository(repositoryId = REPOSITORY)
+                                                                 @Remote(url = PROXY_REPOSITORY_URL)
+                                                                 Repository proxyRepository)
+        throws Exception
+    {
+        String storageId = proxyRepository.getStorage().getId();
+        String repositoryId = proxyRepository.getId();
+
+        Artifact artifact = MavenArtifactTestUtils.getArtifactFromGAVTC("org.apache.commons:commons-text:1.8");
+        String path = MavenArtifactUtils.convertArtifactToPath(artifact);
+        RepositoryPath artifactPath = repositoryPathResolver.resolve(proxyRepository, path);
+
+        // given
+        assertThat(Files.exists(artifactPath)).isFalse();
+
+        // when
+        CountDownLatch startGate = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        List<Future<Void>> results = new ArrayList<>();
+        try
+        {
+            for (int i = 0; i < concurrency; i++)
+            {
+                results.add(executor.submit(requestArtifact(startGate, storageId, repositoryId, path)));
+            }
+            startGate.countDown();
+
+            for (Future<Void> result : results)
+            {
+                result.get(1, TimeUnit.MINUTES);
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        // then
+        assertThat(Files.exists(artifactPath)).isTrue();
+        assertThat(Files.size(artifactPath)).isEqualTo(Files.size(jarArtifact.getFile().toPath()));
+        assertThat(remoteDownloads.get()).as("The remote artifact was downloaded more than once.").isEqualTo(1);
+    }
+
+    @Test
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    public void testConcurrentRequestOfMissingArtifactFollowsTheRemoteFetch(@MavenRepository(repositoryId = REPOSITORY_FOLLOW)
+                                                                            @Remote(url = PROXY_REPOSITORY_URL)
+                                                                            Repository proxyRepository)
+        throws Exception
+    {
+        String storageId = proxyRepository.getStorage().getId();
+        String repositoryId = proxyRepository.getId();
+
+        Artifact artifact = MavenArtifactTestUtils.getArtifactFromGAVTC("org.apache.commons:commons-text:1.9");
+        String path = MavenArtifactUtils.convertArtifactToPath(artifact);
+        RepositoryPath artifactPath = repositoryPathResolver.resolve(proxyRepository, path);
+
+        // given
+        assertThat(Files.exists(artifactPath)).isFalse();
+
+        // when
+        CountDownLatch startGate = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        byte[] followed;
+        try
+        {
+            Future<Void> result = executor.submit(requestArtifact(startGate, storageId, repositoryId, path));
+            startGate.countDown();
+
+            InputStream is = null;
+            long deadline = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1);
+            while (is == null && !result.isDone() && System.currentTimeMillis() < deadline)
+            {
+                is = proxyRepositoryArtifactResolver.openRemoteFetch(artifactPath);
+                if (is == null)
+                {
+                    Thread.sleep(10);
+                }
+            }
+            assertThat(is).as("The remote fetch has not been followed.").isNotNull();
+
+            try (InputStream spool = is)
+            {
+                followed = IOUtils.toByteArray(spool);
+            }
+
+            result.get(1, TimeUnit.MINUTES);
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        // then
+        assertThat(followed).isEqualTo(IOUtils.toByteArray(jarArtifact.getInputStream()));
+        assertThat(Files.exists(artifactPath)).isTrue();
+        assertThat(remoteDownloads.get()).as("The remote artifact was downloaded more than once.").isEqualTo(1);
+    }
+
+    private Callable<Void> requestArtifact(CountDownLatch startGate,
+                                           String storageId,
+                                           String repositoryId,
+                                           String path)
+    {
+        return () -> {
+            initContext(this);
+            try
+            {
+                startGate.await();
+
+                return new TransactionTemplate(transactionManager).execute(t -> {
+                    try
+                    {
+                        artifactResolutionServiceHelper.assertStreamNotNull(storageId, repositoryId, path);
+                    }
+                    catch (RuntimeException e)
+                    {
+                        throw e;
+                    }
+                    catch (Exception e)
+                    {
+                        throw new IllegalStateException(e);
+                    }
+
+                    return null;
+                });
+            }
+            finally
+            {
+                cleanContext();
+            }
+        };
+    }
+
+    private static class SlowRemoteInputStream
+            extends FilterInputStream
+    {
+
+        private boolean started;
+
+        SlowRemoteInputStream(InputStream in)
+        {
+            super(in);
+        }
+
+        @Override
+        public int read()
+            throws IOException
+        {
+            awaitFirstByte();
+
+            return super.read();
+        }
+
+        @Override
+        public int read(byte[] b,
+                        int off,
+                        int len)
+            throws IOException
+        {
+            awaitFirstByte();
+
+            return super.read(b, off, len);
+        }
+
+        private void awaitFirstByte()
+            throws IOException
+        {
+            if (started)
+            {
+                return;
+            }
+            started = true;
+
+            try
+            {
+                Thread.sleep(REMOTE_LATENCY_MILLIS);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+
+                throw new IOException(e);
+            }
+        }
+
+    }
+
+}
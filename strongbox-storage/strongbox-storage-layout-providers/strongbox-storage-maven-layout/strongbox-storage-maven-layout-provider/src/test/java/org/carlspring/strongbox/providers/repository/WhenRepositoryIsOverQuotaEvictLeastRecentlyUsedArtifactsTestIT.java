@@ -0,0 +1,129 @@
+package org.carlspring.strongbox.providers.repository;
+
+import org.carlspring.strongbox.config.Maven2LayoutProviderCronTasksTestConfig;
+import org.carlspring.strongbox.data.CacheManagerTestExecutionListener;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.testing.MavenIndexedRepositorySetup;
+import org.carlspring.strongbox.testing.repository.MavenRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.storage.repository.TestRepository.Remote;
+
+import java.io.InputStream;
+
+import org.apache.commons.lang.time.DateUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.mockito.Mockito;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria.Builder.anArtifactEntrySearchCriteria;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+import static org.mockito.ArgumentMatchers.argThat;
+
+@SpringBootTest
+@ActiveProfiles(profiles = "test")
+@ContextConfiguration(classes = Maven2LayoutProviderCronTasksTestConfig.class)
+@TestExecutionListeners(listeners = { CacheManagerTestExecutionListener.class },
+                        mergeMode = TestExecutionListeners.MergeMode.MERGE_WITH_DEFAULTS)
+@Execution(CONCURRENT)
+public class WhenRepositoryIsOverQuotaEvictLeastRecentlyUsedArtifactsTestIT
+        extends BaseLocalStorageProxyRepositoryExpiredArtifactsCleanerTest
+{
+
+    private static final String REPOSITORY_ID = "maven-central-over-quota";
+
+    private static final String REMOTE_URL = "https://repo1.maven.org/maven2/";
+
+    private static final String RECENTLY_USED_PATH = "org/carlspring/maven/maven-commons/1.3/maven-commons-1.3.jar";
+
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    @Test
+    public void leastRecentlyUsedArtifactsShouldBeEvictedDownToTheQuota(@Remote(url = REMOTE_URL)
+                                                                        @MavenRepository(storageId = STORAGE_ID,
+                                                                                         repositoryId = REPOSITORY_ID,
+                                                                                         setup = MavenIndexedRepositorySetup.class)
+                                                                        Repository proxyRepository)
+            throws Exception
+    {
+        Mockito.when(getRemoteRepositoryAlivenessMock().isAlive(
+                argThat(argument -> argument != null && REMOTE_URL.equals(argument.getUrl()))))
+               .thenReturn(true);
+
+        // used 10 days ago
+        ArtifactEntry leastRecentlyUsedEntry = downloadAndSaveArtifactEntry();
+        // used 5 days ago
+        ArtifactEntry recentlyUsedEntry = download(RECENTLY_USED_PATH);
+        recentlyUsedEntry.setLastUsed(DateUtils.addDays(recentlyUsedEntry.getLastUsed(), -5));
+        artifactEntryService.save(recentlyUsedEntry);
+
+        ArtifactEntrySearchCriteria searchCriteria = anArtifactEntrySearchCriteria().withStorageId(STORAGE_ID)
+                                                                                    .withRepositoryId(REPOSITORY_ID)
+                                                                                    .build();
+        long sizeInBytes = artifactEntryService.sumSizeInBytes(searchCriteria);
+        assertThat(sizeInBytes).isGreaterThanOrEqualTo(leastRecentlyUsedEntry.getSizeInBytes() +
+                                                       recentlyUsedEntry.getSizeInBytes());
+
+        // One byte over the quota is enough for the least recently used artifact to go.
+        long maxRepositorySizeInBytes = sizeInBytes - 1;
+        localStorageProxyRepositoryExpiredArtifactsCleaner.evict(maxRepositorySizeInBytes);
+
+        assertThat(artifactEntryService.findOneArtifact(STORAGE_ID, REPOSITORY_ID, getPath())).isNull();
+        assertThat(RepositoryFiles.artifactExists(repositoryPathResolver.resolve(proxyRepository, getPath()))).isFalse();
+
+        assertThat(artifactEntryService.findOneArtifact(STORAGE_ID, REPOSITORY_ID, RECENTLY_USED_PATH)).isNotNull();
+        assertThat(RepositoryFiles.artifactExists(repositoryPathResolver.resolve(proxyRepository,
+                                                                                 RECENTLY_USED_PATH))).isTrue();
+
+        assertThat(artifactEntryService.sumSizeInBytes(searchCriteria)).isLessThanOrEqualTo(maxRepositorySizeInBytes);
+
+        // A repository within its quota is left alone.
+        localStorageProxyRepositoryExpiredArtifactsCleaner.evict(maxRepositorySizeInBytes);
+
+        assertThat(artifactEntryService.findOneArtifact(STORAGE_ID, REPOSITORY_ID, RECENTLY_USED_PATH)).isNotNull();
+    }
+
+    private ArtifactEntry download(String path)
+            throws Exception
+    {
+        RepositoryPath repositoryPath = proxyRepositoryProvider.fetchPath(repositoryPathResolver.resolve(STORAGE_ID,
+                                                                                                         getRepositoryId(),
+                                                                                                         path));
+        try (final InputStream ignored = proxyRepositoryProvider.getInputStream(repositoryPath))
+        {
+            assertThat(ignored).as("Failed to resolve " + repositoryPath + "!").isNotNull();
+        }
+
+        ArtifactEntry artifactEntry = artifactEntryService.findOneArtifact(STORAGE_ID, getRepositoryId(), path);
+        assertThat(artifactEntry).isNotNull();
+        assertThat(artifactEntry.getSizeInBytes()).isGreaterThan(0L);
+
+        return artifactEntry;
+    }
+
+    @Override
+    protected String getRepositoryId()
+    {
+        return REPOSITORY_ID;
+    }
+
+    @Override
+    protected String getPath()
+    {
+        return "org/carlspring/maven/maven-commons/1.2/maven-commons-1.2.jar";
+    }
+
+    @Override
+    protected String getVersion()
+    {
+        return "1.2";
+    }
+
+}
@@ -41,6 +41,7 @@ import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.maven.artifact.Artifact;
 import org.junit.jupiter.api.Test;
@@ -97,6 +98,9 @@ public class ArtifactManagementServiceImplTest
     @Inject
     private ArtifactEntryService artifactEntryService;
 
+    @Inject
+    private ArtifactDownloadStatisticsService artifactDownloadStatisticsService;
+
     @Inject
     private ArtifactResolutionService artifactResolutionService;
 
@@ -522,6 +526,8 @@ public class ArtifactManagementServiceImplTest
             assertThat(Long.valueOf(CONTENT_SIZE)).as(message).isEqualTo(resultList.get(i));
         }
 
+        artifactDownloadStatisticsService.flush();
+
         RepositoryPath repositoryPathResult = repositoryPathResolver.resolve(repository, path);
         ArtifactEntry artifactEntry = repositoryPathResult.getArtifactEntry();
 
@@ -665,6 +671,9 @@ public class ArtifactManagementServiceImplTest
         Map <String, String> expectedChecksums = new HashMap<>();
         expectedChecksums.put("SHA-1", sha1Checksum);
         expectedChecksums.put("MD5", md5Checksum);
+        // Only recorded in the artifact entry, there are no checksum files for them.
+        expectedChecksums.put("SHA-256", DigestUtils.sha256Hex(Files.readAllBytes(artifact)));
+        expectedChecksums.put("SHA-512", DigestUtils.sha512Hex(Files.readAllBytes(artifact)));
 
         String path = RepositoryFiles.relativizePath(repositoryPath);
         ArtifactEntry artifactEntry = artifactEntryService.findOneArtifact(storageId,
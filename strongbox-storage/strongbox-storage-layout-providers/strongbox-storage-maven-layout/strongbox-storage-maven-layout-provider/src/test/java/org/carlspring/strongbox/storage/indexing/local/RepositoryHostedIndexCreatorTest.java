@@ -1,6 +1,7 @@
 package org.carlspring.strongbox.storage.indexing.local;
 
 import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RootRepositoryPath;
 import org.carlspring.strongbox.repository.MavenRepositoryFeatures;
@@ -18,9 +19,12 @@ import org.carlspring.strongbox.util.MessageDigestUtils;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collections;
 import java.util.List;
+import java.util.Properties;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -45,13 +49,18 @@ public class RepositoryHostedIndexCreatorTest
     private static final String REPOSITORY_RELEASES_0 = "ri-releases-rhicst0";
     private static final String REPOSITORY_RELEASES_1 = "ri-releases-rhicst1";
     private static final String REPOSITORY_RELEASES_2 = "ri-releases-rhicst2";
+    private static final String REPOSITORY_RELEASES_3 = "ri-releases-rhicst3";
     private static final String GROUP_ID = "org.carlspring.strongbox";
     private static final String ARTIFACT_ID = "strongbox-commons";
+    private static final String LAST_INCREMENTAL = "nexus.index.last-incremental";
 
     @Inject
     @RepositoryIndexCreatorQualifier(RepositoryTypeEnum.HOSTED)
     private RepositoryIndexCreator repositoryIndexCreator;
 
+    @Inject
+    private RepositoryHostedIndexCreator repositoryHostedIndexCreator;
+
     @ExtendWith({ RepositoryManagementTestExecutionListener.class,
                   ArtifactManagementTestExecutionListener.class })
     @Test
@@ -139,6 +148,46 @@ public class RepositoryHostedIndexCreatorTest
         assertThat(thread3.exception).isNull();
     }
 
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void packedIndexShouldBeUpdatedIncrementally(@MavenRepository(repositoryId = REPOSITORY_RELEASES_3,
+                                                                         setup = MavenIndexedRepositorySetup.class)
+                                                        Repository repository,
+                                                        @MavenTestArtifact(repositoryId = REPOSITORY_RELEASES_3,
+                                                                           id = GROUP_ID + ":" + ARTIFACT_ID,
+                                                                           versions = { "1.0",
+                                                                                        "1.1" })
+                                                        List<Path> artifactPaths)
+            throws Exception
+    {
+        final RepositoryPath indexDirectoryPath = repositoryHostedIndexCreator.apply(repository);
+        final String lastIncrementalBefore = readIndexProperties(indexDirectoryPath).getProperty(LAST_INCREMENTAL);
+
+        final String deletedPath = RepositoryFiles.relativizePath((RepositoryPath) artifactPaths.get(0));
+        final boolean updated = repositoryHostedIndexCreator.update(repository,
+                                                                    Collections.emptySet(),
+                                                                    Collections.singleton(deletedPath));
+
+        assertThat(updated).isTrue();
+
+        final String lastIncrementalAfter = readIndexProperties(indexDirectoryPath).getProperty(LAST_INCREMENTAL);
+        assertThat(lastIncrementalAfter).isNotNull().isNotEqualTo(lastIncrementalBefore);
+        assertThat(indexDirectoryPath.resolve("nexus-maven-repository-index." + lastIncrementalAfter + ".gz"))
+                .matches(Files::exists);
+    }
+
+    private Properties readIndexProperties(RepositoryPath indexDirectoryPath)
+            throws IOException
+    {
+        Properties properties = new Properties();
+        try (InputStream is = Files.newInputStream(indexDirectoryPath.resolve("nexus-maven-repository-index.properties")))
+        {
+            properties.load(is);
+        }
+        return properties;
+    }
+
     private class PackedRepositoryIndexGeneratorThread
             extends Thread
     {
@@ -0,0 +1,194 @@
+package org.carlspring.strongbox.storage.metadata;
+
+import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.testing.repository.MavenRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.storage.repository.TestRepository.Group;
+
+import javax.inject.Inject;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.artifact.repository.metadata.Versioning;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Reader;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Writer;
+import org.codehaus.plexus.util.WriterFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+
+@SpringBootTest
+@ActiveProfiles(profiles = "test")
+@ContextConfiguration(classes = Maven2LayoutProviderTestConfig.class)
+@Execution(CONCURRENT)
+public class MavenGroupMetadataCacheTest
+{
+
+    private static final String REPOSITORY_RELEASES_MVSBWT = "mgmct-releases-mvsbwt";
+
+    private static final String REPOSITORY_GROUP_MVSBWT = "mgmct-group-mvsbwt";
+
+    private static final String REPOSITORY_RELEASES_ESNLMV = "mgmct-releases-esnlmv";
+
+    private static final String REPOSITORY_GROUP_ESNLMV = "mgmct-group-esnlmv";
+
+    private static final String REPOSITORY_RELEASES_VSEBK = "mgmct-releases-vsebk";
+
+    private static final String REPOSITORY_GROUP_VSEBK = "mgmct-group-vsebk";
+
+    private static final String REPOSITORY_RELEASES_LUANSV = "mgmct-releases-luansv";
+
+    private static final String REPOSITORY_GROUP_LUANSV = "mgmct-group-luansv";
+
+    private static final String GROUP_ID = "org.carlspring.strongbox.mgmct";
+
+    private static final String ARTIFACT_ID = "foo";
+
+    private static final String ARTIFACT_BASE_PATH = "org/carlspring/strongbox/mgmct/foo";
+
+    @Inject
+    private MavenGroupMetadataCache groupMetadataCache;
+
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    @Test
+    public void mergedVersionsShouldBeStoredOnFlush(@MavenRepository(repositoryId = REPOSITORY_RELEASES_MVSBWT)
+                                                    Repository releases,
+                                                    @Group(REPOSITORY_RELEASES_MVSBWT)
+                                                    @MavenRepository(repositoryId = REPOSITORY_GROUP_MVSBWT)
+                                                    Repository group)
+            throws Exception
+    {
+        RepositoryPath metadataBasePath = repositoryPathResolver.resolve(group, ARTIFACT_BASE_PATH);
+
+        assertThat(groupMetadataCache.merge(metadataBasePath, newMetadata("1.0", "1.1"))).isTrue();
+        groupMetadataCache.merge(metadataBasePath, newMetadata("1.2"));
+
+        // The versions merged meanwhile are stored at once.
+        groupMetadataCache.flush(metadataBasePath);
+
+        assertThat(readStoredMetadata(metadataBasePath).getVersioning().getVersions()).containsExactly("1.0",
+                                                                                                      "1.1",
+                                                                                                      "1.2");
+    }
+
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    @Test
+    public void lastUpdatedAloneShouldNotBeStored(@MavenRepository(repositoryId = REPOSITORY_RELEASES_LUANSV)
+                                                  Repository releases,
+                                                  @Group(REPOSITORY_RELEASES_LUANSV)
+                                                  @MavenRepository(repositoryId = REPOSITORY_GROUP_LUANSV)
+                                                  Repository group)
+            throws Exception
+    {
+        RepositoryPath metadataBasePath = repositoryPathResolver.resolve(group, ARTIFACT_BASE_PATH);
+
+        groupMetadataCache.merge(metadataBasePath, newMetadataUpdatedAt("20200101000000", "1.0"));
+        groupMetadataCache.flush(metadataBasePath);
+
+        // Another deploy of the same version into a member.
+        groupMetadataCache.merge(metadataBasePath, newMetadataUpdatedAt("20200102000000", "1.0"));
+        groupMetadataCache.flush(metadataBasePath);
+
+        assertThat(readStoredMetadata(metadataBasePath).getVersioning().getLastUpdated()).isEqualTo("20200101000000");
+
+        // It's stored along with the next version.
+        groupMetadataCache.merge(metadataBasePath, newMetadataUpdatedAt("20200103000000", "1.1"));
+        groupMetadataCache.flush(metadataBasePath);
+
+        Versioning versioning = readStoredMetadata(metadataBasePath).getVersioning();
+        assertThat(versioning.getVersions()).containsExactly("1.0", "1.1");
+        assertThat(versioning.getLastUpdated()).isEqualTo("20200103000000");
+    }
+
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    @Test
+    public void evictionShouldNotLoseMergedVersions(@MavenRepository(repositoryId = REPOSITORY_RELEASES_ESNLMV)
+                                                    Repository releases,
+                                                    @Group(REPOSITORY_RELEASES_ESNLMV)
+                                                    @MavenRepository(repositoryId = REPOSITORY_GROUP_ESNLMV)
+                                                    Repository group)
+            throws Exception
+    {
+        RepositoryPath metadataBasePath = repositoryPathResolver.resolve(group, ARTIFACT_BASE_PATH);
+
+        groupMetadataCache.merge(metadataBasePath, newMetadata("1.0"));
+        groupMetadataCache.flush(metadataBasePath);
+        groupMetadataCache.evict(metadataBasePath);
+        groupMetadataCache.merge(metadataBasePath, newMetadata("1.1"));
+        groupMetadataCache.flush(metadataBasePath);
+
+        assertThat(readStoredMetadata(metadataBasePath).getVersioning().getVersions()).containsExactly("1.0", "1.1");
+    }
+
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    @Test
+    public void versionsStoredElsewhereShouldBeKept(@MavenRepository(repositoryId = REPOSITORY_RELEASES_VSEBK)
+                                                    Repository releases,
+                                                    @Group(REPOSITORY_RELEASES_VSEBK)
+                                                    @MavenRepository(repositoryId = REPOSITORY_GROUP_VSEBK)
+                                                    Repository group)
+            throws Exception
+    {
+        RepositoryPath metadataBasePath = repositoryPathResolver.resolve(group, ARTIFACT_BASE_PATH);
+
+        groupMetadataCache.merge(metadataBasePath, newMetadata("1.0"));
+        groupMetadataCache.flush(metadataBasePath);
+
+        // Another instance sharing the storage merges a version of its own.
+        try (Writer writer = WriterFactory.newXmlWriter(Files.newOutputStream(MetadataHelper.getMetadataPath(metadataBasePath))))
+        {
+            new MetadataXpp3Writer().write(writer, newMetadata("1.0", "2.0"));
+        }
+
+        groupMetadataCache.merge(metadataBasePath, newMetadata("1.1"));
+        groupMetadataCache.flush(metadataBasePath);
+
+        assertThat(readStoredMetadata(metadataBasePath).getVersioning().getVersions()).containsExactly("1.0",
+                                                                                                      "1.1",
+                                                                                                      "2.0");
+    }
+
+    private Metadata newMetadata(String... versions)
+    {
+        return newMetadataUpdatedAt(null, versions);
+    }
+
+    private Metadata newMetadataUpdatedAt(String lastUpdated,
+                                          String... versions)
+    {
+        Versioning versioning = new Versioning();
+        versioning.setVersions(Arrays.asList(versions));
+        versioning.setLastUpdated(lastUpdated);
+
+        Metadata metadata = new Metadata();
+        metadata.setGroupId(GROUP_ID);
+        metadata.setArtifactId(ARTIFACT_ID);
+        metadata.setVersioning(versioning);
+
+        return metadata;
+    }
+
+    private Metadata readStoredMetadata(RepositoryPath metadataBasePath)
+            throws Exception
+    {
+        try (InputStream is = Files.newInputStream(MetadataHelper.getMetadataPath(metadataBasePath)))
+        {
+            return new MetadataXpp3Reader().read(is);
+        }
+    }
+
+}
@@ -0,0 +1,379 @@
+package org.carlspring.strongbox.providers.layout;
+
+import org.carlspring.strongbox.artifact.coordinates.NpmArtifactCoordinates;
+import org.carlspring.strongbox.config.NpmLayoutProviderConfig.NpmObjectMapper;
+import org.carlspring.strongbox.data.CacheName;
+import org.carlspring.strongbox.data.cache.LocalCacheFactory;
+import org.carlspring.strongbox.data.criteria.Expression.ExpOperator;
+import org.carlspring.strongbox.data.criteria.Paginator;
+import org.carlspring.strongbox.data.criteria.Predicate;
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.npm.metadata.DistTags;
+import org.carlspring.strongbox.npm.metadata.PackageFeed;
+import org.carlspring.strongbox.npm.metadata.PackageVersion;
+import org.carlspring.strongbox.npm.metadata.Time;
+import org.carlspring.strongbox.npm.metadata.Versions;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.repository.RepositoryProvider;
+import org.carlspring.strongbox.providers.repository.RepositoryProviderRegistry;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryTypeEnum;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.cache.Cache;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.javatuples.Triplet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Serialized npm package documents (packuments), in the full and in the abbreviated
+ * {@link #ABBREVIATED_MEDIA_TYPE} form, keyed by {@code (storageId, repositoryId, packageId)}.
+ * <p>
+ * The {@link NpmPackageDesc} of every version is kept along with the documents, so a published, updated or unpublished
+ * version only drops its own description (and the one tagged as the last version) and the next request re-reads just
+ * those, instead of the entry, checksum and tags of every version of the package.
+ * <p>
+ * Only the hosted repositories are cached: the versions of the proxy repositories are fetched from the remote package
+ * feeds without any artifact events, so their documents are always built from scratch. The cache is the
+ * {@link CacheName.Artifact#NPM_PACKAGE_FEEDS} local cache, see {@link LocalCacheFactory}.
+ */
+@Component
+public class NpmPackageFeedCache
+{
+
+    public static final String ABBREVIATED_MEDIA_TYPE = "application/vnd.npm.install-v1+json";
+
+    private static final Logger logger = LoggerFactory.getLogger(NpmPackageFeedCache.class);
+
+    /**
+     * The version fields kept by the abbreviated documents, see the npm registry API.
+     */
+    private static final List<String> ABBREVIATED_VERSION_FIELDS = Arrays.asList("name",
+                                                                                  "version",
+                                                                                  "deprecated",
+                                                                                  "dependencies",
+                                                                                  "optionalDependencies",
+                                                                                  "devDependencies",
+                                                                                  "bundleDependencies",
+                                                                                  "peerDependencies",
+                                                                                  "peerDependenciesMeta",
+                                                                                  "bin",
+                                                                                  "directories",
+                                                                                  "dist",
+                                                                                  "engines",
+                                                                                  "_hasShrinkwrap",
+                                                                                  "hasInstallScript",
+                                                                                  "cpu",
+                                                                                  "os");
+
+    @Inject
+    @NpmObjectMapper
+    private ObjectMapper npmJacksonMapper;
+
+    @Inject
+    private RepositoryProviderRegistry repositoryProviderRegistry;
+
+    @Inject
+    private NpmPackageSupplier npmPackageSupplier;
+
+    private final Map<Triplet<String, String, String>, CachedPackage> packages;
+
+    @Inject
+    NpmPackageFeedCache(LocalCacheFactory localCacheFactory)
+    {
+        Cache<Triplet<String, String, String>, CachedPackage> cache = localCacheFactory.newCacheBuilder(
+                CacheName.Artifact.NPM_PACKAGE_FEEDS, 1000, -1).build();
+        packages = cache.asMap();
+    }
+
+    public SerializedPackageFeed get(Repository repository,
+                                     String packageScope,
+                                     String packageName)
+        throws IOException
+    {
+        String packageId = NpmArtifactCoordinates.calculatePackageId(packageScope, packageName);
+        if (!RepositoryTypeEnum.HOSTED.getType().equals(repository.getType()))
+        {
+            return build(repository, packageScope, packageName, new CachedPackage());
+        }
+
+        CachedPackage cachedPackage = packages.computeIfAbsent(
+                Triplet.with(repository.getStorage().getId(), repository.getId(), packageId),
+                k -> new CachedPackage());
+
+        SerializedPackageFeed result = cachedPackage.packageFeed;
+
+        return result != null ? result : build(repository, packageScope, packageName, cachedPackage);
+    }
+
+    private SerializedPackageFeed build(Repository repository,
+                                        String packageScope,
+                                        String packageName,
+                                        CachedPackage cachedPackage)
+        throws IOException
+    {
+        long generation = cachedPackage.generation;
+        String packageId = NpmArtifactCoordinates.calculatePackageId(packageScope, packageName);
+
+        RepositoryProvider provider = repositoryProviderRegistry.getProvider(repository.getType());
+
+        Paginator paginator = new Paginator();
+        paginator.setProperty("version");
+
+        List<Path> searchResult = provider.search(repository.getStorage().getId(),
+                                                  repository.getId(),
+                                                  createSearchPredicate(packageScope, packageName),
+                                                  paginator);
+
+        PackageFeed packageFeed = new PackageFeed();
+        packageFeed.setName(packageId);
+        packageFeed.setAdditionalProperty("_id", packageId);
+
+        Versions versions = new Versions();
+        packageFeed.setVersions(versions);
+
+        Time npmTime = new Time();
+        packageFeed.setTime(npmTime);
+
+        DistTags distTags = new DistTags();
+        packageFeed.setDistTags(distTags);
+
+        Set<String> versionIds = new HashSet<>();
+        for (Path path : searchResult)
+        {
+            String version = RepositoryFiles.readCoordinates((RepositoryPath) path).getVersion();
+            versionIds.add(version);
+
+            NpmPackageDesc p = cachedPackage.versions.get(version);
+            if (p == null)
+            {
+                p = npmPackageSupplier.apply(path);
+                cachedPackage.putVersion(generation, version, p);
+            }
+
+            PackageVersion npmPackage = p.getNpmPackage();
+            versions.setAdditionalProperty(npmPackage.getVersion(), npmPackage);
+
+            npmTime.setAdditionalProperty(npmPackage.getVersion(), p.getReleaseDate());
+
+            Date created = npmTime.getCreated();
+            npmTime.setCreated(created == null || created.before(p.getReleaseDate()) ? p.getReleaseDate() : created);
+
+            Date modified = npmTime.getModified();
+            npmTime.setModified(modified == null || modified.before(p.getReleaseDate()) ? p.getReleaseDate()
+                                                                                        : modified);
+
+            if (p.isLastVersion())
+            {
+                distTags.setLatest(npmPackage.getVersion());
+            }
+        }
+        cachedPackage.versions.keySet().retainAll(versionIds);
+
+        packageFeed.setAdditionalProperty("_rev", generateRevisionHashcode(versions));
+
+        ObjectNode abbreviatedVersions = npmJacksonMapper.createObjectNode();
+        versions.getAdditionalProperties().forEach((version, npmPackage) -> {
+            ObjectNode abbreviatedVersion = npmJacksonMapper.valueToTree(npmPackage);
+            abbreviatedVersion.retain(ABBREVIATED_VERSION_FIELDS);
+            abbreviatedVersions.set(version, abbreviatedVersion);
+        });
+
+        ObjectNode abbreviated = npmJacksonMapper.createObjectNode();
+        abbreviated.put("name", packageId);
+        abbreviated.set("modified", npmJacksonMapper.valueToTree(npmTime.getModified()));
+        abbreviated.set("dist-tags", npmJacksonMapper.valueToTree(distTags));
+        abbreviated.set("versions", abbreviatedVersions);
+
+        SerializedPackageFeed result = new SerializedPackageFeed(npmJacksonMapper.writeValueAsBytes(packageFeed),
+                                                                 npmJacksonMapper.writeValueAsBytes(abbreviated));
+        cachedPackage.putPackageFeed(generation, result);
+
+        return result;
+    }
+
+    private Predicate createSearchPredicate(String packageScope,
+                                            String packageName)
+    {
+        Predicate rootPredicate = Predicate.empty();
+
+        rootPredicate.and(Predicate.of(ExpOperator.EQ.of("artifactCoordinates.coordinates.extension", "tgz")));
+        rootPredicate.and(Predicate.of(ExpOperator.EQ.of("artifactCoordinates.coordinates.name", packageName)));
+        if (packageScope != null)
+        {
+            rootPredicate.and(Predicate.of(ExpOperator.EQ.of("artifactCoordinates.coordinates.scope", packageScope)));
+        }
+
+        return rootPredicate;
+    }
+
+    private String generateRevisionHashcode(Versions versions)
+    {
+        String versionsShasum = versions.getAdditionalProperties()
+                                        .values()
+                                        .stream()
+                                        .map(x -> x.getDist().getShasum())
+                                        .collect(Collectors.joining());
+        return versions.getAdditionalProperties().size() + "-" +
+               DigestUtils.sha1Hex(versionsShasum).substring(0, 16);
+    }
+
+    @EventListener
+    public void handle(final ArtifactEvent<RepositoryPath> event)
+    {
+        int type = event.getType();
+        if (type != ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType()
+                && type != ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_UPDATED.getType()
+                && type != ArtifactEventTypeEnum.EVENT_ARTIFACT_PATH_DELETED.getType())
+        {
+            return;
+        }
+
+        RepositoryPath repositoryPath = event.getPath();
+        Repository repository = repositoryPath.getRepository();
+        if (!NpmArtifactCoordinates.LAYOUT_NAME.equals(repository.getLayout()))
+        {
+            return;
+        }
+
+        String storageId = repository.getStorage().getId();
+        String repositoryId = repository.getId();
+
+        String[] segments;
+        try
+        {
+            segments = RepositoryFiles.relativizePath(repositoryPath).split("/");
+        }
+        catch (IOException e)
+        {
+            logger.warn("Failed to resolve [{}], invalidating the repository.", repositoryPath, e);
+
+            segments = new String[0];
+        }
+
+        // {group}/{name}/{version}/{file}, where the group is either the scope or the name.
+        if (segments.length < 2 || segments[0].isEmpty())
+        {
+            packages.keySet().removeIf(k -> k.getValue0().equals(storageId) && k.getValue1().equals(repositoryId));
+
+            return;
+        }
+
+        String packageId = segments[0].startsWith("@") ? segments[0] + "/" + segments[1] : segments[1];
+        CachedPackage cachedPackage = packages.get(Triplet.with(storageId, repositoryId, packageId));
+        if (cachedPackage == null)
+        {
+            return;
+        }
+
+        cachedPackage.invalidate(segments.length > 2 ? segments[2] : null);
+    }
+
+    /**
+     * The serialized documents of a package, along with their entity tags.
+     */
+    public static class SerializedPackageFeed
+    {
+
+        private final byte[] content;
+
+        private final byte[] abbreviatedContent;
+
+        private final String eTag;
+
+        private final String abbreviatedETag;
+
+        SerializedPackageFeed(byte[] content,
+                              byte[] abbreviatedContent)
+        {
+            this.content = content;
+            this.abbreviatedContent = abbreviatedContent;
+            this.eTag = "\"" + DigestUtils.sha1Hex(content) + "\"";
+            this.abbreviatedETag = "\"" + DigestUtils.sha1Hex(abbreviatedContent) + "\"";
+        }
+
+        public byte[] getContent(boolean abbreviated)
+        {
+            return abbreviated ? abbreviatedContent : content;
+        }
+
+        public String getETag(boolean abbreviated)
+        {
+            return abbreviated ? abbreviatedETag : eTag;
+        }
+
+    }
+
+    /**
+     * The invalidations increment the generation, so that a document or a version description built concurrently
+     * with an invalidation is used once but not cached.
+     */
+    private static class CachedPackage
+    {
+
+        private final Map<String, NpmPackageDesc> versions = new ConcurrentHashMap<>();
+
+        private volatile SerializedPackageFeed packageFeed;
+
+        private volatile long generation;
+
+        private synchronized void putVersion(long expectedGeneration,
+                                             String version,
+                                             NpmPackageDesc packageDesc)
+        {
+            if (generation == expectedGeneration)
+            {
+                versions.put(version, packageDesc);
+            }
+        }
+
+        private synchronized void putPackageFeed(long expectedGeneration,
+                                                 SerializedPackageFeed serializedPackageFeed)
+        {
+            if (generation == expectedGeneration)
+            {
+                packageFeed = serializedPackageFeed;
+            }
+        }
+
+        /**
+         * @param version the changed version, or {@code null} if the whole package has changed
+         */
+        private synchronized void invalidate(String version)
+        {
+            generation++;
+            packageFeed = null;
+
+            if (version == null)
+            {
+                versions.clear();
+
+                return;
+            }
+
+            versions.remove(version);
+            // The last version tag might have moved.
+            versions.values().removeIf(NpmPackageDesc::isLastVersion);
+        }
+
+    }
+
+}
@@ -1,12 +1,17 @@
 package org.carlspring.strongbox.controllers;
 
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryArtifactResolver;
 import org.carlspring.strongbox.services.ArtifactManagementService;
+import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.utils.ArtifactControllerHelper;
 
 import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.io.InputStream;
 
 import org.springframework.http.HttpHeaders;
@@ -21,6 +26,9 @@ public abstract class BaseArtifactController
     @Inject
     protected ArtifactManagementService artifactManagementService;
 
+    @Inject
+    private ProxyRepositoryArtifactResolver proxyRepositoryArtifactResolver;
+
     protected boolean provideArtifactDownloadResponse(HttpServletRequest request,
                                                       HttpServletResponse response,
                                                       HttpHeaders httpHeaders,
@@ -56,6 +64,117 @@ public abstract class BaseArtifactController
         return true;
     }
 
+    /**
+     * Serves the checksum file of an artifact from the checksum recorded in the {@link ArtifactEntry} of the artifact.
+     * The artifact is resolved through the {@link org.carlspring.strongbox.services.ArtifactResolutionService}, but
+     * the checksum file is not. Proxied artifacts which are not cached yet are left alone, so that only the checksum
+     * file is downloaded from the remote repository and not the artifact itself.
+     *
+     * @return {@code false} if the path is not a checksum file, the artifact is not cached or can't be resolved, or its
+     *         checksum has not been recorded (legacy entries, group repositories), so the checksum file has to be
+     *         served
+     */
+    protected boolean provideChecksumResponse(HttpServletRequest request,
+                                              HttpServletResponse response,
+                                              HttpHeaders httpHeaders,
+                                              Repository repository,
+                                              String path)
+            throws IOException
+    {
+        if (repository.isGroupRepository() || ArtifactControllerHelper.isRangedRequest(httpHeaders))
+        {
+            return false;
+        }
+
+        String algorithm = getChecksumAlgorithm(repositoryPathResolver.resolve(repository, path));
+        if (algorithm == null)
+        {
+            return false;
+        }
+
+        String artifactPathStr = path.substring(0, path.lastIndexOf('.'));
+        if (repository.isProxyRepository()
+            && RepositoryFiles.artifactDoesNotExist(repositoryPathResolver.resolve(repository, artifactPathStr)))
+        {
+            return false;
+        }
+
+        // The artifact is resolved as it would be downloaded, so that the repository provider checks apply.
+        RepositoryPath artifactPath = artifactResolutionService.resolvePath(repository.getStorage().getId(),
+                                                                            repository.getId(),
+                                                                            artifactPathStr);
+        if (artifactPath == null)
+        {
+            return false;
+        }
+
+        ArtifactEntry artifactEntry = artifactPath.getArtifactEntry();
+        String checksum = artifactEntry != null ? artifactEntry.getChecksums().get(algorithm) : null;
+        if (checksum == null)
+        {
+            return false;
+        }
+
+        logger.debug("Serving the recorded [{}] checksum of [{}].", algorithm, artifactPath);
+        ArtifactControllerHelper.provideChecksumResponse(response,
+                                                         checksum,
+                                                         artifactEntry.getLastUpdated(),
+                                                         request.getMethod().equals(RequestMethod.HEAD.name()));
+
+        return true;
+    }
+
+    /**
+     * Streams a proxied resource which is being fetched from the remote repository by another request, as its bytes
+     * arrive, instead of waiting for the whole resource to be downloaded and stored.
+     *
+     * @return {@code false} if there is no remote fetch of the resource in progress, so the resource has to be
+     *         resolved
+     */
+    protected boolean provideRemoteFetchResponse(HttpServletRequest request,
+                                                 HttpServletResponse response,
+                                                 HttpHeaders httpHeaders,
+                                                 Repository repository,
+                                                 String path)
+            throws IOException
+    {
+        if (!repository.isProxyRepository()
+            || !request.getMethod().equals(RequestMethod.GET.name())
+            || ArtifactControllerHelper.isRangedRequest(httpHeaders))
+        {
+            return false;
+        }
+
+        RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository, path);
+        try (InputStream is = proxyRepositoryArtifactResolver.openRemoteFetch(repositoryPath))
+        {
+            if (is == null)
+            {
+                return false;
+            }
+
+            ArtifactControllerHelper.provideRemoteFetchHeaders(response, repositoryPath);
+            copyToResponse(is, response);
+        }
+
+        return true;
+    }
+
+    /**
+     * @return the digest algorithm of the checksum file, {@code null} if the path is not a checksum file
+     */
+    private String getChecksumAlgorithm(RepositoryPath repositoryPath)
+    {
+        String fileName = repositoryPath.getFileName().toString();
+
+        return repositoryPath.getFileSystem()
+                             .getDigestAlgorithmSet()
+                             .stream()
+                             .filter(a -> fileName.endsWith("." + a.replaceAll("-", "").toLowerCase()))
+                             .findFirst()
+                             .orElse(null);
+    }
+
     public ResponseEntity<String> checkRepositoryAccess()
     {
         return new ResponseEntity<>("success", HttpStatus.OK);
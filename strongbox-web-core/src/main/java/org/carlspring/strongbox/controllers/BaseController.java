@@ -7,7 +7,9 @@ import org.carlspring.strongbox.controllers.support.ErrorResponseEntityBody;
 import org.carlspring.strongbox.controllers.support.ListEntityBody;
 import org.carlspring.strongbox.controllers.support.ResponseEntityBody;
 import org.carlspring.strongbox.exception.ExceptionHandlingOutputStream;
+import org.carlspring.strongbox.exception.Http202PropogateException;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.providers.io.RepositoryStreamSupport.RepositoryInputStream;
 import org.carlspring.strongbox.services.ArtifactResolutionService;
 import org.carlspring.strongbox.services.ConfigurationManagementService;
 import org.carlspring.strongbox.storage.Storage;
@@ -22,6 +24,9 @@ import java.util.List;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.collections4.IteratorUtils;
+import org.eclipse.jetty.io.EofException;
+import org.eclipse.jetty.server.HttpOutput;
+import org.eclipse.jetty.server.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.io.InputStreamResource;
@@ -40,6 +45,8 @@ import org.springframework.http.ResponseEntity;
 public abstract class BaseController
 {
 
+    private static final int COPY_BUFFER_SIZE = 8192;
+
     protected final Logger logger = LoggerFactory.getLogger(getClass());
 
     @Inject
@@ -289,6 +296,14 @@ public abstract class BaseController
                                       HttpServletResponse response)
             throws IOException
     {
+        if (is instanceof RepositoryInputStream && ((RepositoryInputStream) is).isDirectCopySupported())
+        {
+            RepositoryInputStream ris = (RepositoryInputStream) is;
+            copyRangeToResponse(ris, 0L, ris.size(), response);
+
+            return;
+        }
+
         try (OutputStream os = new ExceptionHandlingOutputStream(response.getOutputStream()))
         {
             long totalBytes = 0L;
@@ -308,4 +323,45 @@ public abstract class BaseController
             response.flushBuffer();
         }
     }
+
+    /**
+     * Copies the file bytes from the file channel, without the decorating streams and the checksum calculation of the
+     * {@link InputStream} based copy.
+     * <p>
+     * When the response is the Jetty one and the range runs to the end of the file, the file channel is handed to its
+     * {@link HttpOutput}, which reads it into its pooled direct buffers. The wrapped responses are not unwrapped, as
+     * that would bypass the filters which wrapped them, so the range is copied through a buffer then.
+     */
+    public static void copyRangeToResponse(RepositoryInputStream is,
+                                           long position,
+                                           long count,
+                                           HttpServletResponse response)
+            throws IOException
+    {
+        response.setContentLengthLong(count);
+
+        if (response instanceof Response && position + count == is.size())
+        {
+            HttpOutput httpOutput = ((Response) response).getHttpOutput();
+            try
+            {
+                httpOutput.sendContent(is.getChannel(position));
+            }
+            catch (EofException e)
+            {
+                throw new Http202PropogateException("Socket has been closed. Possibly, user cancelled download.", e);
+            }
+
+            return;
+        }
+
+        try (OutputStream os = new ExceptionHandlingOutputStream(response.getOutputStream()))
+        {
+            is.copyTo(position, count, os, new byte[COPY_BUFFER_SIZE]);
+
+            os.flush();
+            response.flushBuffer();
+        }
+    }
+
 }
@@ -36,11 +36,15 @@ public class AqlController extends BaseController
     @ApiResponses(value = { @ApiResponse(code = 200, message = "OK") })
     @PreAuthorize("hasAuthority('SEARCH_ARTIFACTS')")
     @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE })
-    public ResponseEntity search(@ApiParam(value = "Search query", required = true) @RequestParam(name = "query", required = true) String query)
+    public ResponseEntity search(@ApiParam(value = "Search query", required = true) @RequestParam(name = "query", required = true) String query,
+                                 @ApiParam(value = "Keyset pagination cursor, empty for the first page, the `nextCursor` of the previous page otherwise. " +
+                                                   "Results are ordered by the record id and the `page` expression is ignored.")
+                                 @RequestParam(name = "cursor", required = false) String cursor)
         throws IOException
     {
         AqlQueryParser parser = new AqlQueryParser(query);
         Selector<ArtifactEntry> selector = parser.parseQuery();
+        selector.getPaginator().setCursor(cursor);
 
         SearchResults result = aqlSearchService.search(selector);
 
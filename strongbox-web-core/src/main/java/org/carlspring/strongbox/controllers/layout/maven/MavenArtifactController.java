@@ -77,6 +77,15 @@ public class MavenArtifactController
         logger.debug("Requested /{}/{}/{}.", storageId, repositoryId, artifactPath);
 
         artifactPath = correctIndexPathIfNecessary(repository, artifactPath);
+        if (provideChecksumResponse(request, response, httpHeaders, repository, artifactPath))
+        {
+            return;
+        }
+        if (provideRemoteFetchResponse(request, response, httpHeaders, repository, artifactPath))
+        {
+            return;
+        }
+
         RepositoryPath repositoryPath = artifactResolutionService.resolvePath(storageId, repositoryId, artifactPath);
 
         provideArtifactDownloadResponse(request, response, httpHeaders, repositoryPath);
@@ -14,7 +14,6 @@ import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 import javax.servlet.ServletInputStream;
@@ -27,7 +26,6 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
 import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
@@ -42,15 +40,13 @@ import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.data.criteria.Predicate;
 import org.carlspring.strongbox.npm.NpmSearchRequest;
 import org.carlspring.strongbox.npm.NpmViewRequest;
-import org.carlspring.strongbox.npm.metadata.DistTags;
-import org.carlspring.strongbox.npm.metadata.PackageFeed;
 import org.carlspring.strongbox.npm.metadata.PackageVersion;
 import org.carlspring.strongbox.npm.metadata.SearchResults;
-import org.carlspring.strongbox.npm.metadata.Time;
-import org.carlspring.strongbox.npm.metadata.Versions;
 import org.carlspring.strongbox.providers.ProviderImplementationException;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.layout.NpmPackageDesc;
+import org.carlspring.strongbox.providers.layout.NpmPackageFeedCache;
+import org.carlspring.strongbox.providers.layout.NpmPackageFeedCache.SerializedPackageFeed;
 import org.carlspring.strongbox.providers.layout.NpmPackageSupplier;
 import org.carlspring.strongbox.providers.layout.NpmSearchResultSupplier;
 import org.carlspring.strongbox.providers.layout.NpmUnpublishService;
@@ -125,6 +121,9 @@ public class NpmArtifactController
     @Inject
     private NpmUnpublishService npmUnpublishService;
 
+    @Inject
+    private NpmPackageFeedCache npmPackageFeedCache;
+
     @GetMapping(path = "{storageId}/{repositoryId}/-/v1/search")
     @PreAuthorize("hasAuthority('ARTIFACTS_VIEW')")
     public void search(@RepositoryMapping Repository repository,
@@ -220,99 +219,65 @@ public class NpmArtifactController
     public void viewPackageFeedWithScope(@RepositoryMapping Repository repository,
                                          @PathVariable(name = "packageScope") String packageScope,
                                          @PathVariable(name = "packageName") String packageName,
+                                         HttpServletRequest request,
                                          HttpServletResponse response)
             throws Exception
     {
-        final String storageId = repository.getStorage().getId();
-        final String repositoryId = repository.getId();
-
         String packageId = NpmArtifactCoordinates.calculatePackageId(packageScope, packageName);
 
         NpmViewRequest npmSearchRequest = new NpmViewRequest();
         npmSearchRequest.setPackageId(packageId);
         viewPackageEventListener.setNpmSearchRequest(npmSearchRequest);
 
-        PackageFeed packageFeed = new PackageFeed();
-
-        packageFeed.setName(packageId);
-        packageFeed.setAdditionalProperty("_id", packageId);
-
-        Predicate predicate = createSearchPredicate(packageScope, packageName);
-
-        RepositoryProvider provider = repositoryProviderRegistry.getProvider(repository.getType());
-
-        Paginator paginator = new Paginator();
-        paginator.setProperty("version");
-
-        List<Path> searchResult = provider.search(storageId, repositoryId, predicate, paginator);
-
-        Versions versions = new Versions();
-        packageFeed.setVersions(versions);
+        SerializedPackageFeed packageFeed = npmPackageFeedCache.get(repository, packageScope, packageName);
 
-        Time npmTime = new Time();
-        packageFeed.setTime(npmTime);
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        boolean abbreviated = accept != null && accept.contains(NpmPackageFeedCache.ABBREVIATED_MEDIA_TYPE);
+        String eTag = packageFeed.getETag(abbreviated);
 
-        DistTags distTags = new DistTags();
-        packageFeed.setDistTags(distTags);
-
-        searchResult.stream().map(npmPackageSupplier).forEach(p -> {
-            PackageVersion npmPackage = p.getNpmPackage();
-            versions.setAdditionalProperty(npmPackage.getVersion(), npmPackage);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        if (matchesETag(request.getHeader(HttpHeaders.IF_NONE_MATCH), eTag))
+        {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
 
-            npmTime.setAdditionalProperty(npmPackage.getVersion(), p.getReleaseDate());
+            return;
+        }
 
-            Date created = npmTime.getCreated();
-            npmTime.setCreated(created == null || created.before(p.getReleaseDate()) ? p.getReleaseDate() : created);
+        response.setContentType(abbreviated ? NpmPackageFeedCache.ABBREVIATED_MEDIA_TYPE :
+                                MediaType.APPLICATION_JSON_VALUE);
+        response.getOutputStream().write(packageFeed.getContent(abbreviated));
+    }
 
-            Date modified = npmTime.getModified();
-            npmTime.setModified(modified == null || modified.before(p.getReleaseDate()) ? p.getReleaseDate()
-                                                                                        : modified);
+    private boolean matchesETag(String ifNoneMatch,
+                                String eTag)
+    {
+        if (ifNoneMatch == null)
+        {
+            return false;
+        }
 
-            if (p.isLastVersion())
+        for (String candidate : ifNoneMatch.split(","))
+        {
+            candidate = candidate.trim();
+            if ("*".equals(candidate) || eTag.equals(candidate.startsWith("W/") ? candidate.substring(2) : candidate))
             {
-                distTags.setLatest(npmPackage.getVersion());
+                return true;
             }
+        }
 
-        });
-        packageFeed.setAdditionalProperty("_rev", generateRevisionHashcode(packageFeed));
-        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-        response.getOutputStream().write(npmJacksonMapper.writeValueAsBytes(packageFeed));
-    }
-
-    private String generateRevisionHashcode(PackageFeed packageFeed)
-    {
-        String versionsShasum = packageFeed.getVersions().getAdditionalProperties()
-                                           .values()
-                                           .stream()
-                                           .map(x -> x.getDist().getShasum())
-                                           .collect(Collectors.joining());
-        return packageFeed.getVersions().getAdditionalProperties().size() + "-" +
-               DigestUtils.sha1Hex(versionsShasum).substring(0, 16);
+        return false;
     }
 
     @GetMapping(path = "{storageId}/{repositoryId}/{packageName}")
     @PreAuthorize("hasAuthority('ARTIFACTS_VIEW')")
     public void viewPackageFeed(@RepositoryMapping Repository repository,
                                 @PathVariable(name = "packageName") String packageName,
+                                HttpServletRequest request,
                                 HttpServletResponse response)
             throws Exception
     {
-        viewPackageFeedWithScope(repository, null, packageName, response);
-    }
-
-    private Predicate createSearchPredicate(String packageScope,
-                                            String packageName)
-    {
-        Predicate rootPredicate = Predicate.empty();
-
-        rootPredicate.and(Predicate.of(ExpOperator.EQ.of("artifactCoordinates.coordinates.extension", "tgz")));
-        rootPredicate.and(Predicate.of(ExpOperator.EQ.of("artifactCoordinates.coordinates.name", packageName)));
-        if (packageScope != null)
-        {
-            rootPredicate.and(Predicate.of(ExpOperator.EQ.of("artifactCoordinates.coordinates.scope", packageScope)));
-        }
-
-        return rootPredicate;
+        viewPackageFeedWithScope(repository, null, packageName, request, response);
     }
 
     @PreAuthorize("hasAuthority('ARTIFACTS_RESOLVE')")
@@ -71,6 +71,15 @@ public class RawArtifactController
         final String repositoryId = repository.getId();
         logger.debug("Requested /{}/{}/{}.", storageId, repositoryId, path);
 
+        if (provideChecksumResponse(request, response, httpHeaders, repository, path))
+        {
+            return;
+        }
+        if (provideRemoteFetchResponse(request, response, httpHeaders, repository, path))
+        {
+            return;
+        }
+
         RepositoryPath repositoryPath = artifactResolutionService.resolvePath(storageId, repositoryId, path);
         provideArtifactDownloadResponse(request, response, httpHeaders, repositoryPath);
     }
@@ -49,6 +49,11 @@ public class ExtendedAuthoritiesVoter extends PreInvocationAuthorizationAdviceVo
 
         private Authentication source;
 
+        /**
+         * Calculated once per vote, the voted expressions may query the authorities several times.
+         */
+        private Collection<? extends GrantedAuthority> extendedAuthorities;
+
         public ExtendedAuthorityAuthentication(Authentication target)
         {
             super();
@@ -114,7 +119,12 @@ public class ExtendedAuthoritiesVoter extends PreInvocationAuthorizationAdviceVo
 
         public Collection<? extends GrantedAuthority> getAuthorities()
         {
-            return calculateExtendedAuthorities(getSourceAuthentication());
+            if (extendedAuthorities == null)
+            {
+                extendedAuthorities = calculateExtendedAuthorities(getSourceAuthentication());
+            }
+
+            return extendedAuthorities;
         }
 
         public Object getCredentials()
@@ -107,7 +107,7 @@ public class DirectoryListingServiceImpl implements DirectoryListingService
         try (Stream<Path> pathStream = Files.list(path))
         {
             contentPaths = pathStream
-                                   .filter(p -> !p.toFile().getName().startsWith("."))
+                                   .filter(p -> !p.getFileName().toString().startsWith("."))
                                    .filter(p -> {
                                        try
                                        {
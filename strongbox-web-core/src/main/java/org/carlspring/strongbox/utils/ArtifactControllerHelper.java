@@ -3,24 +3,33 @@ package org.carlspring.strongbox.utils;
 import org.carlspring.commons.http.range.ByteRange;
 import org.carlspring.commons.http.range.ByteRangeHeaderParser;
 import org.carlspring.commons.http.range.validation.ByteRangeValidationException;
+import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.exception.ExceptionHandlingOutputStream;
 import org.carlspring.strongbox.io.ByteRangeInputStream;
 import org.carlspring.strongbox.io.StreamUtils;
 import org.carlspring.strongbox.providers.io.RepositoryFileAttributes;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryStreamSupport.RepositoryInputStream;
 
 import javax.servlet.http.HttpServletResponse;
-import java.io.BufferedInputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,6 +38,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.util.CollectionUtils;
 import static org.carlspring.strongbox.controllers.BaseController.copyToResponse;
+import static org.carlspring.strongbox.controllers.BaseController.copyRangeToResponse;
 import static org.springframework.http.HttpStatus.PARTIAL_CONTENT;
 import static org.springframework.http.HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE;
 
@@ -99,10 +109,20 @@ public class ArtifactControllerHelper
 
         if (byteRange.getOffset() < inputLength)
         {
-            StreamUtils.setCurrentByteRange(bris, byteRange);
-
             prepareResponseBuilderForPartialRequestWithSingleRange(byteRange, inputLength, response);
 
+            if (is instanceof RepositoryInputStream && ((RepositoryInputStream) is).isDirectCopySupported())
+            {
+                copyRangeToResponse((RepositoryInputStream) is,
+                                    byteRange.getOffset(),
+                                    inputLength - byteRange.getOffset(),
+                                    response);
+
+                return;
+            }
+
+            StreamUtils.setCurrentByteRange(bris, byteRange);
+
             copyToResponse(is, response);
         }
         else
@@ -129,10 +149,11 @@ public class ArtifactControllerHelper
         else
         {
             final String rangesContentType = response.getContentType();
+            final List<ContentRange> contentRanges = coalesceRanges(byteRanges, length);
 
             prepareResponseBuilderForPartialRequestWithMultipleRanges(response);
 
-            copyPartialMultipleRangeToResponse(is, response, byteRanges, rangesContentType);
+            copyPartialMultipleRangeToResponse(is, response, contentRanges, rangesContentType, length);
         }
     }
 
@@ -192,8 +213,7 @@ public class ArtifactControllerHelper
         RepositoryFileAttributes fileAttributes = Files.readAttributes(path, RepositoryFileAttributes.class);
 
         response.setHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(fileAttributes.size()));
-        response.setHeader(HttpHeaders.LAST_MODIFIED, DateTimeFormatter.RFC_1123_DATE_TIME.format(
-                ZonedDateTime.ofInstant(fileAttributes.lastModifiedTime().toInstant(), ZoneId.systemDefault())));
+        response.setHeader(HttpHeaders.LAST_MODIFIED, formatDate(fileAttributes.lastModifiedTime().toInstant()));
 
         // TODO: This is far from optimal and will need to have a content type approach at some point:
         String contentType = getContentType(path);
@@ -201,7 +221,18 @@ public class ArtifactControllerHelper
 
         response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
 
+        ArtifactEntry artifactEntry = path.getArtifactEntry();
+        Map<String, String> recordedChecksums = artifactEntry != null ? artifactEntry.getChecksums() :
+                                                Collections.emptyMap();
+        recordedChecksums.forEach((key, value) -> response.setHeader(getChecksumHeaderName(key), value));
+
+        // Only the checksums which have not been recorded at store time (legacy entries) are read from the files.
         path.getFileSystem().provider().resolveChecksumPathMap(path).forEach((key, value) -> {
+            if (recordedChecksums.containsKey(key))
+            {
+                return;
+            }
+
             String checksumValue;
             try
             {
@@ -212,13 +243,66 @@ public class ArtifactControllerHelper
                 return;
             }
 
-            String checksumName = String.format("Checksum-%s",
-                                                key.toUpperCase().replace("-", ""));
-
-            response.setHeader(checksumName, checksumValue);
+            response.setHeader(getChecksumHeaderName(key), checksumValue);
         });
     }
 
+    /**
+     * The headers of a resource which is still being fetched from the remote repository: neither its size nor its
+     * checksums are known yet, and ranges can't be served.
+     */
+    public static void provideRemoteFetchHeaders(HttpServletResponse response,
+                                                 RepositoryPath path)
+            throws IOException
+    {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(getContentType(path));
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "none");
+    }
+
+    /**
+     * Responds with a checksum recorded in the {@link ArtifactEntry}, instead of the content of the checksum file.
+     */
+    public static void provideChecksumResponse(HttpServletResponse response,
+                                               String checksum,
+                                               Date lastModified,
+                                               boolean headersOnly)
+            throws IOException
+    {
+        byte[] content = checksum.getBytes(StandardCharsets.UTF_8);
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(content.length));
+        if (lastModified != null)
+        {
+            response.setHeader(HttpHeaders.LAST_MODIFIED, formatDate(Instant.ofEpochMilli(lastModified.getTime())));
+        }
+
+        if (headersOnly)
+        {
+            return;
+        }
+
+        try (OutputStream os = new ExceptionHandlingOutputStream(response.getOutputStream()))
+        {
+            os.write(content);
+            os.flush();
+
+            response.flushBuffer();
+        }
+    }
+
+    private static String getChecksumHeaderName(String algorithm)
+    {
+        return String.format("Checksum-%s", algorithm.toUpperCase().replace("-", ""));
+    }
+
+    private static String formatDate(Instant instant)
+    {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.ofInstant(instant, ZoneId.systemDefault()));
+    }
+
     private static String getContentType(RepositoryPath path)
             throws IOException
     {
@@ -239,95 +323,166 @@ public class ArtifactControllerHelper
 
     }
 
+    /**
+     * Sorts the requested ranges and merges the overlapping and adjacent ones, so that every byte is sent at most once
+     * and the parts can be read sequentially.
+     */
+    static List<ContentRange> coalesceRanges(List<ByteRange> byteRanges,
+                                             long length)
+    {
+        List<ContentRange> ranges = new ArrayList<>();
+        for (ByteRange byteRange : byteRanges)
+        {
+            Long limit = byteRange.getLimit();
+            long end = limit == null || limit < 0 || limit >= length ? length - 1 : limit;
+
+            ranges.add(new ContentRange(byteRange.getOffset(), end));
+        }
+        ranges.sort(Comparator.comparingLong(ContentRange::getStart));
+
+        LinkedList<ContentRange> result = new LinkedList<>();
+        for (ContentRange range : ranges)
+        {
+            ContentRange last = result.peekLast();
+            if (last != null && range.getStart() <= last.getEnd() + 1)
+            {
+                result.set(result.size() - 1, new ContentRange(last.getStart(), Math.max(last.getEnd(), range.getEnd())));
+
+                continue;
+            }
+
+            result.add(range);
+        }
+
+        return result;
+    }
+
     private static void copyPartialMultipleRangeToResponse(InputStream is,
                                                            HttpServletResponse response,
-                                                           List<ByteRange> byteRanges,
-                                                           String contentType)
+                                                           List<ContentRange> contentRanges,
+                                                           String contentType,
+                                                           long inputLength)
             throws IOException
     {
-        BufferedInputStream bis = new BufferedInputStream(is, DEFAULT_BUFFER_SIZE);
-        long inputLength = Long.parseLong(response.getHeader(HttpHeaders.CONTENT_LENGTH));
-        long totalBytes = 0L;
+        List<byte[]> partHeaders = new ArrayList<>(contentRanges.size());
+        byte[] closeDelimiter = (CRLF + "--" + MULTIPART_BOUNDARY + "--" + CRLF).getBytes(StandardCharsets.UTF_8);
 
-        try (OutputStream os = new ExceptionHandlingOutputStream(response.getOutputStream()))
+        long contentLength = closeDelimiter.length;
+        for (ContentRange contentRange : contentRanges)
         {
-            for (ByteRange byteRange : byteRanges)
-            {
-                long start = byteRange.getOffset();
-                long end = byteRange.getLimit();
-                long length = end - start + 1;
+            byte[] partHeader = (CRLF + "--" + MULTIPART_BOUNDARY + CRLF +
+                                 HttpHeaders.CONTENT_TYPE + ": " + contentType + CRLF +
+                                 HttpHeaders.CONTENT_RANGE + ": " + String.format("bytes %d-%d/%d",
+                                                                                  contentRange.getStart(),
+                                                                                  contentRange.getEnd(),
+                                                                                  inputLength) + CRLF +
+                                 CRLF).getBytes(StandardCharsets.UTF_8);
+
+            partHeaders.add(partHeader);
+            contentLength += partHeader.length + contentRange.getLength();
+        }
 
-                os.write(toByteArray(""));
-                os.write(toByteArray("--" + MULTIPART_BOUNDARY));
+        response.setContentLengthLong(contentLength);
 
-                final String contentTypeHeader = String.format("%s: %s",
-                                                               HttpHeaders.CONTENT_TYPE,
-                                                               contentType);
-                os.write(toByteArray(contentTypeHeader));
+        RepositoryInputStream ris = is instanceof RepositoryInputStream ? (RepositoryInputStream) is : null;
+        boolean directCopySupported = ris != null && ris.isDirectCopySupported();
 
-                final String contentRangeHeader = String.format("%s: bytes %d-%d/%d",
-                                                                HttpHeaders.CONTENT_RANGE,
-                                                                start,
-                                                                end,
-                                                                inputLength);
-                os.write(toByteArray(contentRangeHeader));
+        try (OutputStream os = new ExceptionHandlingOutputStream(response.getOutputStream()))
+        {
+            byte[] buffer = new byte[DEFAULT_BUFFER_SIZE];
+            long position = 0L;
 
-                os.write(toByteArray(""));
+            for (int i = 0; i < contentRanges.size(); i++)
+            {
+                ContentRange contentRange = contentRanges.get(i);
+                os.write(partHeaders.get(i));
 
-                // Check if it is allowed to read the stream more than once.
-                if (bis.markSupported())
+                if (directCopySupported)
                 {
-                    int readLength;
-                    byte[] buffer = new byte[DEFAULT_BUFFER_SIZE];
-                    long toRead = length;
-
-                    long markLimit = Math.max(toRead, DEFAULT_BUFFER_SIZE) + 1L;
-                    int markLimitInt = Math.toIntExact(markLimit);
-                    // Needed for reading the stream more than once.
-                    bis.mark(markLimitInt);
-
-                    // Skip to the byte range offset.
-                    bis.skip(start);
-
-                    while ((readLength = bis.read()) != -1)
-                    {
-                        toRead -= readLength;
-
-                        // Range length is greater than the buffer length.
-                        if (toRead > 0)
-                        {
-                            os.write(buffer, 0, readLength);
-                            os.flush();
-
-                            totalBytes += readLength;
-                        }
-                        else
-                        {
-                            os.write(buffer, 0, (int) toRead + readLength);
-                            os.flush();
-
-                            totalBytes += (toRead + readLength);
-                            break;
-                        }
-                    }
-
-                    // Needed for reading the stream more than once.
-                    bis.reset();
+                    ris.copyTo(contentRange.getStart(), contentRange.getLength(), os, buffer);
+
+                    continue;
                 }
+
+                // The ranges are sorted and don't overlap, so the stream only needs to be read forward.
+                skipFully(is, contentRange.getStart() - position);
+                copyFully(is, os, buffer, contentRange.getLength());
+                position = contentRange.getEnd() + 1;
             }
 
-            os.write(toByteArray(""));
-            os.write(toByteArray("--" + MULTIPART_BOUNDARY + "--"));
+            os.write(closeDelimiter);
             os.flush();
 
-            response.setHeader(HttpHeaders.CONTENT_LENGTH, Long.toString(totalBytes));
             response.flushBuffer();
         }
     }
 
-    private static byte[] toByteArray(String string)
+    private static void skipFully(InputStream is,
+                                  long count)
+            throws IOException
     {
-        return (string.concat(CRLF)).getBytes(StandardCharsets.UTF_8);
+        long toSkip = count;
+        while (toSkip > 0)
+        {
+            long skipped = is.skip(toSkip);
+            if (skipped <= 0)
+            {
+                throw new EOFException(String.format("Failed to skip [%s] bytes.", count));
+            }
+
+            toSkip -= skipped;
+        }
+    }
+
+    private static void copyFully(InputStream is,
+                                  OutputStream os,
+                                  byte[] buffer,
+                                  long count)
+            throws IOException
+    {
+        long toRead = count;
+        while (toRead > 0)
+        {
+            int readLength = is.read(buffer, 0, (int) Math.min(buffer.length, toRead));
+            if (readLength == -1)
+            {
+                throw new EOFException(String.format("Failed to read [%s] bytes.", count));
+            }
+
+            os.write(buffer, 0, readLength);
+            toRead -= readLength;
+        }
+    }
+
+    static class ContentRange
+    {
+
+        private final long start;
+
+        private final long end;
+
+        ContentRange(long start,
+                     long end)
+        {
+            this.start = start;
+            this.end = end;
+        }
+
+        long getStart()
+        {
+            return start;
+        }
+
+        long getEnd()
+        {
+            return end;
+        }
+
+        long getLength()
+        {
+            return end - start + 1;
+        }
+
     }
 
 }
\ No newline at end of file
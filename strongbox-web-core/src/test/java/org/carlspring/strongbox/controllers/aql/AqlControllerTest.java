@@ -9,15 +9,24 @@ import org.carlspring.strongbox.testing.repository.MavenRepository;
 import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
 
 import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import io.restassured.module.mockmvc.response.MockMvcResponse;
+import io.restassured.response.ExtractableResponse;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 
 
 /**
@@ -39,6 +48,8 @@ public class AqlControllerTest
 
     private static final String REPOSITORY_RELEASES = "sc-releases-search";
 
+    private static final String REPOSITORY_RELEASES_CURSOR = "sc-releases-search-cursor";
+
     @Override
     @BeforeEach
     public void init()
@@ -138,6 +149,83 @@ public class AqlControllerTest
                .body("artifact", hasSize(6));
     }
 
+    @Test
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    public void testSearchWithCursor(@MavenRepository(storageId = STORAGE_SC_TEST,
+                                                      repositoryId = REPOSITORY_RELEASES_CURSOR)
+                                     Repository repository,
+                                     @MavenTestArtifact(storageId = STORAGE_SC_TEST,
+                                                        repositoryId = REPOSITORY_RELEASES_CURSOR,
+                                                        id = "org.carlspring.strongbox.cursor:cursor-test",
+                                                        versions = { "1.0", "1.1", "1.2", "1.3", "1.4",
+                                                                     "1.5", "1.6", "1.7", "1.8", "1.9",
+                                                                     "1.10", "1.11", "1.12", "1.13", "1.14" },
+                                                        bytesSize = 1024)
+                                     List<Path> artifacts)
+    {
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
+        final String query = String.format("storage:%s+repository:%s+groupId:org.carlspring.strongbox.cursor",
+                                           storageId,
+                                           repositoryId);
+
+        String url = getContextBaseUrl();
+        // 15 x (jar + pom), the first page has the 25 results of the AQL page size
+        ExtractableResponse<MockMvcResponse> firstPage = mockMvc.accept(MediaType.APPLICATION_JSON_VALUE)
+                                                                .queryParam("query", query)
+                                                                .queryParam("cursor", "")
+                                                                .when()
+                                                                .get(url)
+                                                                .then()
+                                                                .statusCode(HttpStatus.OK.value())
+                                                                .body("artifact", hasSize(25))
+                                                                .body("nextCursor", notNullValue())
+                                                                .extract();
+
+        ExtractableResponse<MockMvcResponse> secondPage = mockMvc.accept(MediaType.APPLICATION_JSON_VALUE)
+                                                                 .queryParam("query", query)
+                                                                 .queryParam("cursor", firstPage.path("nextCursor"))
+                                                                 .when()
+                                                                 .get(url)
+                                                                 .then()
+                                                                 .statusCode(HttpStatus.OK.value())
+                                                                 .body("artifact", hasSize(5))
+                                                                 .body("nextCursor", nullValue())
+                                                                 .extract();
+
+        List<String> firstPageUrls = firstPage.path("artifact.url");
+        List<String> secondPageUrls = secondPage.path("artifact.url");
+
+        // The second page continues the first one, without any overlap or gap.
+        assertThat(secondPageUrls).doesNotContainAnyElementsOf(firstPageUrls);
+
+        Set<String> allUrls = new HashSet<>(firstPageUrls);
+        allUrls.addAll(secondPageUrls);
+        assertThat(allUrls).hasSize(30);
+        for (int i = 0; i < 15; i++)
+        {
+            String version = "1." + i;
+            String fileName = String.format("/cursor-test/%s/cursor-test-%s", version, version);
+
+            assertThat(allUrls).filteredOn(u -> u.endsWith(fileName + ".jar")).hasSize(1);
+            assertThat(allUrls).filteredOn(u -> u.endsWith(fileName + ".pom")).hasSize(1);
+        }
+    }
+
+    @Test
+    public void testSearchWithInvalidCursor()
+    {
+        String url = getContextBaseUrl();
+        mockMvc.accept(MediaType.APPLICATION_JSON_VALUE)
+               .queryParam("query", "groupId:org.carlspring.strongbox.*")
+               .queryParam("cursor", "not-a-cursor")
+               .when()
+               .get(url)
+               .then()
+               .statusCode(HttpStatus.BAD_REQUEST.value());
+    }
+
     @Test
     public void testSearchInvalidMavenCoordinates()
     {
@@ -294,6 +294,76 @@ public class CronTaskControllerTest
                .expect(MockMvcResultMatchers.jsonPath("errors[0].name").value(equalTo("fields[0].value")));
     }
 
+    @Test
+    public void shouldValidateLongTypeFields()
+    {
+        CronTaskConfigurationForm cronTaskConfigurationForm = new CronTaskConfigurationForm();
+        cronTaskConfigurationForm.setJobClass(
+                CleanupExpiredArtifactsFromProxyRepositoriesCronJob.class.getName());
+        cronTaskConfigurationForm.setCronExpression("0 11 11 11 11 ? 2100");
+        cronTaskConfigurationForm.setFields(
+                Arrays.asList(CronTaskConfigurationFormField.newBuilder()
+                                                            .name("lastAccessedTimeInDays")
+                                                            .value("50")
+                                                            .build(),
+                              CronTaskConfigurationFormField.newBuilder()
+                                                            .name("maxRepositorySizeInBytes")
+                                                            .value("10GB")
+                                                            .build()));
+
+        mockMvc.contentType(MediaType.APPLICATION_JSON_VALUE)
+               .accept(MediaType.APPLICATION_JSON_VALUE)
+               .body(cronTaskConfigurationForm)
+               .when()
+               .put(getContextBaseUrl())
+               .peek()
+               .then()
+               .statusCode(HttpStatus.BAD_REQUEST.value())
+               .expect(MockMvcResultMatchers.jsonPath("errors[0].messages").value(hasItem(stringContainsInOrder(
+                       Arrays.asList(
+                               new String[]{ "Invalid value [10GB] type provided. [long] was expected." })))))
+               .expect(MockMvcResultMatchers.jsonPath("errors[0].name").value(equalTo("fields[1].value")));
+    }
+
+    @Test
+    public void longTypeFieldsShouldAcceptValuesAboveIntegerRange()
+    {
+        // 10 GiB
+        String maxRepositorySizeInBytes = String.valueOf(10L * 1024 * 1024 * 1024);
+        assertThat(Long.valueOf(maxRepositorySizeInBytes)).isGreaterThan((long) Integer.MAX_VALUE);
+
+        CronTaskConfigurationForm cronTaskConfigurationForm = new CronTaskConfigurationForm();
+        cronTaskConfigurationForm.setJobClass(
+                CleanupExpiredArtifactsFromProxyRepositoriesCronJob.class.getName());
+        cronTaskConfigurationForm.setCronExpression("0 11 11 11 11 ? 2100");
+        cronTaskConfigurationForm.setFields(
+                Arrays.asList(CronTaskConfigurationFormField.newBuilder()
+                                                            .name("lastAccessedTimeInDays")
+                                                            .value("50")
+                                                            .build(),
+                              CronTaskConfigurationFormField.newBuilder()
+                                                            .name("maxRepositorySizeInBytes")
+                                                            .value(maxRepositorySizeInBytes)
+                                                            .build()));
+
+        Headers headers = mockMvc.contentType(MediaType.APPLICATION_JSON_VALUE)
+                                 .accept(MediaType.APPLICATION_JSON_VALUE)
+                                 .body(cronTaskConfigurationForm)
+                                 .when()
+                                 .put(getContextBaseUrl())
+                                 .peek()
+                                 .then()
+                                 .statusCode(HttpStatus.OK.value())
+                                 .and()
+                                 .extract()
+                                 .headers();
+
+        UUID cronUuid = UUID.fromString(headers.getValue(HEADER_NAME_CRON_TASK_ID));
+        assertThat(cronUuid).isNotNull();
+
+        deleteConfig(cronUuid);
+    }
+
     @Test
     public void shouldNotAllowErrorMessageEvaluationVulnerability()
     {
@@ -115,6 +115,8 @@ public class MavenArtifactControllerTest
 
     private static final String REPOSITORY_SNAPSHOTS = "mact-snapshots";
 
+    private static final String REPOSITORY_RELEASES_RCSOBSFRA = "mact-releases-rcsobsfra";
+
     private static final String REPOSITORY_RELEASES_OUT_OF_SERVICE = "mact-releases-out-of-service";
 
     private static final String TEST_RESOURCES_TEMP_META_INF_MAVEN = "target/test-resources/temp/%s/META-INF/maven";
@@ -1201,6 +1203,44 @@ public class MavenArtifactControllerTest
                       .thenReturn();
     }
 
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void recordedChecksumShouldOnlyBeServedForResolvableArtifact(@MavenRepository(repositoryId = REPOSITORY_RELEASES_RCSOBSFRA)
+                                                                        Repository repository,
+                                                                        @MavenTestArtifact(repositoryId = REPOSITORY_RELEASES_RCSOBSFRA,
+                                                                                           id = "org.carlspring.strongbox.maven.test:recorded-checksum",
+                                                                                           versions = "1.0")
+                                                                        Path artifactPath)
+            throws IOException
+    {
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
+
+        String url = getContextBaseUrl() + "/storages/{storageId}/{repositoryId}/{artifactPath}";
+
+        RepositoryPath artifactRepositoryPath = (RepositoryPath) artifactPath.normalize();
+        RepositoryPath checksumRepositoryPath = artifactRepositoryPath.resolveSibling(
+                artifactRepositoryPath.getFileName().toString() + ".sha1");
+        String checksumPathStr = RepositoryFiles.relativizePath(checksumRepositoryPath);
+        String checksum = MessageDigestUtils.readChecksumFile(Files.newInputStream(checksumRepositoryPath));
+
+        mockMvc.when()
+               .get(url, storageId, repositoryId, checksumPathStr)
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .body(equalTo(checksum));
+
+        // The files are gone from the storage, but the artifact entry is still there.
+        Files.delete(checksumRepositoryPath.getTarget());
+        Files.delete(artifactRepositoryPath.getTarget());
+
+        mockMvc.when()
+               .get(url, storageId, repositoryId, checksumPathStr)
+               .then()
+               .statusCode(HttpStatus.NOT_FOUND.value());
+    }
+
     @Test
     public void testNonExistingArtifactInNonExistingDirectory()
     {
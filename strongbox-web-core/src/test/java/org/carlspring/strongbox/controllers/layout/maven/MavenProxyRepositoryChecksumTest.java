@@ -0,0 +1,145 @@
+package org.carlspring.strongbox.controllers.layout.maven;
+
+import org.carlspring.strongbox.client.CloseableRestResponse;
+import org.carlspring.strongbox.client.MutableRemoteRepositoryRetryArtifactDownloadConfiguration;
+import org.carlspring.strongbox.client.RemoteRepositoryRetryArtifactDownloadConfiguration;
+import org.carlspring.strongbox.client.RestArtifactResolver;
+import org.carlspring.strongbox.config.IntegrationTest;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.repository.proxied.RestArtifactResolverFactory;
+import org.carlspring.strongbox.rest.common.MavenRestAssuredBaseTest;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
+import org.carlspring.strongbox.testing.repository.MavenRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.storage.repository.TestRepository.Remote;
+
+import javax.inject.Inject;
+import javax.ws.rs.core.Response;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpStatus;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.equalTo;
+
+/**
+ * The checksum of a proxied artifact which is not cached yet must be fetched from the remote repository without
+ * downloading the artifact itself.
+ */
+@IntegrationTest
+@Import(MavenProxyRepositoryChecksumTest.MockedRemoteRepositoryConfig.class)
+public class MavenProxyRepositoryChecksumTest
+        extends MavenRestAssuredBaseTest
+{
+
+    private static final String REPOSITORY_PROXY = "mprct-proxy";
+
+    private static final String REMOTE_URL = "http://localhost:48080/storages/storage0/mprct-releases/";
+
+    private static final String ARTIFACT_PATH = "org/carlspring/strongbox/maven/test/proxied-checksum/1.0/" +
+                                                "proxied-checksum-1.0.jar";
+
+    private static final String CHECKSUM = "0123456789abcdef0123456789abcdef01234567";
+
+    @Inject
+    private RestArtifactResolverFactory restArtifactResolverFactory;
+
+    @Override
+    @BeforeEach
+    public void init()
+            throws Exception
+    {
+        super.init();
+    }
+
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    @Test
+    public void checksumOfNotCachedArtifactShouldNotFetchTheArtifact(@MavenRepository(repositoryId = REPOSITORY_PROXY)
+                                                                     @Remote(url = REMOTE_URL)
+                                                                     Repository proxyRepository)
+            throws Exception
+    {
+        RestArtifactResolver remote = restArtifactResolverFactory.newInstance(proxyRepository.getRemoteRepository());
+        Mockito.clearInvocations(remote);
+
+        RepositoryPath artifactPath = repositoryPathResolver.resolve(proxyRepository, ARTIFACT_PATH);
+        assertThat(RepositoryFiles.artifactDoesNotExist(artifactPath)).isTrue();
+
+        String url = getContextBaseUrl() + "/storages/{storageId}/{repositoryId}/{artifactPath}";
+
+        mockMvc.when()
+               .head(url, proxyRepository.getStorage().getId(), proxyRepository.getId(), ARTIFACT_PATH + ".sha1")
+               .then()
+               .statusCode(HttpStatus.OK.value());
+
+        mockMvc.when()
+               .get(url, proxyRepository.getStorage().getId(), proxyRepository.getId(), ARTIFACT_PATH + ".sha1")
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .body(equalTo(CHECKSUM));
+
+        Mockito.verify(remote, Mockito.atLeastOnce())
+               .get(ArgumentMatchers.endsWith(".jar.sha1"), ArgumentMatchers.anyLong());
+        Mockito.verify(remote, Mockito.never())
+               .get(ArgumentMatchers.endsWith(".jar"), ArgumentMatchers.anyLong());
+        Mockito.verify(remote, Mockito.never())
+               .get(ArgumentMatchers.endsWith(".jar"));
+
+        assertThat(RepositoryFiles.artifactDoesNotExist(artifactPath)).isTrue();
+    }
+
+    @Configuration
+    public static class MockedRemoteRepositoryConfig
+    {
+
+        @Bean
+        @Primary
+        RestArtifactResolverFactory mockedChecksumArtifactResolverFactory()
+        {
+            RestArtifactResolver artifactResolver = Mockito.mock(RestArtifactResolver.class);
+            Mockito.when(artifactResolver.get(ArgumentMatchers.any(String.class), ArgumentMatchers.anyLong()))
+                   .then(i -> remoteResponse(i.getArgument(0)));
+            Mockito.when(artifactResolver.get(ArgumentMatchers.any(String.class)))
+                   .then(i -> remoteResponse(i.getArgument(0)));
+            Mockito.when(artifactResolver.head(ArgumentMatchers.any(String.class)))
+                   .then(i -> remoteResponse(i.getArgument(0)));
+            Mockito.when(artifactResolver.getConfiguration())
+                   .then(i -> new RemoteRepositoryRetryArtifactDownloadConfiguration(
+                           new MutableRemoteRepositoryRetryArtifactDownloadConfiguration()));
+            Mockito.when(artifactResolver.isAlive()).thenReturn(true);
+
+            RestArtifactResolverFactory artifactResolverFactory = Mockito.mock(RestArtifactResolverFactory.class);
+            Mockito.when(artifactResolverFactory.newInstance(ArgumentMatchers.any(RemoteRepository.class)))
+                   .thenReturn(artifactResolver);
+
+            return artifactResolverFactory;
+        }
+
+        private static CloseableRestResponse remoteResponse(String path)
+        {
+            byte[] content = path.endsWith(".sha1") ? CHECKSUM.getBytes(StandardCharsets.UTF_8) : new byte[1024];
+
+            Response response = Mockito.mock(Response.class);
+            Mockito.when(response.getStatus()).thenReturn(200);
+            Mockito.when(response.getEntity()).then(i -> new ByteArrayInputStream(content));
+            Mockito.when(response.readEntity(InputStream.class)).then(i -> new ByteArrayInputStream(content));
+            Mockito.when(response.getHeaderString("Accept-Ranges")).thenReturn("bytes");
+
+            return new CloseableRestResponse(response);
+        }
+
+    }
+
+}
@@ -4,6 +4,7 @@ import org.carlspring.strongbox.artifact.coordinates.NpmArtifactCoordinates;
 import org.carlspring.strongbox.config.IntegrationTest;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.RemoteArtifactEntry;
+import org.carlspring.strongbox.providers.layout.NpmPackageFeedCache;
 import org.carlspring.strongbox.rest.common.NpmRestAssuredBaseTest;
 import org.carlspring.strongbox.services.ArtifactEntryService;
 import org.carlspring.strongbox.storage.repository.Repository;
@@ -16,6 +17,7 @@ import org.carlspring.strongbox.testing.storage.repository.TestRepository.Remote
 
 import javax.inject.Inject;
 import java.nio.file.Path;
+import java.util.List;
 
 import io.restassured.module.mockmvc.response.MockMvcResponse;
 import org.junit.jupiter.api.BeforeEach;
@@ -46,6 +48,8 @@ public class NpmArtifactControllerTestIT
 
     private static final String REPOSITORY_RELEASES_2 = "nactit-npm-releases-2";
 
+    private static final String REPOSITORY_RELEASES_3 = "nactit-npm-releases-3";
+
     private static final String REMOTE_URL = "https://registry.npmjs.org/";
 
     @Inject
@@ -212,6 +216,49 @@ public class NpmArtifactControllerTestIT
         assertThat(response.getContentType()).isEqualTo("multipart/byteranges; boundary=" + MULTIPART_BOUNDARY);
     }
 
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void packageFeedShouldBeRevalidatedWithETag(@NpmRepository(repositoryId = REPOSITORY_RELEASES_3)
+                                                       Repository repository,
+                                                       @NpmTestArtifact(repositoryId = REPOSITORY_RELEASES_3,
+                                                                        id = "npm-package-feed-etag",
+                                                                        versions = { "1.0.0", "1.0.1" })
+                                                       List<Path> artifactPaths)
+    {
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
+        final String packageId = "npm-package-feed-etag";
+
+        String url = getContextBaseUrl() + "/storages/{storageId}/{repositoryId}/{packageId}";
+
+        MockMvcResponse response = mockMvc.when()
+                                          .get(url, storageId, repositoryId, packageId)
+                                          .thenReturn();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.jsonPath().getMap("versions")).containsOnlyKeys("1.0.0", "1.0.1");
+
+        String eTag = response.getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).isNotBlank();
+
+        mockMvc.header(HttpHeaders.IF_NONE_MATCH, eTag)
+               .when()
+               .get(url, storageId, repositoryId, packageId)
+               .then()
+               .statusCode(HttpStatus.NOT_MODIFIED.value());
+
+        MockMvcResponse abbreviated = mockMvc.header(HttpHeaders.ACCEPT, NpmPackageFeedCache.ABBREVIATED_MEDIA_TYPE)
+                                             .when()
+                                             .get(url, storageId, repositoryId, packageId)
+                                             .thenReturn();
+
+        assertThat(abbreviated.getStatusCode()).isEqualTo(HttpStatus.OK.value());
+        assertThat(abbreviated.getContentType()).startsWith(NpmPackageFeedCache.ABBREVIATED_MEDIA_TYPE);
+        assertThat(abbreviated.getHeader(HttpHeaders.ETAG)).isNotEqualTo(eTag);
+        assertThat(abbreviated.jsonPath().getMap("versions")).containsOnlyKeys("1.0.0", "1.0.1");
+    }
+
     private MockMvcResponse getMockMvcResponseForPartialDownload(String byteRanges,
                                                                  Repository repository,
                                                                  String packageName,
@@ -14,10 +14,14 @@ import javax.inject.Inject;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.stream.Stream;
 
+import org.apache.commons.codec.digest.DigestUtils;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -54,6 +58,12 @@ class ArtifactControllerHelperTest
 
     private static final String REPOSITORY_RELEASES_8 = "acht-releases-8";
 
+    private static final String REPOSITORY_RELEASES_9 = "acht-releases-9";
+
+    private static final String REPOSITORY_RELEASES_10 = "acht-releases-10";
+
+    private static final String REPOSITORY_RELEASES_11 = "acht-releases-11";
+
     @Inject
     private ArtifactResolutionService artifactResolutionService;
 
@@ -101,6 +111,37 @@ class ArtifactControllerHelperTest
         }
     }
 
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    void handlePartialDownloadWithSingleRangeShouldTransferFileContent(@MavenRepository(repositoryId = REPOSITORY_RELEASES_9)
+                                                                       Repository repository,
+                                                                       @MavenTestArtifact(repositoryId = REPOSITORY_RELEASES_9,
+                                                                                          id = "org.carlspring.strongbox:partial-single-transfer",
+                                                                                          versions = "1.0")
+                                                                       Path artifactPath)
+            throws IOException
+    {
+        // Given
+        RepositoryPath artifactRepositoryPath = (RepositoryPath) artifactPath.normalize();
+        byte[] artifactBytes = Files.readAllBytes(artifactRepositoryPath);
+        try(InputStream is = artifactResolutionService.getInputStream(artifactRepositoryPath))
+        {
+            HttpHeaders httpHeaders = getHttpHeaders("100-");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            // When
+            ArtifactControllerHelper.handlePartialDownload(is, httpHeaders, response);
+
+            // Then
+            assertThat(response.getStatus()).isEqualTo(HttpStatus.PARTIAL_CONTENT.value());
+            assertThat(response.getHeader(HttpHeaders.CONTENT_LENGTH)).isEqualTo(String.valueOf(artifactBytes.length - 100));
+            assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(artifactBytes,
+                                                                                      100,
+                                                                                      artifactBytes.length));
+        }
+    }
+
     @ExtendWith({ RepositoryManagementTestExecutionListener.class,
                   ArtifactManagementTestExecutionListener.class })
     @Test
@@ -188,6 +229,45 @@ class ArtifactControllerHelperTest
         }
     }
 
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    void handlePartialDownloadWithMultipleRangesShouldCoalesceRanges(@MavenRepository(repositoryId = REPOSITORY_RELEASES_10)
+                                                                     Repository repository,
+                                                                     @MavenTestArtifact(repositoryId = REPOSITORY_RELEASES_10,
+                                                                                        id = "org.carlspring.strongbox:partial-multiple-coalesce",
+                                                                                        versions = "1.0")
+                                                                     Path artifactPath)
+            throws IOException
+    {
+        // Given
+        RepositoryPath artifactRepositoryPath = (RepositoryPath) artifactPath.normalize();
+        byte[] artifactBytes = Files.readAllBytes(artifactRepositoryPath);
+        try(InputStream is = artifactResolutionService.getInputStream(artifactRepositoryPath))
+        {
+            HttpHeaders httpHeaders = getHttpHeaders("30-39,0-9,5-19,20-24");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+
+            // When
+            ArtifactControllerHelper.handlePartialDownload(is, httpHeaders, response);
+
+            // Then
+            assertThat(response.getStatus()).isEqualTo(HttpStatus.PARTIAL_CONTENT.value());
+
+            byte[] content = response.getContentAsByteArray();
+            assertThat(response.getHeader(HttpHeaders.CONTENT_LENGTH)).isEqualTo(String.valueOf(content.length));
+
+            String body = new String(content, StandardCharsets.ISO_8859_1);
+            assertThat(body).contains("Content-Range: bytes 0-24/" + artifactBytes.length);
+            assertThat(body).contains("Content-Range: bytes 30-39/" + artifactBytes.length);
+            assertThat(body).doesNotContain("Content-Range: bytes 5-19/");
+            assertThat(body).contains(new String(Arrays.copyOfRange(artifactBytes, 0, 25), StandardCharsets.ISO_8859_1));
+            assertThat(body).contains(new String(Arrays.copyOfRange(artifactBytes, 30, 40), StandardCharsets.ISO_8859_1));
+            assertThat(body).endsWith("--" + MULTIPART_BOUNDARY + "--\r\n");
+        }
+    }
+
     @ExtendWith({ RepositoryManagementTestExecutionListener.class,
                   ArtifactManagementTestExecutionListener.class })
     @Test
@@ -307,6 +387,54 @@ class ArtifactControllerHelperTest
         assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
     }
 
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    void provideArtifactHeadersShouldProvideRecordedChecksums(@MavenRepository(repositoryId = REPOSITORY_RELEASES_11)
+                                                              Repository repository,
+                                                              @MavenTestArtifact(repositoryId = REPOSITORY_RELEASES_11,
+                                                                                 id = "org.carlspring.strongbox:provide-checksum-headers",
+                                                                                 versions = "1.0")
+                                                              Path artifactPath)
+            throws IOException
+    {
+        // Given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RepositoryPath artifactRepositoryPath = repositoryPathResolver.resolve(repository,
+                                                                               (RepositoryPath) artifactPath.normalize());
+        byte[] artifactBytes = Files.readAllBytes(artifactRepositoryPath);
+        String sha1 = new String(Files.readAllBytes(artifactRepositoryPath.resolveSibling(
+                artifactRepositoryPath.getFileName() + ".sha1")), StandardCharsets.UTF_8).trim();
+
+        // When
+        ArtifactControllerHelper.provideArtifactHeaders(response, artifactRepositoryPath);
+
+        // Then
+        assertThat(response.getHeader("Checksum-SHA1")).isEqualTo(sha1);
+        assertThat(response.getHeader("Checksum-MD5")).isEqualTo(DigestUtils.md5Hex(artifactBytes));
+        assertThat(response.getHeader("Checksum-SHA256")).isEqualTo(DigestUtils.sha256Hex(artifactBytes));
+        assertThat(response.getHeader("Checksum-SHA512")).isEqualTo(DigestUtils.sha512Hex(artifactBytes));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { true, false })
+    void provideChecksumResponse(boolean headersOnly)
+            throws IOException
+    {
+        // Given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        String checksum = DigestUtils.sha1Hex("checksum");
+
+        // When
+        ArtifactControllerHelper.provideChecksumResponse(response, checksum, new Date(), headersOnly);
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.getContentType()).isEqualTo(MediaType.TEXT_PLAIN_VALUE);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_LENGTH)).isEqualTo(String.valueOf(checksum.length()));
+        assertThat(response.getHeader(HttpHeaders.LAST_MODIFIED)).isNotEmpty();
+        assertThat(response.getContentAsString()).isEqualTo(headersOnly ? "" : checksum);
+    }
 
     private HttpHeaders getHttpHeaders(String byteRanges)
     {